@@ -0,0 +1,147 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.benchmarks;
+
+import org.cloudsimplus.examples.ParallelSimulationsExample;
+import org.cloudsimplus.examples.custom.MemoizingUtilizationModel;
+import org.cloudsimplus.examples.traces.PlanetLabTraceStore;
+import org.cloudsimplus.utilizationmodels.UtilizationModel;
+import org.cloudsimplus.utilizationmodels.UtilizationModelStochastic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JMH benchmark measuring how many utilization requests per second
+ * a {@link UtilizationModel} is able to answer, with and without the {@link MemoizingUtilizationModel}.
+ *
+ * <p>During a simulation, the utilization of a Cloudlet is requested many times
+ * at the same simulation instant (by schedulers, provisioners and statistics collectors).
+ * This way, each benchmark invocation advances through {@link #INSTANTS} simulation instants,
+ * requesting the utilization {@link #REQUESTS_PER_INSTANT} times at each one.
+ * The benchmarked models are the ones whose utilization is expensive to compute:
+ * a seeded {@link UtilizationModelStochastic} with history enabled (as the one used by the {@link ParallelSimulationsExample})
+ * and a PlanetLab trace model (which interpolates samples, since instants aren't multiple of the trace interval).
+ * Results are reported as utilization requests per second.</p>
+ *
+ * <p>Run it with {@code ./mvnw -P benchmarks clean package && java -jar target/benchmarks.jar UtilizationModelBenchmark -prof gc}
+ * or just run the {@link #main(String[])} method.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class UtilizationModelBenchmark {
+    /**
+     * Number of simulation instants requested at each benchmark invocation.
+     */
+    static final int INSTANTS = 1000;
+
+    /**
+     * Number of times the utilization is requested at each simulation instant.
+     */
+    static final int REQUESTS_PER_INSTANT = 10;
+
+    /**
+     * Time between consecutive simulation instants (in seconds).
+     */
+    private static final double TIME_STEP = 1.5;
+
+    private static final long SEED = 123456;
+
+    private static final String TRACE_DIR = "workload/planetlab/20110303";
+    private static final String TRACE_FILE = "75-130-96-12_static_oxfr_ma_charter_com_irisaple_wup";
+    private static final int TRACE_INTERVAL = 300;
+
+    /**
+     * The available {@link UtilizationModel}s to benchmark.
+     */
+    public enum ModelType {
+        STOCHASTIC, PLANETLAB
+    }
+
+    @Param
+    private ModelType model;
+
+    @Param({"false", "true"})
+    private boolean memoized;
+
+    private UtilizationModel utilizationModel;
+
+    public static void main(String[] args) throws RunnerException {
+        final var options =
+            new OptionsBuilder()
+                .include(UtilizationModelBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+
+    @Setup(Level.Trial)
+    public void createModel() {
+        final UtilizationModel baseModel = switch (model) {
+            case STOCHASTIC -> new UtilizationModelStochastic(SEED).setHistoryEnabled(true);
+            case PLANETLAB ->
+                PlanetLabTraceStore.shared(Path.of(TRACE_DIR), false).getUtilizationModel(TRACE_FILE, TRACE_INTERVAL);
+        };
+
+        utilizationModel = memoized ? MemoizingUtilizationModel.of(baseModel) : baseModel;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTANTS * REQUESTS_PER_INSTANT)
+    public double requestUtilization() {
+        double total = 0;
+        for (int i = 0; i < INSTANTS; i++) {
+            final double time = i * TIME_STEP;
+            for (int j = 0; j < REQUESTS_PER_INSTANT; j++) {
+                total += utilizationModel.getUtilization(time);
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.benchmarks;
+
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicy;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyBestFit;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyFirstFit;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyRoundRobin;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudsimplus.brokers.DatacenterBroker;
+import org.cloudsimplus.brokers.DatacenterBrokerSimple;
+import org.cloudsimplus.core.CloudSimPlus;
+import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.distributions.ContinuousDistribution;
+import org.cloudsimplus.distributions.UniformDistr;
+import org.cloudsimplus.examples.LargeScaleExample;
+import org.cloudsimplus.examples.RandomVmAllocationPolicyExample;
+import org.cloudsimplus.examples.VmAllocationPolicyRoundRobinExample;
+import org.cloudsimplus.examples.custom.CustomVmAllocationPolicy;
+import org.cloudsimplus.examples.custom.VmAllocationPolicyCapacityIndexed;
+import org.cloudsimplus.examples.custom.VmAllocationPolicyCapacityIndexed.FitStrategy;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.hosts.HostSimple;
+import org.cloudsimplus.power.models.PowerModelHostSimple;
+import org.cloudsimplus.resources.Pe;
+import org.cloudsimplus.resources.PeSimple;
+import org.cloudsimplus.util.Log;
+import org.cloudsimplus.vms.Vm;
+import org.cloudsimplus.vms.VmSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A JMH benchmark measuring how many VM placements per second
+ * each {@link VmAllocationPolicy} is able to perform,
+ * for Datacenters ranging from 1k Hosts up to the 200k Hosts used by the {@link LargeScaleExample}.
+ *
+ * <p>Hosts have the same configuration used by the {@link LargeScaleExample}.
+ * Before each trial, 90% of the Hosts are fully occupied by "filler" VMs,
+ * while every 10th Host is kept free.
+ * That is a more realistic scenario than an empty Datacenter,
+ * where any policy would just pick the first Hosts in the list.</p>
+ *
+ * <p>Each benchmark invocation places {@link #PLACEMENTS} new VMs,
+ * which are destroyed after the invocation finishes,
+ * so that every invocation finds the Datacenter in the same state.
+ * Results are reported as placements per second.</p>
+ *
+ * <p>Run it with {@code ./mvnw -P benchmarks clean package && java -jar target/benchmarks.jar -prof gc}
+ * or just run the {@link #main(String[])} method.
+ * The "gc.alloc.rate.norm" metric reported by the GC profiler
+ * gives the bytes allocated per operation.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class VmAllocationPolicyBenchmark {
+    /**
+     * Number of VMs placed at each benchmark invocation.
+     */
+    static final int PLACEMENTS = 100;
+
+    private static final int  HOST_PES = 16;
+    private static final int  HOST_MIPS = 1000;
+    private static final int  HOST_RAM = 2048; //in Megabytes
+    private static final long HOST_BW = 10_000; //in Megabits/s
+    private static final long HOST_STORAGE = 1_000_000; //in Megabytes
+
+    private static final int  VM_PES = HOST_PES/4;
+    private static final int  VM_RAM = HOST_RAM/4;
+    private static final long VM_BW = HOST_BW/10;
+    private static final long VM_SIZE = 10_000;
+
+    /** @see VmAllocationPolicyRoundRobinExample */
+    private static final double STATIC_POWER = 15;
+    private static final int MAX_POWER = 50;
+
+    /**
+     * Every Host whose index is multiple of this value is kept free
+     * to receive the VMs placed during the benchmark.
+     */
+    private static final int FREE_HOST_STEP = 10;
+
+    private static final long SEED = 123456;
+
+    /**
+     * The available {@link VmAllocationPolicy} to benchmark.
+     * {@link #CUSTOM} uses the default population of the {@link CustomVmAllocationPolicy},
+     * which is evaluated sequentially, while {@link #CUSTOM_PARALLEL} uses
+     * {@link CustomVmAllocationPolicy#PARALLEL_MIN_BATS}, so that the population is evaluated in parallel.
+     */
+    public enum PolicyType {
+        FIRST_FIT, BEST_FIT, SIMPLE, ROUND_ROBIN, RANDOM, CUSTOM, CUSTOM_PARALLEL,
+        INDEXED_FIRST_FIT, INDEXED_BEST_FIT, INDEXED_WORST_FIT
+    }
+
+    @Param({"1000", "10000", "50000", "100000", "200000"})
+    private int hosts;
+
+    @Param
+    private PolicyType policy;
+
+    private CloudSimPlus simulation;
+    private DatacenterBroker broker;
+    private VmAllocationPolicy allocationPolicy;
+
+    /**
+     * The VMs to be placed at the current invocation.
+     */
+    private List<Vm> vmList;
+
+    public static void main(String[] args) throws RunnerException {
+        final var options =
+            new OptionsBuilder()
+                .include(VmAllocationPolicyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+
+    @Setup(Level.Trial)
+    public void createDatacenter() {
+        Log.setLevel(ch.qos.logback.classic.Level.OFF);
+
+        simulation = new CloudSimPlus();
+        broker = new DatacenterBrokerSimple(simulation);
+
+        final var hostList = new ArrayList<Host>(hosts);
+        for (int i = 0; i < hosts; i++) {
+            hostList.add(createHost());
+        }
+
+        allocationPolicy = createAllocationPolicy();
+        new DatacenterSimple(simulation, hostList, allocationPolicy);
+        occupyHosts(hostList);
+    }
+
+    @Setup(Level.Invocation)
+    public void createVms() {
+        vmList = new ArrayList<>(PLACEMENTS);
+        for (int i = 0; i < PLACEMENTS; i++) {
+            vmList.add(createVm(VM_PES, VM_RAM, VM_BW));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void destroyVms() {
+        for (final Vm vm : vmList) {
+            if (vm.isCreated()) {
+                allocationPolicy.deallocateHostForVm(vm);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PLACEMENTS)
+    public int placeVms() {
+        int placed = 0;
+        for (final Vm vm : vmList) {
+            if (allocationPolicy.allocateHostForVm(vm).fully()) {
+                placed++;
+            }
+        }
+
+        return placed;
+    }
+
+    private VmAllocationPolicy createAllocationPolicy() {
+        return switch (policy) {
+            case FIRST_FIT -> new VmAllocationPolicyFirstFit();
+            case BEST_FIT -> new VmAllocationPolicyBestFit();
+            case SIMPLE -> new VmAllocationPolicySimple();
+            case ROUND_ROBIN -> new VmAllocationPolicyRoundRobin();
+            case RANDOM -> createRandomAllocationPolicy();
+            case CUSTOM -> new CustomVmAllocationPolicy(SEED);
+            case CUSTOM_PARALLEL -> new CustomVmAllocationPolicy(
+                SEED, CustomVmAllocationPolicy.PARALLEL_MIN_BATS, CustomVmAllocationPolicy.DEFAULT_BUDGET);
+            case INDEXED_FIRST_FIT -> new VmAllocationPolicyCapacityIndexed(FitStrategy.FIRST_FIT);
+            case INDEXED_BEST_FIT -> new VmAllocationPolicyCapacityIndexed(FitStrategy.BEST_FIT);
+            case INDEXED_WORST_FIT -> new VmAllocationPolicyCapacityIndexed(FitStrategy.WORST_FIT);
+        };
+    }
+
+    /**
+     * Creates the same policy used by the {@link RandomVmAllocationPolicyExample},
+     * but using a seed to ensure reproducible results.
+     */
+    private VmAllocationPolicy createRandomAllocationPolicy() {
+        final ContinuousDistribution random = new UniformDistr(SEED);
+        final var vmAllocationPolicy = new VmAllocationPolicySimple();
+        vmAllocationPolicy.setFindHostForVmFunction((policy, vm) -> findRandomSuitableHostForVm(policy, vm, random));
+        return vmAllocationPolicy;
+    }
+
+    private static Optional<Host> findRandomSuitableHostForVm(
+        final VmAllocationPolicy vmAllocationPolicy, final Vm vm, final ContinuousDistribution random)
+    {
+        final var hostList = vmAllocationPolicy.getHostList();
+        for (int i = 0; i < hostList.size(); i++){
+            final int randomIndex = (int)(random.sample() * hostList.size());
+            final Host host = hostList.get(randomIndex);
+            if(host.isSuitableForVm(vm)){
+                return Optional.of(host);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Places a filler VM that uses all the capacity of every Host,
+     * except the ones at each {@link #FREE_HOST_STEP} position.
+     * VMs are placed directly into the selected Host,
+     * so that the time spent here doesn't depend on the policy being benchmarked.
+     */
+    private void occupyHosts(final List<Host> hostList) {
+        for (int i = 0; i < hostList.size(); i++) {
+            if (i % FREE_HOST_STEP != 0) {
+                allocationPolicy.allocateHostForVm(createVm(HOST_PES, HOST_RAM, HOST_BW), hostList.get(i));
+            }
+        }
+    }
+
+    private Host createHost() {
+        final var peList = new ArrayList<Pe>(HOST_PES);
+        for (int i = 0; i < HOST_PES; i++) {
+            peList.add(new PeSimple(HOST_MIPS));
+        }
+
+        final var host = new HostSimple(HOST_RAM, HOST_BW, HOST_STORAGE, peList);
+        if (policy == PolicyType.CUSTOM || policy == PolicyType.CUSTOM_PARALLEL) {
+            //The CustomVmAllocationPolicy relies on power consumption to select Hosts
+            host.setPowerModel(new PowerModelHostSimple(MAX_POWER, STATIC_POWER));
+            host.enableUtilizationStats();
+        }
+
+        return host;
+    }
+
+    private Vm createVm(final int pes, final long ram, final long bw) {
+        final var vm = new VmSimple(HOST_MIPS, pes);
+        vm.setRam(ram).setBw(bw).setSize(VM_SIZE);
+        vm.setBroker(broker);
+        return vm;
+    }
+}
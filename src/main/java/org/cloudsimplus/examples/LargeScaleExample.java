@@ -32,6 +32,9 @@ import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.CompactHost;
+import org.cloudsimplus.examples.custom.PePool;
+import org.cloudsimplus.examples.performance.ParallelScenarioBuilder;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.resources.Pe;
@@ -62,8 +65,13 @@ import static org.cloudsimplus.util.TimeUtil.secondsToStr;
  * <p>Some factors that drastically impact simulation performance and memory consumption
  * is the {@link #CLOUDLETS} number and {@link #SCHEDULING_INTERVAL}.</p>
  *
+ * <p>Hosts, VMs and Cloudlets are created in parallel by a {@link ParallelScenarioBuilder},
+ * which uses all CPU cores but ensures entities have the same IDs and order
+ * they would have if created sequentially.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since ClodSimPlus 7.3.1
+ * @see org.cloudsimplus.examples.performance.ScaleRegressionRunner
  */
 public class LargeScaleExample {
     private static final int  HOSTS = 200_000;
@@ -90,12 +98,22 @@ public class LargeScaleExample {
      */
     private static final double SCHEDULING_INTERVAL = -1;
 
+    /**
+     * Indicates if {@link CompactHost}s must be created,
+     * storing the PEs of all Hosts in a single {@link PePool}.
+     * That reduces Host creation time and memory usage (mainly for Hosts whose PEs are never used by a VM),
+     * since all Hosts have the same PEs configuration.
+     * If false, a regular {@link HostSimple} is created, having a list of {@link PeSimple}.
+     */
+    private static final boolean COMPACT_HOSTS = true;
+
     private final CloudSimPlus simulation;
     private final DatacenterBroker broker0;
     private final List<Vm> vmList;
     private final List<Cloudlet> cloudletList;
     private final Datacenter datacenter0;
     private final double startSecs;
+    private final ParallelScenarioBuilder builder = new ParallelScenarioBuilder();
 
     public static void main(String[] args) {
         new LargeScaleExample();
@@ -150,12 +168,9 @@ public class LargeScaleExample {
      * Creates a Datacenter and its Hosts.
      */
     private Datacenter createDatacenter() {
-        final var hostList = new ArrayList<Host>(HOSTS);
         System.out.printf("Creating %,d Hosts%n", HOSTS);
-        for(int i = 0; i < HOSTS; i++) {
-            final var host = createHost();
-            hostList.add(host);
-        }
+        final var pePool = COMPACT_HOSTS ? new PePool(HOSTS, HOST_PES, HOST_MIPS) : null;
+        final var hostList = builder.createHosts(HOSTS, i -> COMPACT_HOSTS ? createCompactHost(pePool, i) : createHost());
 
         var dc = new DatacenterSimple(simulation, hostList, new VmAllocationPolicyFirstFit());
         dc.setSchedulingInterval(SCHEDULING_INTERVAL);
@@ -177,38 +192,41 @@ public class LargeScaleExample {
         return new HostSimple(HOST_RAM, HOST_BW, HOST_STORAGE, peList);
     }
 
+    /**
+     * Creates a Host whose PEs are stored inside a given pool,
+     * shared by all Hosts.
+     * @param pePool the pool to store Host PEs
+     * @param index the Host index
+     */
+    private Host createCompactHost(final PePool pePool, final int index) {
+        return new CompactHost(pePool, index, HOST_RAM, HOST_BW, HOST_STORAGE);
+    }
+
     /**
      * Creates a list of VMs.
      */
     private List<Vm> createVms() {
-        final var vmList = new ArrayList<Vm>(VMS);
         System.out.printf("Creating %,d VMs%n", VMS);
-        for (int i = 0; i < VMS; i++) {
+        return builder.createVms(VMS, i -> {
             //Uses a CloudletSchedulerTimeShared by default to schedule Cloudlets
             final var vm = new VmSimple(HOST_MIPS, VM_PES);
             vm.setRam(512).setBw(1000).setSize(10_000);
-            vmList.add(vm);
-        }
-
-        return vmList;
+            return vm;
+        });
     }
 
     /**
      * Creates a list of Cloudlets.
      */
     private List<Cloudlet> createCloudlets() {
-        final var cloudletList = new ArrayList<Cloudlet>(CLOUDLETS);
-
         //UtilizationModel defining the Cloudlets use only 50% of any resource all the time
         final var utilizationModel = new UtilizationModelDynamic(0.5);
 
         System.out.printf("Creating %,d Cloudlets%n", CLOUDLETS);
-        for (int i = 0; i < CLOUDLETS; i++) {
+        return builder.createCloudlets(CLOUDLETS, i -> {
             final var cloudlet = new CloudletSimple(CLOUDLET_LENGTH, CLOUDLET_PES, utilizationModel);
             cloudlet.setSizes(1024);
-            cloudletList.add(cloudlet);
-        }
-
-        return cloudletList;
+            return cloudlet;
+        });
     }
 }
@@ -31,6 +31,7 @@ import org.cloudsimplus.cloudlets.Cloudlet;
 import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.MemoizingUtilizationModel;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.provisioners.ResourceProvisionerSimple;
@@ -40,11 +41,12 @@ import org.cloudsimplus.schedulers.cloudlet.CloudletSchedulerTimeShared;
 import org.cloudsimplus.schedulers.vm.VmSchedulerTimeShared;
 import org.cloudsimplus.util.Log;
 import org.cloudsimplus.utilizationmodels.UtilizationModelDynamic;
-import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
+import org.cloudsimplus.utilizationmodels.UtilizationModelStochastic;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -67,10 +69,26 @@ import java.util.List;
  * All simulation attributes must be instance attributes and one
  * simulation run (a simulation instance) should not share data with other ones.</p>
  *
+ * <p>Cloudlets use a seeded {@link UtilizationModelStochastic} for CPU,
+ * so that each simulation is reproducible, even when running in parallel.
+ * Since Cloudlet utilization models are requested many times at the same simulation instant,
+ * each simulation enables a per-instant cache for all of them,
+ * using {@link MemoizingUtilizationModel#memoizeAll(Collection)}.
+ * That way, the random utilization for a given time is got from the model just once,
+ * instead of being looked up again at every request.
+ * Each model instance has its own cache, so simulations running in parallel don't share any state.
+ * The {@code UtilizationModelBenchmark} in the {@code src/jmh/java} directory measures the gain.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 1.0
  */
 public class ParallelSimulationsExample implements Runnable {
+    /**
+     * Base seed for the CPU utilization model of each Cloudlet
+     * (which uses the seed plus the Cloudlet id).
+     */
+    private static final long SEED = 1234;
+
     private final String title;
     private final CloudSimPlus simulation;
     private DatacenterBroker broker;
@@ -209,9 +227,8 @@ public class ParallelSimulationsExample implements Runnable {
         final long outputSize = 300; //Size (in bytes) after execution
         final int  pesNumber = 1;
 
-        // Defines how CPU, RAM and Bandwidth resources are used.
-        // Sets the same utilization model for all these resources.
-        final var utilizationModelFull = new UtilizationModelFull();
+        // Defines how CPU is used: a random utilization, generated again whenever the simulation time changes.
+        final var utilizationModelCpu = new UtilizationModelStochastic(SEED + id);
 
         /* A utilization model for RAM and BW that uses only a fraction of the resource capacity all the time.
         * If there are 10 cloudlets for a VM, each Cloudlet will use 10% (0.1) of the VM resource capacity. */
@@ -220,7 +237,7 @@ public class ParallelSimulationsExample implements Runnable {
         return new CloudletSimple(id, length, pesNumber)
                 .setFileSize(fileSize)
                 .setOutputSize(outputSize)
-                .setUtilizationModelCpu(utilizationModelFull)
+                .setUtilizationModelCpu(utilizationModelCpu)
                 .setUtilizationModelBw(utilizationModelDynamic)
                 .setUtilizationModelRam(utilizationModelDynamic);
     }
@@ -238,6 +255,7 @@ public class ParallelSimulationsExample implements Runnable {
 
         createVms();
         createCloudlets();
+        MemoizingUtilizationModel.memoizeAll(cloudletList);
 
         broker.submitCloudletList(cloudletList);
 
@@ -142,7 +142,7 @@ public class VmAllocationPolicyRoundRobinExample {
             hostList.add(host);
         }
 
-        return new DatacenterSimple(simulation, hostList, new CustomVmAllocationPolicy(hostList));
+        return new DatacenterSimple(simulation, hostList, new CustomVmAllocationPolicy());
     }
     // private Optional<Host> batAlgoBased(VmAllocationPolicy allocationPolicy, Vm vm) {
     //     for (Host host : allocationPolicy.getHostList()) {
@@ -23,6 +23,7 @@
  */
 package org.cloudsimplus.examples.brokers;
 
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicy;
 import org.cloudsimplus.allocationpolicies.VmAllocationPolicyBatchPlacementUnderloadedHosts;
 import org.cloudsimplus.brokers.DatacenterBroker;
 import org.cloudsimplus.brokers.DatacenterBrokerSimple;
@@ -33,6 +34,7 @@ import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.core.Identifiable;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.VmAllocationPolicyBatchFitDecreasing;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.listeners.EventInfo;
@@ -52,9 +54,12 @@ import static java.util.stream.Collectors.joining;
  * An example showing how to enable a {@link DatacenterBroker} to
  * request creation of a Vm List in batch, instead of in a one-by-one basis.
  * It can use any {@link org.cloudsimplus.allocationpolicies.VmAllocationPolicy}
- * but it uses the {@link VmAllocationPolicyBatchPlacementUnderloadedHosts}
- * as an example.
- * Check {@link DatacenterBroker#setBatchVmCreation(boolean)}
+ * but it uses the {@link VmAllocationPolicyBatchFitDecreasing} as an example,
+ * which places the whole batch from the largest to the smallest VM.
+ * That way, all VMs fit into the Hosts, while placing them in the order they are submitted
+ * leaves no Host with enough free PEs for the last VM.
+ * Set {@link #BATCH_FIT_DECREASING} to false to use the {@link VmAllocationPolicyBatchPlacementUnderloadedHosts} instead.
+ * Check {@link DatacenterBroker#setBatchVmCreation(boolean)}.
  *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 8.5.0
@@ -67,8 +72,15 @@ public class DatacenterBrokerBatchVmCreationRequestExample {
     private static final long HOST_BW = 10_000; //in Megabits/s
     private static final long HOST_STORAGE = 1_000_000; //in Megabytes
 
-    private static final int VMS = 2;
-    private static final int VM_PES = 4;
+    /**
+     * Number of PEs of each VM submitted in a batch.
+     */
+    private static final int[] VM_PES = {4, 2, 6, 4};
+
+    /**
+     * Indicates if the {@link VmAllocationPolicyBatchFitDecreasing} is used to place VMs.
+     */
+    private static final boolean BATCH_FIT_DECREASING = true;
 
     private static final int CLOUDLET_PES = 2;
     private static final int CLOUDLET_LENGTH = 10_000; // Milion Instructions (MI)
@@ -156,7 +168,9 @@ public class DatacenterBrokerBatchVmCreationRequestExample {
             hostList.add(host);
         }
 
-        final var vmAllocationPolicy = new VmAllocationPolicyBatchPlacementUnderloadedHosts(new VmSelectionPolicyMinimumUtilization());
+        final VmAllocationPolicy vmAllocationPolicy = BATCH_FIT_DECREASING ?
+                                                          new VmAllocationPolicyBatchFitDecreasing() :
+                                                          new VmAllocationPolicyBatchPlacementUnderloadedHosts(new VmSelectionPolicyMinimumUtilization());
         final var dc = new DatacenterSimple(simulation, hostList, vmAllocationPolicy);
         dc.setSchedulingInterval(SCHEDULING_INTERVAL);
         return dc;
@@ -178,10 +192,10 @@ public class DatacenterBrokerBatchVmCreationRequestExample {
     }
 
     private ArrayList<Vm> createAndSubmitVms() {
-        final var newVms = new ArrayList<Vm>(VMS);
-        for (int i = 0; i < VMS; i++) {
+        final var newVms = new ArrayList<Vm>(VM_PES.length);
+        for (final int pes : VM_PES) {
             //Uses a CloudletSchedulerTimeShared by default to schedule Cloudlets
-            final var vm = new VmSimple(HOST_MIPS, VM_PES);
+            final var vm = new VmSimple(HOST_MIPS, pes);
             vm.setRam(512).setBw(1000).setSize(10_000);
             newVms.add(vm);
         }
@@ -0,0 +1,82 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.hosts.HostSimple;
+
+/**
+ * A {@link HostSimple} for homogeneous fleets, whose PEs are stored in a shared {@link PePool}.
+ * Instead of creating one {@link org.cloudsimplus.resources.PeSimple} and one
+ * {@link org.cloudsimplus.provisioners.PeProvisionerSimple} for each PE,
+ * the PE capacity, allocation and status are stored into primitive arrays
+ * and {@link PooledPe} views are kept only after the PE list is accessed by the running simulation
+ * (views given while the Host is created are not kept).
+ * That reduces the heap used by each Host and speeds up Host creation
+ * when there are hundreds of thousands of Hosts.
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see CustomHost
+ */
+public class CompactHost extends HostSimple {
+    private final PePool pool;
+    private final int poolIndex;
+
+    /**
+     * Creates a Host whose PEs are stored in a given pool.
+     * @param pool the pool storing PEs state
+     * @param poolIndex the index of the Host inside the pool.
+     *                  Each Host sharing the same pool must have a different index.
+     * @param ramCapacity the RAM capacity in Megabytes
+     * @param bwCapacity the Bandwidth (BW) capacity in Megabits/s
+     * @param storageCapacity the storage capacity in Megabytes
+     */
+    public CompactHost(
+        final PePool pool, final int poolIndex,
+        final long ramCapacity, final long bwCapacity, final long storageCapacity)
+    {
+        this(pool, poolIndex, pool.newPeList(poolIndex), ramCapacity, bwCapacity, storageCapacity);
+    }
+
+    /**
+     * Creates a Host giving temporary PE views to the super constructor (which walks the whole PE list),
+     * then starts keeping the views created afterwards.
+     */
+    private CompactHost(
+        final PePool pool, final int poolIndex, final PePool.PeListView peList,
+        final long ramCapacity, final long bwCapacity, final long storageCapacity)
+    {
+        super(ramCapacity, bwCapacity, storageCapacity, peList);
+        peList.cacheViews();
+        this.pool = pool;
+        this.poolIndex = poolIndex;
+    }
+
+    public PePool getPool() {
+        return pool;
+    }
+
+    public int getPoolIndex() {
+        return poolIndex;
+    }
+}
@@ -1,5 +1,3 @@
-package org.cloudsimplus.examples.custom;
-
 /*
  * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
  * Modeling and Simulation of Cloud Computing Infrastructures and Services.
@@ -23,198 +21,438 @@ package org.cloudsimplus.examples.custom;
  *     You should have received a copy of the GNU General Public License
  *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
  */
-// import org.cloudsimplus.allocationpolicies;
+package org.cloudsimplus.examples.custom;
+
 import org.cloudsimplus.allocationpolicies.VmAllocationPolicy;
 import org.cloudsimplus.allocationpolicies.VmAllocationPolicyAbstract;
 import org.cloudsimplus.hosts.Host;
-import org.cloudsimplus.vms.HostResourceStats;
+import org.cloudsimplus.hosts.HostSuitability;
 import org.cloudsimplus.vms.Vm;
-import org.cloudsimplus.vms.VmSimple;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
 /**
- * A <b>Round-Robin VM allocation policy</b>
- * which finds the next Host having suitable resources to place a given VM
- * in a circular way. That means when it selects a suitable Host to place a VM,
- * it moves to the next suitable Host when a new VM has to be placed.
- * This is a high time-efficient policy with a best-case complexity O(1)
- * and a worst-case complexity O(N), where N is the number of Hosts.
+ * A {@link VmAllocationPolicy} that uses the <b>Bat Algorithm</b> metaheuristic
+ * to select a Host for each VM.
+ * Each bat position represents a candidate Host, and its fitness is given by
+ * {@link #objective(double, double, double)}, which combines the SLA violation risk,
+ * the remaining resources and the power increase of placing the VM into that Host.
+ * Lower fitness values are better.
+ *
+ * <p>At each placement round, a {@link HostStateSnapshot} with the capacity, usage and power
+ * of all Hosts is taken, so that fitness evaluation just reads primitive arrays.
+ * The fitness of the bat population is evaluated in parallel when the population
+ * has at least {@link #PARALLEL_MIN_BATS} bats.
+ * The default population of 20 bats is evaluated sequentially,
+ * so a larger population must be given to the constructor to use the parallel evaluation
+ * (as in the CUSTOM_PARALLEL case of the VmAllocationPolicyBenchmark).
+ * Each bat has its own {@link SplittableRandom} stream, split from a root stream
+ * created from the policy seed, and only updates its own state during an iteration.
+ * That way, results for a given seed are the same
+ * whether the population is evaluated sequentially or in parallel.</p>
  *
- * <p>
- *     <b>NOTES:</b>
- *     <ul>
- *         <li>This policy doesn't perform optimization of VM allocation by means of VM migration.</li>
- *         <li>It has a low computational complexity (high time-efficient) but may return
- *         and inactive Host that will be activated, while there may be active Hosts
- *         suitable for the VM.</li>
- *         <li>Despite the low computational complexity, such a policy will increase the number of active Hosts,
- *         that increases power consumption.</li>
- *     </ul>
- * </p>
+ * <p>It's an <i>anytime</i> algorithm: the search for each VM stops when the {@link PlacementBudget}
+ * is exhausted, returning the best Host found so far.
+ * Since Hosts state changes incrementally between placements,
+ * by default the population is warm-started from the one of the previous placement:
+ * bats keep their positions, while bats at Hosts that cannot fit the new VM restart at random positions.
+ * Likewise, the snapshot is just refreshed for Hosts that had VMs placed or removed through this policy
+ * since the previous placement (or entirely if Hosts are added to the Datacenter).</p>
  *
- * @author Manoel Campos da Silva Filho
- * @since CloudSim Plus 4.4.2
+ * <p>If the best bat found doesn't represent a suitable Host,
+ * the first suitable Host in the list is selected.</p>
+ *
+ * @since CloudSim Plus 8.5.1
  */
-public class CustomVmAllocationPolicy extends VmAllocationPolicyAbstract implements VmAllocationPolicy {
-    /**
-     * The index of the last host used to place a VM.
-     */
-    private int lastHostIndex;
-    private List<Host> hostlList;
-
-    
-	private double[][] POP_SOL_DIST; 		// Population/Solution (BATS x SOL_SIZE) 
-	private double[][] V; 		// Velocities (BATS x SOL_SIZE)
-	private double[][] FRE; 	// Frequency : 0 to F_MAX (BATS x 1)
-	private double[] FIT;		// Fitness (BATS)
-	private double PR; 			// Pulse Rate : 0 to 1
-	private double L; 			// Louadness : L_MIN to L_MAX
-	private double[][] lb;		// Lower bound (1 x SOL_SIZE)
-	private double[][] ub;		// Upper bound (1 x SOL_SIZE)
-	private double fmin; 		// Minimum fitness from FIT
- 	private double[] BEST;			// Best solution array from POP_SOL_DIST (SOL_SIZE)	
-
-	private final int BATS; 		// Number of bats
-	private final int MAX; 		// Number of iterations
-	private final double F_MIN = 0.0;
-	private final double F_MAX = 2.0;
-	private final double L_MIN;
-	private final double L_MAX;
-	private final double PR_MIN;
-	private final double PR_MAX; 
-	private final int SOL_SIZE = 10;
-	
-	private final Random rand = new Random();
+public class CustomVmAllocationPolicy extends VmAllocationPolicyAbstract {
+    /**
+     * Minimum number of bats to evaluate the population in parallel.
+     * For smaller populations (including the default one), the overhead of splitting the work among threads
+     * at every iteration is higher than the time spent evaluating the fitness.
+     */
+    public static final int PARALLEL_MIN_BATS = 64;
+
+    /**
+     * The default budget for each placement, which keeps results reproducible.
+     */
+    public static final PlacementBudget DEFAULT_BUDGET = PlacementBudget.ofIterations(1000);
+
+    private static final long DEFAULT_SEED = 0;
+    private static final int DEFAULT_BATS = 20;
+
+    private static final double F_MIN = 0.0;
+    private static final double F_MAX = 2.0;
+
+    /** Loudness reduction factor. */
+    private static final double ALPHA = 0.9;
+
+    /** Pulse rate increase factor. */
+    private static final double GAMMA = 0.9;
+
+    /**
+     * CPU utilization above which the SLA is considered at risk.
+     */
+    private static final double SLA_CPU_THRESHOLD = 0.8;
+
+    private static final double SLA_WEIGHT = 0.1;
+    private static final double RESOURCES_WEIGHT = 0.8;
+    private static final double POWER_WEIGHT = 0.1;
+
+    private final int bats;
+    private final SplittableRandom random;
+    private PlacementBudget budget;
+    private boolean warmStart;
+
+    /**
+     * Indicates if the population was initialized by a previous placement,
+     * so that it can be used to warm-start the next one.
+     */
+    private boolean populationInitialized;
+
+    private final HostStateSnapshot snapshot = new HostStateSnapshot();
+    private final Map<Host, Integer> snapshotPositions = new IdentityHashMap<>();
+
+    /** Hosts changed since the last time the {@link #snapshot} was refreshed. */
+    private final Set<Host> changedHosts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** Position of each bat, which is mapped to a Host index. */
+    private final double[] positions;
+    private final double[] velocities;
+    private final double[] fitness;
+    private final double[] loudness;
+    private final double[] pulseRates;
+    private final SplittableRandom[] batRandoms;
+
+    /**
+     * Creates a policy with 20 bats and the {@link #DEFAULT_BUDGET},
+     * using a default seed.
+     */
+    public CustomVmAllocationPolicy() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * Creates a policy with 20 bats and the {@link #DEFAULT_BUDGET}.
+     * @param seed the seed for the random number generators
+     */
+    public CustomVmAllocationPolicy(final long seed) {
+        this(seed, DEFAULT_BATS, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a policy.
+     * @param seed the seed for the random number generators
+     * @param bats number of bats in the population
+     * @param budget the budget to select a Host for each VM
+     */
+    public CustomVmAllocationPolicy(final long seed, final int bats, final PlacementBudget budget) {
+        super();
+        if (bats <= 0) {
+            throw new IllegalArgumentException("The number of bats must be positive");
+        }
+
+        this.bats = bats;
+        this.budget = requireNonNull(budget);
+        this.warmStart = true;
+        this.random = new SplittableRandom(seed);
+        this.positions = new double[bats];
+        this.velocities = new double[bats];
+        this.fitness = new double[bats];
+        this.loudness = new double[bats];
+        this.pulseRates = new double[bats];
+        this.batRandoms = new SplittableRandom[bats];
+    }
+
+    public PlacementBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the budget to select a Host for each VM.
+     * @param budget the budget to set
+     * @return this policy
+     */
+    public CustomVmAllocationPolicy setBudget(final PlacementBudget budget) {
+        this.budget = requireNonNull(budget);
+        return this;
+    }
+
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    /**
+     * Sets if the population is warm-started from the one of the previous placement,
+     * instead of being randomly initialized for every VM.
+     * @param warmStart true to enable warm-start, false to disable
+     * @return this policy
+     */
+    public CustomVmAllocationPolicy setWarmStart(final boolean warmStart) {
+        this.warmStart = warmStart;
+        return this;
+    }
 
     @Override
     protected Optional<Host> defaultFindHostForVm(final Vm vm) {
         final var hostList = getHostList();
-        /* The for loop just defines the maximum number of Hosts to try.
-         * When a suitable Host is found, the method returns immediately. */
-        final int maxTries = hostList.size();
-        for (Host host : hostlList) {
-            final HostResourceStats cpuStats = host.getCpuUtilizationStats();
-            
-            final double utilizationPercentMean = cpuStats.getMean();
-            
-            final double watts = host.getPowerModel().getPower(utilizationPercentMean);
-            // System.err.println(utilizationPercentMean);
-            // System.err.println(host.getBw());
-            // System.err.println(host.getRam());
-        } 
-        for (int i = 0; i < maxTries; i++) {
-            final var host = hostList.get(lastHostIndex);
-            //Different from the FirstFit policy, it always increments the host index.
-            lastHostIndex = ++lastHostIndex % hostList.size();
-            // host.getResource(null)
-            // System.err.println(host.getBwUtilization());
-            int bw = extractUsedAndTotal(host.getBw().toString())[0];
-
-            int ram = extractUsedAndTotal(host.getRam().toString())[0];
-            // System.err.println(host.getRam());
-            // System.err.println(host.getCpuPercentRequested());
-            // System.err.println(host.getPowerModel().getPower());
-            // System.err.println(host.getCpuMipsUtilization());
-            // System.err.println(host.getVmList().size());
-            
+        if (hostList.isEmpty()) {
+            return Optional.empty();
+        }
+
+        refreshSnapshot(hostList);
+        final var placement = new Placement(vm);
+        final int best = runBatAlgorithm(placement);
+        if (Double.isFinite(fitness[best])) {
+            final Host host = hostList.get(placement.hostIndex(positions[best]));
             if (host.isSuitableForVm(vm)) {
                 return Optional.of(host);
             }
+
+            //The Host state may have changed without the policy being notified
+            changedHosts.add(host);
+        }
+
+        return findFirstSuitableHost(vm, placement);
+    }
+
+    @Override
+    public HostSuitability allocateHostForVm(final Vm vm, final Host host) {
+        final var suitability = super.allocateHostForVm(vm, host);
+        changedHosts.add(host);
+        return suitability;
+    }
+
+    @Override
+    public void deallocateHostForVm(final Vm vm) {
+        final Host host = vm.getHost();
+        super.deallocateHostForVm(vm);
+        changedHosts.add(host);
+    }
+
+    /**
+     * Refreshes the snapshot for the Hosts changed since the last refresh,
+     * or for all Hosts if the Host list has changed.
+     */
+    private void refreshSnapshot(final List<Host> hostList) {
+        if (snapshotPositions.size() != hostList.size()) {
+            snapshot.refresh(hostList);
+            snapshotPositions.clear();
+            for (int i = 0; i < hostList.size(); i++) {
+                snapshotPositions.put(hostList.get(i), i);
+            }
+
+            //Bat positions may be out of the Host list bounds
+            populationInitialized = false;
+        } else {
+            for (final Host host : changedHosts) {
+                final Integer pos = snapshotPositions.get(host);
+                if (pos != null) {
+                    snapshot.refresh(pos, host);
+                }
+            }
+        }
+
+        changedHosts.clear();
+    }
+
+    /**
+     * Runs the Bat Algorithm to find a Host for the VM, until the budget is exhausted.
+     * @param placement the VM being placed
+     * @return the index of the best bat
+     */
+    private int runBatAlgorithm(final Placement placement) {
+        final long startNanos = System.nanoTime();
+
+        //Each placement round splits new streams in a fixed order, keeping results reproducible
+        for (int i = 0; i < bats; i++) {
+            batRandoms[i] = random.split();
+        }
+
+        if (warmStart && populationInitialized) {
+            forEachBat(i -> restartBat(placement, i));
+        } else {
+            forEachBat(i -> initializeBat(placement, i));
+            populationInitialized = true;
+        }
+
+        int best = findBest();
+        for (int iteration = 1; !budget.isExhausted(iteration - 1, startNanos); iteration++) {
+            final double bestPosition = positions[best];
+            final double meanLoudness = meanLoudness();
+            final int currentIteration = iteration;
+            forEachBat(i -> moveBat(placement, i, bestPosition, meanLoudness, currentIteration));
+            best = findBest();
+        }
+
+        return best;
+    }
+
+    private void forEachBat(final IntConsumer action) {
+        final var stream = IntStream.range(0, bats);
+        (bats >= PARALLEL_MIN_BATS ? stream.parallel() : stream).forEach(action);
+    }
+
+    private void initializeBat(final Placement placement, final int i) {
+        final var rand = batRandoms[i];
+        positions[i] = rand.nextDouble() * snapshot.size();
+        velocities[i] = 0;
+        loudness[i] = 1;
+        pulseRates[i] = rand.nextDouble();
+        fitness[i] = placement.fitness(positions[i]);
+    }
+
+    /**
+     * Restarts a bat from its position at the previous placement,
+     * keeping its pulse rate but resetting its velocity and loudness.
+     * If the VM doesn't fit into the Host at that position, the bat is reinitialized.
+     */
+    private void restartBat(final Placement placement, final int i) {
+        fitness[i] = placement.fitness(positions[i]);
+        if (Double.isInfinite(fitness[i])) {
+            initializeBat(placement, i);
+            return;
+        }
+
+        velocities[i] = 0;
+        loudness[i] = 1;
+    }
+
+    /**
+     * Moves a bat towards the best one (global search) or around it (local search),
+     * accepting the new position if it's better and the bat is loud enough.
+     * It only changes the state of the given bat, so bats can be moved in parallel.
+     */
+    private void moveBat(
+        final Placement placement, final int i,
+        final double bestPosition, final double meanLoudness, final int iteration)
+    {
+        final var rand = batRandoms[i];
+        final double frequency = F_MIN + (F_MAX - F_MIN) * rand.nextDouble();
+        final double velocity = velocities[i] + (positions[i] - bestPosition) * frequency;
+        double candidate = placement.clamp(positions[i] + velocity);
+        if (rand.nextDouble() > pulseRates[i]) {
+            final double scale = Math.max(1, snapshot.size() * 0.01);
+            candidate = placement.clamp(bestPosition + (2 * rand.nextDouble() - 1) * meanLoudness * scale);
+        }
+
+        velocities[i] = velocity;
+        final double candidateFitness = placement.fitness(candidate);
+        if (candidateFitness <= fitness[i] && rand.nextDouble() < loudness[i]) {
+            positions[i] = candidate;
+            fitness[i] = candidateFitness;
+            loudness[i] *= ALPHA;
+            pulseRates[i] = 1 - Math.exp(-GAMMA * iteration);
+        }
+    }
+
+    /**
+     * {@return the index of the bat with the lowest fitness}
+     * Ties are broken by the bat index, so that the result doesn't depend on evaluation order.
+     */
+    private int findBest() {
+        int best = 0;
+        for (int i = 1; i < bats; i++) {
+            if (fitness[i] < fitness[best]) {
+                best = i;
+            }
+        }
+
+        return best;
+    }
+
+    private double meanLoudness() {
+        double sum = 0;
+        for (int i = 0; i < bats; i++) {
+            sum += loudness[i];
+        }
+
+        return sum / bats;
+    }
+
+    private Optional<Host> findFirstSuitableHost(final Vm vm, final Placement placement) {
+        final var hostList = getHostList();
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (placement.fits(i) && hostList.get(i).isSuitableForVm(vm)) {
+                return Optional.of(hostList.get(i));
+            }
         }
 
         return Optional.empty();
     }
-    public CustomVmAllocationPolicy(List<Host> hostList){
-        hostlList = hostList;
-        this.BATS = 20;
-		this.MAX = 100000;
-		this.PR_MAX = 1.0;
-		this.PR_MIN = 0.0;
-		this.L_MAX = 1.0;
-		this.L_MIN = 0.0;
-        this.initialize();
-    }
-    private void initialize(){
-        
-		this.POP_SOL_DIST = new double[BATS][SOL_SIZE];
-		this.V = new double[BATS][SOL_SIZE];
-		this.FRE = new double[BATS][1];
-		this.FIT = new double[BATS];
-		this.PR = (PR_MAX + PR_MIN) / 3;
-		this.L = (L_MIN + L_MAX) / 3;
-
-		// Initialize bounds
-		this.lb = new double[1][SOL_SIZE];
-		for ( int i = 0; i < SOL_SIZE; i++ ){
-			this.lb[0][i] = -2.0;
-		}
-		this.ub = new double[1][SOL_SIZE];
-		for ( int i = 0; i < SOL_SIZE; i++ ){
-			this.ub[0][i] = 2.0;
-		}
-
-		// Initialize FRE and V
-		for ( int i = 0; i < BATS; i++ ){
-			this.FRE[i][0] = 0.0;
-		}
-		for ( int i = 0; i < BATS; i++ ){
-			for ( int j = 0; j < SOL_SIZE; j++ ) {
-				this.V[i][j] = 0.0;
-			}
-		}
-
-		// Initialize POP_SOL_DIST
-		for ( int i = 0; i < BATS; i++ ){
-			for ( int j = 0; j < SOL_SIZE; j++ ){
-				this.POP_SOL_DIST[i][j] = lb[0][j] + (ub[0][j] - lb[0][j]) * rand.nextDouble(); 
-			}
-			this.FIT[i] = objective(0,POP_SOL_DIST[i],0);
-		}
-
-		// Find initial best solution
-		int fmin_i = 0;
-		for ( int i = 0; i < BATS; i++ ){
-			if ( FIT[i] < FIT[fmin_i] )
-				fmin_i = i;
-		}
-
-		// Store minimum fitness and it's index.
-		// BEST holds the best solution array[1xD]
-		this.fmin = FIT[fmin_i];
-		this.BEST = POP_SOL_DIST[fmin_i]; // (1xD)
-    }
-    private static int[] extractUsedAndTotal(String input) {
-        int[] result = new int[2];
-        Pattern pattern = Pattern.compile("used (\\d+) of (\\d+)");
-        Matcher matcher = pattern.matcher(input);
-
-        if (matcher.find()) {
-            result[0] = Integer.parseInt(matcher.group(1)); // Used value
-            result[1] = Integer.parseInt(matcher.group(2)); // Total value
-        }
-
-        return result;
-    }
-    
-    public static double objective(double sla, double[] rrr, double pc) {
-        double omega1 = 0.1;
-        double omega2 = 0.8;
-        double omega3 = 0.1;
-        if(omega1+ omega2 +omega3 > 1){
-//         You need to make sure that w1 +w2+ w3 =1
-//          So you can decide the weights accordingly
-            try {
-                throw new Exception(new Throwable());
-            } catch (Exception e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+
+    /**
+     * Computes the weighted fitness of a placement, where lower values are better.
+     * @param sla the SLA violation risk (from 0 to 1)
+     * @param rrr the ratio of resources remaining free in the Host after the placement (from 0 to 1)
+     * @param pc the power consumption increase, relative to the Host maximum power (from 0 to 1)
+     * @return the fitness value
+     */
+    public static double objective(final double sla, final double rrr, final double pc) {
+        return SLA_WEIGHT * sla + RESOURCES_WEIGHT * rrr + POWER_WEIGHT * pc;
+    }
+
+    /**
+     * The requirements of the VM being placed,
+     * used to evaluate the fitness of candidate Hosts from the {@link #snapshot}.
+     */
+    private final class Placement {
+        private final long pes;
+        private final long ram;
+        private final long bw;
+
+        private Placement(final Vm vm) {
+            this.pes = vm.getPesNumber();
+            this.ram = vm.getRam().getCapacity();
+            this.bw = vm.getBw().getCapacity();
+        }
+
+        private int hostIndex(final double position) {
+            return (int) Math.min(snapshot.size() - 1, Math.max(0, position));
+        }
+
+        private double clamp(final double position) {
+            return Math.min(Math.nextDown((double) snapshot.size()), Math.max(0, position));
+        }
+
+        private boolean fits(final int i) {
+            return snapshot.fits(i, pes, ram, bw);
+        }
+
+        /**
+         * {@return the fitness of placing the VM into the Host at a given position}
+         * or {@link Double#POSITIVE_INFINITY} if the VM doesn't fit into the Host.
+         */
+        private double fitness(final double position) {
+            final int i = hostIndex(position);
+            if (!fits(i)) {
+                return Double.POSITIVE_INFINITY;
             }
+
+            final double cpuBefore = snapshot.getCpuUtilization(i);
+            final double cpuAfter = (snapshot.getTotalPes(i) - snapshot.getFreePes(i) + pes) / (double) snapshot.getTotalPes(i);
+            final double sla = Math.max(0, cpuAfter - SLA_CPU_THRESHOLD) / (1 - SLA_CPU_THRESHOLD);
+
+            final double freeRam = (snapshot.getTotalRam(i) - snapshot.getUsedRam(i) - ram) / (double) snapshot.getTotalRam(i);
+            final double freeBw = (snapshot.getTotalBw(i) - snapshot.getUsedBw(i) - bw) / (double) snapshot.getTotalBw(i);
+            final double rrr = (1 - cpuAfter + freeRam + freeBw) / 3;
+
+            //Estimates the power after placement linearly from the current power up to the max power
+            final double maxPower = snapshot.getMaxPower(i);
+            final double power = snapshot.getPower(i);
+            final double pc = maxPower <= 0 || cpuBefore >= 1 ? 0 :
+                (maxPower - power) * (cpuAfter - cpuBefore) / (1 - cpuBefore) / maxPower;
+
+            return objective(sla, rrr, pc);
         }
-        return ((omega1* sla) +(omega2 * rrr) +(omega3* pc)) / 3  ;
     }
 }
-
@@ -0,0 +1,81 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.utilizationmodels.UtilizationModel;
+import org.cloudsimplus.utilizationmodels.UtilizationModelAbstract;
+import org.cloudsimplus.utilizationmodels.UtilizationModelStochastic;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link UtilizationModel} decorator that records the utilization given by another model
+ * into a bounded {@link UtilizationHistory}.
+ * It can be used instead of enabling the unbounded history of a {@link UtilizationModelStochastic}
+ * (or to keep the history of any other model).
+ *
+ * <p>A sample is recorded only the first time the utilization is requested for a given time,
+ * so that a model shared by multiple Cloudlets records each time just once.
+ * Samples requested for a time before the last recorded one are not recorded.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class HistoryRecordingUtilizationModel extends UtilizationModelAbstract {
+    private final UtilizationModel model;
+    private final UtilizationHistory history;
+    private double lastRecordedTime = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates a decorator to record the utilization of a given model.
+     * @param model the model to get utilization values from
+     * @param history the history where utilization values are recorded
+     */
+    public HistoryRecordingUtilizationModel(final UtilizationModel model, final UtilizationHistory history) {
+        super(requireNonNull(model).getUnit());
+        this.model = model;
+        this.history = requireNonNull(history);
+    }
+
+    @Override
+    protected double getUtilizationInternal(final double time) {
+        final double utilization = model.getUtilization(time);
+        if (time > lastRecordedTime) {
+            history.add(time, utilization);
+            lastRecordedTime = time;
+        }
+
+        return utilization;
+    }
+
+    /**
+     * {@return the decorated model}
+     */
+    public UtilizationModel getModel() {
+        return model;
+    }
+
+    public UtilizationHistory getHistory() {
+        return history;
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.hosts.Host;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A segment tree over a list of Hosts, where each node stores the maximum
+ * free PEs, RAM and BW (and the minimum free PEs) among all Hosts below it,
+ * as well as which numbers of free PEs are found below it (as a bitmask).
+ * It enables finding a Host having enough free capacity for a VM
+ * without checking every Host in the list.
+ *
+ * <p>Updating the free capacity of a Host takes O(log n), where n is the number of Hosts.
+ * Queries descend only into subtrees that may contain a Host with enough capacity
+ * for all the requested resources, which usually takes O(log n).
+ * Since the maximum capacity for each resource may come from different Hosts,
+ * there are cases where more subtrees need to be visited.</p>
+ *
+ * <p>The index stores only the capacity given by the Host resources.
+ * Any other requirement (such as the Host being active and the VM MIPS)
+ * must be checked by the caller, which can {@link #exclude(int) exclude} a Host
+ * from the next queries if it's not suitable.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see VmAllocationPolicyCapacityIndexed
+ */
+public class HostCapacityIndex {
+    /**
+     * Indicates a node doesn't have any Host with capacity for a VM.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Number of bits in the {@link #freePesMask}.
+     * The last bit represents any number of free PEs from {@code MASK_BITS - 1} up.
+     */
+    private static final int MASK_BITS = Long.SIZE;
+
+    private final List<? extends Host> hostList;
+
+    /**
+     * An open-addressing hash table (with linear probing) mapping Host IDs to their positions in the list,
+     * used only for Hosts whose ID is not their position.
+     * {@link #slotPositions} stores the position plus 1, so that 0 indicates an empty slot.
+     */
+    private final long[] slotIds;
+    private final int[] slotPositions;
+
+    /**
+     * Number of Hosts in the list when the index was built.
+     */
+    private final int size;
+
+    /**
+     * Number of leaves in the tree (the smallest power of 2 greater than or equal to the number of Hosts).
+     */
+    private final int leaves;
+
+    private final int[] maxFreePes;
+    private final int[] minFreePes;
+    private final long[] maxFreeRam;
+    private final long[] maxFreeBw;
+
+    /**
+     * For each node, the bit i is set if some Host below it has i free PEs
+     * (or at least i free PEs for the last bit).
+     */
+    private final long[] freePesMask;
+
+    /**
+     * Creates an index for a list of Hosts, reading the current free capacity of each one.
+     * @param hostList the Hosts to index
+     */
+    public HostCapacityIndex(final List<? extends Host> hostList) {
+        this.hostList = hostList;
+        this.size = hostList.size();
+        this.slotIds = new long[Math.max(2, Integer.highestOneBit(Math.max(1, size)) << 2)];
+        this.slotPositions = new int[slotIds.length];
+        this.leaves = Math.max(1, Integer.highestOneBit(Math.max(1, hostList.size() - 1)) << 1);
+        this.maxFreePes = new int[2 * leaves];
+        this.minFreePes = new int[2 * leaves];
+        this.maxFreeRam = new long[2 * leaves];
+        this.maxFreeBw = new long[2 * leaves];
+        this.freePesMask = new long[2 * leaves];
+
+        Arrays.fill(maxFreePes, -1);
+        Arrays.fill(minFreePes, Integer.MAX_VALUE);
+        Arrays.fill(maxFreeRam, -1);
+        Arrays.fill(maxFreeBw, -1);
+        for (int i = 0; i < size; i++) {
+            final Host host = hostList.get(i);
+            if (host.getId() != i) {
+                addSlot(host.getId(), i);
+            }
+
+            setLeaf(i, host);
+        }
+
+        for (int node = leaves - 1; node > 0; node--) {
+            pull(node);
+        }
+    }
+
+    /**
+     * {@return the number of indexed Hosts}
+     * If Hosts are added to the list after the index is created, they are not indexed.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reads the current free capacity of a Host and updates the index accordingly.
+     * @param host the Host to update
+     * @return true if the Host is indexed, false otherwise
+     */
+    public boolean update(final Host host) {
+        final int pos = positionOf(host);
+        if (pos == NOT_FOUND) {
+            return false;
+        }
+
+        update(pos);
+        return true;
+    }
+
+    /**
+     * {@return the position of a Host in the indexed list} or {@link #NOT_FOUND} if it isn't indexed.
+     * Hosts usually have their position as ID, otherwise they're found in the hash table.
+     * @param host the Host to get the position
+     */
+    private int positionOf(final Host host) {
+        final long id = host.getId();
+        if (id >= 0 && id < size && hostList.get((int) id) == host) {
+            return (int) id;
+        }
+
+        final int mask = slotIds.length - 1;
+        for (int slot = hash(id) & mask; slotPositions[slot] != 0; slot = (slot + 1) & mask) {
+            final int pos = slotPositions[slot] - 1;
+            if (slotIds[slot] == id && hostList.get(pos) == host) {
+                return pos;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private void addSlot(final long id, final int pos) {
+        final int mask = slotIds.length - 1;
+        int slot = hash(id) & mask;
+        while (slotPositions[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        slotIds[slot] = id;
+        slotPositions[slot] = pos + 1;
+    }
+
+    /**
+     * Spreads ID bits (using the SplitMix64 finalizer), since IDs are usually sequential.
+     */
+    private static int hash(final long id) {
+        long h = id;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return (int) (h ^ (h >>> 31));
+    }
+
+    /**
+     * Reads the current free capacity of the Host at a given position and updates the index accordingly.
+     * @param pos the position of the Host in the indexed list
+     */
+    public void update(final int pos) {
+        setLeaf(pos, hostList.get(pos));
+        propagate(pos);
+    }
+
+    /**
+     * Temporarily excludes a Host from the next queries, until it is {@link #update(int) updated} again.
+     * @param pos the position of the Host in the indexed list
+     */
+    public void exclude(final int pos) {
+        final int leaf = leaves + pos;
+        maxFreePes[leaf] = -1;
+        minFreePes[leaf] = Integer.MAX_VALUE;
+        maxFreeRam[leaf] = -1;
+        maxFreeBw[leaf] = -1;
+        freePesMask[leaf] = 0;
+        propagate(pos);
+    }
+
+    /**
+     * {@return the Host at a given position in the indexed list}
+     * @param pos the Host position
+     */
+    public Host getHost(final int pos) {
+        return hostList.get(pos);
+    }
+
+    /**
+     * Finds the first Host (in the list order) having at least the given free capacity.
+     * @param pes required free PEs
+     * @param ram required free RAM
+     * @param bw required free BW
+     * @return the position of the Host found or {@link #NOT_FOUND}
+     */
+    public int firstFit(final long pes, final long ram, final long bw) {
+        return firstFit(1, pes, ram, bw);
+    }
+
+    private int firstFit(final int node, final long pes, final long ram, final long bw) {
+        if (!fits(node, pes, ram, bw)) {
+            return NOT_FOUND;
+        }
+
+        if (node >= leaves) {
+            return node - leaves;
+        }
+
+        final int pos = firstFit(2 * node, pes, ram, bw);
+        return pos == NOT_FOUND ? firstFit(2 * node + 1, pes, ram, bw) : pos;
+    }
+
+    /**
+     * Finds the Host having the fewest free PEs, among those having at least the given free capacity.
+     * Ties are broken by the Host position in the list.
+     *
+     * <p>Each number of free PEs found in the index (from the requested PEs up) is tried in increasing order,
+     * descending only into subtrees having Hosts with that exact number of free PEs and enough RAM and BW.
+     * That way, the search doesn't visit every Host with the same number of free PEs
+     * (as it happens in homogeneous fleets).</p>
+     * @param pes required free PEs
+     * @param ram required free RAM
+     * @param bw required free BW
+     * @return the position of the Host found or {@link #NOT_FOUND}
+     */
+    public int bestFit(final long pes, final long ram, final long bw) {
+        long freePesValues = freePesMask[1] & (-1L << Math.min(Math.max(pes, 0), MASK_BITS - 1));
+        while (freePesValues != 0) {
+            final int freePes = Long.numberOfTrailingZeros(freePesValues);
+            final int pos = freePes < MASK_BITS - 1 ?
+                                firstWithFreePes(1, freePes, ram, bw) :
+                                bestFitAboveMask(Math.max(pes, freePes), ram, bw);
+            if (pos != NOT_FOUND) {
+                return pos;
+            }
+
+            freePesValues &= freePesValues - 1;
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Finds the first Host (in the list order) having exactly the given free PEs
+     * and at least the given free RAM and BW.
+     */
+    private int firstWithFreePes(final int node, final int freePes, final long ram, final long bw) {
+        if ((freePesMask[node] & (1L << freePes)) == 0 || maxFreeRam[node] < ram || maxFreeBw[node] < bw) {
+            return NOT_FOUND;
+        }
+
+        if (node >= leaves) {
+            return node - leaves;
+        }
+
+        final int pos = firstWithFreePes(2 * node, freePes, ram, bw);
+        return pos == NOT_FOUND ? firstWithFreePes(2 * node + 1, freePes, ram, bw) : pos;
+    }
+
+    /**
+     * Finds the Host having the fewest free PEs among those having more free PEs than the mask can represent,
+     * pruning subtrees by their minimum free PEs.
+     */
+    private int bestFitAboveMask(final long pes, final long ram, final long bw) {
+        final var best = new Candidate(Integer.MAX_VALUE);
+        bestFit(1, pes, ram, bw, best);
+        return best.pos;
+    }
+
+    private void bestFit(final int node, final long pes, final long ram, final long bw, final Candidate best) {
+        /* Subtrees without Hosts above the mask range (whose last bit is the sign bit) are pruned.
+         * The Host with the fewest free PEs in this subtree cannot have less than the requested PEs.
+         * If such a lower bound isn't better than the best Host found, the subtree is pruned too. */
+        if (!fits(node, pes, ram, bw) || freePesMask[node] >= 0 || Math.max(minFreePes[node], pes) >= best.freePes) {
+            return;
+        }
+
+        if (node >= leaves) {
+            best.set(node - leaves, maxFreePes[node]);
+            return;
+        }
+
+        final int left = 2 * node;
+        final int right = left + 1;
+        if (minFreePes[right] < minFreePes[left]) {
+            bestFit(right, pes, ram, bw, best);
+            bestFit(left, pes, ram, bw, best);
+        } else {
+            bestFit(left, pes, ram, bw, best);
+            bestFit(right, pes, ram, bw, best);
+        }
+    }
+
+    /**
+     * Finds the Host having the most free PEs, among those having at least the given free capacity.
+     * Ties are broken by the Host position in the list.
+     * @param pes required free PEs
+     * @param ram required free RAM
+     * @param bw required free BW
+     * @return the position of the Host found or {@link #NOT_FOUND}
+     */
+    public int worstFit(final long pes, final long ram, final long bw) {
+        final var best = new Candidate(-1);
+        worstFit(1, pes, ram, bw, best);
+        return best.pos;
+    }
+
+    private void worstFit(final int node, final long pes, final long ram, final long bw, final Candidate best) {
+        if (!fits(node, pes, ram, bw) || maxFreePes[node] <= best.freePes) {
+            return;
+        }
+
+        if (node >= leaves) {
+            best.set(node - leaves, maxFreePes[node]);
+            return;
+        }
+
+        final int left = 2 * node;
+        final int right = left + 1;
+        if (maxFreePes[right] > maxFreePes[left]) {
+            worstFit(right, pes, ram, bw, best);
+            worstFit(left, pes, ram, bw, best);
+        } else {
+            worstFit(left, pes, ram, bw, best);
+            worstFit(right, pes, ram, bw, best);
+        }
+    }
+
+    private boolean fits(final int node, final long pes, final long ram, final long bw) {
+        return maxFreePes[node] >= pes && maxFreeRam[node] >= ram && maxFreeBw[node] >= bw;
+    }
+
+    private void setLeaf(final int pos, final Host host) {
+        final int leaf = leaves + pos;
+        final int freePes = host.getFreePesNumber();
+        maxFreePes[leaf] = freePes;
+        minFreePes[leaf] = freePes;
+        maxFreeRam[leaf] = host.getRam().getAvailableResource();
+        maxFreeBw[leaf] = host.getBw().getAvailableResource();
+        freePesMask[leaf] = 1L << Math.min(freePes, MASK_BITS - 1);
+    }
+
+    private void propagate(final int pos) {
+        for (int node = (leaves + pos) >> 1; node > 0; node >>= 1) {
+            pull(node);
+        }
+    }
+
+    private void pull(final int node) {
+        final int left = 2 * node;
+        final int right = left + 1;
+        maxFreePes[node] = Math.max(maxFreePes[left], maxFreePes[right]);
+        minFreePes[node] = Math.min(minFreePes[left], minFreePes[right]);
+        maxFreeRam[node] = Math.max(maxFreeRam[left], maxFreeRam[right]);
+        maxFreeBw[node] = Math.max(maxFreeBw[left], maxFreeBw[right]);
+        freePesMask[node] = freePesMask[left] | freePesMask[right];
+    }
+
+    /**
+     * The best Host found so far during a search.
+     */
+    private static final class Candidate {
+        private int pos = NOT_FOUND;
+        private int freePes;
+
+        private Candidate(final int freePes) {
+            this.freePes = freePes;
+        }
+
+        private void set(final int pos, final int freePes) {
+            this.pos = pos;
+            this.freePes = freePes;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.core.Simulation;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.listeners.EventInfo;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the CPU state history of Hosts storing only state changes,
+ * as an alternative to {@link Host#setStateHistoryEnabled(boolean)},
+ * which stores a full state entry for every Host processing update,
+ * even when the Host state didn't change at all.
+ *
+ * <p>The state of each Host is sampled every time the simulation clock advances.
+ * Allocated and requested MIPS are rounded to a given MIPS resolution
+ * and time is rounded to a given time resolution.
+ * Consecutive samples with the same state are merged into a single run (run-length encoding)
+ * and each run is stored as the variable-length encoded difference from the previous run (delta encoding).
+ * That way, a Host whose load rarely changes takes just a few bytes of memory,
+ * no matter how long the simulation runs.</p>
+ *
+ * <p>The per-interval history, like the one provided by {@link Host#getStateHistory()},
+ * is rebuilt only when requested by {@link #getHistory(Host, double)}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class HostStateHistoryRecorder {
+    /**
+     * The default resolution for allocated and requested MIPS.
+     */
+    public static final double DEFAULT_MIPS_RESOLUTION = 1;
+
+    /**
+     * The default resolution for time (in seconds).
+     */
+    public static final double DEFAULT_TIME_RESOLUTION = 0.01;
+
+    /**
+     * A Host state entry.
+     * @param time the time the Host entered that state (in seconds)
+     * @param allocatedMips the total MIPS allocated to VMs
+     * @param requestedMips the total MIPS requested by VMs
+     * @param totalMipsCapacity the total MIPS capacity of the Host
+     * @param active whether the Host was active
+     */
+    public record Entry(double time, double allocatedMips, double requestedMips, double totalMipsCapacity, boolean active) {
+        /**
+         * {@return the percentage of the Host CPU allocated to VMs} (in scale from 0 to 1)
+         */
+        public double percentUsage() {
+            return totalMipsCapacity > 0 ? allocatedMips / totalMipsCapacity : 0;
+        }
+    }
+
+    private final double mipsResolution;
+    private final double timeResolution;
+    private final Map<Host, HostLog> logs = new IdentityHashMap<>();
+    private final List<Host> hosts = new ArrayList<>();
+    private double lastTime;
+
+    /**
+     * Creates a recorder using the {@link #DEFAULT_MIPS_RESOLUTION} and {@link #DEFAULT_TIME_RESOLUTION}.
+     * @param simulation the simulation to record Host states from
+     */
+    public HostStateHistoryRecorder(final Simulation simulation) {
+        this(simulation, DEFAULT_MIPS_RESOLUTION, DEFAULT_TIME_RESOLUTION);
+    }
+
+    /**
+     * Creates a recorder using given resolutions.
+     * Coarser resolutions ignore small fluctuations, making runs longer and the history smaller.
+     *
+     * @param simulation the simulation to record Host states from
+     * @param mipsResolution the resolution for allocated and requested MIPS
+     * @param timeResolution the resolution for time (in seconds)
+     */
+    public HostStateHistoryRecorder(final Simulation simulation, final double mipsResolution, final double timeResolution) {
+        if (mipsResolution <= 0 || timeResolution <= 0) {
+            throw new IllegalArgumentException("Resolutions must be greater than zero");
+        }
+
+        this.mipsResolution = mipsResolution;
+        this.timeResolution = timeResolution;
+        this.lastTime = simulation.clock();
+        simulation.addOnClockTickListener(this::onClockTick);
+    }
+
+    /**
+     * Adds Hosts to record the state history from.
+     * @param hosts the Hosts to add
+     * @return this recorder
+     */
+    public HostStateHistoryRecorder addHosts(final Collection<? extends Host> hosts) {
+        for (final Host host : hosts) {
+            if (logs.putIfAbsent(host, new HostLog(host.getTotalMipsCapacity())) == null) {
+                this.hosts.add(host);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Records the state of each Host when the clock advances.
+     * Since listeners are notified before entities are updated for the new time,
+     * the current Host state is the one since the previous clock tick.
+     * @param info information about the clock tick
+     */
+    private void onClockTick(final EventInfo info) {
+        final double time = lastTime;
+        lastTime = info.getTime();
+        for (final Host host : hosts) {
+            final double requestedMips = host.getVmList().stream().mapToDouble(Vm::getTotalCpuMipsRequested).sum();
+            logs.get(host).add(
+                Math.round(time / timeResolution),
+                Math.round(host.getTotalAllocatedMips() / mipsResolution),
+                Math.round(requestedMips / mipsResolution),
+                host.isActive());
+        }
+    }
+
+    /**
+     * Gets the Host state changes, i.e., one entry for each time the Host state changed.
+     * @param host the Host to get the state changes from
+     * @return the list of Host state changes
+     * @throws IllegalArgumentException if the Host wasn't added to the recorder
+     */
+    public List<Entry> getChanges(final Host host) {
+        final var log = requireLog(host);
+        final var changes = new ArrayList<Entry>(log.runs);
+        log.decode((time, allocated, requested, active) -> changes.add(newEntry(log, time, allocated, requested, active)));
+        return changes;
+    }
+
+    /**
+     * Rebuilds the Host state history at a fixed interval,
+     * with one entry for each interval (from the time of the first recorded state up to the last clock tick),
+     * like the one provided by {@link Host#getStateHistory()}.
+     *
+     * @param host the Host to get the state history from
+     * @param interval the interval between entries (in seconds)
+     * @return the list of Host states at each interval
+     * @throws IllegalArgumentException if the Host wasn't added to the recorder
+     */
+    public List<Entry> getHistory(final Host host, final double interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be greater than zero");
+        }
+
+        final var changes = getChanges(host);
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+
+        final double startTime = changes.get(0).time();
+        //The state since the last clock tick is only known at the next one
+        final double endTime = lastTime;
+        final var history = new ArrayList<Entry>((int) Math.min(Integer.MAX_VALUE - 8, Math.ceil((endTime - startTime) / interval)));
+        int run = 0;
+        for (long i = 0; ; i++) {
+            //Multiplies instead of accumulating the interval to avoid floating-point drift
+            final double time = startTime + i * interval;
+            if (time >= endTime) {
+                break;
+            }
+
+            while (run + 1 < changes.size() && changes.get(run + 1).time() <= time) {
+                run++;
+            }
+
+            final var state = changes.get(run);
+            history.add(new Entry(time, state.allocatedMips(), state.requestedMips(), state.totalMipsCapacity(), state.active()));
+        }
+
+        return history;
+    }
+
+    /**
+     * Prints the Host state history at a fixed interval, as rebuilt by {@link #getHistory(Host, double)}.
+     * @param host the Host to print the state history from
+     * @param interval the interval between entries (in seconds)
+     * @throws IllegalArgumentException if the Host wasn't added to the recorder
+     */
+    public void printHistory(final Host host, final double interval) {
+        System.out.printf(
+            "%n%s (%d state changes stored for %d samples)%n", host, getChangesNumber(host), getSamples(host));
+        System.out.println("Time Secs | Allocated MIPS | Requested MIPS | CPU Usage | Active");
+        for (final var entry : getHistory(host, interval)) {
+            System.out.printf(
+                "%9.0f | %14.0f | %14.0f | %8.0f%% | %s%n",
+                entry.time(), entry.allocatedMips(), entry.requestedMips(), entry.percentUsage() * 100, entry.active());
+        }
+    }
+
+    /**
+     * {@return the number of samples recorded for a Host}
+     * @param host the Host to get the number of samples from
+     */
+    public long getSamples(final Host host) {
+        return requireLog(host).samples;
+    }
+
+    /**
+     * {@return the number of state changes (runs) stored for a Host}
+     * @param host the Host to get the number of state changes from
+     */
+    public int getChangesNumber(final Host host) {
+        return requireLog(host).runs;
+    }
+
+    /**
+     * {@return the number of bytes used to store the state history of all Hosts}
+     */
+    public long getMemoryBytes() {
+        return logs.values().stream().mapToLong(log -> log.data.length).sum();
+    }
+
+    private Entry newEntry(final HostLog log, final long time, final long allocated, final long requested, final boolean active) {
+        return new Entry(time * timeResolution, allocated * mipsResolution, requested * mipsResolution, log.totalMipsCapacity, active);
+    }
+
+    private HostLog requireLog(final Host host) {
+        final var log = logs.get(host);
+        if (log == null) {
+            throw new IllegalArgumentException(host + " wasn't added to the recorder");
+        }
+
+        return log;
+    }
+
+    /**
+     * A consumer for decoded Host state runs.
+     */
+    @FunctionalInterface
+    private interface RunConsumer {
+        void accept(long time, long allocated, long requested, boolean active);
+    }
+
+    /**
+     * The encoded state runs of a Host.
+     * Each run is stored as a sequence of variable-length integers:
+     * the time elapsed since the previous run (shifted left, with the active flag in the lowest bit)
+     * and the zigzag-encoded differences for allocated and requested MIPS.
+     */
+    private static final class HostLog {
+        private final double totalMipsCapacity;
+        private byte[] data = new byte[16];
+        private int size;
+        private int runs;
+        private long samples;
+        private long lastTime;
+        private long lastAllocated;
+        private long lastRequested;
+        private boolean lastActive;
+
+        private HostLog(final double totalMipsCapacity) {
+            this.totalMipsCapacity = totalMipsCapacity;
+        }
+
+        private void add(final long time, final long allocated, final long requested, final boolean active) {
+            samples++;
+            if (runs > 0 && allocated == lastAllocated && requested == lastRequested && active == lastActive) {
+                return;
+            }
+
+            //A run rounded to the same time as the previous one prevails over it when rebuilding the history
+            final long elapsed = Math.max(0, time - lastTime);
+            writeVarLong(elapsed << 1 | (active ? 1 : 0));
+            writeVarLong(zigzag(allocated - lastAllocated));
+            writeVarLong(zigzag(requested - lastRequested));
+            runs++;
+            lastTime += elapsed;
+            lastAllocated = allocated;
+            lastRequested = requested;
+            lastActive = active;
+        }
+
+        private void decode(final RunConsumer consumer) {
+            final int[] pos = {0};
+            long time = 0, allocated = 0, requested = 0;
+            for (int i = 0; i < runs; i++) {
+                final long timeAndActive = readVarLong(pos);
+                time += timeAndActive >>> 1;
+                allocated += unzigzag(readVarLong(pos));
+                requested += unzigzag(readVarLong(pos));
+                consumer.accept(time, allocated, requested, (timeAndActive & 1) == 1);
+            }
+        }
+
+        private void writeVarLong(long value) {
+            if (size + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + 10));
+            }
+
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+
+            data[size++] = (byte) value;
+        }
+
+        private long readVarLong(final int[] pos) {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = data[pos[0]++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private static long zigzag(final long value) {
+            return value << 1 ^ value >> 63;
+        }
+
+        private static long unzigzag(final long value) {
+            return value >>> 1 ^ -(value & 1);
+        }
+    }
+}
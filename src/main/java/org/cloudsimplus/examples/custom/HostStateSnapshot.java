@@ -0,0 +1,169 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.hosts.Host;
+
+import java.util.List;
+
+/**
+ * A snapshot of the capacity, usage and power consumption of a list of Hosts,
+ * stored into primitive arrays.
+ * It's taken once per placement round, so that heuristics evaluating
+ * thousands of candidate Hosts don't need to query Host objects
+ * (or parse their textual representation) for every evaluation.
+ * Since the snapshot is read-only after being {@link #refresh(List) refreshed},
+ * it can be safely read by multiple threads.
+ *
+ * <p>The arrays are reused when the snapshot is refreshed for the same number of Hosts,
+ * avoiding new allocations at every round.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class HostStateSnapshot {
+    private int size;
+    private long[] totalPes = new long[0];
+    private long[] freePes = new long[0];
+    private long[] totalRam = new long[0];
+    private long[] usedRam = new long[0];
+    private long[] totalBw = new long[0];
+    private long[] usedBw = new long[0];
+    private double[] power = new double[0];
+    private double[] maxPower = new double[0];
+
+    /**
+     * Reads the current state of all Hosts in a list.
+     * @param hostList the Hosts to read the state from
+     * @return this snapshot
+     */
+    public HostStateSnapshot refresh(final List<? extends Host> hostList) {
+        ensureCapacity(hostList.size());
+        for (int i = 0; i < size; i++) {
+            refresh(i, hostList.get(i));
+        }
+
+        return this;
+    }
+
+    /**
+     * Reads the current state of a single Host.
+     * @param i the Host position in the list the snapshot was taken from
+     * @param host the Host to read the state from
+     */
+    public void refresh(final int i, final Host host) {
+        totalPes[i] = host.getPesNumber();
+        freePes[i] = host.getFreePesNumber();
+        totalRam[i] = host.getRam().getCapacity();
+        usedRam[i] = host.getRam().getAllocatedResource();
+        totalBw[i] = host.getBw().getCapacity();
+        usedBw[i] = host.getBw().getAllocatedResource();
+
+        final var powerModel = host.getPowerModel();
+        power[i] = powerModel.getPower(getCpuUtilization(i));
+        maxPower[i] = powerModel.getPower(1);
+    }
+
+    private void ensureCapacity(final int newSize) {
+        this.size = newSize;
+        if (totalPes.length == newSize) {
+            return;
+        }
+
+        totalPes = new long[newSize];
+        freePes = new long[newSize];
+        totalRam = new long[newSize];
+        usedRam = new long[newSize];
+        totalBw = new long[newSize];
+        usedBw = new long[newSize];
+        power = new double[newSize];
+        maxPower = new double[newSize];
+    }
+
+    /**
+     * {@return the number of Hosts in the snapshot}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if a Host has enough free PEs, RAM and BW for a VM.
+     * @param i the Host position
+     * @param pes the VM PEs
+     * @param ram the VM RAM
+     * @param bw the VM BW
+     * @return true if the VM fits into the Host, false otherwise
+     */
+    public boolean fits(final int i, final long pes, final long ram, final long bw) {
+        return freePes[i] >= pes && totalRam[i] - usedRam[i] >= ram && totalBw[i] - usedBw[i] >= bw;
+    }
+
+    /**
+     * {@return the fraction of busy PEs of a Host (in scale from 0 to 1)}
+     * @param i the Host position
+     */
+    public double getCpuUtilization(final int i) {
+        return totalPes[i] == 0 ? 0 : (totalPes[i] - freePes[i]) / (double) totalPes[i];
+    }
+
+    public long getTotalPes(final int i) {
+        return totalPes[i];
+    }
+
+    public long getFreePes(final int i) {
+        return freePes[i];
+    }
+
+    public long getTotalRam(final int i) {
+        return totalRam[i];
+    }
+
+    public long getUsedRam(final int i) {
+        return usedRam[i];
+    }
+
+    public long getTotalBw(final int i) {
+        return totalBw[i];
+    }
+
+    public long getUsedBw(final int i) {
+        return usedBw[i];
+    }
+
+    /**
+     * {@return the power consumed by a Host when the snapshot was taken (in Watts)}
+     * @param i the Host position
+     */
+    public double getPower(final int i) {
+        return power[i];
+    }
+
+    /**
+     * {@return the power consumed by a Host when fully utilized (in Watts)}
+     * @param i the Host position
+     */
+    public double getMaxPower(final int i) {
+        return maxPower[i];
+    }
+}
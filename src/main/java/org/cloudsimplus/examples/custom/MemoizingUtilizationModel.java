@@ -0,0 +1,119 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.utilizationmodels.UtilizationModel;
+import org.cloudsimplus.utilizationmodels.UtilizationModelAbstract;
+import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link UtilizationModel} decorator that caches the last utilization computed by another model,
+ * so that repeated requests for the same time don't compute it again.
+ * At a single simulation instant, the utilization of a Cloudlet is requested many times
+ * (by schedulers, provisioners and statistics collectors),
+ * frequently from the same model instance used for CPU, RAM and BW.
+ * For models that are expensive to compute (such as stochastic, trace-backed or
+ * function-based ones), each repeated request then costs just a comparison.
+ *
+ * <p>The decorated model must give the same utilization every time it's requested for the same time.
+ * Memoization can be enabled for all Cloudlets at once using {@link #memoizeAll(Collection)}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class MemoizingUtilizationModel extends UtilizationModelAbstract {
+    private final UtilizationModel model;
+    private double lastTime = Double.NaN;
+    private double lastUtilization;
+
+    /**
+     * Creates a decorator to cache the utilization of a given model.
+     * @param model the model to get utilization values from
+     * @see #of(UtilizationModel)
+     */
+    public MemoizingUtilizationModel(final UtilizationModel model) {
+        super(requireNonNull(model).getUnit());
+        this.model = model;
+    }
+
+    /**
+     * Gets a memoizing version of a given model.
+     * @param model the model to get utilization values from
+     * @return a decorator for the given model, or the model itself if it's already memoized
+     *         or there is nothing to be saved (as for the {@link UtilizationModelFull})
+     */
+    public static UtilizationModel of(final UtilizationModel model) {
+        if (model instanceof MemoizingUtilizationModel || model instanceof UtilizationModelFull) {
+            return model;
+        }
+
+        return new MemoizingUtilizationModel(model);
+    }
+
+    /**
+     * Enables memoization for the CPU, RAM and BW utilization models of every Cloudlet in a collection.
+     * Model instances shared by multiple resources or Cloudlets are replaced by a single shared decorator,
+     * so that the cache is shared as well.
+     * It must be called before the simulation starts.
+     *
+     * @param cloudlets the Cloudlets to memoize the utilization models
+     * @return the number of distinct models memoized
+     */
+    public static int memoizeAll(final Collection<? extends Cloudlet> cloudlets) {
+        final Map<UtilizationModel, UtilizationModel> memoizedModels = new IdentityHashMap<>();
+        final UnaryOperator<UtilizationModel> memoize =
+            model -> memoizedModels.computeIfAbsent(model, MemoizingUtilizationModel::of);
+        for (final Cloudlet cloudlet : cloudlets) {
+            cloudlet.setUtilizationModelCpu(memoize.apply(cloudlet.getUtilizationModelCpu()));
+            cloudlet.setUtilizationModelRam(memoize.apply(cloudlet.getUtilizationModelRam()));
+            cloudlet.setUtilizationModelBw(memoize.apply(cloudlet.getUtilizationModelBw()));
+        }
+
+        return (int) memoizedModels.entrySet().stream().filter(entry -> entry.getKey() != entry.getValue()).count();
+    }
+
+    @Override
+    protected double getUtilizationInternal(final double time) {
+        if (time != lastTime) {
+            lastUtilization = model.getUtilization(time);
+            lastTime = time;
+        }
+
+        return lastUtilization;
+    }
+
+    /**
+     * {@return the decorated model}
+     */
+    public UtilizationModel getModel() {
+        return model;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.resources.Pe;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Stores the state of all PEs from a homogeneous fleet of {@link CompactHost}s
+ * into primitive arrays, instead of having one {@link org.cloudsimplus.resources.PeSimple}
+ * (and its provisioner) object for each PE.
+ * Each Host gets a contiguous slice of the arrays, which is accessed through
+ * lightweight {@link PooledPe} views.
+ * The views of a Host are created the first time its PE list is accessed after the Host is created
+ * and reused afterwards, so that VM schedulers walking the PE list
+ * on every allocation and update don't create garbage.
+ * While the Host is being created, its PE list gives temporary views which are not kept,
+ * so that a Host whose PEs are never used by a VM doesn't keep any view.
+ *
+ * <p>The state of each PE (the MIPS capacity, allocated MIPS and status) takes 17 bytes,
+ * while each view just keeps the PE position inside the pool and its provisioner.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class PePool {
+    private static final Pe.Status[] STATUSES = Pe.Status.values();
+
+    private final int hosts;
+    private final int pesByHost;
+    private final long[] capacity;
+    private final long[] allocated;
+    private final byte[] status;
+
+    /**
+     * The PE views of each Host, created when the Host PE list is first accessed.
+     */
+    private final PooledPe[][] views;
+
+    /**
+     * Creates a pool for a given number of Hosts, all of them having the same PEs number and capacity.
+     * @param hosts number of Hosts to store PEs for
+     * @param pesByHost number of PEs for each Host
+     * @param mipsCapacity the MIPS capacity of each PE
+     */
+    public PePool(final int hosts, final int pesByHost, final long mipsCapacity) {
+        if (hosts <= 0 || pesByHost <= 0) {
+            throw new IllegalArgumentException("Number of Hosts and PEs by Host must be greater than zero.");
+        }
+
+        if (mipsCapacity < 0) {
+            throw new IllegalArgumentException("PE capacity cannot be negative.");
+        }
+
+        final long totalPes = (long) hosts * pesByHost;
+        if (totalPes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The total number of PEs exceeds the maximum pool size of " + Integer.MAX_VALUE);
+        }
+
+        this.hosts = hosts;
+        this.pesByHost = pesByHost;
+        this.capacity = new long[(int) totalPes];
+        this.allocated = new long[(int) totalPes];
+        this.status = new byte[(int) totalPes];
+        this.views = new PooledPe[hosts][];
+        Arrays.fill(capacity, mipsCapacity);
+        Arrays.fill(status, (byte) Pe.Status.FREE.ordinal());
+    }
+
+    /**
+     * {@return a list with views for the PEs of a given Host}
+     * The {@link PooledPe} views are created when an element is first requested
+     * and the same views are returned afterwards.
+     * @param hostIndex the index of the Host inside the pool (from 0 to the number of hosts - 1)
+     */
+    public List<Pe> getPeList(final int hostIndex) {
+        final var peList = newPeList(hostIndex);
+        peList.cacheViews();
+        return peList;
+    }
+
+    /**
+     * {@return a list with views for the PEs of a given Host}, which gives temporary views
+     * until {@link PeListView#cacheViews()} is called.
+     * @param hostIndex the index of the Host inside the pool (from 0 to the number of hosts - 1)
+     */
+    PeListView newPeList(final int hostIndex) {
+        if (hostIndex < 0 || hostIndex >= hosts) {
+            throw new IndexOutOfBoundsException("Host index " + hostIndex + " is out of the pool bounds: [0.." + (hosts - 1) + "]");
+        }
+
+        return new PeListView(hostIndex);
+    }
+
+    public int getHosts() {
+        return hosts;
+    }
+
+    public int getPesByHost() {
+        return pesByHost;
+    }
+
+    long getCapacity(final int index) {
+        return capacity[index];
+    }
+
+    void setCapacity(final int index, final long mips) {
+        capacity[index] = mips;
+    }
+
+    long getAllocated(final int index) {
+        return allocated[index];
+    }
+
+    void setAllocated(final int index, final long mips) {
+        allocated[index] = mips;
+    }
+
+    Pe.Status getStatus(final int index) {
+        return STATUSES[status[index]];
+    }
+
+    void setStatus(final int index, final Pe.Status newStatus) {
+        status[index] = (byte) newStatus.ordinal();
+    }
+
+    private PooledPe[] getViews(final int hostIndex) {
+        var hostViews = views[hostIndex];
+        if (hostViews == null) {
+            final int offset = hostIndex * pesByHost;
+            hostViews = new PooledPe[pesByHost];
+            for (int i = 0; i < pesByHost; i++) {
+                hostViews[i] = new PooledPe(this, offset + i);
+            }
+
+            views[hostIndex] = hostViews;
+        }
+
+        return hostViews;
+    }
+
+    /**
+     * A read-only list of {@link PooledPe} views for the PEs of a single Host.
+     */
+    final class PeListView extends AbstractList<Pe> implements RandomAccess {
+        private final int hostIndex;
+
+        /**
+         * Indicates if views are kept once created. Otherwise, a new temporary view is created on every access.
+         */
+        private boolean cachingViews;
+
+        private PeListView(final int hostIndex) {
+            this.hostIndex = hostIndex;
+        }
+
+        /**
+         * Makes the list keep the views created from now on and return the same view for each PE.
+         */
+        void cacheViews() {
+            cachingViews = true;
+        }
+
+        @Override
+        public Pe get(final int index) {
+            if (index < 0 || index >= pesByHost) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + pesByHost);
+            }
+
+            if (cachingViews) {
+                return getViews(hostIndex)[index];
+            }
+
+            final int offset = hostIndex * pesByHost;
+            return views[hostIndex] == null ? new PooledPe(PePool.this, offset + index) : views[hostIndex][index];
+        }
+
+        @Override
+        public int size() {
+            return pesByHost;
+        }
+    }
+}
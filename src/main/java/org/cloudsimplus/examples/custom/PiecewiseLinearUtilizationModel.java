@@ -0,0 +1,222 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.datacenters.Datacenter;
+import org.cloudsimplus.utilizationmodels.UtilizationModelAbstract;
+import org.cloudsimplus.utilizationmodels.UtilizationModelDynamic;
+
+import java.util.Arrays;
+
+/**
+ * A utilization model defined by a piecewise-linear function of the simulation time,
+ * given by a list of (time, utilization) points.
+ * The utilization between two points is linearly interpolated;
+ * before the first point, the first utilization is used and after the last point, the last one is used.
+ *
+ * <p>Different from a {@link UtilizationModelDynamic} whose utilization update function adds
+ * an increment proportional to the time span since the previous request,
+ * the utilization is computed directly from the requested time.
+ * This way, it doesn't depend on how frequently the utilization is requested
+ * (i.e., on the {@link Datacenter#setSchedulingInterval(double) scheduling interval}).
+ * Since the function is known, the model can also predict the
+ * {@link #getNextCrossingTime(double, double) next time a threshold will be crossed}, so that
+ * the simulation can be updated exactly at that time (see {@link UtilizationCrossingScheduler}),
+ * instead of periodically.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class PiecewiseLinearUtilizationModel extends UtilizationModelAbstract {
+    private double[] times = new double[2];
+    private double[] values = new double[2];
+    private int points;
+
+    /**
+     * The index of the segment where the last requested time was found,
+     * since times are usually requested in increasing order.
+     */
+    private int lastSegment;
+
+    /**
+     * Creates a model without points, whose utilization is zero until points are added.
+     * @see #addPoint(double, double)
+     */
+    public PiecewiseLinearUtilizationModel() {
+        super(Unit.PERCENTAGE);
+    }
+
+    /**
+     * Creates a model with a constant utilization.
+     * @param utilization the utilization (in scale from 0 to 1)
+     */
+    public PiecewiseLinearUtilizationModel(final double utilization) {
+        this();
+        addPoint(0, utilization);
+    }
+
+    /**
+     * Creates a model whose utilization increases (or decreases) linearly from the time zero,
+     * until a given limit is reached, then remaining constant.
+     * @param initialUtilization the utilization at time zero (in scale from 0 to 1)
+     * @param ratePerSecond how much the utilization changes every second
+     * @param limit the maximum utilization (if the rate is positive) or the minimum one (if it's negative)
+     * @return the new model
+     */
+    public static PiecewiseLinearUtilizationModel ramp(
+        final double initialUtilization, final double ratePerSecond, final double limit)
+    {
+        final var model = new PiecewiseLinearUtilizationModel(initialUtilization);
+        final double duration = (limit - initialUtilization) / ratePerSecond;
+        if (ratePerSecond != 0 && duration > 0) {
+            model.addPoint(duration, limit);
+        }
+
+        return model;
+    }
+
+    /**
+     * Adds a point to the function.
+     * @param time the time of the point, which must be greater than the time of the previous point
+     * @param utilization the utilization at that time (in scale from 0 to 1)
+     * @return this model
+     */
+    public PiecewiseLinearUtilizationModel addPoint(final double time, final double utilization) {
+        if (points > 0 && time <= times[points - 1]) {
+            throw new IllegalArgumentException("Points must be added in increasing time order");
+        }
+
+        if (utilization < 0 || utilization > 1) {
+            throw new IllegalArgumentException("Utilization must be in scale from 0 to 1");
+        }
+
+        if (points == times.length) {
+            times = Arrays.copyOf(times, points * 2);
+            values = Arrays.copyOf(values, points * 2);
+        }
+
+        times[points] = time;
+        values[points] = utilization;
+        points++;
+        return this;
+    }
+
+    @Override
+    protected double getUtilizationInternal(final double time) {
+        if (points == 0) {
+            return 0;
+        }
+
+        final int i = segment(time);
+        if (i < 0) {
+            return values[0];
+        }
+
+        if (i == points - 1) {
+            return values[i];
+        }
+
+        return values[i] + slope(i) * (time - times[i]);
+    }
+
+    /**
+     * Gets the rate the utilization changes right after a given time.
+     * @param time the time to get the rate
+     * @return the utilization change per second
+     */
+    public double getSlope(final double time) {
+        final int i = segment(time);
+        return i < 0 || i >= points - 1 ? 0 : slope(i);
+    }
+
+    /**
+     * Gets the time of the next point after a given time, where the utilization rate changes.
+     * @param time the time to start searching for the next point
+     * @return the time of the next point or {@link Double#POSITIVE_INFINITY} if there are no more points
+     */
+    public double getNextBreakpoint(final double time) {
+        final int next = segment(time) + 1;
+        return next < points ? times[next] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Predicts the next time the utilization will cross a threshold.
+     * If the utilization at the given time is above the threshold,
+     * returns the first time it gets equal to or below the threshold;
+     * otherwise, returns the first time it starts being above the threshold.
+     *
+     * @param time the time to start predicting
+     * @param threshold the utilization threshold (in scale from 0 to 1)
+     * @return the time of the next crossing (which may be the given time, if the utilization is
+     *         equal to the threshold and just starting to increase),
+     *         or {@link Double#POSITIVE_INFINITY} if the threshold will never be crossed
+     */
+    public double getNextCrossingTime(final double time, final double threshold) {
+        final boolean above = getUtilizationInternal(time) > threshold;
+        for (int i = Math.max(0, segment(time)); i < points - 1; i++) {
+            final double start = Math.max(time, times[i]);
+            final double startValue = getUtilizationInternal(start);
+            final double endValue = values[i + 1];
+            final boolean crosses = above ? endValue <= threshold : endValue > threshold;
+            if (crosses) {
+                return start + (threshold - startValue) / slope(i);
+            }
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets the index of the last point whose time is lower than or equal to a given time.
+     * @return the point index, or -1 if the time is before the first point
+     */
+    private int segment(final double time) {
+        if (points == 0 || time < times[0]) {
+            return -1;
+        }
+
+        //Checks the last segment found and the next one, before performing a binary search
+        if (time >= times[lastSegment] && (lastSegment == points - 1 || time < times[lastSegment + 1])) {
+            return lastSegment;
+        }
+
+        final int next = lastSegment + 1;
+        if (next < points && time >= times[next] && (next == points - 1 || time < times[next + 1])) {
+            return lastSegment = next;
+        }
+
+        final int pos = Arrays.binarySearch(times, 0, points, time);
+        return lastSegment = pos >= 0 ? pos : -pos - 2;
+    }
+
+    private double slope(final int i) {
+        return (values[i + 1] - values[i]) / (times[i + 1] - times[i]);
+    }
+
+    /**
+     * {@return the number of points defining the function}
+     */
+    public int getPoints() {
+        return points;
+    }
+}
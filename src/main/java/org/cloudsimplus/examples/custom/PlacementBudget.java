@@ -0,0 +1,90 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import java.time.Duration;
+
+/**
+ * The budget a metaheuristic VM allocation policy (such as the {@link CustomVmAllocationPolicy})
+ * has to select a Host for a single VM.
+ * Such policies are <i>anytime</i> algorithms: they always have a best solution so far,
+ * so they can stop at any time and return it.
+ * The optimization stops when the maximum number of iterations
+ * or the maximum wall-clock time is reached, whatever happens first.
+ *
+ * <p>Limiting the time spent on each placement keeps its latency bounded and predictable,
+ * but makes results depend on the machine speed and load.
+ * If results must be reproducible for a given seed, use only an iteration budget.</p>
+ *
+ * @param maxIterations the maximum number of iterations per placement
+ * @param maxTimeNanos the maximum wall-clock time per placement (in nanoseconds),
+ *                     or {@link Long#MAX_VALUE} for no time limit
+ * @since CloudSim Plus 8.5.1
+ */
+public record PlacementBudget(int maxIterations, long maxTimeNanos) {
+    public PlacementBudget {
+        if (maxIterations < 0 || maxTimeNanos < 0) {
+            throw new IllegalArgumentException("Budget cannot be negative");
+        }
+    }
+
+    /**
+     * Creates a budget limited only by the number of iterations, which keeps results reproducible.
+     * @param maxIterations the maximum number of iterations per placement
+     * @return the new budget
+     */
+    public static PlacementBudget ofIterations(final int maxIterations) {
+        return new PlacementBudget(maxIterations, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a budget limited only by the wall-clock time.
+     * @param maxTime the maximum wall-clock time per placement
+     * @return the new budget
+     */
+    public static PlacementBudget ofTime(final Duration maxTime) {
+        return new PlacementBudget(Integer.MAX_VALUE, maxTime.toNanos());
+    }
+
+    /**
+     * Creates a budget limited by both the number of iterations and the wall-clock time.
+     * @param maxIterations the maximum number of iterations per placement
+     * @param maxTime the maximum wall-clock time per placement
+     * @return the new budget
+     */
+    public static PlacementBudget of(final int maxIterations, final Duration maxTime) {
+        return new PlacementBudget(maxIterations, maxTime.toNanos());
+    }
+
+    /**
+     * Checks if the budget is exhausted.
+     * @param iterations the number of iterations already performed
+     * @param startNanos the time the placement started, given by {@link System#nanoTime()}
+     * @return true if no more iterations can be performed, false otherwise
+     */
+    public boolean isExhausted(final int iterations, final long startNanos) {
+        return iterations >= maxIterations ||
+               (maxTimeNanos != Long.MAX_VALUE && System.nanoTime() - startNanos >= maxTimeNanos);
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.provisioners.PeProvisioner;
+import org.cloudsimplus.provisioners.PeProvisionerSimple;
+import org.cloudsimplus.resources.Pe;
+
+import java.util.Objects;
+
+/**
+ * A lightweight view (a flyweight) of a {@link Pe} whose state is stored inside a {@link PePool}.
+ * Views don't hold the PE capacity, allocation or status by themselves:
+ * they just know where such a state is inside the pool arrays.
+ * The pool creates a single view for each PE, when the Host PE list is first accessed
+ * after the Host is created.
+ * Two views for the same PE are equal.
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public final class PooledPe implements Pe {
+    private static final String UNIT = "MIPS";
+
+    private final PePool pool;
+
+    /**
+     * The index of the PE inside the pool arrays.
+     */
+    private final int index;
+
+    /**
+     * The provisioner of this PE, created when first requested.
+     */
+    private PeProvisioner provisioner;
+
+    PooledPe(final PePool pool, final int index) {
+        this.pool = pool;
+        this.index = index;
+    }
+
+    /**
+     * {@inheritDoc}
+     * It's the PE index inside its Host, which is computed from the PE position inside the pool.
+     */
+    @Override
+    public long getId() {
+        return index % pool.getPesByHost();
+    }
+
+    /**
+     * The ID of a pooled PE is defined by its position inside the Host
+     * and cannot be changed.
+     * @param id ignored
+     */
+    @Override
+    public void setId(final long id) {/**/}
+
+    @Override
+    public long getCapacity() {
+        return pool.getCapacity(index);
+    }
+
+    @Override
+    public boolean setCapacity(final long mipsCapacity) {
+        if (mipsCapacity < 0 || mipsCapacity < getAllocatedResource()) {
+            return false;
+        }
+
+        pool.setCapacity(index, mipsCapacity);
+        return true;
+    }
+
+    @Override
+    public boolean sumCapacity(final long amountToSum) {
+        return setCapacity(getCapacity() + amountToSum);
+    }
+
+    @Override
+    public boolean addCapacity(final long capacityToAdd) {
+        return capacityToAdd >= 0 && sumCapacity(capacityToAdd);
+    }
+
+    @Override
+    public boolean removeCapacity(final long capacityToRemove) {
+        return capacityToRemove >= 0 && sumCapacity(-capacityToRemove);
+    }
+
+    @Override
+    public boolean setCapacity(final double mipsCapacity) {
+        return setCapacity((long) mipsCapacity);
+    }
+
+    @Override
+    public long getAllocatedResource() {
+        return pool.getAllocated(index);
+    }
+
+    @Override
+    public long getAvailableResource() {
+        return getCapacity() - getAllocatedResource();
+    }
+
+    @Override
+    public boolean isAmountAvailable(final long amountToCheck) {
+        return getAvailableResource() >= amountToCheck;
+    }
+
+    @Override
+    public boolean isAmountAvailable(final double amountToCheck) {
+        return isAmountAvailable((long) amountToCheck);
+    }
+
+    @Override
+    public boolean isResourceAmountBeingUsed(final long amountToCheck) {
+        return getAllocatedResource() >= amountToCheck;
+    }
+
+    @Override
+    public boolean isSuitable(final long newTotalAllocatedResource) {
+        return newTotalAllocatedResource <= getCapacity();
+    }
+
+    @Override
+    public boolean isFull() {
+        return getAvailableResource() <= 0;
+    }
+
+    @Override
+    public String getUnit() {
+        return UNIT;
+    }
+
+    @Override
+    public boolean setAllocatedResource(final long newTotalAllocatedResource) {
+        if (newTotalAllocatedResource < 0 || newTotalAllocatedResource > getCapacity()) {
+            return false;
+        }
+
+        pool.setAllocated(index, newTotalAllocatedResource);
+        return true;
+    }
+
+    @Override
+    public boolean allocateResource(final long amountToAllocate) {
+        return amountToAllocate > 0 && setAllocatedResource(getAllocatedResource() + amountToAllocate);
+    }
+
+    @Override
+    public boolean deallocateResource(final long amountToDeallocate) {
+        return amountToDeallocate > 0 && setAllocatedResource(getAllocatedResource() - amountToDeallocate);
+    }
+
+    @Override
+    public boolean deallocateAndRemoveResource(final long amountToDeallocate) {
+        return deallocateResource(amountToDeallocate) && removeCapacity(amountToDeallocate);
+    }
+
+    @Override
+    public long deallocateAllResources() {
+        final long previouslyAllocated = getAllocatedResource();
+        pool.setAllocated(index, 0);
+        return previouslyAllocated;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The provisioner is created when first requested and reused afterwards.
+     * It doesn't store any state by itself, but just allocates MIPS from this PE.
+     */
+    @Override
+    public PeProvisioner getPeProvisioner() {
+        if (provisioner == null) {
+            final var newProvisioner = new PeProvisionerSimple();
+            newProvisioner.setPe(this);
+            provisioner = newProvisioner;
+        }
+
+        return provisioner;
+    }
+
+    /**
+     * Pooled PEs always use a {@link PeProvisionerSimple}.
+     * @param peProvisioner ignored
+     * @return this PE
+     */
+    @Override
+    public Pe setPeProvisioner(final PeProvisioner peProvisioner) {
+        return this;
+    }
+
+    @Override
+    public Status getStatus() {
+        return pool.getStatus(index);
+    }
+
+    @Override
+    public Pe setStatus(final Status status) {
+        pool.setStatus(index, Objects.requireNonNull(status));
+        return this;
+    }
+
+    @Override
+    public boolean isWorking() {
+        return !isFailed();
+    }
+
+    @Override
+    public boolean isFailed() {
+        return getStatus() == Status.FAILED;
+    }
+
+    @Override
+    public boolean isFree() {
+        return getStatus() == Status.FREE;
+    }
+
+    @Override
+    public boolean isBusy() {
+        return getStatus() == Status.BUSY;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+               other instanceof PooledPe that && this.pool == that.pool && this.index == that.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(pool) + index;
+    }
+
+    @Override
+    public String toString() {
+        return "PooledPe %d: %s (%d/%d MIPS allocated)".formatted(getId(), getStatus(), getAllocatedResource(), getCapacity());
+    }
+}
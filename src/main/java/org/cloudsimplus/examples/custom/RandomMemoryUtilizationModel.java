@@ -1,59 +1,154 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
 package org.cloudsimplus.examples.custom;
 
-import org.cloudsimplus.core.Simulation;
 import org.cloudsimplus.utilizationmodels.UtilizationModel;
+import org.cloudsimplus.utilizationmodels.UtilizationModelAbstract;
+import org.cloudsimplus.utilizationmodels.UtilizationModelStochastic;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class RandomMemoryUtilizationModel implements UtilizationModel {
+/**
+ * A {@link UtilizationModel} that randomly defines the utilization (usually of RAM)
+ * between a minimum and maximum value.
+ * Different from the {@link UtilizationModelStochastic}, it doesn't keep a random number generator,
+ * but is <b>counter-based</b>: the utilization for a given time is computed by hashing
+ * a seed, an entity ID (such as the ID of the Cloudlet using the model) and the time.
+ * That means:
+ * <ul>
+ *     <li>the same value is always returned for the same instant;</li>
+ *     <li>there is no mutable state, so no locks and no contention
+ *         when the model is shared among Cloudlets or simulations running in parallel;</li>
+ *     <li>no object is allocated when a utilization value is requested.</li>
+ * </ul>
+ *
+ * <p>Since all Cloudlets sharing the same instance get the same utilization at a given time,
+ * use {@link #forEntity(long)} to create a model giving a different sequence of values for each Cloudlet.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class RandomMemoryUtilizationModel extends UtilizationModelAbstract {
+    /**
+     * The odd constant used to spread the inputs of the hash function (2^64 divided by the golden ratio).
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
 
     private final double minUtilization;
     private final double maxUtilization;
-    private final Random random;
+    private final long seed;
+    private final long entityId;
+
+    /**
+     * Creates a model using a random seed, so that each simulation run gives different values.
+     * @param minUtilization the minimum utilization (in scale from 0 to 1)
+     * @param maxUtilization the maximum utilization (in scale from 0 to 1)
+     */
+    public RandomMemoryUtilizationModel(final double minUtilization, final double maxUtilization) {
+        this(minUtilization, maxUtilization, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a model using a given seed, so that the same values are given every simulation run.
+     * @param minUtilization the minimum utilization (in scale from 0 to 1)
+     * @param maxUtilization the maximum utilization (in scale from 0 to 1)
+     * @param seed the seed to compute utilization values
+     */
+    public RandomMemoryUtilizationModel(final double minUtilization, final double maxUtilization, final long seed) {
+        this(minUtilization, maxUtilization, seed, 0);
+    }
+
+    /**
+     * Creates a model using a given seed and entity ID.
+     * @param minUtilization the minimum utilization (in scale from 0 to 1)
+     * @param maxUtilization the maximum utilization (in scale from 0 to 1)
+     * @param seed the seed to compute utilization values
+     * @param entityId the ID of the entity using the model, which gives an independent sequence of values
+     */
+    public RandomMemoryUtilizationModel(
+        final double minUtilization, final double maxUtilization,
+        final long seed, final long entityId)
+    {
+        super(Unit.PERCENTAGE);
+        if (minUtilization < 0 || maxUtilization > 1 || minUtilization > maxUtilization) {
+            throw new IllegalArgumentException("Utilization must be in scale from 0 to 1 and the minimum cannot be greater than the maximum");
+        }
 
-    public RandomMemoryUtilizationModel(double minUtilization, double maxUtilization) {
         this.minUtilization = minUtilization;
         this.maxUtilization = maxUtilization;
-        this.random = new Random();
+        this.seed = seed;
+        this.entityId = entityId;
     }
 
-    @Override
-    public double getUtilization(double time) {
-        // Generate a random utilization between minUtilization and maxUtilization
-        return minUtilization + (maxUtilization - minUtilization) * random.nextDouble();
+    /**
+     * Creates a model with the same seed and utilization range,
+     * which gives an independent sequence of values for a given entity.
+     * @param entityId the ID of the entity (such as a Cloudlet) to use the new model
+     * @return the new model
+     */
+    public RandomMemoryUtilizationModel forEntity(final long entityId) {
+        return new RandomMemoryUtilizationModel(minUtilization, maxUtilization, seed, entityId);
     }
+
     @Override
-    public Simulation getSimulation() {
-        // TODO Auto-generated method stub
-        return null;
+    protected double getUtilizationInternal(final double time) {
+        return minUtilization + (maxUtilization - minUtilization) * uniform(seed, entityId, time);
     }
-    @Override
-    public UtilizationModel setOverCapacityRequestAllowed(boolean allow) {
-        // TODO Auto-generated method stub
-        return null;
+
+    /**
+     * Computes a uniformly distributed value from the hash of a seed, an entity ID and a time.
+     * @return a value in the range [0, 1)
+     */
+    static double uniform(final long seed, final long entityId, final double time) {
+        //Adding 0.0 turns -0.0 into 0.0, so that both give the same value
+        final long timeBits = Double.doubleToLongBits(time + 0.0);
+        final long hash = mix(seed + GOLDEN_GAMMA * mix(entityId + GOLDEN_GAMMA * mix(timeBits)));
+        //Uses the 53 most significant bits as the mantissa of a double
+        return (hash >>> 11) * 0x1.0p-53;
     }
-    @Override
-    public Unit getUnit() {
-        // TODO Auto-generated method stub
-        return null;
+
+    /**
+     * The SplitMix64 finalizer, which turns a 64-bit value into a well-distributed hash.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
     }
 
-    @Override
-    public UtilizationModel setSimulation(Simulation simulation) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'setSimulation'");
+    public double getMinUtilization() {
+        return minUtilization;
     }
 
-    @Override
-    public double getUtilization() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getUtilization'");
+    public double getMaxUtilization() {
+        return maxUtilization;
     }
 
-    @Override
-    public boolean isOverCapacityRequestAllowed() {
-        // TODO Auto-generated method stub
-        return false;
+    public long getSeed() {
+        return seed;
     }
-}
 
+    public long getEntityId() {
+        return entityId;
+    }
+}
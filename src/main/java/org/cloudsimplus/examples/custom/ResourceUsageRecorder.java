@@ -0,0 +1,234 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An append-only recorder of resource usage time series (such as the CPU, RAM and BW usage
+ * of VMs or Cloudlets at every clock tick), which stores records off-heap
+ * into a memory-mapped file, instead of keeping boxed values in collections.
+ * Recording a value writes it directly to the mapped pages, without allocating any object,
+ * so listeners can record the usage of every entity at every tick without filling the heap.
+ * The OS is responsible for writing the pages to disk.
+ *
+ * <p>The file layout (in little-endian byte order) is a 64-byte header followed by fixed-size records:</p>
+ * <pre>
+ * magic "CSPUSAGE" | version (int) | record size (int) | records (long) | zero padding up to 64 bytes
+ * | for each record: entity id (long), time (double), cpu (double), ram (double), bw (double)
+ * </pre>
+ * Since records have a fixed size and are aligned to 8 bytes, external tools can read the file
+ * zero-copy by memory-mapping it (for instance, using NumPy
+ * {@code np.memmap(path, dtype=[('id','<i8'),('time','<f8'),('cpu','<f8'),('ram','<f8'),('bw','<f8')], offset=64, shape=(records,))}).
+ * The number of records in the header is updated every time a new file region is mapped
+ * and when the recorder is flushed or closed.
+ * The file may be larger than the records it has, since it grows by whole regions.
+ * Besides the header, only the last region is kept mapped by the recorder: a region is written to disk and released
+ * when the next one is mapped (it's actually unmapped when garbage collected,
+ * since Java provides no API to unmap a file explicitly).
+ * The file can be read from Java using a {@link ResourceUsageSeries}.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see ResourceUsageSeries
+ */
+public class ResourceUsageRecorder implements Closeable {
+    /**
+     * The version of the file layout.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the file header (in bytes).
+     */
+    public static final int HEADER_SIZE = 64;
+
+    /**
+     * The size of each record (in bytes).
+     */
+    public static final int RECORD_SIZE = Long.BYTES + 4 * Double.BYTES;
+
+    static final byte[] MAGIC = {'C', 'S', 'P', 'U', 'S', 'A', 'G', 'E'};
+
+    /** Position of the number of records in the header. */
+    static final int RECORDS_POSITION = MAGIC.length + 2 * Integer.BYTES;
+
+    /**
+     * The default number of records in each file region mapped into memory (which takes 40 MB).
+     */
+    public static final int DEFAULT_REGION_RECORDS = 1 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int regionRecords;
+    private MappedByteBuffer header;
+    private MappedByteBuffer region;
+    private int regionPosition;
+    private long records;
+
+    /**
+     * Creates a recorder mapping {@link #DEFAULT_REGION_RECORDS} records into memory at a time.
+     * @param path the path of the file to record usage into, which is replaced if it exists
+     * @throws IOException when the file cannot be created
+     */
+    public ResourceUsageRecorder(final Path path) throws IOException {
+        this(path, DEFAULT_REGION_RECORDS);
+    }
+
+    /**
+     * Creates a recorder.
+     * @param path the path of the file to record usage into, which is replaced if it exists
+     * @param regionRecords the number of records in each file region mapped into memory
+     * @throws IOException when the file cannot be created
+     */
+    public ResourceUsageRecorder(final Path path, final int regionRecords) throws IOException {
+        if (regionRecords <= 0 || (long) regionRecords * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region records must be between 1 and " + Integer.MAX_VALUE / RECORD_SIZE);
+        }
+
+        this.path = requireNonNull(path);
+        this.regionRecords = regionRecords;
+        final var dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        this.channel = FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN)
+                  .put(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putLong(0);
+            mapRegion();
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the next file region, writing the previous one to disk and releasing it.
+     */
+    private void mapRegion() throws IOException {
+        if (region != null) {
+            region.force();
+        }
+
+        final long offset = HEADER_SIZE + records * RECORD_SIZE;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, offset, (long) regionRecords * RECORD_SIZE);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        regionPosition = 0;
+        updateHeader();
+    }
+
+    private void updateHeader() {
+        header.putLong(RECORDS_POSITION, records);
+    }
+
+    /**
+     * Appends a record.
+     * @param entityId the id of the entity (such as a VM or Cloudlet) the usage belongs to
+     * @param time the time the usage was collected (in seconds)
+     * @param cpu the CPU usage
+     * @param ram the RAM usage
+     * @param bw the BW usage
+     * @return this recorder
+     * @throws IOException when a new file region cannot be mapped
+     */
+    public ResourceUsageRecorder record(
+        final long entityId, final double time,
+        final double cpu, final double ram, final double bw) throws IOException
+    {
+        if (region == null) {
+            throw new IllegalStateException(path + " was already closed");
+        }
+
+        if (regionPosition == region.capacity()) {
+            mapRegion();
+        }
+
+        region.putLong(regionPosition, entityId)
+              .putDouble(regionPosition + 8, time)
+              .putDouble(regionPosition + 16, cpu)
+              .putDouble(regionPosition + 24, ram)
+              .putDouble(regionPosition + 32, bw);
+        regionPosition += RECORD_SIZE;
+        records++;
+        return this;
+    }
+
+    /**
+     * Updates the number of records in the file header and forces
+     * the mapped pages to be written to disk,
+     * so that the records up to now can be read while new ones are recorded.
+     * It does nothing if the recorder was closed, since all records were already flushed.
+     */
+    public void flush() {
+        if (region == null) {
+            return;
+        }
+
+        updateHeader();
+        region.force();
+        header.force();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * {@return the number of records written up to now}
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Flushes the records, closes the file and releases the mapped regions,
+     * so that they can be unmapped.
+     * @throws IOException when the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (region == null) {
+            return;
+        }
+
+        try (channel) {
+            flush();
+        } finally {
+            region = null;
+            header = null;
+        }
+    }
+}
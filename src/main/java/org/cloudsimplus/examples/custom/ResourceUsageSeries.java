@@ -0,0 +1,157 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.cloudsimplus.examples.custom.ResourceUsageRecorder.HEADER_SIZE;
+import static org.cloudsimplus.examples.custom.ResourceUsageRecorder.RECORD_SIZE;
+
+/**
+ * A resource usage time series written by a {@link ResourceUsageRecorder}.
+ * The file is memory-mapped, so opening it just reads its header,
+ * and values are read directly from the mapped pages when requested,
+ * without copying records into the heap.
+ *
+ * <p>Instances are immutable after opened, so they can be shared among threads.
+ * Just records written up to the time the file is opened are available.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see ResourceUsageRecorder
+ */
+public final class ResourceUsageSeries implements Closeable {
+    /** Number of records in each mapped region, which cannot be larger than 2 GB. */
+    private static final int REGION_RECORDS = 1 << 24;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long records;
+    private final ByteBuffer[] regions;
+
+    private ResourceUsageSeries(final Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(path + " is not a resource usage file");
+            }
+
+            final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            final var magic = new byte[ResourceUsageRecorder.MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, ResourceUsageRecorder.MAGIC)) {
+                throw new IOException(path + " is not a resource usage file");
+            }
+
+            final int version = header.getInt();
+            final int recordSize = header.getInt();
+            if (version != ResourceUsageRecorder.VERSION || recordSize != RECORD_SIZE) {
+                throw new IOException("%s has version %d but version %d is required".formatted(path, version, ResourceUsageRecorder.VERSION));
+            }
+
+            this.records = header.getLong();
+            this.regions = new ByteBuffer[(int) ((records + REGION_RECORDS - 1) / REGION_RECORDS)];
+            for (int i = 0; i < regions.length; i++) {
+                final long first = (long) i * REGION_RECORDS;
+                final long size = Math.min(REGION_RECORDS, records - first) * RECORD_SIZE;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE, size)
+                                    .order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a resource usage file, memory-mapping its records.
+     * @param path the path of the file
+     * @return the opened file, which must be closed after use
+     * @throws IOException when the file cannot be read or has an invalid format or version
+     */
+    public static ResourceUsageSeries open(final Path path) throws IOException {
+        return new ResourceUsageSeries(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * {@return the number of records in the file}
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    public long getEntityId(final long record) {
+        return region(record).getLong(position(record));
+    }
+
+    public double getTime(final long record) {
+        return region(record).getDouble(position(record) + 8);
+    }
+
+    public double getCpu(final long record) {
+        return region(record).getDouble(position(record) + 16);
+    }
+
+    public double getRam(final long record) {
+        return region(record).getDouble(position(record) + 24);
+    }
+
+    public double getBw(final long record) {
+        return region(record).getDouble(position(record) + 32);
+    }
+
+    private ByteBuffer region(final long record) {
+        if (record < 0 || record >= records) {
+            throw new IndexOutOfBoundsException("Record %d out of %d records".formatted(record, records));
+        }
+
+        return regions[(int) (record / REGION_RECORDS)];
+    }
+
+    private static int position(final long record) {
+        return (int) (record % REGION_RECORDS) * RECORD_SIZE;
+    }
+
+    /**
+     * Closes the file and releases the mapped regions, so that they can be unmapped.
+     * Records cannot be read after the file is closed.
+     * @throws IOException when the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(regions, null);
+        channel.close();
+    }
+}
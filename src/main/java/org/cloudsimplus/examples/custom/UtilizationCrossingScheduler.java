@@ -0,0 +1,359 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.allocationpolicies.migration.VmAllocationPolicyMigrationStaticThreshold;
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.core.CloudSimTag;
+import org.cloudsimplus.datacenters.Datacenter;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.listeners.EventInfo;
+import org.cloudsimplus.utilizationmodels.UtilizationModel;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Predicts when the CPU utilization of Hosts will cross under/over-utilization thresholds
+ * (such as the ones of a {@link VmAllocationPolicyMigrationStaticThreshold}),
+ * requesting the Datacenter to update Cloudlets processing (and then check if VM migrations are needed)
+ * exactly at that time.
+ * That way, the Datacenter doesn't need a small {@link Datacenter#setSchedulingInterval(double) scheduling interval}
+ * just to notice when Hosts become overloaded or underloaded.
+ *
+ * <p>The Host utilization is predicted from the CPU utilization models of the watched Cloudlets:
+ * {@link PiecewiseLinearUtilizationModel}s are followed along the time,
+ * while other models are considered constant at their current utilization.
+ * The CPU demanded by the Cloudlets in a VM is limited by the VM capacity.
+ * Predictions are computed again every time the simulation clock advances.
+ * The watched Cloudlets are grouped by VM and Host just when some of them finishes
+ * or their VMs are placed, deallocated or migrated, instead of at every clock tick.</p>
+ *
+ * <p>Besides threshold crossings, updates are also requested whenever the utilization rate of the Host changes:
+ * at the next point of any {@link PiecewiseLinearUtilizationModel}
+ * and when the demand of any VM reaches (or drops below) its capacity.
+ * That way, Cloudlets progress is computed correctly even if the Datacenter
+ * scheduling interval is disabled (set to -1),
+ * since the Datacenter only updates Cloudlets processing when some event happens.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class UtilizationCrossingScheduler {
+    /**
+     * The default time (in seconds) the update is requested after a threshold is crossed,
+     * so that the utilization is already beyond the threshold when the Datacenter checks it.
+     */
+    public static final double DEFAULT_CROSSING_DELAY = 0.01;
+
+    /**
+     * The maximum number of linear segments evaluated to predict the next crossing of a single Host.
+     */
+    private static final int MAX_SEGMENTS = 10_000;
+
+    private final Datacenter datacenter;
+    private final double underThreshold;
+    private final double overThreshold;
+    private final List<Cloudlet> cloudlets = new ArrayList<>();
+    private double crossingDelay = DEFAULT_CROSSING_DELAY;
+
+    /**
+     * The time of the last requested update, or a negative value if no update was requested yet.
+     */
+    private double scheduledTime = -1;
+    private int scheduledUpdates;
+
+    /**
+     * The watched Cloudlets which haven't finished yet, grouped by VM and Host.
+     * @see #groupCloudlets()
+     */
+    private final Map<Host, Map<Vm, List<Cloudlet>>> cloudletsByVmByHost = new LinkedHashMap<>();
+
+    /**
+     * Indicates if {@link #cloudletsByVmByHost} must be grouped again,
+     * since Cloudlets finished or VMs changed their Host since the last grouping.
+     */
+    private boolean groupingOutdated = true;
+
+    /**
+     * VMs of the watched Cloudlets, whose Host changes are being listened.
+     */
+    private final Set<Vm> listenedVms = new HashSet<>();
+
+    /**
+     * Creates a scheduler for a Datacenter.
+     * @param datacenter the Datacenter to request updates to
+     * @param underThreshold the Host under-utilization threshold (in scale from 0 to 1)
+     * @param overThreshold the Host over-utilization threshold (in scale from 0 to 1)
+     */
+    public UtilizationCrossingScheduler(
+        final Datacenter datacenter, final double underThreshold, final double overThreshold)
+    {
+        if (underThreshold > overThreshold) {
+            throw new IllegalArgumentException("The under-utilization threshold cannot be greater than the over-utilization one");
+        }
+
+        this.datacenter = requireNonNull(datacenter);
+        this.underThreshold = underThreshold;
+        this.overThreshold = overThreshold;
+    }
+
+    /**
+     * Adds Cloudlets whose CPU utilization is used to predict the utilization of the Hosts running them.
+     * @param cloudlets the Cloudlets to watch
+     * @return this scheduler
+     */
+    public UtilizationCrossingScheduler watch(final Collection<? extends Cloudlet> cloudlets) {
+        for (final Cloudlet cloudlet : cloudlets) {
+            cloudlet.addOnFinishListener(info -> groupingOutdated = true);
+            this.cloudlets.add(cloudlet);
+        }
+
+        groupingOutdated = true;
+        return this;
+    }
+
+    /**
+     * Starts predicting crossings every time the simulation clock advances.
+     * @return this scheduler
+     */
+    public UtilizationCrossingScheduler start() {
+        datacenter.getSimulation().addOnClockTickListener(this::onClockTick);
+        return this;
+    }
+
+    private void onClockTick(final EventInfo info) {
+        final double time = info.getTime();
+        final double updateTime = getNextUpdateTime(time);
+        if (updateTime == Double.POSITIVE_INFINITY || updateTime <= time) {
+            return;
+        }
+
+        //An update is already requested for the same time or before
+        if (scheduledTime > time && scheduledTime <= updateTime) {
+            return;
+        }
+
+        datacenter.getSimulation().send(
+            datacenter, datacenter, updateTime - time, CloudSimTag.VM_UPDATE_CLOUDLET_PROCESSING, null);
+        scheduledTime = updateTime;
+        scheduledUpdates++;
+    }
+
+    /**
+     * Predicts the next time the CPU utilization of any Host running the watched Cloudlets
+     * will cross the under or over-utilization threshold.
+     * @param time the time to start predicting
+     * @return the time of the next crossing or {@link Double#POSITIVE_INFINITY} if no crossing is predicted
+     */
+    public double getNextCrossingTime(final double time) {
+        groupCloudlets();
+        double next = Double.POSITIVE_INFINITY;
+        for (final var entry : cloudletsByVmByHost.entrySet()) {
+            next = Math.min(next, getNextCrossingTime(entry.getKey(), entry.getValue(), time));
+        }
+
+        return next;
+    }
+
+    /**
+     * Gets the next time the Datacenter must update Cloudlets processing:
+     * either just after the next threshold crossing or when the utilization rate of any Host changes,
+     * whichever comes first.
+     * @param time the time to start predicting
+     * @return the time of the next update or {@link Double#POSITIVE_INFINITY} if no update is needed
+     */
+    public double getNextUpdateTime(final double time) {
+        groupCloudlets();
+        double next = Double.POSITIVE_INFINITY;
+        for (final var entry : cloudletsByVmByHost.entrySet()) {
+            final var segment = getSegment(entry.getKey(), entry.getValue(), time);
+            next = Math.min(next, Math.min(segment.crossing() + crossingDelay, segment.end()));
+        }
+
+        return next;
+    }
+
+    /**
+     * Groups the watched Cloudlets by VM and Host, if some of them finished or their VMs changed Host
+     * since the last grouping.
+     * Cloudlets not bound to a VM yet are kept for the next grouping,
+     * since there is no listener to notify when they are bound.
+     */
+    private void groupCloudlets() {
+        if (!groupingOutdated) {
+            return;
+        }
+
+        cloudlets.removeIf(Cloudlet::isFinished);
+        cloudletsByVmByHost.clear();
+        boolean unboundCloudlets = false;
+        for (final Cloudlet cloudlet : cloudlets) {
+            final Vm vm = cloudlet.getVm();
+            if (vm == Vm.NULL) {
+                unboundCloudlets = true;
+                continue;
+            }
+
+            if (listenedVms.add(vm)) {
+                vm.addOnHostAllocationListener(info -> groupingOutdated = true)
+                  .addOnHostDeallocationListener(info -> groupingOutdated = true)
+                  .addOnMigrationFinishListener(info -> groupingOutdated = true);
+            }
+
+            if (vm.getHost() == Host.NULL) {
+                continue;
+            }
+
+            cloudletsByVmByHost
+                .computeIfAbsent(vm.getHost(), host -> new LinkedHashMap<>())
+                .computeIfAbsent(vm, key -> new ArrayList<>())
+                .add(cloudlet);
+        }
+
+        groupingOutdated = unboundCloudlets;
+    }
+
+    /**
+     * Predicts the next crossing for a single Host.
+     * Its utilization is a piecewise-linear function, which is evaluated one linear segment at a time.
+     */
+    private double getNextCrossingTime(final Host host, final Map<Vm, List<Cloudlet>> cloudletsByVm, final double time) {
+        double start = time;
+        for (int i = 0; i < MAX_SEGMENTS && start < Double.POSITIVE_INFINITY; i++) {
+            final var segment = getSegment(host, cloudletsByVm, start);
+            if (segment.crossing() < segment.end()) {
+                return segment.crossing();
+            }
+
+            start = segment.end();
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * A linear segment of the Host utilization function.
+     * @param crossing the time a threshold is crossed inside the segment,
+     *                 or a time at or after the segment end if no threshold is crossed inside it
+     * @param end the time the segment ends (where the utilization rate changes)
+     */
+    private record Segment(double crossing, double end) {}
+
+    /**
+     * Gets the linear segment of the Host utilization function starting at a given time.
+     * A segment ends when the utilization model of any Cloudlet changes its rate
+     * or when the demand of any VM reaches or drops below its capacity.
+     */
+    private Segment getSegment(final Host host, final Map<Vm, List<Cloudlet>> cloudletsByVm, final double start) {
+        final double hostMips = host.getTotalMipsCapacity();
+        double end = Double.POSITIVE_INFINITY;
+        double usedMips = 0;
+        double usedMipsSlope = 0;
+        for (final var entry : cloudletsByVm.entrySet()) {
+            final Vm vm = entry.getKey();
+            double demand = 0;
+            double demandSlope = 0;
+            for (final Cloudlet cloudlet : entry.getValue()) {
+                final double cloudletMips = cloudlet.getPesNumber() * vm.getMips();
+                final UtilizationModel model = cloudlet.getUtilizationModelCpu();
+                if (model instanceof PiecewiseLinearUtilizationModel piecewiseModel) {
+                    demand += cloudletMips * piecewiseModel.getUtilization(start);
+                    demandSlope += cloudletMips * piecewiseModel.getSlope(start);
+                    end = Math.min(end, piecewiseModel.getNextBreakpoint(start));
+                } else {
+                    demand += cloudletMips * model.getUtilization();
+                }
+            }
+
+            final double capacity = vm.getTotalMipsCapacity();
+            //A VM demanding exactly its capacity, but decreasing, is already below it
+            if (demand < capacity || demand == capacity && demandSlope < 0) {
+                usedMips += demand;
+                usedMipsSlope += demandSlope;
+                if (demandSlope > 0) {
+                    end = Math.min(end, start + (capacity - demand) / demandSlope);
+                }
+            } else {
+                usedMips += capacity;
+                if (demandSlope < 0) {
+                    end = Math.min(end, start + (demand - capacity) / -demandSlope);
+                }
+            }
+        }
+
+        final double utilization = usedMips / hostMips;
+        final double slope = usedMipsSlope / hostMips;
+        return new Segment(getCrossingTime(start, utilization, slope), end);
+    }
+
+    /**
+     * Computes when a linear utilization function crosses the over-utilization threshold (when increasing)
+     * or the under-utilization threshold (when decreasing).
+     */
+    private double getCrossingTime(final double start, final double utilization, final double slope) {
+        if (slope > 0 && utilization <= overThreshold) {
+            return start + (overThreshold - utilization) / slope;
+        }
+
+        if (slope < 0 && utilization >= underThreshold) {
+            return start + (utilization - underThreshold) / -slope;
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+
+    public double getCrossingDelay() {
+        return crossingDelay;
+    }
+
+    /**
+     * Sets the time the update is requested after a threshold is crossed,
+     * so that the utilization is already beyond the threshold when the Datacenter checks it.
+     * @param crossingDelay the delay to set (in seconds)
+     * @return this scheduler
+     */
+    public UtilizationCrossingScheduler setCrossingDelay(final double crossingDelay) {
+        if (crossingDelay < 0) {
+            throw new IllegalArgumentException("Crossing delay cannot be negative");
+        }
+
+        this.crossingDelay = crossingDelay;
+        return this;
+    }
+
+    /**
+     * {@return the number of updates requested to the Datacenter}
+     */
+    public int getScheduledUpdates() {
+        return scheduledUpdates;
+    }
+}
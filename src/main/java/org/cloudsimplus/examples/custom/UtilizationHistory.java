@@ -0,0 +1,284 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.utilizationmodels.UtilizationModelStochastic;
+
+import java.util.Objects;
+
+/**
+ * A fixed-capacity history of resource utilization samples, stored into primitive arrays used as a ring buffer.
+ * When the history is full, the oldest entries are overwritten.
+ * That way, keeping the history enabled costs a predictable amount of memory
+ * and no object is allocated per sample,
+ * different from the {@link UtilizationModelStochastic} history, which is a Map that grows without bound
+ * and boxes every time and utilization value.
+ *
+ * <p>Samples may be downsampled to keep a longer time span within the same capacity:
+ * <ul>
+ *     <li>{@link #everyNth(int, int)} keeps only the first sample of every N ones;</li>
+ *     <li>{@link #windowed(int, int)} keeps the mean, minimum and maximum of every window of N samples.</li>
+ * </ul>
+ * The entry for the current window is updated as samples are added, so it's available before the window is complete.
+ * </p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see HistoryRecordingUtilizationModel
+ */
+public class UtilizationHistory {
+    private final int windowSize;
+    private final boolean aggregated;
+
+    /**
+     * The time of each entry (for windows, the time of the first sample).
+     */
+    private final double[] times;
+
+    /**
+     * The utilization of each entry (for aggregated windows, the mean utilization).
+     */
+    private final double[] values;
+
+    /**
+     * The minimum and maximum utilization for each entry,
+     * or null if samples are not {@link #windowed(int, int) aggregated}.
+     */
+    private final double[] minValues;
+    private final double[] maxValues;
+
+    /**
+     * The position of the oldest entry.
+     */
+    private int first;
+    private int size;
+    private long totalSamples;
+
+    /**
+     * Number of samples added to the current window.
+     */
+    private int windowSamples;
+    private double windowSum;
+
+    /**
+     * Creates a history keeping every sample.
+     * @param capacity the maximum number of samples to keep
+     */
+    public UtilizationHistory(final int capacity) {
+        this(capacity, 1, false);
+    }
+
+    private UtilizationHistory(final int capacity, final int windowSize, final boolean aggregated) {
+        if (capacity <= 0 || windowSize <= 0) {
+            throw new IllegalArgumentException("Capacity and window size must be greater than 0");
+        }
+
+        this.windowSize = windowSize;
+        this.aggregated = aggregated;
+        this.times = new double[capacity];
+        this.values = new double[capacity];
+        this.minValues = aggregated ? new double[capacity] : null;
+        this.maxValues = aggregated ? new double[capacity] : null;
+    }
+
+    /**
+     * Creates a history keeping only the first sample of every N ones.
+     * @param capacity the maximum number of samples to keep
+     * @param n the number of samples represented by each kept sample
+     * @return the new history
+     */
+    public static UtilizationHistory everyNth(final int capacity, final int n) {
+        return new UtilizationHistory(capacity, n, false);
+    }
+
+    /**
+     * Creates a history keeping the mean, minimum and maximum of every window of N samples.
+     * @param capacity the maximum number of windows to keep
+     * @param n the number of samples in each window
+     * @return the new history
+     */
+    public static UtilizationHistory windowed(final int capacity, final int n) {
+        return new UtilizationHistory(capacity, n, true);
+    }
+
+    /**
+     * Adds a utilization sample, which must be given in time order.
+     * @param time the time the sample was taken
+     * @param utilization the utilization (in scale from 0 to 1)
+     */
+    public void add(final double time, final double utilization) {
+        totalSamples++;
+        if (windowSamples == 0) {
+            final int entry = newEntry();
+            times[entry] = time;
+            values[entry] = utilization;
+            if (aggregated) {
+                minValues[entry] = utilization;
+                maxValues[entry] = utilization;
+            }
+
+            windowSum = utilization;
+        } else if (aggregated) {
+            final int entry = physical(size - 1);
+            windowSum += utilization;
+            values[entry] = windowSum / (windowSamples + 1);
+            minValues[entry] = Math.min(minValues[entry], utilization);
+            maxValues[entry] = Math.max(maxValues[entry], utilization);
+        }
+
+        windowSamples = (windowSamples + 1) % windowSize;
+    }
+
+    /**
+     * Gets the position for a new entry, overwriting the oldest one if the history is full.
+     */
+    private int newEntry() {
+        if (size < times.length) {
+            return physical(size++);
+        }
+
+        final int entry = first;
+        first = (first + 1) % times.length;
+        return entry;
+    }
+
+    /**
+     * Converts an entry index (from the oldest to the newest) to its position in the arrays.
+     */
+    private int physical(final int index) {
+        final int pos = first + index;
+        return pos < times.length ? pos : pos - times.length;
+    }
+
+    private int checkIndex(final int index) {
+        return physical(Objects.checkIndex(index, size));
+    }
+
+    /**
+     * Removes all entries, keeping the allocated capacity.
+     */
+    public void clear() {
+        first = 0;
+        size = 0;
+        totalSamples = 0;
+        windowSamples = 0;
+        windowSum = 0;
+    }
+
+    /**
+     * {@return the number of entries currently kept}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the maximum number of entries kept}
+     */
+    public int getCapacity() {
+        return times.length;
+    }
+
+    /**
+     * {@return the number of samples represented by each entry}
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * {@return the total number of samples added}, including the ones overwritten or discarded by downsampling
+     */
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+
+    /**
+     * {@return the time of an entry} (for windows, the time of their first sample)
+     * @param index the entry index, from 0 (the oldest entry) to {@link #size()}-1 (the newest one)
+     */
+    public double getTime(final int index) {
+        return times[checkIndex(index)];
+    }
+
+    /**
+     * {@return the utilization of an entry} (for aggregated windows, the mean utilization)
+     * @param index the entry index, from 0 (the oldest entry) to {@link #size()}-1 (the newest one)
+     */
+    public double getUtilization(final int index) {
+        return values[checkIndex(index)];
+    }
+
+    /**
+     * {@return the minimum utilization of an entry}
+     * (for histories not aggregating windows, the same as the {@link #getUtilization(int) utilization})
+     * @param index the entry index, from 0 (the oldest entry) to {@link #size()}-1 (the newest one)
+     */
+    public double getMinUtilization(final int index) {
+        return (aggregated ? minValues : values)[checkIndex(index)];
+    }
+
+    /**
+     * {@return the maximum utilization of an entry}
+     * (for histories not aggregating windows, the same as the {@link #getUtilization(int) utilization})
+     * @param index the entry index, from 0 (the oldest entry) to {@link #size()}-1 (the newest one)
+     */
+    public double getMaxUtilization(final int index) {
+        return (aggregated ? maxValues : values)[checkIndex(index)];
+    }
+
+    /**
+     * {@return a new array with the time of each entry}, from the oldest to the newest one
+     */
+    public double[] getTimes() {
+        return copyInOrder(times);
+    }
+
+    /**
+     * {@return a new array with the utilization of each entry}, from the oldest to the newest one
+     */
+    public double[] getUtilizations() {
+        return copyInOrder(values);
+    }
+
+    private double[] copyInOrder(final double[] array) {
+        final double[] copy = new double[size];
+        final int firstPart = Math.min(size, array.length - first);
+        System.arraycopy(array, first, copy, 0, firstPart);
+        System.arraycopy(array, 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    /**
+     * {@return the memory used by the history arrays (in bytes)}, which doesn't change as samples are added
+     */
+    public long getMemoryBytes() {
+        return (long) times.length * Double.BYTES * (aggregated ? 4 : 2);
+    }
+
+    @Override
+    public String toString() {
+        return "UtilizationHistory{entries=%d/%d, windowSize=%d%s, samples=%d}".formatted(
+            size, times.length, windowSize, aggregated ? " (mean/min/max)" : "", totalSamples);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.core.Simulation;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.listeners.EventInfo;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the CPU utilization of Hosts and VMs into {@link UtilizationSketch}es,
+ * so that utilization percentiles (such as p95 and p99) can be computed for each Host/VM
+ * and for all of them together, using a fixed amount of memory per entity,
+ * instead of storing the whole utilization history.
+ *
+ * <p>The utilization is sampled every time the simulation clock advances,
+ * before entities are updated for the new time.
+ * That way, each sample is the utilization since the previous clock tick,
+ * which is weighted by the time elapsed since then.
+ * Hosts are sampled only while active and VMs only while created.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class UtilizationPercentileCollector {
+    private final int buckets;
+    private final List<Host> hosts = new ArrayList<>();
+    private final List<Vm> vms = new ArrayList<>();
+    private final Map<Host, UtilizationSketch> hostSketches = new IdentityHashMap<>();
+    private final Map<Vm, UtilizationSketch> vmSketches = new IdentityHashMap<>();
+    private double lastTime;
+
+    /**
+     * Creates a collector using sketches with the {@link UtilizationSketch#DEFAULT_BUCKETS default number of buckets}.
+     * @param simulation the simulation to collect utilization from
+     */
+    public UtilizationPercentileCollector(final Simulation simulation) {
+        this(simulation, UtilizationSketch.DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Creates a collector using sketches with a given number of buckets.
+     * @param simulation the simulation to collect utilization from
+     * @param buckets the number of buckets of each sketch
+     */
+    public UtilizationPercentileCollector(final Simulation simulation, final int buckets) {
+        this.buckets = buckets;
+        this.lastTime = simulation.clock();
+        simulation.addOnClockTickListener(this::onClockTick);
+    }
+
+    /**
+     * Adds Hosts to collect the CPU utilization from.
+     * @param hosts the Hosts to add
+     * @return this collector
+     */
+    public UtilizationPercentileCollector addHosts(final Collection<? extends Host> hosts) {
+        for (final Host host : hosts) {
+            if (hostSketches.putIfAbsent(host, new UtilizationSketch(buckets)) == null) {
+                this.hosts.add(host);
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds VMs to collect the CPU utilization from.
+     * @param vms the VMs to add
+     * @return this collector
+     */
+    public UtilizationPercentileCollector addVms(final Collection<? extends Vm> vms) {
+        for (final Vm vm : vms) {
+            if (vmSketches.putIfAbsent(vm, new UtilizationSketch(buckets)) == null) {
+                this.vms.add(vm);
+            }
+        }
+
+        return this;
+    }
+
+    private void onClockTick(final EventInfo info) {
+        final double elapsed = info.getTime() - lastTime;
+        lastTime = info.getTime();
+        if (elapsed <= 0) {
+            return;
+        }
+
+        for (final Host host : hosts) {
+            if (host.isActive()) {
+                hostSketches.get(host).add(host.getCpuPercentUtilization(), elapsed);
+            }
+        }
+
+        for (final Vm vm : vms) {
+            if (vm.isCreated()) {
+                vmSketches.get(vm).add(vm.getCpuPercentUtilization(), elapsed);
+            }
+        }
+    }
+
+    /**
+     * {@return the CPU utilization sketch of a Host}
+     * @param host the Host to get the sketch from
+     * @throws IllegalArgumentException if the Host wasn't added to the collector
+     */
+    public UtilizationSketch getSketch(final Host host) {
+        return requireSketch(hostSketches.get(host), host);
+    }
+
+    /**
+     * {@return the CPU utilization sketch of a VM}
+     * @param vm the VM to get the sketch from
+     * @throws IllegalArgumentException if the VM wasn't added to the collector
+     */
+    public UtilizationSketch getSketch(final Vm vm) {
+        return requireSketch(vmSketches.get(vm), vm);
+    }
+
+    private static UtilizationSketch requireSketch(final UtilizationSketch sketch, final Object entity) {
+        if (sketch == null) {
+            throw new IllegalArgumentException(entity + " wasn't added to the collector");
+        }
+
+        return sketch;
+    }
+
+    /**
+     * {@return a new sketch merging the CPU utilization of all Hosts}
+     */
+    public UtilizationSketch getAllHostsSketch() {
+        return merge(hostSketches.values());
+    }
+
+    /**
+     * {@return a new sketch merging the CPU utilization of all VMs}
+     */
+    public UtilizationSketch getAllVmsSketch() {
+        return merge(vmSketches.values());
+    }
+
+    private UtilizationSketch merge(final Collection<UtilizationSketch> sketches) {
+        final var merged = new UtilizationSketch(buckets);
+        sketches.forEach(merged::merge);
+        return merged;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-memory sketch of the distribution of resource utilization values (in scale from 0 to 1),
+ * which gives percentiles (such as p95 and p99) without storing the utilization history.
+ * It's a histogram with equal-width buckets, similar to an HDR histogram covering a single order of magnitude,
+ * since utilization has a bounded range.
+ * That way:
+ * <ul>
+ *     <li>memory is constant and defined only by the number of buckets;</li>
+ *     <li>adding a value takes O(1);</li>
+ *     <li>percentiles have an absolute error of at most half a bucket width
+ *         (0.05% for the {@link #DEFAULT_BUCKETS default number of buckets});</li>
+ *     <li>sketches with the same number of buckets can be {@link #merge(UtilizationSketch) merged}
+ *         (for instance, to get percentiles for all Hosts in a Datacenter).</li>
+ * </ul>
+ *
+ * <p>Values can be weighted (for instance, by the time the utilization lasted),
+ * so that percentiles are not biased by how frequently the utilization is sampled.
+ * Values out of the range from 0 to 1 are counted in the first or last bucket,
+ * but the exact minimum and maximum values are kept.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see UtilizationPercentileCollector
+ */
+public class UtilizationSketch {
+    /**
+     * The default number of buckets, which gives percentiles with an error of at most 0.05%.
+     */
+    public static final int DEFAULT_BUCKETS = 1000;
+
+    private final double[] weights;
+    private long count;
+    private double totalWeight;
+    private double weightedSum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates a sketch with the {@link #DEFAULT_BUCKETS default number of buckets}.
+     */
+    public UtilizationSketch() {
+        this(DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Creates a sketch with a given number of buckets.
+     * @param buckets the number of buckets, which defines the precision and the memory used by the sketch
+     */
+    public UtilizationSketch(final int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("The number of buckets must be greater than 0");
+        }
+
+        this.weights = new double[buckets];
+    }
+
+    /**
+     * Adds a utilization value with weight 1.
+     * @param utilization the utilization (in scale from 0 to 1)
+     */
+    public void add(final double utilization) {
+        add(utilization, 1);
+    }
+
+    /**
+     * Adds a utilization value with a given weight.
+     * @param utilization the utilization (in scale from 0 to 1)
+     * @param weight the value weight (such as the time the utilization lasted), which is ignored if not positive
+     */
+    public void add(final double utilization, final double weight) {
+        if (weight <= 0 || Double.isNaN(utilization)) {
+            return;
+        }
+
+        weights[bucket(utilization)] += weight;
+        count++;
+        totalWeight += weight;
+        weightedSum += utilization * weight;
+        min = Math.min(min, utilization);
+        max = Math.max(max, utilization);
+    }
+
+    private int bucket(final double utilization) {
+        final int bucket = (int) (utilization * weights.length);
+        return Math.max(0, Math.min(weights.length - 1, bucket));
+    }
+
+    /**
+     * Adds all values from another sketch into this one.
+     * @param other the sketch to merge, which must have the same number of buckets
+     * @return this sketch
+     */
+    public UtilizationSketch merge(final UtilizationSketch other) {
+        if (other.weights.length != weights.length) {
+            throw new IllegalArgumentException("Only sketches with the same number of buckets can be merged");
+        }
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] += other.weights[i];
+        }
+
+        count += other.count;
+        totalWeight += other.totalWeight;
+        weightedSum += other.weightedSum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Gets a quantile of the utilization values.
+     * @param quantile the quantile (in scale from 0 to 1, such as 0.99 for the 99th percentile)
+     * @return the approximate utilization value at the given quantile (in scale from 0 to 1),
+     *         or {@link Double#NaN} if no value was added
+     */
+    public double getQuantile(final double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be in scale from 0 to 1");
+        }
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        final double target = quantile * totalWeight;
+        double cumulative = 0;
+        int bucket = 0;
+        for (; bucket < weights.length - 1; bucket++) {
+            cumulative += weights[bucket];
+            if (cumulative >= target && weights[bucket] > 0) {
+                break;
+            }
+        }
+
+        //The extreme buckets return the exact min/max, so that p0, p100 and constant loads are exact
+        if (bucket == bucket(max)) {
+            return max;
+        }
+
+        if (bucket == bucket(min)) {
+            return min;
+        }
+
+        /* Rounding errors in the cumulative weight may make the search go past the last non-empty bucket,
+         * so the result is clamped to the range of values added. */
+        return Math.max(min, Math.min(max, (bucket + 0.5) / weights.length));
+    }
+
+    /**
+     * Gets a percentile of the utilization values.
+     * @param percentile the percentile (from 0 to 100, such as 95 for the p95)
+     * @return the approximate utilization value at the given percentile (in scale from 0 to 1),
+     *         or {@link Double#NaN} if no value was added
+     */
+    public double getPercentile(final double percentile) {
+        return getQuantile(percentile / 100.0);
+    }
+
+    /**
+     * {@return the (weighted) mean of the utilization values}, or {@link Double#NaN} if no value was added
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : weightedSum / totalWeight;
+    }
+
+    /**
+     * {@return the minimum utilization value}, or {@link Double#NaN} if no value was added
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * {@return the maximum utilization value}, or {@link Double#NaN} if no value was added
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * {@return the number of values added}
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * {@return the number of buckets}
+     */
+    public int getBuckets() {
+        return weights.length;
+    }
+
+    /**
+     * Removes all values, keeping the buckets allocated.
+     */
+    public void reset() {
+        Arrays.fill(weights, 0);
+        count = 0;
+        totalWeight = 0;
+        weightedSum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return "UtilizationSketch{count=%d, mean=%.4f, p50=%.4f, p95=%.4f, p99=%.4f, max=%.4f}".formatted(
+            count, getMean(), getPercentile(50), getPercentile(95), getPercentile(99), getMax());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.brokers.DatacenterBroker;
+import org.cloudsimplus.examples.brokers.DatacenterBrokerBatchVmCreationRequestExample;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toCollection;
+
+/**
+ * A {@link VmAllocationPolicyCapacityIndexed} that, when receiving a batch of VMs
+ * (such as when the {@link DatacenterBroker#setBatchVmCreation(boolean) broker batch VM creation} is enabled),
+ * sorts the whole batch from the largest to the smallest VM before placing them.
+ * That implements the classic first-fit decreasing (FFD), best-fit decreasing (BFD)
+ * and worst-fit decreasing heuristics, according to the {@link FitStrategy} given.
+ *
+ * <p>Placing the largest VMs first reduces fragmentation, so that more VMs of the batch
+ * can be placed at once, reducing the number of VMs that fail to be created
+ * and have to be requested again by the broker.
+ * Since VM size has multiple dimensions, it's computed as the sum of the
+ * requested PEs, RAM and BW, each one normalized by the largest capacity of that resource among all Hosts.
+ * The sorted batch is placed in a single pass over the capacity index,
+ * which finds the Host for each VM without a linear search over the Hosts
+ * and is updated in place after each placement.</p>
+ *
+ * <p>VMs requested individually are placed exactly as in the superclass.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see DatacenterBrokerBatchVmCreationRequestExample
+ */
+public class VmAllocationPolicyBatchFitDecreasing extends VmAllocationPolicyCapacityIndexed {
+    /**
+     * Creates a policy using the first-fit decreasing strategy.
+     */
+    public VmAllocationPolicyBatchFitDecreasing() {
+        this(FitStrategy.FIRST_FIT);
+    }
+
+    /**
+     * Creates a policy using a given strategy.
+     * @param strategy the strategy to select a Host for each VM, after the batch is sorted
+     */
+    public VmAllocationPolicyBatchFitDecreasing(final FitStrategy strategy) {
+        super(strategy);
+    }
+
+    /**
+     * Places a batch of VMs, starting from the largest ones.
+     * @param vmCollection the VMs to place
+     * @return the list of VMs which couldn't be placed (in the order they were given)
+     */
+    @Override
+    public <T extends Vm> List<T> allocateHostForVm(final Collection<T> vmCollection) {
+        requireNonNull(vmCollection, "The list of VMs to allocate a host to cannot be null");
+        final var sortedVms = sortBySizeDecreasing(vmCollection);
+
+        final Set<Vm> failedVms = Collections.newSetFromMap(new IdentityHashMap<>());
+        final var hostIndex = getIndex();
+        for (final T vm : sortedVms) {
+            final int pos = vm.isCreated() ? HostCapacityIndex.NOT_FOUND : findHostPosition(hostIndex, vm);
+            if (pos == HostCapacityIndex.NOT_FOUND || !placeVm(vm, hostIndex.getHost(pos))) {
+                failedVms.add(vm);
+            }
+        }
+
+        if (failedVms.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+
+        //Returns failed VMs in the same order they were requested
+        return vmCollection.stream().filter(failedVms::contains).collect(toCollection(ArrayList::new));
+    }
+
+    /**
+     * Places a VM into a Host found in the index, which updates the Host inside the index.
+     * @return true if the VM was placed, false otherwise
+     */
+    private boolean placeVm(final Vm vm, final Host host) {
+        return host.isActive() && allocateHostForVm(vm, host).fully();
+    }
+
+    /**
+     * Sorts VMs from the largest to the smallest one.
+     * Since the sort is stable, VMs with the same size keep the order they were requested.
+     * @param vmCollection the VMs to sort
+     * @return a new sorted list
+     */
+    private <T extends Vm> List<T> sortBySizeDecreasing(final Collection<T> vmCollection) {
+        final List<Host> hostList = getHostList();
+        final double maxPes = Math.max(1, hostList.stream().mapToLong(Host::getPesNumber).max().orElse(1));
+        final double maxRam = Math.max(1, hostList.stream().mapToLong(host -> host.getRam().getCapacity()).max().orElse(1));
+        final double maxBw = Math.max(1, hostList.stream().mapToLong(host -> host.getBw().getCapacity()).max().orElse(1));
+
+        final var sortedVms = new ArrayList<T>(vmCollection);
+        final Comparator<T> sizeComparator = Comparator.comparingDouble(vm ->
+            vm.getPesNumber() / maxPes + vm.getRam().getCapacity() / maxRam + vm.getBw().getCapacity() / maxBw);
+        sortedVms.sort(sizeComparator.reversed());
+        return sortedVms;
+    }
+}
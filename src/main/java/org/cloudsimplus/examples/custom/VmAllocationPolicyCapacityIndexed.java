@@ -0,0 +1,194 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.custom;
+
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicy;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyAbstract;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyBestFit;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyFirstFit;
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.hosts.HostSuitability;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link VmAllocationPolicy} that keeps a {@link HostCapacityIndex}
+ * with the free PEs, RAM and BW of every Host,
+ * so that a suitable Host is usually found in O(log n) time,
+ * instead of the O(n) linear search performed by policies such as
+ * the {@link VmAllocationPolicyFirstFit} and {@link VmAllocationPolicyBestFit}
+ * (where n is the number of Hosts).
+ * It's useful for large-scale simulations, with hundreds of thousands of Hosts.
+ *
+ * <p>The index is updated every time a VM is placed into or removed from a Host
+ * through this policy (including when VMs are migrated).
+ * Since the Host capacity may also change without the policy being notified
+ * (such as when resources are reserved for a VM migrating into a Host),
+ * every Host found in the index is checked by {@link Host#isSuitableForVm(Vm)}
+ * before being returned. If it is not suitable anymore,
+ * the search continues and the Host is updated in the index afterwards.
+ * If Hosts are added to the Datacenter after the simulation starts,
+ * the index is rebuilt.</p>
+ *
+ * <p>The index considers that each VM PE requires a whole Host PE,
+ * as performed by the default {@link org.cloudsimplus.schedulers.vm.VmSchedulerSpaceShared}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class VmAllocationPolicyCapacityIndexed extends VmAllocationPolicyAbstract {
+    /**
+     * The strategies to select a Host among the suitable ones.
+     */
+    public enum FitStrategy {
+        /** Selects the first suitable Host in the Datacenter Host list, as the {@link VmAllocationPolicyFirstFit}. */
+        FIRST_FIT,
+
+        /** Selects the suitable Host with the fewest free PEs, as the {@link VmAllocationPolicyBestFit}. */
+        BEST_FIT,
+
+        /** Selects the suitable Host with the most free PEs, as the {@link VmAllocationPolicySimple}. */
+        WORST_FIT
+    }
+
+    private final FitStrategy strategy;
+    private HostCapacityIndex index;
+
+    /**
+     * Creates a policy using the {@link FitStrategy#FIRST_FIT} strategy.
+     */
+    public VmAllocationPolicyCapacityIndexed() {
+        this(FitStrategy.FIRST_FIT);
+    }
+
+    /**
+     * Creates a policy using a given strategy.
+     * @param strategy the strategy to select a Host among the suitable ones
+     */
+    public VmAllocationPolicyCapacityIndexed(final FitStrategy strategy) {
+        super();
+        this.strategy = requireNonNull(strategy);
+    }
+
+    public FitStrategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    protected Optional<Host> defaultFindHostForVm(final Vm vm) {
+        final var hostIndex = getIndex();
+        final int pos = findHostPosition(hostIndex, vm);
+        return pos == HostCapacityIndex.NOT_FOUND ? Optional.empty() : Optional.of(hostIndex.getHost(pos));
+    }
+
+    /**
+     * Finds a suitable Host for a VM in the index, according to the {@link #getStrategy() strategy}.
+     * @param hostIndex the index to search
+     * @param vm the VM to find a Host for
+     * @return the Host position in the index, or {@link HostCapacityIndex#NOT_FOUND} if no Host is suitable
+     */
+    final int findHostPosition(final HostCapacityIndex hostIndex, final Vm vm) {
+        final long pes = vm.getPesNumber();
+        final long ram = vm.getRam().getCapacity();
+        final long bw = vm.getBw().getCapacity();
+
+        //Positions of Hosts found in the index which aren't suitable for the VM due to other requirements
+        int[] excluded = null;
+        int excludedCount = 0;
+        try {
+            int pos;
+            while ((pos = find(hostIndex, pes, ram, bw)) != HostCapacityIndex.NOT_FOUND) {
+                if (hostIndex.getHost(pos).isSuitableForVm(vm)) {
+                    return pos;
+                }
+
+                if (excluded == null) {
+                    excluded = new int[4];
+                } else if (excludedCount == excluded.length) {
+                    excluded = Arrays.copyOf(excluded, excludedCount * 2);
+                }
+
+                excluded[excludedCount++] = pos;
+                hostIndex.exclude(pos);
+            }
+
+            return HostCapacityIndex.NOT_FOUND;
+        } finally {
+            for (int i = 0; i < excludedCount; i++) {
+                hostIndex.update(excluded[i]);
+            }
+        }
+    }
+
+    private int find(final HostCapacityIndex hostIndex, final long pes, final long ram, final long bw) {
+        return switch (strategy) {
+            case FIRST_FIT -> hostIndex.firstFit(pes, ram, bw);
+            case BEST_FIT -> hostIndex.bestFit(pes, ram, bw);
+            case WORST_FIT -> hostIndex.worstFit(pes, ram, bw);
+        };
+    }
+
+    @Override
+    public HostSuitability allocateHostForVm(final Vm vm, final Host host) {
+        final var suitability = super.allocateHostForVm(vm, host);
+        updateIndex(host);
+        return suitability;
+    }
+
+    @Override
+    public void deallocateHostForVm(final Vm vm) {
+        final Host host = vm.getHost();
+        super.deallocateHostForVm(vm);
+        updateIndex(host);
+    }
+
+    /**
+     * Updates the free capacity of a Host inside the index.
+     * If the Host isn't indexed yet (because it was added after the index was built),
+     * the index is discarded to be rebuilt on the next search.
+     * @param host the Host to update
+     */
+    private void updateIndex(final Host host) {
+        if (index != null && host != null && host != Host.NULL && !index.update(host)) {
+            index = null;
+        }
+    }
+
+    /**
+     * {@return the index of Hosts capacity} It's built when required for the first time,
+     * since Hosts are only known after the policy is attached to a Datacenter,
+     * and rebuilt when Hosts are added to the Datacenter.
+     */
+    final HostCapacityIndex getIndex() {
+        if (index == null || index.size() != getHostList().size()) {
+            index = new HostCapacityIndex(getHostList());
+        }
+
+        return index;
+    }
+}
@@ -32,12 +32,15 @@ import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.core.Simulation;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
-import org.cloudsimplus.distributions.ContinuousDistribution;
 import org.cloudsimplus.distributions.PoissonDistr;
-import org.cloudsimplus.distributions.UniformDistr;
+import org.cloudsimplus.examples.traces.StreamingWorkloadSource;
+import org.cloudsimplus.examples.traces.synthetic.ArrivalProcess;
+import org.cloudsimplus.examples.traces.synthetic.DiurnalArrivalProcess;
+import org.cloudsimplus.examples.traces.synthetic.MmppArrivalProcess;
+import org.cloudsimplus.examples.traces.synthetic.SizeDistribution;
+import org.cloudsimplus.examples.traces.synthetic.SyntheticWorkload;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
-import org.cloudsimplus.listeners.EventInfo;
 import org.cloudsimplus.listeners.EventListener;
 import org.cloudsimplus.resources.Pe;
 import org.cloudsimplus.resources.PeSimple;
@@ -63,16 +66,19 @@ import java.util.List;
  * Lets say you want to run a simulation for 24 hours.
  * This way, you just need to call {@code simulation.terminateAt(60*60*24)} (realize the value is in seconds).</p>
  *
- * <p>It creates Cloudlets randomly, according to a pseudo random number generator (PRNG) following the
- * {@link UniformDistr uniform distribution}. You can change the PRNG as you wish,
- * for instance, to use a {@link PoissonDistr} arrival process.</p>
+ * <p>It creates Cloudlets randomly, according to a {@link SyntheticWorkload} whose arrivals follow
+ * a Poisson process (such as one following a {@link PoissonDistr}).
+ * You can change the {@link ArrivalProcess} as you wish,
+ * for instance, to use a {@link DiurnalArrivalProcess} or a bursty {@link MmppArrivalProcess},
+ * and define heavy-tailed Cloudlet lengths using a {@link SizeDistribution}.</p>
  *
- * <p>The example uses the CloudSim Plus {@link EventListener} feature
- * to enable monitoring the simulation and dynamically creating Cloudlets and VMs at runtime.
- * It relies on
- * <a href="https://docs.oracle.com/javase/tutorial/java/javaOO/methodreferences.html">Java 8 Method References</a>
- * to set a method to be called for {@link Simulation#addOnClockTickListener(EventListener) onClockTick events}.
- * It enables getting notifications when the simulation clock advances, then creating and submitting new cloudlets.
+ * <p>Cloudlets are not created before the simulation starts, but only as they are about to arrive.
+ * A {@link StreamingWorkloadSource} uses the CloudSim Plus {@link EventListener} feature
+ * to be notified when the simulation clock advances
+ * (via {@link Simulation#addOnClockTickListener(EventListener) onClockTick events}),
+ * then creating and submitting new cloudlets.
+ * Since the source is created with a window of a single Cloudlet,
+ * the next Cloudlet is created only after the previous one arrives.
  * </p>
  *
  * <p>Since the simulation was set to keep waiting for new events
@@ -110,12 +116,24 @@ public class RandomCloudletsArrivalExample {
      */
     private static final int INITIAL_CLOUDLETS_NUMBER = 5;
 
+    /**
+     * Mean number of Cloudlets randomly arriving per second.
+     */
+    private static final double CLOUDLET_ARRIVAL_RATE = 0.3;
+    private static final long SEED = 1;
+
+    /**
+     * Number of random Cloudlets created ahead of their arrival.
+     * @see StreamingWorkloadSource#getWindowSize()
+     */
+    private static final int ARRIVAL_WINDOW_SIZE = 1;
+
     private final CloudSimPlus simulation;
     private final DatacenterBroker broker0;
     private final List<Vm> vmList;
     private final List<Cloudlet> cloudletList;
     private final Datacenter datacenter0;
-    private final ContinuousDistribution random;
+    private final StreamingWorkloadSource randomCloudlets;
 
     public static void main(String[] args) {
         new RandomCloudletsArrivalExample();
@@ -127,7 +145,6 @@ public class RandomCloudletsArrivalExample {
         //Log.setLevel(ch.qos.logback.classic.Level.WARN);
 
         simulation = new CloudSimPlus();
-        random = new UniformDistr();
         simulation.terminateAt(TIME_TO_TERMINATE_SIMULATION);
         datacenter0 = createDatacenter();
 
@@ -138,18 +155,18 @@ public class RandomCloudletsArrivalExample {
         broker0.submitVmList(vmList);
         broker0.submitCloudletList(cloudletList);
 
-        simulation.addOnClockTickListener(this::createRandomCloudlets);
+        randomCloudlets = new StreamingWorkloadSource(broker0, createRandomCloudlets().stream(), ARRIVAL_WINDOW_SIZE).start();
 
         simulation.start();
 
         final var cloudletFinishedList = broker0.getCloudletFinishedList();
         new CloudletsTableBuilder(cloudletFinishedList).build();
 
-        final int randomCloudlets = cloudletList.size()-INITIAL_CLOUDLETS_NUMBER;
+        final long randomCloudletsNumber = randomCloudlets.getSubmittedCloudlets();
         System.out.println(
             "Number of Arrived Cloudlets: " +
-            cloudletList.size() + " ("+INITIAL_CLOUDLETS_NUMBER+" statically created and "+
-            randomCloudlets+" randomly created during simulation runtime)");
+            (INITIAL_CLOUDLETS_NUMBER + randomCloudletsNumber) + " ("+INITIAL_CLOUDLETS_NUMBER+" statically created and "+
+            randomCloudletsNumber+" randomly created during simulation runtime)");
     }
 
     /**
@@ -213,8 +230,12 @@ public class RandomCloudletsArrivalExample {
     }
 
     private Cloudlet createCloudlet() {
+        return createCloudlet(CLOUDLET_LENGTH, CLOUDLET_PES);
+    }
+
+    private Cloudlet createCloudlet(final long length, final int pes) {
         final var um = new UtilizationModelDynamic(0.2);
-        return new CloudletSimple(CLOUDLET_LENGTH, CLOUDLET_PES)
+        return new CloudletSimple(length, pes)
             .setFileSize(1024)
             .setOutputSize(1024)
             .setUtilizationModelCpu(new UtilizationModelFull())
@@ -223,18 +244,15 @@ public class RandomCloudletsArrivalExample {
     }
 
     /**
-     * Simulates the dynamic arrival of Cloudlets, randomly during simulation runtime.
-     * At any time the simulation clock updates, a new Cloudlet will be
-     * created with a probability of 30%.
-     *
-     * @param evt
+     * Defines the dynamic arrival of Cloudlets, randomly during simulation runtime,
+     * following a Poisson process with a mean of {@link #CLOUDLET_ARRIVAL_RATE} Cloudlets per second.
+     * Cloudlets are lazily created just when they are about to arrive.
      */
-    private void createRandomCloudlets(final EventInfo evt) {
-        if(random.sample() <= 0.3){
-            System.out.printf("%n# Randomly creating 1 Cloudlet at time %.2f%n", evt.getTime());
-            final var cloudlet = createCloudlet();
-            cloudletList.add(cloudlet);
-            broker0.submitCloudlet(cloudlet);
-        }
+    private SyntheticWorkload createRandomCloudlets() {
+        return new SyntheticWorkload(ArrivalProcess.poisson(CLOUDLET_ARRIVAL_RATE), SEED)
+            .setEndTime(TIME_TO_TERMINATE_SIMULATION)
+            .setLength(SizeDistribution.constant(CLOUDLET_LENGTH))
+            .setPes(SizeDistribution.constant(CLOUDLET_PES))
+            .setCloudletFactory((id, length, pes) -> createCloudlet(length, pes));
     }
 }
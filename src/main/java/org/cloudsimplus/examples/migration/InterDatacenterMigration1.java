@@ -29,7 +29,6 @@ import org.cloudsimplus.allocationpolicies.migration.VmAllocationPolicyMigration
 import org.cloudsimplus.brokers.DatacenterBroker;
 import org.cloudsimplus.brokers.DatacenterBrokerSimple;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
-import org.cloudsimplus.builders.tables.HostHistoryTableBuilder;
 import org.cloudsimplus.cloudlets.Cloudlet;
 import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
@@ -37,6 +36,7 @@ import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterCharacteristics;
 import org.cloudsimplus.datacenters.DatacenterCharacteristics.Distribution;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.HostStateHistoryRecorder;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.listeners.DatacenterBrokerEventInfo;
@@ -118,8 +118,10 @@ import static java.util.stream.Collectors.joining;
  * define new appropriated ones to allow the simulation
  * to run correctly.</p>
  *
- * <p>Realize that Host State History is just collected
- * if you enable that by calling {@link Host#setStateHistoryEnabled(boolean)}.</p>
+ * <p>The Host State History is collected by a {@link HostStateHistoryRecorder},
+ * which stores only Host state changes instead of
+ * enabling it by calling {@link Host#setStateHistoryEnabled(boolean)}.
+ * The history for every scheduling interval is rebuilt just when printed.</p>
  *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 7.2.0
@@ -219,6 +221,7 @@ public final class InterDatacenterMigration1 {
 
     private final CloudSimPlus simulation;
     private final List<Datacenter> datacenterList;
+    private final HostStateHistoryRecorder historyRecorder;
 
     private int migrationsNumber;
     private int createdVms;
@@ -237,6 +240,8 @@ public final class InterDatacenterMigration1 {
         simulation = new CloudSimPlus();
 
         this.datacenterList = createDatacenters();
+        this.historyRecorder = new HostStateHistoryRecorder(simulation);
+        datacenterList.forEach(dc -> historyRecorder.addHosts(dc.getHostList()));
         this.brokerList = createBrokers();
         createVmsAndCloudlets();
 
@@ -309,12 +314,8 @@ public final class InterDatacenterMigration1 {
             "%nHosts CPU usage History (when allocated MIPS is lower than requested one, it is due to VM migration overhead)");
         datacenterList.stream()
                       .map(Datacenter::getHostList).flatMap(List::stream)
-                      .filter(h -> !h.getStateHistory().isEmpty())
-                      .forEach(this::printHostStateHistory);
-    }
-
-    private void printHostStateHistory(final Host host) {
-        new HostHistoryTableBuilder(host).setTitle(host.toString()).build();
+                      .filter(h -> historyRecorder.getChangesNumber(h) > 0)
+                      .forEach(host -> historyRecorder.printHistory(host, SCHEDULING_INTERVAL));
     }
 
     /**
@@ -493,8 +494,7 @@ public final class InterDatacenterMigration1 {
         final var peList = createPeList(pesNumber);
         final var host = new HostSimple(ram, HOST_BW, HOST_STORAGE, peList);
         host.setId(createdHosts++)
-            .setVmScheduler(new VmSchedulerTimeShared())
-            .setStateHistoryEnabled(true);
+            .setVmScheduler(new VmSchedulerTimeShared());
         return host;
     }
 
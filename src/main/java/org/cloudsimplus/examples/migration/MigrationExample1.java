@@ -29,12 +29,14 @@ import org.cloudsimplus.allocationpolicies.migration.VmAllocationPolicyMigration
 import org.cloudsimplus.brokers.DatacenterBroker;
 import org.cloudsimplus.brokers.DatacenterBrokerSimple;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
-import org.cloudsimplus.builders.tables.HostHistoryTableBuilder;
 import org.cloudsimplus.cloudlets.Cloudlet;
 import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.HostStateHistoryRecorder;
+import org.cloudsimplus.examples.custom.PiecewiseLinearUtilizationModel;
+import org.cloudsimplus.examples.custom.UtilizationCrossingScheduler;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.listeners.DatacenterBrokerEventInfo;
@@ -48,7 +50,6 @@ import org.cloudsimplus.schedulers.vm.VmSchedulerTimeShared;
 import org.cloudsimplus.selectionpolicies.VmSelectionPolicyMinimumUtilization;
 import org.cloudsimplus.util.Log;
 import org.cloudsimplus.utilizationmodels.UtilizationModel;
-import org.cloudsimplus.utilizationmodels.UtilizationModelDynamic;
 import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
@@ -89,8 +90,12 @@ import static java.util.Comparator.comparingLong;
  * <p>The {@link VmAllocationPolicyMigrationBestFitStaticThreshold}
  * allows setting static under/over CPU utilization thresholds to
  * enable VM migration.
- * The example uses a {@link UtilizationModelDynamic} to define that CPU usage of cloudlets
+ * The example uses a {@link PiecewiseLinearUtilizationModel} to define that CPU usage of cloudlets
  * increases along simulation time.
+ * Since the CPU usage at any time is computed directly (instead of being incremented at every
+ * scheduling interval), a {@link UtilizationCrossingScheduler} predicts when Hosts will cross
+ * the utilization thresholds, so that migrations are checked exactly at that time,
+ * regardless of the {@link #SCHEDULING_INTERVAL}.
  * The first 2 Cloudlets start with a usage of 80% of CPU,
  * which increases along the time (see {@link #CLOUDLET_CPU_INCREMENT_PER_SECOND}).
  * The third Cloudlet starts at a lower CPU usage and increases in the same way.
@@ -116,13 +121,18 @@ import static java.util.Comparator.comparingLong;
  * define new appropriated ones to allow the simulation
  * to run correctly.</p>
  *
- * <p>Realize that Host State History is just collected
- * if you enable that by calling {@link Host#setStateHistoryEnabled(boolean)}.</p>
+ * <p>The Host State History is collected by a {@link HostStateHistoryRecorder},
+ * which stores only Host state changes instead of
+ * enabling it by calling {@link Host#setStateHistoryEnabled(boolean)}.
+ * The history for every scheduling interval is rebuilt just when printed.</p>
  *
  * @author Manoel Campos da Silva Filho
  */
 public final class MigrationExample1 {
     /**
+     * The interval used to collect the Host state history shown at the end.
+     * It doesn't change when migrations happen, since Host threshold crossings
+     * are predicted by a {@link UtilizationCrossingScheduler}.
      * @see Datacenter#getSchedulingInterval()
      */
     private static final int  SCHEDULING_INTERVAL = 1;
@@ -205,6 +215,7 @@ public final class MigrationExample1 {
     private final CloudSimPlus simulation;
     private VmAllocationPolicyMigrationStaticThreshold allocationPolicy;
     private List<Host> hostList;
+    private HostStateHistoryRecorder historyRecorder;
     private int migrationsNumber = 0;
 
     public static void main(String[] args) {
@@ -221,12 +232,18 @@ public final class MigrationExample1 {
         System.out.println("Starting " + getClass().getSimpleName());
         simulation = new CloudSimPlus();
 
-        @SuppressWarnings("unused")
         final var datacenter0 = createDatacenter();
+        historyRecorder = new HostStateHistoryRecorder(simulation).addHosts(hostList);
         broker = new DatacenterBrokerSimple(simulation);
         createAndSubmitVms(broker);
         createAndSubmitCloudlets(broker);
 
+        new UtilizationCrossingScheduler(
+                datacenter0, HOST_UNDER_UTILIZATION_THRESHOLD_FOR_VM_MIGRATION,
+                HOST_OVER_UTILIZATION_THRESHOLD_FOR_VM_MIGRATION)
+            .watch(broker.getCloudletSubmittedList())
+            .start();
+
         broker.addOnVmsCreatedListener(this::onVmsCreatedListener);
 
         simulation.start();
@@ -308,13 +325,13 @@ public final class MigrationExample1 {
     }
 
     private void printHostStateHistory(final Host host) {
-        new HostHistoryTableBuilder(host).setTitle(host.toString()).build();
+        historyRecorder.printHistory(host, SCHEDULING_INTERVAL);
     }
 
     public void createAndSubmitCloudlets(DatacenterBroker broker) {
         final var newCloudletList = new ArrayList<Cloudlet>(VM_PES.length);
         var cloudlet = Cloudlet.NULL;
-        UtilizationModelDynamic um = createCpuUtilizationModel(CLOUDLET_INITIAL_CPU_PERCENTAGE, 1);
+        final UtilizationModel um = createCpuUtilizationModel(CLOUDLET_INITIAL_CPU_PERCENTAGE, 1);
         for(final var vm: vmList){
             cloudlet = createCloudlet(vm, broker, um);
             newCloudletList.add(cloudlet);
@@ -373,9 +390,9 @@ public final class MigrationExample1 {
     /**
      * Creates a CPU UtilizationModel for a Cloudlet.
      * If the initial usage is lower than the max usage, the usage will
-     * be dynamically incremented along the time, according to the
-     * {@link #getCpuUsageIncrement(UtilizationModelDynamic)}
-     * function. Otherwise, the CPU usage will be static, according to the
+     * increase linearly along the time, according to the
+     * {@link #CLOUDLET_CPU_INCREMENT_PER_SECOND}, until reaching the max usage.
+     * Otherwise, the CPU usage will be static, according to the
      * defined initial usage.
      *
      * @param initialCpuUsagePercent the percentage of CPU utilization
@@ -387,30 +404,15 @@ public final class MigrationExample1 {
      * It must be equal or greater than the initial CPU usage.
      * @return
      */
-    private UtilizationModelDynamic createCpuUtilizationModel(double initialCpuUsagePercent, double maxCpuUsagePercentage) {
+    private PiecewiseLinearUtilizationModel createCpuUtilizationModel(double initialCpuUsagePercent, double maxCpuUsagePercentage) {
         if(maxCpuUsagePercentage < initialCpuUsagePercent){
             throw new IllegalArgumentException("Max CPU usage must be equal or greater than the initial CPU usage.");
         }
 
         initialCpuUsagePercent = Math.min(initialCpuUsagePercent, 1);
         maxCpuUsagePercentage = Math.min(maxCpuUsagePercentage, 1);
-        final UtilizationModelDynamic um;
-        if (initialCpuUsagePercent < maxCpuUsagePercentage) {
-            um = new UtilizationModelDynamic(initialCpuUsagePercent)
-                .setUtilizationUpdateFunction(this::getCpuUsageIncrement);
-        }
-        else um = new UtilizationModelDynamic(initialCpuUsagePercent);
-
-        um.setMaxResourceUtilization(maxCpuUsagePercentage);
-        return um;
-    }
-
-    /**
-     * Increments the CPU resource utilization, that is defined in percentage values.
-     * @return the new resource utilization after the increment
-     */
-    private double getCpuUsageIncrement(final UtilizationModelDynamic um){
-        return um.getUtilization() + um.getTimeSpan()*CLOUDLET_CPU_INCREMENT_PER_SECOND;
+        return PiecewiseLinearUtilizationModel.ramp(
+            initialCpuUsagePercent, CLOUDLET_CPU_INCREMENT_PER_SECOND, maxCpuUsagePercentage);
     }
 
     /**
@@ -464,8 +466,7 @@ public final class MigrationExample1 {
     public Host createHost(final int pesNumber, final long ram) {
         final var peList = createPeList(pesNumber);
         final var host = new HostSimple(ram, HOST_BW, HOST_STORAGE, peList);
-        host.setVmScheduler(new VmSchedulerTimeShared())
-            .setStateHistoryEnabled(true);
+        host.setVmScheduler(new VmSchedulerTimeShared());
         return host;
     }
 
@@ -0,0 +1,188 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.core.ChangeableId;
+import org.cloudsimplus.examples.LargeScaleExample;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates large amounts of simulation entities (such as Hosts, VMs and Cloudlets)
+ * in parallel, splitting the creation into fork-join chunks.
+ * It is useful for large-scale simulations such as the {@link LargeScaleExample},
+ * where creating hundreds of thousands of entities in a single thread
+ * takes a large part of the total execution time.
+ *
+ * <p>Each entity is created by a factory function which receives the entity index
+ * and the entity is stored exactly at that index in the returned list.
+ * Additionally, {@link #createHosts(int, IntFunction)}, {@link #createVms(int, IntFunction)}
+ * and {@link #createCloudlets(int, IntFunction)} assign the index as the entity ID,
+ * which is the same ID that would be sequentially assigned by the Datacenter
+ * and the broker when the entities are created in a single thread.
+ * This way, results are reproducible regardless of the number of threads used.</p>
+ *
+ * <p>Since factories are called concurrently, they must not rely on shared mutable state.
+ * If an entity needs random values, use a pseudo-random generator seeded
+ * by the entity index, instead of a generator shared among all entities.
+ * Entities such as the Datacenter and brokers must still be created in the simulation thread.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class ParallelScenarioBuilder {
+    /**
+     * Default number of entities created by each fork-join task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a builder that uses the {@link ForkJoinPool#commonPool()}
+     * and the {@link #DEFAULT_CHUNK_SIZE}.
+     */
+    public ParallelScenarioBuilder() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a builder.
+     * @param pool the pool used to create entities
+     * @param chunkSize the number of entities created by each fork-join task
+     */
+    public ParallelScenarioBuilder(final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than zero.");
+        }
+
+        this.pool = requireNonNull(pool);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a list of Hosts in parallel, where each Host ID is equal to its index in the list.
+     * @param count number of Hosts to create
+     * @param factory a function that receives a Host index and creates such a Host
+     * @return the list of created Hosts
+     */
+    public <T extends Host> List<T> createHosts(final int count, final IntFunction<T> factory) {
+        return createWithIds(count, factory);
+    }
+
+    /**
+     * Creates a list of VMs in parallel, where each VM ID is equal to its index in the list.
+     * @param count number of VMs to create
+     * @param factory a function that receives a VM index and creates such a VM
+     * @return the list of created VMs
+     */
+    public <T extends Vm> List<T> createVms(final int count, final IntFunction<T> factory) {
+        return createWithIds(count, factory);
+    }
+
+    /**
+     * Creates a list of Cloudlets in parallel, where each Cloudlet ID is equal to its index in the list.
+     * @param count number of Cloudlets to create
+     * @param factory a function that receives a Cloudlet index and creates such a Cloudlet
+     * @return the list of created Cloudlets
+     */
+    public <T extends Cloudlet> List<T> createCloudlets(final int count, final IntFunction<T> factory) {
+        return createWithIds(count, factory);
+    }
+
+    private <T extends ChangeableId> List<T> createWithIds(final int count, final IntFunction<T> factory) {
+        return create(count, i -> {
+            final T entity = factory.apply(i);
+            entity.setId(i);
+            return entity;
+        });
+    }
+
+    /**
+     * Creates a list of objects in parallel, where each object is stored
+     * at the index given to the factory function.
+     * @param count number of objects to create
+     * @param factory a function that receives an object index and creates such an object
+     * @param <T> the type of the objects to create
+     * @return the list of created objects, in the same order they would be created sequentially
+     */
+    public <T> List<T> create(final int count, final IntFunction<T> factory) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The number of entities to create cannot be negative.");
+        }
+
+        requireNonNull(factory);
+        final var entities = new Object[count];
+        pool.invoke(new CreationTask<>(entities, factory, 0, count, chunkSize));
+
+        @SuppressWarnings("unchecked")
+        final List<T> list = (List<T>) Arrays.asList(entities);
+        return new ArrayList<>(list);
+    }
+
+    /**
+     * A task that creates the objects inside the range [from, to)
+     * of an array, recursively splitting the range while it's larger than the chunk size.
+     */
+    private static final class CreationTask<T> extends RecursiveAction {
+        private final Object[] entities;
+        private final IntFunction<T> factory;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        private CreationTask(final Object[] entities, final IntFunction<T> factory, final int from, final int to, final int chunkSize) {
+            this.entities = entities;
+            this.factory = factory;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    entities[i] = factory.apply(i);
+                }
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(
+                new CreationTask<>(entities, factory, from, middle, chunkSize),
+                new CreationTask<>(entities, factory, middle, to, chunkSize));
+        }
+    }
+}
@@ -65,6 +65,7 @@ import static org.cloudsimplus.util.TimeUtil.secondsToStr;
  *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 6.5.0
+ * @see ScaleRegressionRunner
  */
 public class PerformanceExample1 {
     /**
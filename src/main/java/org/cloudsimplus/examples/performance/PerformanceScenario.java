@@ -0,0 +1,243 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyFirstFit;
+import org.cloudsimplus.brokers.DatacenterBroker;
+import org.cloudsimplus.brokers.DatacenterBrokerSimple;
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.cloudlets.CloudletSimple;
+import org.cloudsimplus.core.CloudSimPlus;
+import org.cloudsimplus.datacenters.Datacenter;
+import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.LargeScaleExample;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.hosts.HostSimple;
+import org.cloudsimplus.resources.Pe;
+import org.cloudsimplus.resources.PeSimple;
+import org.cloudsimplus.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudsimplus.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudsimplus.util.TimeUtil;
+import org.cloudsimplus.utilizationmodels.UtilizationModel;
+import org.cloudsimplus.utilizationmodels.UtilizationModelDynamic;
+import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
+import org.cloudsimplus.utilizationmodels.UtilizationModelStochastic;
+import org.cloudsimplus.vms.Vm;
+import org.cloudsimplus.vms.VmSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The simulation scenarios executed by the {@link ScaleRegressionRunner}.
+ * Each one reproduces the configuration of an existing performance example,
+ * but the number of Hosts is given as a parameter,
+ * so that the same scenario can be executed at different scales.
+ * The number of VMs and Cloudlets is proportional to the number of Hosts,
+ * keeping the same ratio used by the original example.
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public enum PerformanceScenario {
+    /**
+     * @see LargeScaleExample
+     */
+    LARGE_SCALE(16, 2048, 4, 1, 2, 10_000, -1) {
+        @Override
+        protected UtilizationModel createCpuUtilizationModel() {
+            return new UtilizationModelDynamic(0.5);
+        }
+
+        @Override
+        protected Cloudlet createCloudlet(final Vm vm, final UtilizationModel cpuUtilizationModel) {
+            //Cloudlets use only 50% of any resource all the time
+            return super.createCloudlet(vm, cpuUtilizationModel).setUtilizationModel(cpuUtilizationModel);
+        }
+    },
+
+    /**
+     * @see PerformanceExample1
+     */
+    PERFORMANCE_EXAMPLE1(64, 2048, 2, 1, 2, 10_000_000_000L, TimeUtil.hoursToSeconds(1)) {
+        @Override
+        protected Host createHost() {
+            final var host = super.createHost();
+            host.setVmScheduler(new VmSchedulerTimeShared());
+            return host;
+        }
+
+        @Override
+        protected Vm createVm(final int index) {
+            return super.createVm(index).setCloudletScheduler(new CloudletSchedulerTimeShared());
+        }
+
+        @Override
+        protected Cloudlet createCloudlet(final Vm vm, final UtilizationModel cpuUtilizationModel) {
+            final var ramBwModel = new UtilizationModelDynamic(0.2);
+            return super.createCloudlet(vm, cpuUtilizationModel)
+                        .setUtilizationModelBw(ramBwModel)
+                        .setUtilizationModelRam(ramBwModel)
+                        .setUtilizationModelCpu(new UtilizationModelFull())
+                        .setVm(vm);
+        }
+    },
+
+    /**
+     * @see UtilizationModelFullPerformance
+     */
+    UTILIZATION_MODEL_FULL(16, 20480, 4, 2, 2, 10_000, 0) {
+        @Override
+        protected UtilizationModel createCpuUtilizationModel() {
+            return new UtilizationModelFull();
+        }
+    },
+
+    /**
+     * @see UtilizationModelStochasticPerformance
+     */
+    UTILIZATION_MODEL_STOCHASTIC(16, 20480, 4, 2, 2, 10_000, 10) {
+        @Override
+        protected UtilizationModel createCpuUtilizationModel() {
+            return new UtilizationModelStochastic(SEED).setHistoryEnabled(true);
+        }
+    };
+
+    private static final long SEED = 123456;
+    private static final int HOST_MIPS = 1000;
+    private static final long HOST_BW = 10_000; //in Megabits/s
+    private static final long HOST_STORAGE = 1_000_000; //in Megabytes
+    private static final int VM_PES = 4;
+
+    private final int hostPes;
+    private final long hostRam;
+    private final int vmsByHost;
+    private final int cloudletsByVm;
+    private final int cloudletPes;
+    private final long cloudletLength;
+    private final double schedulingInterval;
+
+    PerformanceScenario(
+        final int hostPes, final long hostRam, final int vmsByHost, final int cloudletsByVm,
+        final int cloudletPes, final long cloudletLength, final double schedulingInterval)
+    {
+        this.hostPes = hostPes;
+        this.hostRam = hostRam;
+        this.vmsByHost = vmsByHost;
+        this.cloudletsByVm = cloudletsByVm;
+        this.cloudletPes = cloudletPes;
+        this.cloudletLength = cloudletLength;
+        this.schedulingInterval = schedulingInterval;
+    }
+
+    /**
+     * Creates the Datacenter, broker, VMs and Cloudlets for the scenario,
+     * submitting them to the given simulation.
+     *
+     * @param simulation the simulation to create the scenario into
+     * @param hosts number of Hosts to create
+     * @return the broker that the VMs and Cloudlets were submitted to
+     */
+    public DatacenterBroker build(final CloudSimPlus simulation, final int hosts) {
+        //A single CPU model shared by all Cloudlets of this scenario instance (if the scenario defines one)
+        final UtilizationModel cpuUtilizationModel = createCpuUtilizationModel();
+        createDatacenter(simulation, hosts);
+        final var broker = new DatacenterBrokerSimple(simulation);
+
+        final int vmsNumber = getVmsNumber(hosts);
+        final var vmList = new ArrayList<Vm>(vmsNumber);
+        final var cloudletList = new ArrayList<Cloudlet>(getCloudletsNumber(hosts));
+        for (int i = 0; i < vmsNumber; i++) {
+            final var vm = createVm(i);
+            vmList.add(vm);
+            for (int j = 0; j < cloudletsByVm; j++) {
+                cloudletList.add(createCloudlet(vm, cpuUtilizationModel));
+            }
+        }
+
+        broker.submitVmList(vmList);
+        broker.submitCloudletList(cloudletList);
+        return broker;
+    }
+
+    public int getVmsNumber(final int hosts) {
+        return hosts * vmsByHost;
+    }
+
+    public int getCloudletsNumber(final int hosts) {
+        return getVmsNumber(hosts) * cloudletsByVm;
+    }
+
+    public double getSchedulingInterval() {
+        return schedulingInterval;
+    }
+
+    private Datacenter createDatacenter(final CloudSimPlus simulation, final int hosts) {
+        final List<Host> hostList = new ArrayList<>(hosts);
+        for (int i = 0; i < hosts; i++) {
+            hostList.add(createHost());
+        }
+
+        return new DatacenterSimple(simulation, hostList, new VmAllocationPolicyFirstFit())
+                    .setSchedulingInterval(schedulingInterval);
+    }
+
+    protected Host createHost() {
+        final var peList = new ArrayList<Pe>(hostPes);
+        for (int i = 0; i < hostPes; i++) {
+            peList.add(new PeSimple(HOST_MIPS));
+        }
+
+        return new HostSimple(hostRam, HOST_BW, HOST_STORAGE, peList);
+    }
+
+    protected Vm createVm(final int index) {
+        final var vm = new VmSimple(index, HOST_MIPS, VM_PES);
+        vm.setRam(512).setBw(1000).setSize(10_000);
+        return vm;
+    }
+
+    /**
+     * Creates a Cloudlet for a VM.
+     * @param vm the VM to create the Cloudlet for
+     * @param cpuUtilizationModel the CPU UtilizationModel shared by all Cloudlets of the scenario being built,
+     *                            or null to use the default model of each Cloudlet
+     * @return the new Cloudlet
+     */
+    protected Cloudlet createCloudlet(final Vm vm, final UtilizationModel cpuUtilizationModel) {
+        final var cloudlet = new CloudletSimple(cloudletLength, cloudletPes);
+        if (cpuUtilizationModel != null) {
+            cloudlet.setUtilizationModelCpu(cpuUtilizationModel);
+        }
+
+        return cloudlet.setSizes(1024);
+    }
+
+    /**
+     * {@return a new CPU UtilizationModel to be shared by all Cloudlets of a scenario,
+     * or null to use the default model of each Cloudlet}
+     */
+    protected UtilizationModel createCpuUtilizationModel() {
+        return null;
+    }
+}
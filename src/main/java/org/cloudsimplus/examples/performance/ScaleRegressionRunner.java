@@ -0,0 +1,263 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import org.cloudsimplus.core.CloudSimPlus;
+import org.cloudsimplus.examples.LargeScaleExample;
+import org.cloudsimplus.util.BytesConversion;
+import org.cloudsimplus.util.Log;
+import org.cloudsimplus.util.TimeUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Runs the {@link PerformanceScenario}s derived from the {@link LargeScaleExample},
+ * {@link PerformanceExample1}, {@link UtilizationModelFullPerformance} and
+ * {@link UtilizationModelStochasticPerformance} at different scales,
+ * printing the collected metrics as JSON (one {@link ScenarioResult} per line).
+ * Each result is then compared with a baseline file (generated by a previous execution)
+ * and the runner exits with status 1 if any scenario got slower than the allowed limit.
+ *
+ * <p>Parameters are given in the format {@code name=value}, all of them optional:</p>
+ * <ul>
+ *     <li><b>scenarios</b>: comma-separated list of {@link PerformanceScenario} names (default all);</li>
+ *     <li><b>sizes</b>: comma-separated list of Hosts numbers to run each scenario (default {@link #DEFAULT_SIZES});</li>
+ *     <li><b>baseline</b>: path to the baseline file (default {@link #DEFAULT_BASELINE_FILE});</li>
+ *     <li><b>maxSlowdown</b>: the maximum allowed slowdown compared to the baseline,
+ *         in scale from 0 to 1 (default {@link #DEFAULT_MAX_SLOWDOWN}, which means 20% slower);</li>
+ *     <li><b>updateBaseline</b>: if true, the baseline file is overwritten with the new results,
+ *         instead of being used for comparison (default false).</li>
+ * </ul>
+ *
+ * <p>For instance:
+ * {@code java -Xmx12g -cp target/cloudsimplus-examples-*-with-dependencies.jar
+ * org.cloudsimplus.examples.performance.ScaleRegressionRunner sizes=10000,50000 maxSlowdown=0.1}</p>
+ *
+ * <p>Since the wall time depends on the machine the runner is executed,
+ * the baseline must be generated in the same environment used for later comparisons.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class ScaleRegressionRunner {
+    private static final String DEFAULT_SIZES = "1000,10000";
+    private static final String DEFAULT_BASELINE_FILE = "performance-baseline.jsonl";
+    private static final double DEFAULT_MAX_SLOWDOWN = 0.2;
+
+    private final List<PerformanceScenario> scenarios;
+    private final int[] sizes;
+    private final Path baselineFile;
+    private final double maxSlowdown;
+    private final boolean updateBaseline;
+
+    public static void main(String[] args) {
+        final var params = parseParams(args);
+        final var runner = new ScaleRegressionRunner(params);
+        final boolean regressed = runner.run();
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private ScaleRegressionRunner(final Map<String, String> params) {
+        final String scenarioNames = params.get("scenarios");
+        this.scenarios = scenarioNames == null ?
+                            List.of(PerformanceScenario.values()) :
+                            Arrays.stream(scenarioNames.split(",")).map(String::trim).map(PerformanceScenario::valueOf).toList();
+        this.sizes = Arrays.stream(params.getOrDefault("sizes", DEFAULT_SIZES).split(","))
+                           .map(String::trim)
+                           .mapToInt(Integer::parseInt)
+                           .toArray();
+        this.baselineFile = Path.of(params.getOrDefault("baseline", DEFAULT_BASELINE_FILE));
+        this.maxSlowdown = Double.parseDouble(params.getOrDefault("maxSlowdown", String.valueOf(DEFAULT_MAX_SLOWDOWN)));
+        this.updateBaseline = Boolean.parseBoolean(params.getOrDefault("updateBaseline", "false"));
+    }
+
+    private static Map<String, String> parseParams(final String[] args) {
+        final var params = new HashMap<String, String>();
+        for (final String arg : args) {
+            final int i = arg.indexOf('=');
+            if (i <= 0) {
+                throw new IllegalArgumentException("Invalid parameter '" + arg + "'. Parameters must be given as name=value");
+            }
+
+            params.put(arg.substring(0, i), arg.substring(i + 1));
+        }
+
+        return params;
+    }
+
+    /**
+     * Runs all the scenarios at all the scales.
+     * @return true if any scenario got slower than the allowed limit, false otherwise
+     */
+    private boolean run() {
+        // Disable logging for performance improvements.
+        Log.setLevel(ch.qos.logback.classic.Level.OFF);
+
+        final var baseline = updateBaseline ? Map.<String, Double>of() : readBaseline();
+        final var results = new ArrayList<ScenarioResult>();
+        boolean regressed = false;
+        for (final var scenario : scenarios) {
+            for (final int hosts : sizes) {
+                final var result = runScenario(scenario, hosts);
+                System.out.println(result.toJson());
+                results.add(result);
+                regressed |= isRegression(result, baseline);
+            }
+        }
+
+        if (updateBaseline) {
+            writeBaseline(results);
+        }
+
+        return regressed;
+    }
+
+    private ScenarioResult runScenario(final PerformanceScenario scenario, final int hosts) {
+        System.gc();
+        resetPeakHeapUtilization();
+        final long gcCountBefore = getGcCount();
+        final long gcTimeBefore = getGcTimeMillis();
+        final double startSecs = TimeUtil.currentTimeSecs();
+
+        final var simulation = new CloudSimPlus();
+        final long[] eventsProcessed = {0};
+        simulation.addOnEventProcessingListener(evt -> eventsProcessed[0]++);
+        scenario.build(simulation, hosts);
+        simulation.start();
+
+        final double wallTimeSecs = TimeUtil.elapsedSeconds(startSecs);
+        return new ScenarioResult(
+            scenario, hosts, scenario.getVmsNumber(hosts), scenario.getCloudletsNumber(hosts),
+            wallTimeSecs, simulation.clock(), getMaxHeapUtilizationGB(),
+            getGcCount() - gcCountBefore, getGcTimeMillis() - gcTimeBefore, eventsProcessed[0]);
+    }
+
+    /**
+     * Checks if a result is slower than its baseline.
+     * @param result the result to check
+     * @param baseline a map where each key is a {@link ScenarioResult#key()} and each value the baseline wall time
+     * @return true if the scenario is slower than the allowed limit, false otherwise
+     *         (including when there is no baseline for the scenario)
+     */
+    private boolean isRegression(final ScenarioResult result, final Map<String, Double> baseline) {
+        final Double baselineSecs = baseline.get(result.key());
+        if (baselineSecs == null || baselineSecs <= 0) {
+            return false;
+        }
+
+        final double slowdown = result.wallTimeSecs() / baselineSecs - 1;
+        if (slowdown > maxSlowdown) {
+            System.err.printf(
+                "REGRESSION: %s took %.2f secs, %.1f%% slower than the baseline of %.2f secs (max allowed: %.1f%%)%n",
+                result.key(), result.wallTimeSecs(), slowdown * 100, baselineSecs, maxSlowdown * 100);
+            return true;
+        }
+
+        return false;
+    }
+
+    private Map<String, Double> readBaseline() {
+        if (!Files.exists(baselineFile)) {
+            System.err.printf("Baseline file %s not found. Results won't be compared.%n", baselineFile);
+            return Map.of();
+        }
+
+        try {
+            final var baseline = new HashMap<String, Double>();
+            Files.readAllLines(baselineFile)
+                 .stream()
+                 .map(ScenarioResult::parseBaseline)
+                 .flatMap(Optional::stream)
+                 .forEach(entry -> baseline.put(entry.key(), entry.wallTimeSecs()));
+            return baseline;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeBaseline(final List<ScenarioResult> results) {
+        try {
+            Files.write(baselineFile, results.stream().map(ScenarioResult::toJson).toList());
+            System.out.printf("Baseline written to %s%n", baselineFile.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void resetPeakHeapUtilization() {
+        ManagementFactory.getMemoryPoolMXBeans()
+                         .stream()
+                         .filter(bean -> bean.getType() == MemoryType.HEAP)
+                         .forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /**
+     * Gets the maximum number of GB used by the application's heap
+     * since the last call to {@link #resetPeakHeapUtilization()}.
+     * Differently from the {@link UtilizationModelFullPerformance} example,
+     * it considers all heap pools (including the old generation),
+     * where most of the long-living simulation objects end up.
+     * @return the max heap utilization in GB
+     */
+    private static double getMaxHeapUtilizationGB() {
+        final double memoryBytes =
+            ManagementFactory.getMemoryPoolMXBeans()
+                             .stream()
+                             .filter(bean -> bean.getType() == MemoryType.HEAP)
+                             .map(MemoryPoolMXBean::getPeakUsage)
+                             .mapToDouble(MemoryUsage::getUsed)
+                             .sum();
+
+        return BytesConversion.bytesToGigaBytes(memoryBytes);
+    }
+
+    private static long getGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans()
+                                .stream()
+                                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                                .filter(count -> count > 0)
+                                .sum();
+    }
+
+    private static long getGcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans()
+                                .stream()
+                                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                                .filter(time -> time > 0)
+                                .sum();
+    }
+}
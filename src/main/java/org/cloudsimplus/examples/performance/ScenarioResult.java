@@ -0,0 +1,107 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.performance;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The metrics collected after running a {@link PerformanceScenario} at a given scale.
+ * Results are serialized as a single-line JSON object,
+ * so that a file containing one result per line (the JSON Lines format)
+ * can be used as a baseline for later executions.
+ *
+ * @param scenario the executed scenario
+ * @param hosts number of Hosts in the scenario
+ * @param vms number of VMs in the scenario
+ * @param cloudlets number of Cloudlets in the scenario
+ * @param wallTimeSecs actual time spent to build and run the scenario (in seconds)
+ * @param simulatedTimeSecs the simulation clock when it finished (in seconds)
+ * @param peakHeapGB the maximum heap utilization (in GB)
+ * @param gcCount number of garbage collections during the execution
+ * @param gcPauseMillis accumulated time spent in garbage collections (in milliseconds)
+ * @param eventsProcessed number of simulation events processed
+ * @since CloudSim Plus 8.5.1
+ */
+public record ScenarioResult(
+    PerformanceScenario scenario, int hosts, int vms, int cloudlets,
+    double wallTimeSecs, double simulatedTimeSecs, double peakHeapGB,
+    long gcCount, long gcPauseMillis, long eventsProcessed)
+{
+    private static final Pattern SCENARIO = Pattern.compile("\"scenario\"\\s*:\\s*\"(\\w+)\"");
+    private static final Pattern HOSTS = Pattern.compile("\"hosts\"\\s*:\\s*(\\d+)");
+    private static final Pattern WALL_TIME = Pattern.compile("\"wallTimeSecs\"\\s*:\\s*([-+.\\deE]+)");
+
+    /**
+     * {@return the result as a single-line JSON object}
+     */
+    public String toJson() {
+        return String.format(
+            Locale.US,
+            "{\"scenario\":\"%s\",\"hosts\":%d,\"vms\":%d,\"cloudlets\":%d,\"wallTimeSecs\":%.3f," +
+            "\"simulatedTimeSecs\":%.3f,\"peakHeapGB\":%.3f,\"gcCount\":%d,\"gcPauseMillis\":%d,\"eventsProcessed\":%d}",
+            scenario, hosts, vms, cloudlets, wallTimeSecs,
+            simulatedTimeSecs, peakHeapGB, gcCount, gcPauseMillis, eventsProcessed);
+    }
+
+    /**
+     * {@return a unique key for the scenario and its scale, used to match a result with its baseline}
+     */
+    public String key() {
+        return key(scenario.name(), hosts);
+    }
+
+    static String key(final String scenario, final int hosts) {
+        return scenario + "@" + hosts;
+    }
+
+    /**
+     * Parses a JSON line previously generated by {@link #toJson()},
+     * extracting just the fields needed to compare a new result with that baseline one.
+     *
+     * @param json the JSON line to parse
+     * @return an {@link Optional} containing the {@link #key()} and wall time of the baseline result,
+     *         or an empty Optional if the line doesn't contain a valid result
+     */
+    static Optional<BaselineEntry> parseBaseline(final String json) {
+        final Matcher scenario = SCENARIO.matcher(json);
+        final Matcher hosts = HOSTS.matcher(json);
+        final Matcher wallTime = WALL_TIME.matcher(json);
+        if (!scenario.find() || !hosts.find() || !wallTime.find()) {
+            return Optional.empty();
+        }
+
+        final String key = key(scenario.group(1), Integer.parseInt(hosts.group(1)));
+        return Optional.of(new BaselineEntry(key, Double.parseDouble(wallTime.group(1))));
+    }
+
+    /**
+     * The wall time of a result stored in a baseline file.
+     * @param key the {@link #key()} of the baseline result
+     * @param wallTimeSecs the wall time of the baseline result (in seconds)
+     */
+    record BaselineEntry(String key, double wallTimeSecs) {}
+}
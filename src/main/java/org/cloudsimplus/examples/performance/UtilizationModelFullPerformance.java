@@ -66,6 +66,7 @@ import static java.util.stream.Collectors.toCollection;
  *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.4.1
+ * @see ScaleRegressionRunner
  */
 public class UtilizationModelFullPerformance {
     private static final int HOSTS = 20_000;
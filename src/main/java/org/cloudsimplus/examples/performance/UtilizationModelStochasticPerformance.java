@@ -32,6 +32,8 @@ import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.HistoryRecordingUtilizationModel;
+import org.cloudsimplus.examples.custom.UtilizationHistory;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.resources.Pe;
@@ -76,9 +78,15 @@ import static java.util.stream.Collectors.toCollection;
  * documentation.
  * </p>
  *
+ * <p>If you need the history, you can enable {@link #BOUNDED_HISTORY}
+ * to store it into a fixed-capacity {@link UtilizationHistory} instead of the Map,
+ * which keeps the mean, minimum and maximum utilization for each window of {@link #HISTORY_WINDOW_SIZE} samples.
+ * That way, memory consumption is small, predictable and doesn't grow along the simulation.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.3.6
  * @see <a href="https://github.com/cloudsimplus/cloudsimplus/issues/197">Issue #197 for more details</a>
+ * @see ScaleRegressionRunner
  */
 public class UtilizationModelStochasticPerformance {
     private static final int HOSTS = 20_000;
@@ -119,6 +127,23 @@ public class UtilizationModelStochasticPerformance {
      */
     private static final boolean STORE_CLOUDLETS_CPU_UTILIZATION_HISTORY = true;
 
+    /**
+     * Indicates if the utilization history (when {@link #STORE_CLOUDLETS_CPU_UTILIZATION_HISTORY stored})
+     * is kept into a fixed-capacity {@link UtilizationHistory},
+     * instead of the unbounded Map of the {@link UtilizationModelStochastic}.
+     */
+    private static final boolean BOUNDED_HISTORY = true;
+
+    /**
+     * The maximum number of entries in each bounded utilization history.
+     */
+    private static final int HISTORY_CAPACITY = 1024;
+
+    /**
+     * The number of utilization samples aggregated into each bounded history entry.
+     */
+    private static final int HISTORY_WINDOW_SIZE = 10;
+
     private static final VmAllocationPolicy VM_ALLOCATION_POLICY = new VmAllocationPolicyFirstFit();
     private static final long SEED = 123456;
 
@@ -127,7 +152,7 @@ public class UtilizationModelStochasticPerformance {
     private List<Vm> vmList;
     private List<Cloudlet> cloudletList;
     private Datacenter datacenter0;
-    private UtilizationModelStochastic um;
+    private UtilizationModel um;
 
     public static void main(String[] args) {
         new UtilizationModelStochasticPerformance();
@@ -153,8 +178,9 @@ public class UtilizationModelStochasticPerformance {
 
         final double execMinutes = TimeUtil.millisecsToMinutes(System.currentTimeMillis() - startMillis);
         System.out.printf(
-            "Multiple Utilization Models: %s | Store Utilization History: %s%n%n",
-            MULTIPLE_UTILIZATION_MODELS, STORE_CLOUDLETS_CPU_UTILIZATION_HISTORY);
+            "Multiple Utilization Models: %s | Store Utilization History: %s%s%n%n",
+            MULTIPLE_UTILIZATION_MODELS, STORE_CLOUDLETS_CPU_UTILIZATION_HISTORY,
+            isBoundedHistory() ? " (bounded)" : "");
 
         System.out.println("| Execution time | Simulation time | Max Heap Used | VmAllocationPolicy | Hosts      | VMs        | Cloudlets  | Cloudlet Len | DC Scheduling Interval |");
         System.out.println("| ---------------|-----------------|---------------|--------------------|------------|------------|------------|--------------|------------------------|");
@@ -218,14 +244,28 @@ public class UtilizationModelStochasticPerformance {
         final var newCloudletList = new ArrayList<Cloudlet>(CLOUDLETS);
         for (int i = 0; i < CLOUDLETS; i++) {
             final var cloudlet = new CloudletSimple(CLOUDLET_LENGTH, CLOUDLET_PES);
-            this.um = MULTIPLE_UTILIZATION_MODELS || this.um == null ? new UtilizationModelStochastic(SEED) : this.um;
-            this.um
-                .setHistoryEnabled(STORE_CLOUDLETS_CPU_UTILIZATION_HISTORY)
-                .setAlwaysGenNewRandUtilization(ALWAYS_GENERATE_NEW_RANDOM_UTILIZATION);
+            this.um = MULTIPLE_UTILIZATION_MODELS || this.um == null ? createUtilizationModel() : this.um;
             cloudlet.setUtilizationModelCpu(um).setSizes(1024);
             newCloudletList.add(cloudlet);
         }
 
         return newCloudletList;
     }
+
+    private UtilizationModel createUtilizationModel() {
+        final var stochasticModel =
+            new UtilizationModelStochastic(SEED)
+                .setHistoryEnabled(STORE_CLOUDLETS_CPU_UTILIZATION_HISTORY && !BOUNDED_HISTORY)
+                .setAlwaysGenNewRandUtilization(ALWAYS_GENERATE_NEW_RANDOM_UTILIZATION);
+        if (!isBoundedHistory()) {
+            return stochasticModel;
+        }
+
+        final var history = UtilizationHistory.windowed(HISTORY_CAPACITY, HISTORY_WINDOW_SIZE);
+        return new HistoryRecordingUtilizationModel(stochasticModel, history);
+    }
+
+    private static boolean isBoundedHistory() {
+        return STORE_CLOUDLETS_CPU_UTILIZATION_HISTORY && BOUNDED_HISTORY;
+    }
 }
@@ -32,6 +32,7 @@ import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.UtilizationPercentileCollector;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.resources.Pe;
@@ -55,6 +56,9 @@ import java.util.List;
  * take different times to complete the execution, depending on the requested VM
  * performance.</p>
  *
+ * <p>Besides the CPU utilization mean, the example shows the 95th and 99th percentiles
+ * for each Host and VM, collected by a {@link UtilizationPercentileCollector}.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 1.0
  */
@@ -65,6 +69,12 @@ public class HostsCpuUsageExample {
     private DatacenterBroker broker;
     private CloudSimPlus simulation;
 
+    /**
+     * Collects the CPU utilization percentiles of Hosts and VMs,
+     * which are not given by {@link Host#getCpuUtilizationStats()}.
+     */
+    private UtilizationPercentileCollector percentileCollector;
+
     private static final int NUMBER_OF_VMS = 2;
     private static final int NUMBER_OF_HOSTS = 2;
 
@@ -106,6 +116,7 @@ public class HostsCpuUsageExample {
         broker.submitVmList(vmlist);
         broker.submitCloudletList(cloudletList);
 
+        percentileCollector = new UtilizationPercentileCollector(simulation).addHosts(hostList).addVms(vmlist);
         simulation.start();
 
         final var cloudletFinishedList = broker.getCloudletFinishedList();
@@ -157,17 +168,27 @@ public class HostsCpuUsageExample {
         for (final var host : hostList) {
             final double mipsByPe = host.getTotalMipsCapacity() / (double)host.getPesNumber();
             final double cpuUsageMean = host.getCpuUtilizationStats().getMean()*100;
+            final var sketch = percentileCollector.getSketch(host);
             System.out.printf(
-                "\tHost %d: PEs number: %2d MIPS by PE: %.0f CPU Utilization mean: %6.2f%%%n",
-                host.getId(), host.getPesNumber(), mipsByPe, cpuUsageMean);
+                "\tHost %d: PEs number: %2d MIPS by PE: %.0f CPU Utilization mean: %6.2f%% p95: %6.2f%% p99: %6.2f%%%n",
+                host.getId(), host.getPesNumber(), mipsByPe, cpuUsageMean,
+                sketch.getPercentile(95)*100, sketch.getPercentile(99)*100);
         }
+
+        final var allHostsSketch = percentileCollector.getAllHostsSketch();
+        System.out.printf(
+            "\tAll Hosts CPU Utilization p95: %6.2f%% p99: %6.2f%%%n",
+            allHostsSketch.getPercentile(95)*100, allHostsSketch.getPercentile(99)*100);
     }
 
     private void printCpuUtilizationForAllVms() {
         System.out.printf("%nVMs CPU utilization mean%n");
         for (final var vm : vmlist) {
             final double vmCpuUsageMean = vm.getCpuUtilizationStats().getMean()*100;
-            System.out.printf("\tVM %d CPU Utilization mean: %6.2f%%%n", vm.getId(), vmCpuUsageMean);
+            final var sketch = percentileCollector.getSketch(vm);
+            System.out.printf(
+                "\tVM %d CPU Utilization mean: %6.2f%% p95: %6.2f%% p99: %6.2f%%%n",
+                vm.getId(), vmCpuUsageMean, sketch.getPercentile(95)*100, sketch.getPercentile(99)*100);
         }
     }
 
@@ -32,6 +32,8 @@ import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.core.Simulation;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.ResourceUsageRecorder;
+import org.cloudsimplus.examples.custom.ResourceUsageSeries;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.listeners.EventInfo;
@@ -45,6 +47,9 @@ import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.*;
 
 /**
@@ -61,6 +66,12 @@ import java.util.*;
  * It enables getting notifications when the simulation clock advances, then creating and submitting new cloudlets.
  * </p>
  *
+ * <p>The collected usage is stored off-heap by a {@link ResourceUsageRecorder}
+ * into a memory-mapped file, instead of maps of boxed values,
+ * so that the usage of many VMs can be collected at every tick without filling the heap.
+ * The file is read back by a {@link ResourceUsageSeries} to print the results,
+ * but it can also be read by external analysis tools.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.1.2
  *
@@ -90,24 +101,16 @@ public class VmsRamAndBwUsageExample {
     private final Datacenter datacenter0;
 
     /**
-     * A map to store RAM utilization history for every VM.
-     * Each key is a VM and each value is another map.
-     * This entire data structure is usually called a multimap.
-     *
-     * <p>Such an internal map stores RAM utilization for a VM.
-     * The keys of this internal map are the time the utilization was collected (in seconds)
-     * and the value the utilization percentage (from 0 to 1).</p>
+     * Records the CPU, RAM and BW utilization percentage (from 0 to 1)
+     * of every VM, at every clock tick.
      */
-    private final Map<Vm, Map<Double, Double>> allVmsRamUtilizationHistory;
+    private final ResourceUsageRecorder usageRecorder;
 
-    /** @see #allVmsRamUtilizationHistory */
-    private final Map<Vm, Map<Double, Double>> allVmsBwUtilizationHistory;
-
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         new VmsRamAndBwUsageExample();
     }
 
-    private VmsRamAndBwUsageExample() {
+    private VmsRamAndBwUsageExample() throws IOException {
         /*Enables just some level of log messages.
           Make sure to import org.cloudsimplus.util.Log;*/
         //Log.setLevel(ch.qos.logback.classic.Level.WARN);
@@ -122,11 +125,11 @@ public class VmsRamAndBwUsageExample {
         broker0.submitVmList(vmList);
         broker0.submitCloudletList(cloudletList);
 
-        allVmsRamUtilizationHistory = initializeUtilizationHistory();
-        allVmsBwUtilizationHistory = initializeUtilizationHistory();
+        usageRecorder = new ResourceUsageRecorder(Files.createTempFile("vms-usage", ".bin"));
         simulation.addOnClockTickListener(this::onClockTickListener);
 
         simulation.start();
+        usageRecorder.close();
 
         final var cloudletFinishedList = broker0.getCloudletFinishedList();
         new CloudletsTableBuilder(cloudletFinishedList).build();
@@ -135,55 +138,52 @@ public class VmsRamAndBwUsageExample {
     }
 
     /**
-     * Prints the RAM and BW utilization history of every Vm.
+     * Prints the CPU, RAM and BW utilization history of every Vm,
+     * reading it from the file written by the {@link #usageRecorder}.
      */
-    private void printVmListResourceUtilizationHistory() {
+    private void printVmListResourceUtilizationHistory() throws IOException {
         System.out.println();
-        for (final var vm : vmList) {
-            printVmUtilizationHistory(vm);
+        try (var series = ResourceUsageSeries.open(usageRecorder.getPath())) {
+            for (final var vm : vmList) {
+                printVmUtilizationHistory(series, vm);
+            }
         }
+
+        deleteUsageFile();
     }
 
     /**
-     * Prints the RAM and BW utilization history of a given Vm.
+     * Deletes the file written by the {@link #usageRecorder}, after it and the series that read it were closed.
+     * Some platforms (such as Windows) don't allow deleting a file while it's memory-mapped,
+     * which lasts until the closed mappings are garbage collected.
+     * In that case, the file is deleted when the JVM exits.
      */
-    private void printVmUtilizationHistory(Vm vm) {
-        System.out.println(vm + " RAM and BW utilization history");
-        System.out.println("----------------------------------------------------------------------------------");
-
-        //A set containing all resource utilization collected times
-        final Set<Double> timeSet = allVmsRamUtilizationHistory.get(vm).keySet();
-
-        final Map<Double, Double> vmRamUtilization = allVmsRamUtilizationHistory.get(vm);
-        final Map<Double, Double> vmBwUtilization = allVmsBwUtilizationHistory.get(vm);
-
-        for (final double time : timeSet) {
-            System.out.printf(
-                "Time: %10.1f secs | RAM Utilization: %10.2f%% | BW Utilization: %10.2f%%%n",
-                time, vmRamUtilization.get(time) * 100, vmBwUtilization.get(time) * 100);
+    private void deleteUsageFile() {
+        final var path = usageRecorder.getPath();
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            path.toFile().deleteOnExit();
         }
-
-        System.out.printf("----------------------------------------------------------------------------------%n%n");
     }
 
-
     /**
-     * Initializes a map that will store utilization history for
-     * some resource (such as RAM or BW) of every VM.
-     * It also creates an empty internal map to store
-     * the resource utilization for every VM along the simulation execution.
-     * The internal map for every VM will be empty.
-     * They are filled inside the {@link #onClockTickListener(EventInfo)}.
+     * Prints the CPU, RAM and BW utilization history of a given Vm.
      */
-    private Map<Vm, Map<Double, Double>> initializeUtilizationHistory() {
-        //TreeMap sorts entries based on the key
-        final Map<Vm, Map<Double, Double>> map = new HashMap<>(VMS);
-
-        for (final var vm : vmList) {
-            map.put(vm, new TreeMap<>());
+    private void printVmUtilizationHistory(final ResourceUsageSeries series, final Vm vm) {
+        System.out.println(vm + " CPU, RAM and BW utilization history");
+        System.out.println("-----------------------------------------------------------------------------------------------------------");
+
+        //Records are in time order, since they are appended at every clock tick
+        for (long i = 0; i < series.getRecords(); i++) {
+            if (series.getEntityId(i) == vm.getId()) {
+                System.out.printf(
+                    "Time: %10.1f secs | CPU Utilization: %10.2f%% | RAM Utilization: %10.2f%% | BW Utilization: %10.2f%%%n",
+                    series.getTime(i), series.getCpu(i) * 100, series.getRam(i) * 100, series.getBw(i) * 100);
+            }
         }
 
-        return map;
+        System.out.printf("-----------------------------------------------------------------------------------------------------------%n%n");
     }
 
     /**
@@ -196,25 +196,26 @@ public class VmsRamAndBwUsageExample {
      * @see #SCHEDULING_INTERVAL
      */
     private void onClockTickListener(final EventInfo evt) {
-        collectVmResourceUtilization(this.allVmsRamUtilizationHistory, Ram.class);
-        collectVmResourceUtilization(this.allVmsBwUtilizationHistory, Bandwidth.class);
+        for (final var vm : vmList) {
+            collectVmResourceUtilization(vm);
+        }
     }
 
     /**
-     * Collects the utilization percentage of a given VM resource for every VM.
+     * Records the utilization percentage of CPU, RAM and BW for a VM.
      * CloudSim Plus already has built-in features to obtain VM's CPU utilization.
      * Check {@link org.cloudsimplus.examples.power.PowerExample}.
      *
-     * @param allVmsUtilizationHistory the map where the collected utilization for every VM will be stored
-     * @param resourceClass the kind of resource to collect its utilization (usually {@link Ram} or {@link Bandwidth}).
+     * @param vm the VM to record the resource utilization
      */
-    private void collectVmResourceUtilization(final Map<Vm, Map<Double, Double>> allVmsUtilizationHistory, Class<? extends ResourceManageable> resourceClass) {
-        for (final var vm : vmList) {
-            /*Gets the internal resource utilization map for the current VM.
-            * The key of this map is the time the usage was collected (in seconds)
-            * and the value the percentage of utilization (from 0 to 1). */
-            final Map<Double, Double> vmUtilizationHistory = allVmsUtilizationHistory.get(vm);
-            vmUtilizationHistory.put(simulation.clock(), vm.getResource(resourceClass).getPercentUtilization());
+    private void collectVmResourceUtilization(final Vm vm) {
+        try {
+            usageRecorder.record(
+                vm.getId(), simulation.clock(), vm.getCpuPercentUtilization(),
+                vm.getResource(Ram.class).getPercentUtilization(),
+                vm.getResource(Bandwidth.class).getPercentUtilization());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
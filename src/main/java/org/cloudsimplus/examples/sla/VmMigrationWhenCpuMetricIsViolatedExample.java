@@ -32,6 +32,8 @@ import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.custom.PiecewiseLinearUtilizationModel;
+import org.cloudsimplus.examples.custom.UtilizationCrossingScheduler;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.power.models.PowerModelHostSimple;
@@ -54,13 +56,23 @@ import java.util.List;
  * This example shows how to do a migration using CpuUtilization threshold
  * defined in an SLA Contract. VM migration is triggered when the CPU metric is violated.
  *
+ * <p>The CPU usage of Cloudlets is defined by {@link PiecewiseLinearUtilizationModel}s,
+ * which compute the usage at any time directly.
+ * This way, the Datacenter doesn't need to periodically process events
+ * to increment the CPU usage and find out when the CPU metric is violated.
+ * A {@link UtilizationCrossingScheduler} predicts when the metric will be violated
+ * and requests the Datacenter to check if VM migrations are needed exactly at that time.</p>
+ *
  * @author raysaoliveira
  */
 public final class VmMigrationWhenCpuMetricIsViolatedExample {
     /**
+     * A negative value disables the periodic processing of Datacenter events,
+     * since the times when Hosts cross the CPU utilization thresholds are predicted
+     * by a {@link UtilizationCrossingScheduler}.
      * @see Datacenter#setSchedulingInterval(double)
      */
-    private static final int SCHEDULE_TIME_TO_PROCESS_DATACENTER_EVENTS = 5;
+    private static final int SCHEDULE_TIME_TO_PROCESS_DATACENTER_EVENTS = -1;
 
     private static final int  HOST_MIPS_BY_PE = 1000;
     private static final int  HOST_NUMBER_OF_PES = 12;
@@ -127,7 +139,6 @@ public final class VmMigrationWhenCpuMetricIsViolatedExample {
         this.contract = SlaContract.getInstance(CUSTOMER_SLA_CONTRACT);
         cloudletList = new ArrayList<>(CLOUDLETS_BY_VM);
 
-        @SuppressWarnings("unused")
         final var datacenter0 = createDatacenter();
 
         final var broker = new DatacenterBrokerSimple(simulation);
@@ -136,6 +147,12 @@ public final class VmMigrationWhenCpuMetricIsViolatedExample {
 
         createAndSubmitCloudlets(broker);
 
+        final var cpuMetric = contract.getCpuUtilizationMetric();
+        new UtilizationCrossingScheduler(
+                datacenter0, cpuMetric.getMinDimension().getValue(), cpuMetric.getMaxDimension().getValue())
+            .watch(cloudletList)
+            .start();
+
         simulation.start();
 
         new CloudletsTableBuilder(broker.getCloudletFinishedList()).build();
@@ -182,7 +199,7 @@ public final class VmMigrationWhenCpuMetricIsViolatedExample {
         long cloudletId;
         for (int i = 0; i < CLOUDLETS_BY_VM; i++) {
             cloudletId = hostingVm.getId() + i;
-            UtilizationModelDynamic cpuUtilizationModel =
+            final UtilizationModel cpuUtilizationModel =
                 createUtilizationModel(
                     cloudletInitialCpuUsagePercent,
                     maxCloudletCpuUsagePercent,
@@ -215,31 +232,19 @@ public final class VmMigrationWhenCpuMetricIsViolatedExample {
      * @param progressiveCpuUsage true if the CPU usage must increment along the time, false if it's static.
      * @return the  {@link UtilizationModel} for a Cloudlet's CPU usage
      */
-    private UtilizationModelDynamic createUtilizationModel(
+    private PiecewiseLinearUtilizationModel createUtilizationModel(
         double initialCpuUsagePercent,
         double maxCloudletCpuUsagePercent,
         final boolean progressiveCpuUsage)
     {
         initialCpuUsagePercent = Math.min(initialCpuUsagePercent, 1);
         maxCloudletCpuUsagePercent = Math.min(maxCloudletCpuUsagePercent, 1);
-        final UtilizationModelDynamic um = new UtilizationModelDynamic(initialCpuUsagePercent);
-
         if (progressiveCpuUsage) {
-            um.setUtilizationUpdateFunction(this::getCpuUtilizationIncrement);
+            return PiecewiseLinearUtilizationModel.ramp(
+                initialCpuUsagePercent, CLOUDLET_CPU_USAGE_INCREMENT_PER_SECOND, maxCloudletCpuUsagePercent);
         }
 
-        um.setMaxResourceUtilization(maxCloudletCpuUsagePercent);
-        return um;
-    }
-
-    /**
-     * Increments the CPU resource utilization, that is defined in percentage
-     * values.
-     *
-     * @return the new resource utilization after the increment
-     */
-    private double getCpuUtilizationIncrement(final UtilizationModelDynamic um) {
-        return um.getUtilization() + um.getTimeSpan() * CLOUDLET_CPU_USAGE_INCREMENT_PER_SECOND;
+        return new PiecewiseLinearUtilizationModel(initialCpuUsagePercent);
     }
 
     private void createAndSubmitCloudletsWithDynamicCpuUsage(
@@ -0,0 +1,391 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A trace (such as SWF, Google Cluster Data or PlanetLab) previously converted
+ * by a {@link ColumnarTraceWriter} into a compact, versioned, columnar binary file.
+ * Each column is memory-mapped, so opening the file just reads its header,
+ * and values are read directly from the mapped pages when requested,
+ * without any parsing. That way, multiple simulation runs using the same trace
+ * (such as in a parameter sweep) pay the parsing cost only once.
+ *
+ * <p>The file layout (in little-endian byte order) is:</p>
+ * <pre>
+ * magic "CSPTRACE" | version (int) | format (string)
+ * | source files (long) | source size (long) | source last modified (long) | rows (long) | columns (int) | for each column: name (string), type (byte), data offset (long)
+ * | dictionary entries (int) | dictionary offset (long)
+ * | column data, each column aligned to 8 bytes | dictionary strings
+ * </pre>
+ * Strings in the header are stored as a length (short) followed by UTF-8 bytes,
+ * while dictionary strings are stored as a length (int) followed by UTF-8 bytes.
+ * Values of {@link ColumnType#STRING} columns are indexes into the dictionary.
+ *
+ * <p>Instances are immutable after opened, so they can be shared among threads.
+ * A single column cannot be larger than 2 GB (about 268 million rows of 8-byte values).</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see TraceCacheConverter
+ */
+public final class ColumnarTraceFile implements Closeable {
+    /**
+     * The extension of columnar trace files.
+     */
+    public static final String EXTENSION = ".cspt";
+
+    /**
+     * The version of the file layout.
+     * Files with a different version must be converted again.
+     */
+    public static final int VERSION = 2;
+
+    static final byte[] MAGIC = "CSPTRACE".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The value stored for a missing {@link ColumnType#LONG}, {@link ColumnType#INT}
+     * or {@link ColumnType#STRING} value.
+     * Missing {@link ColumnType#DOUBLE} values are stored as {@link Double#NaN}.
+     */
+    public static final int MISSING = -1;
+
+    /**
+     * The types of values a column can store.
+     */
+    public enum ColumnType {
+        LONG(Long.BYTES), DOUBLE(Double.BYTES), INT(Integer.BYTES),
+
+        /** A String stored as an int index into the file dictionary. */
+        STRING(Integer.BYTES);
+
+        private final int bytes;
+
+        ColumnType(final int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * {@return the number of bytes of each value}
+         */
+        public int bytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * The definition of a column.
+     * @param name the column name
+     * @param type the type of the column values
+     */
+    public record Column(String name, ColumnType type) {
+        public static Column ofLong(final String name) {
+            return new Column(name, ColumnType.LONG);
+        }
+
+        public static Column ofDouble(final String name) {
+            return new Column(name, ColumnType.DOUBLE);
+        }
+
+        public static Column ofInt(final String name) {
+            return new Column(name, ColumnType.INT);
+        }
+
+        public static Column ofString(final String name) {
+            return new Column(name, ColumnType.STRING);
+        }
+    }
+
+    /**
+     * Identifies the version of the source trace a columnar file was converted from,
+     * so that the file can be converted again when the source changes.
+     * @param files the number of source files (which is greater than 1 for a directory or multiple part files)
+     * @param size the total size of the source files
+     * @param lastModified the last modified time (in milliseconds) of the most recently modified source file
+     */
+    public record SourceFingerprint(long files, long size, long lastModified) {
+        /**
+         * The fingerprint stored when the source isn't known.
+         */
+        static final SourceFingerprint MISSING_SOURCE = new SourceFingerprint(MISSING, MISSING, MISSING);
+
+        /**
+         * Computes the fingerprint of a source trace file or directory
+         * (in the file system or inside a jar).
+         * For a directory, all its regular files (except hidden ones) are considered.
+         * @param source the source file or directory
+         * @return the fingerprint of the source
+         * @throws IOException when the source cannot be read
+         */
+        public static SourceFingerprint of(final Path source) throws IOException {
+            if (!Files.isDirectory(source)) {
+                return of(List.of(source));
+            }
+
+            try (var paths = Files.list(source)) {
+                return of(paths.filter(Files::isRegularFile)
+                               .filter(path -> !path.getFileName().toString().startsWith("."))
+                               .toList());
+            }
+        }
+
+        /**
+         * Computes the fingerprint of a source trace split into multiple files.
+         * @param files the source files
+         * @return the fingerprint of the source
+         * @throws IOException when a source file cannot be read
+         */
+        public static SourceFingerprint of(final List<Path> files) throws IOException {
+            long size = 0;
+            long lastModified = 0;
+            for (final Path file : files) {
+                size += Files.size(file);
+                lastModified = Math.max(lastModified, Files.getLastModifiedTime(file).toMillis());
+            }
+
+            return new SourceFingerprint(files.size(), size, lastModified);
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final String format;
+    private final SourceFingerprint sourceFingerprint;
+    private final long rows;
+    private final List<Column> columns;
+    private final ByteBuffer[] data;
+
+    /** The number of bytes of each value in each column. */
+    private final int[] widths;
+    private final String[] dictionary;
+
+    private ColumnarTraceFile(final Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE))
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+            final var magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(path + " is not a columnar trace file");
+            }
+
+            final int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("%s has version %d but version %d is required".formatted(path, version, VERSION));
+            }
+
+            this.format = readShortString(header);
+            this.sourceFingerprint = new SourceFingerprint(header.getLong(), header.getLong(), header.getLong());
+            this.rows = header.getLong();
+
+            final int columnCount = header.getInt();
+            final var columnList = new ArrayList<Column>(columnCount);
+            this.data = new ByteBuffer[columnCount];
+            this.widths = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                final var column = new Column(readShortString(header), ColumnType.values()[header.get()]);
+                final long offset = header.getLong();
+                columnList.add(column);
+                widths[i] = column.type().bytes();
+                data[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, rows * column.type().bytes())
+                                 .order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            this.columns = Collections.unmodifiableList(columnList);
+            this.dictionary = readDictionary(header.getInt(), header.getLong());
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a columnar trace file, memory-mapping its columns.
+     * @param path the path of the file
+     * @return the opened file, which must be closed after use
+     * @throws IOException when the file cannot be read or has an invalid format or version
+     */
+    public static ColumnarTraceFile open(final Path path) throws IOException {
+        return new ColumnarTraceFile(path);
+    }
+
+    /**
+     * Checks if a columnar file exists for a source trace file (or directory) and was created from the current
+     * version of that source (comparing the {@link SourceFingerprint} stored in the columnar file).
+     * @param path the path of the columnar file
+     * @param source the path of the source trace file or directory
+     *               (which may be inside a jar, as resolved by {@link TracePaths})
+     * @return true if the columnar file is up-to-date,
+     *         false if it must be created again or the source doesn't exist
+     */
+    public static boolean isFresh(final Path path, final Path source) {
+        if (source == null || !Files.exists(source)) {
+            return false;
+        }
+
+        try {
+            return isFresh(path, SourceFingerprint.of(source));
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a columnar file exists and was created from a source with a given fingerprint.
+     * @param path the path of the columnar file
+     * @param sourceFingerprint the fingerprint of the current version of the source
+     * @return true if the columnar file is up-to-date, false if it must be created again
+     */
+    public static boolean isFresh(final Path path, final SourceFingerprint sourceFingerprint) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        try (var file = open(path)) {
+            return file.sourceFingerprint.equals(sourceFingerprint);
+        } catch (final IOException e) {
+            //Invalid or from a different version
+            return false;
+        }
+    }
+
+    private String[] readDictionary(final int entries, final long offset) throws IOException {
+        final var strings = new String[entries];
+        if (entries == 0) {
+            return strings;
+        }
+
+        final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, channel.size() - offset)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < entries; i++) {
+            final var bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return strings;
+    }
+
+    private static String readShortString(final ByteBuffer buffer) {
+        final var bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * {@return the format of the trace the file was converted from} such as "swf"
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * {@return the fingerprint of the source trace the file was converted from}
+     */
+    public SourceFingerprint getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the index of a column.
+     * @param name the column name
+     * @return the column index, used to read its values
+     * @throws IllegalArgumentException when there is no column with the given name
+     */
+    public int columnIndex(final String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Column %s not found in %s".formatted(name, path));
+    }
+
+    public long getLong(final int column, final long row) {
+        return data[column].getLong(position(column, row));
+    }
+
+    public double getDouble(final int column, final long row) {
+        return data[column].getDouble(position(column, row));
+    }
+
+    public int getInt(final int column, final long row) {
+        return data[column].getInt(position(column, row));
+    }
+
+    /**
+     * Gets a value of a {@link ColumnType#STRING} column.
+     * @param column the column index
+     * @param row the row index
+     * @return the String value or null if it's missing
+     */
+    public String getString(final int column, final long row) {
+        final int index = getInt(column, row);
+        return index == MISSING ? null : dictionary[index];
+    }
+
+    /**
+     * {@return the Strings referenced by {@link ColumnType#STRING} columns}
+     * A value of such columns is the index of a String in this list.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(Arrays.asList(dictionary));
+    }
+
+    private int position(final int column, final long row) {
+        return Math.toIntExact(row * widths[column]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.Column;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.ColumnType;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.SourceFingerprint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a trace into a {@link ColumnarTraceFile}, row by row.
+ * Since the number of rows must be known beforehand to compute where each column starts,
+ * converters usually perform a first pass over the source trace just to count rows.
+ * Each column has its own write buffer, which is flushed to the column position in the file when full.
+ *
+ * <p>The file is written to a temporary file, which replaces the destination only when
+ * the writer is closed after all rows are written.
+ * That way, an interrupted conversion never leaves an incomplete file that could be read later.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see TraceCacheConverter
+ */
+public class ColumnarTraceWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final Path tempPath;
+    private final FileChannel channel;
+    private final String format;
+    private final List<Column> columns;
+    private final long rows;
+    private final SourceFingerprint sourceFingerprint;
+
+    private final long[] offsets;
+    private final ByteBuffer[] buffers;
+
+    /** Number of bytes of each column already flushed to the file. */
+    private final long[] flushed;
+
+    private final Map<String, Integer> dictionaryIndexes = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private long writtenRows;
+
+    /**
+     * Creates a writer.
+     * @param path the path of the file to write
+     * @param format the format of the source trace (such as "swf")
+     * @param columns the columns to write
+     * @param rows the number of rows that will be written
+     * @param sourceFingerprint the fingerprint of the source trace, stored to detect when it changes
+     *                          (or null if the source is unknown, so that the file is never considered up-to-date)
+     * @throws IOException when the file cannot be created
+     */
+    public ColumnarTraceWriter(
+        final Path path, final String format, final List<Column> columns,
+        final long rows, final SourceFingerprint sourceFingerprint) throws IOException
+    {
+        this.path = requireNonNull(path);
+        this.format = requireNonNull(format);
+        this.columns = List.copyOf(columns);
+        this.rows = rows;
+        this.sourceFingerprint = sourceFingerprint == null ? SourceFingerprint.MISSING_SOURCE : sourceFingerprint;
+
+        final var dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        this.tempPath = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        this.channel = FileChannel.open(tempPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        this.offsets = new long[columns.size()];
+        this.buffers = new ByteBuffer[columns.size()];
+        this.flushed = new long[columns.size()];
+        long offset = align(headerSize());
+        for (int i = 0; i < columns.size(); i++) {
+            offsets[i] = offset;
+            buffers[i] = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            offset = align(offset + rows * columns.get(i).type().bytes());
+        }
+    }
+
+    private int headerSize() {
+        int size = ColumnarTraceFile.MAGIC.length + Integer.BYTES + shortStringSize(format) + 4 * Long.BYTES + Integer.BYTES;
+        for (final var column : columns) {
+            size += shortStringSize(column.name()) + Byte.BYTES + Long.BYTES;
+        }
+
+        return size + Integer.BYTES + Long.BYTES;
+    }
+
+    private static int shortStringSize(final String value) {
+        return Short.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static long align(final long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    public ColumnarTraceWriter setLong(final int column, final long value) throws IOException {
+        buffer(column, ColumnType.LONG).putLong(value);
+        return this;
+    }
+
+    public ColumnarTraceWriter setDouble(final int column, final double value) throws IOException {
+        buffer(column, ColumnType.DOUBLE).putDouble(value);
+        return this;
+    }
+
+    public ColumnarTraceWriter setInt(final int column, final int value) throws IOException {
+        buffer(column, ColumnType.INT).putInt(value);
+        return this;
+    }
+
+    /**
+     * Sets the value of a {@link ColumnType#STRING} column in the current row,
+     * adding the String to the dictionary if it's not there yet.
+     * @param column the column index
+     * @param value the value to set (or null if missing)
+     * @return this writer
+     */
+    public ColumnarTraceWriter setString(final int column, final String value) throws IOException {
+        final int index = value == null ? ColumnarTraceFile.MISSING : dictionaryIndexes.computeIfAbsent(value, this::addToDictionary);
+        buffer(column, ColumnType.STRING).putInt(index);
+        return this;
+    }
+
+    private int addToDictionary(final String value) {
+        dictionary.add(value);
+        return dictionary.size() - 1;
+    }
+
+    /**
+     * Gets the buffer of a column to write a value, flushing it if it's full.
+     */
+    private ByteBuffer buffer(final int column, final ColumnType type) throws IOException {
+        if (columns.get(column).type() != type) {
+            throw new IllegalArgumentException("Column %s is of type %s".formatted(columns.get(column).name(), columns.get(column).type()));
+        }
+
+        final var buffer = buffers[column];
+        if (buffer.remaining() < type.bytes()) {
+            flush(column);
+        }
+
+        return buffer;
+    }
+
+    private void flush(final int column) throws IOException {
+        final var buffer = buffers[column].flip();
+        while (buffer.hasRemaining()) {
+            flushed[column] += channel.write(buffer, offsets[column] + flushed[column]);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Finishes the current row, after all its columns were set.
+     * @return this writer
+     */
+    public ColumnarTraceWriter endRow() {
+        if (++writtenRows > rows) {
+            throw new IllegalStateException("Only %d rows were expected".formatted(rows));
+        }
+
+        return this;
+    }
+
+    /**
+     * Flushes all columns, then writes the header and the dictionary,
+     * replacing the destination file.
+     * @throws IOException when the file cannot be written
+     * @throws IllegalStateException if fewer rows than expected were written
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            if (writtenRows != rows) {
+                throw new IllegalStateException("%d rows were expected but %d were written".formatted(rows, writtenRows));
+            }
+
+            for (int i = 0; i < columns.size(); i++) {
+                flush(i);
+            }
+
+            final long dictionaryOffset = columns.isEmpty() ? align(headerSize()) :
+                align(offsets[columns.size() - 1] + rows * columns.get(columns.size() - 1).type().bytes());
+            writeDictionary(dictionaryOffset);
+            writeHeader(dictionaryOffset);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeHeader(final long dictionaryOffset) throws IOException {
+        final var header = ByteBuffer.allocate(headerSize()).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(ColumnarTraceFile.MAGIC).putInt(ColumnarTraceFile.VERSION);
+        putShortString(header, format);
+        header.putLong(sourceFingerprint.files()).putLong(sourceFingerprint.size())
+              .putLong(sourceFingerprint.lastModified()).putLong(rows).putInt(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            putShortString(header, columns.get(i).name());
+            header.put((byte) columns.get(i).type().ordinal()).putLong(offsets[i]);
+        }
+
+        header.putInt(dictionary.size()).putLong(dictionaryOffset);
+        write(header.flip(), 0);
+    }
+
+    private void writeDictionary(final long offset) throws IOException {
+        long position = offset;
+        for (final String value : dictionary) {
+            final var bytes = value.getBytes(StandardCharsets.UTF_8);
+            final var buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(bytes.length).put(bytes).flip();
+            position += write(buffer, position);
+        }
+    }
+
+    private int write(final ByteBuffer buffer, final long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+
+        return written;
+    }
+
+    private static void putShortString(final ByteBuffer buffer, final String value) {
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+}
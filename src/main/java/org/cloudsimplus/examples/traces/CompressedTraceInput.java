@@ -0,0 +1,166 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens trace files which may be compressed, detecting the compression format
+ * by the file content (instead of the file extension), so that trace readers
+ * can read archived traces without requiring them to be unpacked before each experiment.
+ *
+ * <p>Gzip files having multiple members (such as the ones created by bgzip,
+ * or by concatenating gzip files) are decompressed by a {@link ParallelGzipInputStream},
+ * which inflates independent members in parallel while the parser reads the already decompressed ones.
+ * A gzip file having a single member (as the ones created by the regular gzip tool)
+ * can only be decompressed sequentially.</p>
+ *
+ * <p>Zstandard files are decompressed sequentially,
+ * if the <a href="https://github.com/luben/zstd-jni">zstd-jni</a> library is available in the classpath
+ * (it's not a dependency of this project).</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public final class CompressedTraceInput {
+    /**
+     * The formats a trace file can be stored in.
+     */
+    public enum Format {PLAIN, GZIP, ZSTD}
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Files smaller than this are decompressed sequentially,
+     * since parallel decompression wouldn't pay off.
+     */
+    private static final long MIN_PARALLEL_SIZE = 1 << 20;
+
+    private static final String ZSTD_STREAM_CLASS = "com.github.luben.zstd.ZstdInputStream";
+
+    /**
+     * A private constructor to avoid class instantiation.
+     */
+    private CompressedTraceInput() {/**/}
+
+    /**
+     * Detects the format of a trace file by its first bytes.
+     * @param path the trace file
+     * @return the detected format
+     * @throws IOException when the file cannot be read
+     */
+    public static Format detect(final Path path) throws IOException {
+        try (var stream = Files.newInputStream(path)) {
+            return detect(stream.readNBytes(4));
+        }
+    }
+
+    private static Format detect(final byte[] header) {
+        if (header.length >= 2 && (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b) {
+            return Format.GZIP;
+        }
+
+        if (header.length >= 4 && (header[0] & 0xff) == 0x28 && (header[1] & 0xff) == 0xb5 &&
+            (header[2] & 0xff) == 0x2f && (header[3] & 0xff) == 0xfd)
+        {
+            return Format.ZSTD;
+        }
+
+        return Format.PLAIN;
+    }
+
+    /**
+     * Opens a trace file for reading its decompressed content,
+     * using all available processors to decompress multi-member gzip files.
+     * @param path the trace file
+     * @return a stream for the decompressed content, which must be closed after use
+     * @throws IOException when the file cannot be read or its format isn't supported
+     */
+    public static InputStream open(final Path path) throws IOException {
+        return open(path, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Opens a trace file for reading its decompressed content.
+     * Files inside a jar are always decompressed sequentially.
+     * @param path the trace file
+     * @param parallelism the maximum number of gzip members to decompress in parallel
+     *                    (1 to decompress sequentially)
+     * @return a stream for the decompressed content, which must be closed after use
+     * @throws IOException when the file cannot be read or its format isn't supported
+     */
+    public static InputStream open(final Path path, final int parallelism) throws IOException {
+        if (parallelism > 1 && TracePaths.isDefaultFileSystem(path) &&
+            Files.size(path) >= MIN_PARALLEL_SIZE && detect(path) == Format.GZIP)
+        {
+            return new ParallelGzipInputStream(path, parallelism);
+        }
+
+        return open(Files.newInputStream(path));
+    }
+
+    /**
+     * Wraps a stream (such as one for a classpath resource) for reading its decompressed content.
+     * Since the stream cannot be read at random positions, it's always decompressed sequentially.
+     * @param stream the stream to read, which will be closed when the returned stream is closed
+     * @return a stream for the decompressed content
+     * @throws IOException when the stream cannot be read or its format isn't supported
+     */
+    public static InputStream open(final InputStream stream) throws IOException {
+        final var buffered = new BufferedInputStream(stream, BUFFER_SIZE);
+        buffered.mark(4);
+        final var format = detect(buffered.readNBytes(4));
+        buffered.reset();
+        try {
+            return switch (format) {
+                case PLAIN -> buffered;
+                case GZIP -> new GZIPInputStream(buffered, BUFFER_SIZE);
+                case ZSTD -> new BufferedInputStream(newZstdStream(buffered), BUFFER_SIZE);
+            };
+        } catch (final IOException | RuntimeException e) {
+            buffered.close();
+            throw e;
+        }
+    }
+
+    private static InputStream newZstdStream(final InputStream stream) throws IOException {
+        try {
+            final Class<?> zstdClass = Class.forName(ZSTD_STREAM_CLASS);
+            return (InputStream) zstdClass.getConstructor(InputStream.class).newInstance(stream);
+        } catch (final ClassNotFoundException e) {
+            throw new IOException(
+                "Zstandard-compressed traces require " + ZSTD_STREAM_CLASS + " in the classpath. " +
+                "Add the zstd-jni library or recompress the trace using gzip/bgzip.", e);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause() instanceof IOException ioe ? ioe : new IOException(e.getCause());
+        } catch (final ReflectiveOperationException e) {
+            throw new IOException(e);
+        }
+    }
+}
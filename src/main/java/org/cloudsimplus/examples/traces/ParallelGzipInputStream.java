@@ -0,0 +1,622 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses a gzip file having multiple members (independently compressed blocks),
+ * inflating up to a given number of members in parallel,
+ * while the content of the already inflated ones is read in the file order.
+ * Multi-member files are created, for instance, by bgzip or by concatenating gzip files.
+ *
+ * <p>Members created by bgzip (BGZF blocks) store their compressed size in an extra header field,
+ * so the position of the next ones is known just by reading their headers.
+ * For other members, the boundaries are known only after a member is inflated.
+ * Therefore, the file is scanned (at most {@link #SCAN_AHEAD} bytes after the member being read)
+ * for gzip headers and a member is inflated from each position found.
+ * A member is accepted only if it starts exactly where the previous one ended
+ * and the CRC-32 and size stored in its trailer match the inflated data.
+ * That way, headers which happen to appear inside compressed data just cost some wasted work.</p>
+ *
+ * <p>A member is inflated in parallel only if it's a BGZF block or another member header
+ * is found after it within the scanned bytes. Otherwise (as for a file having a single member),
+ * or if the next member isn't found or is larger than {@link #MAX_MEMBER_SIZE} when inflated,
+ * the rest of the file is decompressed sequentially by a {@link GZIPInputStream}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see CompressedTraceInput
+ */
+final class ParallelGzipInputStream extends InputStream {
+    /**
+     * The maximum size of a member, after inflated, to be kept in memory.
+     */
+    static final int MAX_MEMBER_SIZE = 8 << 20;
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The maximum number of bytes after the start of the member being read
+     * which are scanned for the headers of the next members.
+     */
+    static final int SCAN_AHEAD = 4 * CHUNK_SIZE;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int RESERVED_FLAGS = 0xe0;
+
+    /**
+     * Number of bytes in a member header used to identify it:
+     * the gzip magic number, the compression method and the flags.
+     */
+    private static final int SIGNATURE_SIZE = 4;
+
+    /**
+     * Number of bytes in the fixed part of a member header:
+     * the signature, modification time, extra flags and operating system.
+     */
+    private static final int HEADER_SIZE = 10;
+
+    /**
+     * The identifier of the BGZF extra field, which stores the member size minus 1.
+     */
+    private static final int BGZF_FIELD_ID = 'B' | 'C' << 8;
+
+    private final FileChannel channel;
+    private final long fileSize;
+
+    /**
+     * The maximum number of members being inflated (or already inflated and waiting to be read).
+     */
+    private final int window;
+    private final ArrayDeque<PendingMember> pending = new ArrayDeque<>();
+
+    /**
+     * A chunk of the file where member signatures are searched,
+     * which starts at {@link #scanChunkPos} in the file.
+     */
+    private final byte[] scanChunk = new byte[CHUNK_SIZE];
+    private long scanChunkPos;
+    private int scanChunkSize;
+    private int scanIndex;
+
+    /**
+     * The position where the next member to be read starts.
+     */
+    private long nextMemberPos;
+
+    /**
+     * The position of the next BGZF block to start inflating,
+     * or -1 if members are found by scanning the file for their headers.
+     */
+    private long nextBlockPos = -1;
+
+    private byte[] data = new byte[0];
+    private int dataPos;
+    private int dataSize;
+
+    /**
+     * The stream used after a member cannot be inflated in parallel,
+     * or null while members are being inflated in parallel.
+     */
+    private InputStream sequential;
+    private volatile boolean closed;
+
+    /**
+     * Opens a gzip file for parallel decompression.
+     * @param path the gzip file
+     * @param parallelism the maximum number of members to inflate in parallel
+     * @throws IOException when the file cannot be opened
+     */
+    ParallelGzipInputStream(final Path path, final int parallelism) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        //Keeps some members ahead, so that workers don't stay idle while the parser reads the current one
+        this.window = Math.max(1, parallelism) + 2;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+
+        return sequential == null ? data[dataPos++] & 0xff : sequential.read();
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (length == 0) {
+            return 0;
+        }
+
+        if (!ensureData()) {
+            return -1;
+        }
+
+        if (sequential != null) {
+            return sequential.read(buffer, offset, length);
+        }
+
+        final int count = Math.min(length, dataSize - dataPos);
+        System.arraycopy(data, dataPos, buffer, offset, count);
+        dataPos += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        pending.forEach(member -> member.future().cancel(false));
+        pending.clear();
+        try (channel) {
+            if (sequential != null) {
+                sequential.close();
+            }
+        }
+    }
+
+    /**
+     * Makes sure there is decompressed data to be read.
+     * @return true if there is data to be read (or the sequential stream must be read), false at the end of file
+     */
+    private boolean ensureData() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        while (sequential == null && dataPos == dataSize) {
+            if (!nextMember()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the next member in the file order.
+     * @return true if a member was got (or the rest of the file must be read sequentially),
+     *         false at the end of file
+     */
+    private boolean nextMember() throws IOException {
+        if (nextMemberPos >= fileSize) {
+            return false;
+        }
+
+        //Discards members inflated from headers found inside previous members
+        while (!pending.isEmpty() && pending.peek().start() < nextMemberPos) {
+            pending.poll().future().cancel(false);
+        }
+
+        if (pending.isEmpty() && !scheduleBoundedMember()) {
+            return startSequential();
+        }
+
+        scheduleMembers();
+
+        final Member member = pending.isEmpty() || pending.peek().start() != nextMemberPos ?
+                                  null : pending.poll().future().join();
+        if (member == null || member.data() == null) {
+            return startSequential();
+        }
+
+        data = member.data();
+        dataPos = 0;
+        dataSize = member.size();
+        nextMemberPos = member.end();
+        scheduleMembers();
+        return true;
+    }
+
+    /**
+     * Starts inflating the member at the {@link #nextMemberPos} if its end is known to be near:
+     * it's a BGZF block or the header of another member is found within the {@link #SCAN_AHEAD} bytes.
+     * That avoids inflating (and discarding) a large single member before falling back to sequential decompression.
+     * @return true if the member was scheduled (or will be by {@link #scheduleMembers()}),
+     *         false if the rest of the file must be read sequentially
+     */
+    private boolean scheduleBoundedMember() throws IOException {
+        if (blockEnd(nextMemberPos) > 0) {
+            nextBlockPos = nextMemberPos;
+            return true;
+        }
+
+        nextBlockPos = -1;
+        scanChunkPos = nextMemberPos;
+        scanChunkSize = 0;
+        scanIndex = 0;
+        final long start = nextHeader();
+        if (start != nextMemberPos) {
+            return false;
+        }
+
+        final long next = nextHeader();
+        if (next < 0) {
+            return false;
+        }
+
+        schedule(start);
+        schedule(next);
+        return true;
+    }
+
+    /**
+     * Starts inflating the next members found, until the window is full.
+     */
+    private void scheduleMembers() throws IOException {
+        while (pending.size() < window) {
+            final long start = nextBlockPos < 0 ? nextHeader() : nextBlock();
+            if (start < 0) {
+                return;
+            }
+
+            schedule(start);
+        }
+    }
+
+    private void schedule(final long start) {
+        pending.add(new PendingMember(start, CompletableFuture.supplyAsync(() -> inflate(start))));
+    }
+
+    /**
+     * Starts decompressing the rest of the file sequentially, from the position of the next member.
+     * @return true if there is a member there, false if there is just trailing garbage
+     *         (which is ignored, as the {@link GZIPInputStream} does)
+     */
+    private boolean startSequential() throws IOException {
+        pending.forEach(member -> member.future().cancel(false));
+        pending.clear();
+
+        final var header = ByteBuffer.allocate(SIGNATURE_SIZE);
+        while (header.hasRemaining() && channel.read(header, nextMemberPos + header.position()) > 0) {
+            //reads until the buffer is full or the end of file
+        }
+
+        if (header.hasRemaining() || !isSignature(header.array(), 0)) {
+            nextMemberPos = fileSize;
+            return false;
+        }
+
+        final InputStream stream = Channels.newInputStream(channel.position(nextMemberPos));
+        sequential = new GZIPInputStream(stream, CHUNK_SIZE);
+        return true;
+    }
+
+    /**
+     * Gets the position of the next BGZF block to be inflated, advancing to the block after it.
+     * @return the block position or -1 if there are no more blocks
+     */
+    private long nextBlock() throws IOException {
+        final long start = nextBlockPos;
+        final long end = start < fileSize ? blockEnd(start) : -1;
+        //Stops at the end of file or at a member that isn't a BGZF block, which is checked again when it's reached
+        nextBlockPos = end < 0 ? fileSize : end;
+        return end < 0 ? -1 : start;
+    }
+
+    /**
+     * Gets the end of a BGZF block from the size stored in its header.
+     * @param start the block position
+     * @return the position after the block, or -1 if there isn't a BGZF block at the given position
+     */
+    private long blockEnd(final long start) throws IOException {
+        final var header = new byte[HEADER_SIZE + 2];
+        if (readFully(header, start) < header.length || !isHeader(header, 0) || (header[3] & FEXTRA) == 0) {
+            return -1;
+        }
+
+        final var extra = new byte[readShort(header, HEADER_SIZE)];
+        if (readFully(extra, start + header.length) < extra.length) {
+            return -1;
+        }
+
+        //Each extra subfield has a 2-byte id and a 2-byte length, followed by its data
+        for (int i = 0; i + 4 <= extra.length; i += 4 + readShort(extra, i + 2)) {
+            if (readShort(extra, i) == BGZF_FIELD_ID && readShort(extra, i + 2) == 2 && i + 6 <= extra.length) {
+                final long end = start + readShort(extra, i + 4) + 1;
+                return end <= fileSize ? end : -1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Reads a little-endian unsigned short, as stored in gzip headers.
+     */
+    private static int readShort(final byte[] bytes, final int i) {
+        return (bytes[i] & 0xff) | (bytes[i + 1] & 0xff) << 8;
+    }
+
+    /**
+     * Finds the next position where a gzip member header appears in the file,
+     * up to {@link #SCAN_AHEAD} bytes after the start of the member being read.
+     * @return the header position or -1 if there are no more headers within the scanned bytes
+     */
+    private long nextHeader() throws IOException {
+        //Bytes inside members already read cannot have the start of another member
+        if (scanChunkPos + scanIndex < nextMemberPos) {
+            scanChunkPos = nextMemberPos;
+            scanChunkSize = 0;
+            scanIndex = 0;
+        }
+
+        final long limit = Math.min(nextMemberPos + SCAN_AHEAD, fileSize);
+        while (true) {
+            final long last = Math.min(scanChunkSize - HEADER_SIZE, limit - 1 - scanChunkPos);
+            for (; scanIndex <= last; scanIndex++) {
+                if (isHeader(scanChunk, scanIndex)) {
+                    return scanChunkPos + scanIndex++;
+                }
+            }
+
+            //The next chunk starts at the first position not checked yet
+            final long next = scanChunkPos + scanIndex;
+            if (next >= limit || next + HEADER_SIZE > fileSize) {
+                return -1;
+            }
+
+            scanChunkPos = next;
+            scanChunkSize = readFully(scanChunk, next);
+            scanIndex = 0;
+        }
+    }
+
+    /**
+     * Checks if there is a gzip member signature at a given position: the gzip magic number,
+     * followed by the deflate compression method and flags without reserved bits.
+     */
+    private static boolean isSignature(final byte[] bytes, final int i) {
+        return (bytes[i] & 0xff) == 0x1f && (bytes[i + 1] & 0xff) == 0x8b &&
+               bytes[i + 2] == Deflater.DEFLATED && (bytes[i + 3] & RESERVED_FLAGS) == 0;
+    }
+
+    /**
+     * Checks if there is a member header at a given position, which besides the {@link #isSignature(byte[], int) signature},
+     * has one of the extra flags and operating system values defined by RFC 1952.
+     * Compressed data matches that by chance much less often than just the signature,
+     * reducing the members inflated in vain.
+     * A valid member having other values is just decompressed sequentially.
+     */
+    private static boolean isHeader(final byte[] bytes, final int i) {
+        final int extraFlags = bytes[i + 8];
+        final int os = bytes[i + 9] & 0xff;
+        return isSignature(bytes, i) && (extraFlags == 0 || extraFlags == 2 || extraFlags == 4) && (os <= 13 || os == 255);
+    }
+
+    /**
+     * Reads file bytes from a given position until the buffer is full or the end of file is reached.
+     * @return the number of bytes read
+     */
+    private int readFully(final byte[] buffer, final long position) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        final var byteBuffer = ByteBuffer.wrap(buffer);
+        while (byteBuffer.hasRemaining()) {
+            if (channel.read(byteBuffer, position + byteBuffer.position()) <= 0) {
+                break;
+            }
+        }
+
+        return byteBuffer.position();
+    }
+
+    /**
+     * Inflates a member starting at a given position (which is called by worker threads).
+     * @param start the position where a member signature was found
+     * @return the inflated member, or a member without data if it's invalid or too large
+     */
+    private Member inflate(final long start) {
+        final var inflater = new Inflater(true);
+        try {
+            final var input = new MemberInput(start);
+            if (!input.skipHeader()) {
+                return Member.invalid(start);
+            }
+
+            byte[] output = new byte[CHUNK_SIZE];
+            int size = 0;
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (!input.fill()) {
+                        return Member.invalid(start);
+                    }
+
+                    inflater.setInput(input.buffer, input.pos, input.limit - input.pos);
+                    input.pos = input.limit;
+                } else if (inflater.needsDictionary()) {
+                    return Member.invalid(start);
+                }
+
+                if (size == output.length) {
+                    if (size >= MAX_MEMBER_SIZE) {
+                        return Member.invalid(start);
+                    }
+
+                    output = Arrays.copyOf(output, Math.min(2 * size, MAX_MEMBER_SIZE));
+                }
+
+                size += inflater.inflate(output, size, output.length - size);
+            }
+
+            //Gives back the bytes after the compressed data, which belong to the trailer
+            input.pos = input.limit - inflater.getRemaining();
+            final var crc = new CRC32();
+            crc.update(output, 0, size);
+            if (input.readInt() != (int) crc.getValue() || input.readInt() != size) {
+                return Member.invalid(start);
+            }
+
+            return new Member(start, input.position(), output, size);
+        } catch (final IOException | DataFormatException e) {
+            return Member.invalid(start);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Reads the compressed bytes of a member, starting from a given file position.
+     */
+    private final class MemberInput {
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int pos;
+        private int limit;
+
+        /**
+         * The file position after the last byte in the {@link #buffer}.
+         */
+        private long filePos;
+
+        private MemberInput(final long start) {
+            this.filePos = start;
+        }
+
+        /**
+         * Reads the next bytes into the buffer if all bytes were consumed.
+         * @return true if there are bytes to consume, false at the end of file
+         */
+        private boolean fill() throws IOException {
+            if (pos < limit) {
+                return true;
+            }
+
+            limit = readFully(buffer, filePos);
+            pos = 0;
+            filePos += limit;
+            return limit > 0;
+        }
+
+        private int readByte() throws IOException {
+            if (!fill()) {
+                throw new EOFException();
+            }
+
+            return buffer[pos++] & 0xff;
+        }
+
+        /**
+         * Reads a little-endian int, as stored in gzip headers and trailers.
+         */
+        private int readInt() throws IOException {
+            return readByte() | readByte() << 8 | readByte() << 16 | readByte() << 24;
+        }
+
+        private void skip(final int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                readByte();
+            }
+        }
+
+        private void skipString() throws IOException {
+            while (readByte() != 0) {
+                //skips until the string terminator
+            }
+        }
+
+        /**
+         * Skips the member header.
+         * @return true if the header is valid, false otherwise
+         */
+        private boolean skipHeader() throws IOException {
+            if (readByte() != 0x1f || readByte() != 0x8b || readByte() != Deflater.DEFLATED) {
+                return false;
+            }
+
+            final int flags = readByte();
+            if ((flags & RESERVED_FLAGS) != 0) {
+                return false;
+            }
+
+            //Modification time, extra flags and operating system
+            skip(6);
+            if ((flags & FEXTRA) != 0) {
+                skip(readByte() | readByte() << 8);
+            }
+
+            if ((flags & FNAME) != 0) {
+                skipString();
+            }
+
+            if ((flags & FCOMMENT) != 0) {
+                skipString();
+            }
+
+            if ((flags & FHCRC) != 0) {
+                skip(2);
+            }
+
+            return true;
+        }
+
+        private long position() {
+            return filePos - (limit - pos);
+        }
+    }
+
+    /**
+     * A member being inflated, which was found at a given position of the file.
+     */
+    private record PendingMember(long start, CompletableFuture<Member> future) {}
+
+    /**
+     * An inflated member.
+     * @param start the member position in the file
+     * @param end the position after the member trailer, where the next member is expected to start
+     * @param data the inflated data (with some unused space at the end),
+     *             or null if the member is invalid or too large to be kept in memory
+     * @param size the size of the inflated data
+     */
+    private record Member(long start, long end, byte[] data, int size) {
+        static Member invalid(final long start) {
+            return new Member(start, start, null, 0);
+        }
+    }
+}
@@ -45,6 +45,7 @@ import org.cloudsimplus.utilizationmodels.UtilizationModelPlanetLab;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
 
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -55,6 +56,10 @@ import java.util.stream.IntStream;
  * to define Cloudlets' CPU utilization based on <a href="https://www.planet-lab.org">PlanetLab's</a> trace files.
  * Check the {@link #createCloudlets()} method.
  *
+ * <p>Trace files are read from a {@link PlanetLabTraceStore}, which loads the entire
+ * trace directory once and shares its samples among all Cloudlets (and simulations)
+ * using the same series.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.0.0
  */
@@ -70,7 +75,8 @@ public class PlanetLabExample1 {
     private static final int CLOUDLET_PES = 2;
     private static final int CLOUDLET_LENGTH = 100000000;
 
-    private static final String TRACE_FILE = "workload/planetlab/20110303/75-130-96-12_static_oxfr_ma_charter_com_irisaple_wup";
+    private static final String TRACE_DIR = "workload/planetlab/20110303";
+    private static final String TRACE_FILE = "75-130-96-12_static_oxfr_ma_charter_com_irisaple_wup";
 
     /**
      * The time interval in which precise values can be got from
@@ -169,13 +175,14 @@ public class PlanetLabExample1 {
 
     /**
      * Creates a list of Cloudlets setting their CPU UtilizationModel as
-     * a {@link UtilizationModelPlanetLab} that read CPU utilization from
-     * a PlanetLab trace file.
+     * a {@link PlanetLabUtilizationView} that read CPU utilization from
+     * a PlanetLab trace file stored into the shared {@link PlanetLabTraceStore}.
      */
     private List<Cloudlet> createCloudlets() {
         final var list = new ArrayList<Cloudlet>(CLOUDLETS);
-        final var utilizationCpu = UtilizationModelPlanetLab.getInstance(TRACE_FILE, SCHEDULING_INTERVAL);
+        final var traceStore = PlanetLabTraceStore.shared(Path.of(TRACE_DIR), true);
         for (int i = 0; i < CLOUDLETS; i++) {
+            final var utilizationCpu = traceStore.getUtilizationModel(TRACE_FILE, SCHEDULING_INTERVAL);
             final var cloudlet =
                 new CloudletSimple(i, CLOUDLET_LENGTH, CLOUDLET_PES)
                     .setFileSize(1024)
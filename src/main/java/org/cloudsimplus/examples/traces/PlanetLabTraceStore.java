@@ -0,0 +1,278 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudsimplus.utilizationmodels.UtilizationModelPlanetLab;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * A store for the CPU utilization series of a directory of
+ * <a href="https://www.planet-lab.org">PlanetLab</a> trace files, where each file is a series.
+ * All samples are kept in a single primitive array, and series with identical samples
+ * are stored only once. Utilization models for a series are lightweight views
+ * ({@link PlanetLabUtilizationView}) over that array,
+ * instead of each {@link UtilizationModelPlanetLab} keeping its own copy of the samples.
+ *
+ * <p>Stores are shared process-wide: {@link #shared(Path, boolean)} loads a directory only once,
+ * returning the same store for every caller, including simulations running in parallel.
+ * Files are loaded in parallel. The store is immutable after loaded, so it's thread-safe.</p>
+ *
+ * <p>Samples can optionally be quantized into a byte each (in steps of 1%),
+ * which reduces memory usage by 8 times.
+ * Since PlanetLab traces store integer percentages, quantization doesn't lose precision for them.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see PlanetLabExample1
+ */
+public final class PlanetLabTraceStore {
+    private static final Map<String, PlanetLabTraceStore> SHARED_STORES = new ConcurrentHashMap<>();
+
+    /**
+     * The samples of all distinct series (in scale from 0 to 1), or null if samples are {@link #quantized}.
+     */
+    private final double[] samples;
+
+    /**
+     * The samples of all distinct series (in percentage), or null if samples are not quantized.
+     */
+    private final byte[] quantized;
+
+    /**
+     * Maps each series name to its {offset, length} into the samples array.
+     * Series with identical samples share the same offset.
+     */
+    private final Map<String, int[]> series;
+
+    private final int distinctSeries;
+
+    private PlanetLabTraceStore(final List<String> names, final List<double[]> seriesList, final boolean quantize) {
+        final var seriesMap = new LinkedHashMap<String, int[]>(names.size());
+        final var distinct = new HashMap<SeriesKey, int[]>(names.size());
+        final var distinctList = new ArrayList<double[]>();
+        int totalSamples = 0;
+        for (int i = 0; i < names.size(); i++) {
+            final double[] values = seriesList.get(i);
+            final var key = new SeriesKey(values);
+            int[] location = distinct.get(key);
+            if (location == null) {
+                location = new int[]{totalSamples, values.length};
+                distinct.put(key, location);
+                distinctList.add(values);
+                totalSamples += values.length;
+            }
+
+            seriesMap.put(names.get(i), location);
+        }
+
+        this.series = Collections.unmodifiableMap(seriesMap);
+        this.distinctSeries = distinctList.size();
+        this.samples = quantize ? null : new double[totalSamples];
+        this.quantized = quantize ? new byte[totalSamples] : null;
+        int pos = 0;
+        for (final double[] values : distinctList) {
+            for (final double value : values) {
+                if (quantize) {
+                    quantized[pos++] = (byte) Math.round(Math.max(0, Math.min(1, value)) * 100);
+                } else {
+                    samples[pos++] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the store for a directory of PlanetLab traces, loading it if it's not loaded yet.
+     * The directory is loaded only once per process (for each quantization option).
+     * @param dir the directory, either in the file system or in the classpath (which may be packaged into a jar)
+     * @param quantize true to store each sample as a byte, false to store as a double
+     * @return the shared store
+     */
+    public static PlanetLabTraceStore shared(final Path dir, final boolean quantize) {
+        final var resolvedDir = resolve(dir);
+        final String key = resolvedDir.toAbsolutePath().normalize().toUri() + (quantize ? "#quantized" : "");
+        return SHARED_STORES.computeIfAbsent(key, k -> load(resolvedDir, quantize));
+    }
+
+    /**
+     * Loads a directory of PlanetLab traces into a new store (which is not shared), reading files in parallel.
+     * If the directory has a {@link ColumnarTraceFile} created by the {@link TraceCacheConverter}
+     * (with the directory name plus the {@link ColumnarTraceFile#EXTENSION} and located beside the directory),
+     * samples are read from it instead, unless the directory changed since the file was converted
+     * or it's inside a jar (since columnar files must be memory-mapped).
+     * @param dir the directory
+     * @param quantize true to store each sample as a byte, false to store as a double
+     * @return the new store
+     */
+    public static PlanetLabTraceStore load(final Path dir, final boolean quantize) {
+        final var cachePath = dir.resolveSibling(dir.getFileName() + ColumnarTraceFile.EXTENSION);
+        if (TracePaths.isDefaultFileSystem(dir) && ColumnarTraceFile.isFresh(cachePath, dir)) {
+            return loadColumnar(cachePath, quantize);
+        }
+
+        final List<Path> files;
+        try (var paths = Files.list(dir)) {
+            files = paths.filter(Files::isRegularFile)
+                         .filter(path -> !path.getFileName().toString().startsWith("."))
+                         .sorted()
+                         .toList();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final var seriesList = IntStream.range(0, files.size()).parallel()
+                                        .mapToObj(i -> TraceCacheConverter.readPlanetLabFile(files.get(i)))
+                                        .toList();
+        final var names = files.stream().map(path -> path.getFileName().toString()).toList();
+        return new PlanetLabTraceStore(names, seriesList, quantize);
+    }
+
+    /**
+     * Loads a columnar file converted from a directory of PlanetLab traces.
+     */
+    private static PlanetLabTraceStore loadColumnar(final Path columnarFile, final boolean quantize) {
+        try (var file = ColumnarTraceFile.open(columnarFile)) {
+            if (!TraceCacheConverter.PLANETLAB.equals(file.getFormat())) {
+                throw new IllegalArgumentException(columnarFile + " was not converted from PlanetLab traces");
+            }
+
+            final int nameColumn = file.columnIndex(TraceCacheConverter.PLANETLAB_SERIES);
+            final int utilizationColumn = file.columnIndex(TraceCacheConverter.PLANETLAB_UTILIZATION);
+            final var names = new ArrayList<String>();
+            final var seriesList = new ArrayList<double[]>();
+            long start = 0;
+            for (long row = 1; row <= file.getRows(); row++) {
+                if (row == file.getRows() || file.getInt(nameColumn, row) != file.getInt(nameColumn, start)) {
+                    final var values = new double[Math.toIntExact(row - start)];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = file.getDouble(utilizationColumn, start + i);
+                    }
+
+                    names.add(file.getString(nameColumn, start));
+                    seriesList.add(values);
+                    start = row;
+                }
+            }
+
+            return new PlanetLabTraceStore(names, seriesList, quantize);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Resolves a directory that may be in the classpath (including inside a jar).
+     * @see TracePaths#resolve(String)
+     */
+    private static Path resolve(final Path dir) {
+        try {
+            final var resolvedDir = TracePaths.resolve(dir.toString());
+            if (!Files.isDirectory(resolvedDir)) {
+                throw new IOException("PlanetLab trace path is not a directory: " + dir);
+            }
+
+            return resolvedDir;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a utilization model for a series.
+     * @param name the series name (the name of the trace file)
+     * @param schedulingInterval the time interval between samples (in seconds)
+     * @return a new utilization model viewing the series samples
+     * @throws IllegalArgumentException when there is no series with the given name
+     */
+    public PlanetLabUtilizationView getUtilizationModel(final String name, final double schedulingInterval) {
+        final int[] location = series.get(name);
+        if (location == null) {
+            throw new IllegalArgumentException("PlanetLab series not found: " + name);
+        }
+
+        return new PlanetLabUtilizationView(this, location[0], location[1], schedulingInterval);
+    }
+
+    /**
+     * {@return the names of all series in the store}
+     */
+    public Set<String> getSeriesNames() {
+        return series.keySet();
+    }
+
+    /**
+     * {@return the number of series with distinct samples}
+     * Series with the same samples are stored only once.
+     */
+    public int getDistinctSeries() {
+        return distinctSeries;
+    }
+
+    /**
+     * {@return the number of samples stored}, counting once the samples of identical series
+     */
+    public int getStoredSamples() {
+        return quantized == null ? samples.length : quantized.length;
+    }
+
+    public boolean isQuantized() {
+        return quantized != null;
+    }
+
+    /**
+     * {@return the sample at a given position (in scale from 0 to 1)}
+     * @param pos the position in the samples array
+     */
+    double getSample(final int pos) {
+        return quantized == null ? samples[pos] : quantized[pos] / 100.0;
+    }
+
+    /**
+     * A key to find series with identical samples.
+     */
+    private record SeriesKey(double[] values) {
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof SeriesKey other && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudsimplus.utilizationmodels.UtilizationModelAbstract;
+import org.cloudsimplus.utilizationmodels.UtilizationModelPlanetLab;
+
+/**
+ * A CPU utilization model that reads samples of a PlanetLab series
+ * from a {@link PlanetLabTraceStore}, instead of keeping its own copy of them.
+ * It's just a view over the store, so creating one for each Cloudlet is cheap.
+ *
+ * <p>Utilization is computed just like in the {@link UtilizationModelPlanetLab}:
+ * at multiples of the scheduling interval, the sample for that time is returned;
+ * between them, utilization is linearly interpolated between the previous and next samples.
+ * When the simulation time goes beyond the last sample, the series starts over.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class PlanetLabUtilizationView extends UtilizationModelAbstract {
+    private final PlanetLabTraceStore store;
+    private final int offset;
+    private final int length;
+    private final double schedulingInterval;
+
+    /**
+     * Creates a view for a series in the store.
+     * @param store the store containing the series samples
+     * @param offset the position of the first series sample
+     * @param length the number of samples in the series
+     * @param schedulingInterval the time interval between samples (in seconds)
+     */
+    PlanetLabUtilizationView(
+        final PlanetLabTraceStore store, final int offset,
+        final int length, final double schedulingInterval)
+    {
+        super(Unit.PERCENTAGE);
+        if (schedulingInterval <= 0) {
+            throw new IllegalArgumentException("Scheduling interval must be greater than 0");
+        }
+
+        if (length == 0) {
+            throw new IllegalArgumentException("The series has no samples");
+        }
+
+        this.store = store;
+        this.offset = offset;
+        this.length = length;
+        this.schedulingInterval = schedulingInterval;
+    }
+
+    @Override
+    protected double getUtilizationInternal(final double time) {
+        final double decimalIndex = time / schedulingInterval;
+        final long prevIndex = (long) Math.floor(decimalIndex);
+        final double prevUtilization = getSample(prevIndex);
+        final double fraction = decimalIndex - prevIndex;
+        if (fraction == 0) {
+            return prevUtilization;
+        }
+
+        return prevUtilization + (getSample(prevIndex + 1) - prevUtilization) * fraction;
+    }
+
+    /**
+     * {@return a series sample} If the index is beyond the last sample, the series starts over.
+     * @param index the sample index inside the series
+     */
+    private double getSample(final long index) {
+        return store.getSample(offset + (int) Math.floorMod(index, length));
+    }
+
+    /**
+     * {@return the number of samples in the series}
+     */
+    public int getSamples() {
+        return length;
+    }
+
+    public double getSchedulingInterval() {
+        return schedulingInterval;
+    }
+}
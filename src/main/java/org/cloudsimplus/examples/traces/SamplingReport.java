@@ -0,0 +1,65 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+/**
+ * How far the distributions of a workload sampled by a {@link WorkloadSampler}
+ * drift from the original workload.
+ * Distributions are compared by the Kolmogorov-Smirnov distance
+ * (the maximum difference between the cumulative distributions, from 0 to 1),
+ * computed over the histogram bins used by the sampler.
+ *
+ * @param originalJobs the number of jobs in the original workload
+ * @param sampledJobs the number of jobs selected
+ * @param factor the sampling factor, which is expected to be the ratio between the original and sampled jobs
+ * @param arrivalRateError the relative error of the mean arrival rate, estimated by multiplying
+ *                         the sampled jobs by the factor
+ * @param arrivalDistance the KS distance between the distributions of arrival times,
+ *                        which shows how the arrival rate along the time drifts
+ * @param runtimeDistance the KS distance between the distributions of job runtime
+ * @param widthDistance the KS distance between the distributions of job width (number of PEs)
+ * @param meanRuntimeError the relative error of the mean job runtime
+ * @param meanWidthError the relative error of the mean job width
+ * @since CloudSim Plus 8.5.1
+ */
+public record SamplingReport(
+    long originalJobs, long sampledJobs, int factor,
+    double arrivalRateError, double arrivalDistance,
+    double runtimeDistance, double widthDistance,
+    double meanRuntimeError, double meanWidthError)
+{
+    @Override
+    public String toString() {
+        return """
+            Sampled %d of %d jobs (1/%d)
+              Arrival rate error: %6.2f%% | Arrival time KS distance: %.4f
+              Mean runtime error: %6.2f%% | Runtime KS distance:      %.4f
+              Mean width error:   %6.2f%% | Width KS distance:        %.4f
+            """.formatted(
+                sampledJobs, originalJobs, factor,
+                arrivalRateError * 100, arrivalDistance,
+                meanRuntimeError * 100, runtimeDistance,
+                meanWidthError * 100, widthDistance);
+    }
+}
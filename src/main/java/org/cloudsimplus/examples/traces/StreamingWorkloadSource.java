@@ -0,0 +1,200 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudsimplus.brokers.DatacenterBroker;
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.core.Simulation;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Submits Cloudlets from a workload trace to a {@link DatacenterBroker}
+ * as the simulation clock advances, instead of creating all Cloudlets before the simulation starts.
+ * It reads ahead only a bounded window of Cloudlets from the trace,
+ * so that Cloudlets are created just before they arrive, instead of all at once.
+ *
+ * <p>The Cloudlets must be given in the order of their arrival time,
+ * which is defined by their {@link Cloudlet#getSubmissionDelay() submission delay}
+ * relative to the simulation start (as the Cloudlets created by the {@link SwfWorkloadMappedReader}).
+ * At any time, up to {@link #getWindowSize() window size} Cloudlets which didn't arrive yet
+ * are submitted to the broker, with their submission delay adjusted to be relative to the current time.
+ * Every time the clock advances, Cloudlets that have arrived are removed from the window
+ * and the same number of Cloudlets is read from the trace.
+ * Since the broker is always holding the next Cloudlets to arrive,
+ * the simulation doesn't finish before the trace is over.</p>
+ *
+ * <p>The broker is configured not to shut down when idle, since it may have no Cloudlets
+ * to run between the arrival of two Cloudlets.</p>
+ *
+ * <p>Notice the source bounds only the Cloudlets waiting to arrive.
+ * The broker keeps every Cloudlet submitted to it in its own lists of submitted and finished Cloudlets,
+ * which cannot be released through its public API.
+ * That way, the heap still grows with the number of Cloudlets that have arrived so far,
+ * though the trace is never entirely parsed nor all its Cloudlets created up front.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see SwfWorkloadFormatExample1
+ */
+public class StreamingWorkloadSource {
+    /**
+     * The default maximum number of Cloudlets read ahead from the trace.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+    private final DatacenterBroker broker;
+    private final Iterator<Cloudlet> iterator;
+    private final Runnable closeAction;
+    private final int windowSize;
+
+    /**
+     * Cloudlets submitted to the broker which didn't arrive yet, in arrival order.
+     */
+    private final Deque<Cloudlet> window;
+
+    /**
+     * The arrival time of each Cloudlet in the {@link #window}, in the same order.
+     */
+    private final Deque<Double> arrivalTimes;
+
+    private long submittedCloudlets;
+    private boolean started;
+
+    /**
+     * Indicates all Cloudlets were read from the trace.
+     */
+    private boolean exhausted;
+
+    /**
+     * Creates a source with the {@link #DEFAULT_WINDOW_SIZE}.
+     * @param broker the broker to submit Cloudlets to
+     * @param cloudlets the stream of Cloudlets in arrival order, which is closed when all Cloudlets are read
+     */
+    public StreamingWorkloadSource(final DatacenterBroker broker, final Stream<Cloudlet> cloudlets) {
+        this(broker, cloudlets, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a source.
+     * @param broker the broker to submit Cloudlets to
+     * @param cloudlets the stream of Cloudlets in arrival order, which is closed when all Cloudlets are read
+     * @param windowSize the maximum number of Cloudlets read ahead from the trace
+     */
+    public StreamingWorkloadSource(final DatacenterBroker broker, final Stream<Cloudlet> cloudlets, final int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be greater than 0");
+        }
+
+        this.broker = requireNonNull(broker);
+        this.iterator = cloudlets.iterator();
+        this.closeAction = cloudlets::close;
+        this.windowSize = windowSize;
+        this.window = new ArrayDeque<>(windowSize);
+        this.arrivalTimes = new ArrayDeque<>(windowSize);
+    }
+
+    /**
+     * Starts submitting Cloudlets to the broker.
+     * It must be called before the simulation starts.
+     * @return this source
+     */
+    public StreamingWorkloadSource start() {
+        if (started) {
+            throw new IllegalStateException("The source was already started");
+        }
+
+        started = true;
+        broker.setShutdownWhenIdle(false);
+        final Simulation simulation = broker.getSimulation();
+        simulation.addOnClockTickListener(this::onClockTick);
+        fillWindow(simulation.clock());
+        return this;
+    }
+
+    private void onClockTick(final EventInfo info) {
+        final double time = info.getTime();
+        while (!arrivalTimes.isEmpty() && arrivalTimes.peekFirst() <= time) {
+            arrivalTimes.removeFirst();
+            window.removeFirst();
+        }
+
+        fillWindow(time);
+    }
+
+    /**
+     * Reads Cloudlets from the trace until the window is full,
+     * submitting them to the broker.
+     * @param time the current simulation time
+     */
+    private void fillWindow(final double time) {
+        if (window.size() == windowSize || exhausted) {
+            return;
+        }
+
+        final var newCloudlets = new ArrayList<Cloudlet>(windowSize - window.size());
+        while (window.size() < windowSize && iterator.hasNext()) {
+            final var cloudlet = iterator.next();
+            final double arrivalTime = cloudlet.getSubmissionDelay();
+            cloudlet.setSubmissionDelay(Math.max(0, arrivalTime - time));
+            window.addLast(cloudlet);
+            arrivalTimes.addLast(arrivalTime);
+            newCloudlets.add(cloudlet);
+        }
+
+        if (!iterator.hasNext()) {
+            exhausted = true;
+            closeAction.run();
+        }
+
+        if (!newCloudlets.isEmpty()) {
+            submittedCloudlets += newCloudlets.size();
+            broker.submitCloudletList(newCloudlets);
+        }
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * {@return the number of Cloudlets submitted to the broker so far}
+     */
+    public long getSubmittedCloudlets() {
+        return submittedCloudlets;
+    }
+
+    /**
+     * {@return true if all Cloudlets in the trace were submitted to the broker}
+     */
+    public boolean isFinished() {
+        return exhausted;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.util.Arrays;
+
+/**
+ * A job read from a workload file in the
+ * <a href="https://www.cs.huji.ac.il/labs/parallel/workload/swf.html">Standard Workload Format (SWF)</a>.
+ * It's a flyweight: the same instance is reused by a {@link SwfJobCursor} for every job read,
+ * so that no object is allocated per job.
+ * Values must be copied if they need to be kept after the cursor moves to the next job.
+ *
+ * <p>Fields are numbered from 1, as in the SWF specification.
+ * Any field not available in the file has the value {@link #IRRELEVANT}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see SwfWorkloadMappedReader
+ */
+public final class SwfJob {
+    /**
+     * Number of fields in each line of a SWF file.
+     */
+    public static final int FIELDS = 18;
+
+    /**
+     * The value used in SWF files for fields which are not available.
+     */
+    public static final int IRRELEVANT = -1;
+
+    public static final int JOB_NUMBER = 1;
+    public static final int SUBMIT_TIME = 2;
+    public static final int WAIT_TIME = 3;
+    public static final int RUN_TIME = 4;
+    public static final int ALLOCATED_PROCESSORS = 5;
+    public static final int AVERAGE_CPU_TIME = 6;
+    public static final int USED_MEMORY = 7;
+    public static final int REQUESTED_PROCESSORS = 8;
+    public static final int REQUESTED_TIME = 9;
+    public static final int REQUESTED_MEMORY = 10;
+    public static final int STATUS = 11;
+    public static final int USER_ID = 12;
+    public static final int GROUP_ID = 13;
+    public static final int EXECUTABLE_NUMBER = 14;
+    public static final int QUEUE_NUMBER = 15;
+    public static final int PARTITION_NUMBER = 16;
+    public static final int PRECEDING_JOB_NUMBER = 17;
+    public static final int THINK_TIME = 18;
+
+    private final double[] values = new double[FIELDS];
+
+    /**
+     * Gets the value of a field.
+     * @param field the field number (from 1 to {@link #FIELDS})
+     * @return the field value or {@link #IRRELEVANT} if not available
+     */
+    public double get(final int field) {
+        return values[field - 1];
+    }
+
+    void set(final int field, final double value) {
+        values[field - 1] = value;
+    }
+
+    void clear() {
+        Arrays.fill(values, IRRELEVANT);
+    }
+
+    public long getJobNumber() {
+        return (long) get(JOB_NUMBER);
+    }
+
+    /**
+     * {@return the job submit time (in seconds), relative to the start of the trace}
+     */
+    public double getSubmitTime() {
+        return get(SUBMIT_TIME);
+    }
+
+    /**
+     * {@return the job run time (in seconds)}
+     */
+    public double getRunTime() {
+        return get(RUN_TIME);
+    }
+
+    /**
+     * {@return the number of processors the job used},
+     * which is the number of allocated processors or,
+     * if not available, the number of requested ones.
+     */
+    public int getProcessors() {
+        final int allocated = (int) get(ALLOCATED_PROCESSORS);
+        return allocated > 0 ? allocated : (int) get(REQUESTED_PROCESSORS);
+    }
+
+    public int getStatus() {
+        return (int) get(STATUS);
+    }
+
+    public int getUserId() {
+        return (int) get(USER_ID);
+    }
+
+    @Override
+    public String toString() {
+        return "SwfJob" + Arrays.toString(values);
+    }
+}
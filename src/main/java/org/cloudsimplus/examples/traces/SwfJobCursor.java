@@ -0,0 +1,451 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A forward-only cursor over the jobs of a SWF workload file,
+ * parsing fields directly from bytes, without creating a String for each line.
+ * Every call to {@link #next()} moves to the next job and updates the {@link SwfJob} returned by {@link #job()}.
+ *
+ * <p>Uncompressed files are memory-mapped in segments of up to {@link #MAPPED_SEGMENT_SIZE} bytes,
+ * so that the operating system pages the file in as it's read, without copying it into the Java heap.
+ * Compressed files and classpath resources are read as a stream into a reusable buffer.
+ * Jobs can also be read from a {@link ColumnarTraceFile} previously converted from a SWF file,
+ * which requires no parsing at all.</p>
+ *
+ * <p>Instances are created by a {@link SwfWorkloadMappedReader} and must be closed after use.
+ * They are not thread-safe.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public final class SwfJobCursor implements Closeable {
+    /**
+     * Maximum number of bytes of a file mapped into memory at once.
+     */
+    public static final int MAPPED_SEGMENT_SIZE = 1 << 28;
+
+    /**
+     * Initial size of the buffer used to read streams.
+     * It grows if a line doesn't fit in it.
+     */
+    private static final int STREAM_BUFFER_SIZE = 1 << 20;
+
+    /** Indicates a line ends after the bytes currently available. */
+    private static final int INCOMPLETE = -1;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private final ChunkSource source;
+
+    /**
+     * The columnar file to read jobs from, or null if jobs are parsed from the {@link #source}.
+     */
+    private final ColumnarTraceFile table;
+
+    private final String fileName;
+    private final SwfJob job = new SwfJob();
+    private ByteBuffer buffer;
+    private int pos;
+    private long lineNumber;
+    private boolean endOfData;
+
+    /**
+     * Indicates if the last parsed line was a job (instead of a comment or blank line).
+     */
+    private boolean jobLine;
+
+    private SwfJobCursor(final ChunkSource source, final String fileName) {
+        this.source = source;
+        this.table = null;
+        this.fileName = fileName;
+        this.buffer = source.buffer();
+    }
+
+    private SwfJobCursor(final ColumnarTraceFile table) {
+        this.source = null;
+        this.table = table;
+        this.fileName = table.getPath().toString();
+    }
+
+    /**
+     * Creates a cursor that reads a columnar file converted from a SWF file.
+     * @param table the columnar file to read (which is closed when the cursor is closed)
+     * @return the new cursor
+     */
+    static SwfJobCursor columnar(final ColumnarTraceFile table) {
+        if (!TraceCacheConverter.SWF.equals(table.getFormat()) || table.getColumns().size() != SwfJob.FIELDS) {
+            throw new IllegalArgumentException(table.getPath() + " was not converted from a SWF file");
+        }
+
+        return new SwfJobCursor(table);
+    }
+
+    /**
+     * Creates a cursor that memory-maps an uncompressed file.
+     * @param file the file to read
+     * @return the new cursor
+     * @throws IOException when the file cannot be opened
+     */
+    static SwfJobCursor mapped(final Path file) throws IOException {
+        return new SwfJobCursor(new MappedChunkSource(FileChannel.open(file, StandardOpenOption.READ)), file.toString());
+    }
+
+    /**
+     * Creates a cursor that reads a stream.
+     * @param stream the stream to read (which is closed when the cursor is closed)
+     * @param fileName the name of the file being read (used in error messages)
+     * @return the new cursor
+     */
+    static SwfJobCursor stream(final InputStream stream, final String fileName) {
+        return new SwfJobCursor(new StreamChunkSource(stream), fileName);
+    }
+
+    /**
+     * {@return the current job} The returned object is reused for every job,
+     * being updated when the cursor moves.
+     */
+    public SwfJob job() {
+        return job;
+    }
+
+    /**
+     * {@return the number of lines read so far (including comments)}
+     * For columnar files, it's the number of rows read.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Moves to the next job in the file, skipping comments and blank lines.
+     * @return true if a job was read, false if the end of the file was reached
+     * @throws UncheckedIOException when the file cannot be read
+     * @throws IllegalStateException when a line has an invalid value
+     */
+    public boolean next() {
+        if (table != null) {
+            return nextRow();
+        }
+
+        try {
+            while (true) {
+                if (pos >= buffer.limit() && !refill()) {
+                    return false;
+                }
+
+                final int end = parseLine(pos);
+                if (end == INCOMPLETE) {
+                    //The last line may not end with a line break
+                    endOfData = !refill();
+                    continue;
+                }
+
+                pos = end;
+                lineNumber++;
+                if (jobLine) {
+                    return true;
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean nextRow() {
+        if (lineNumber >= table.getRows()) {
+            return false;
+        }
+
+        for (int field = 1; field <= SwfJob.FIELDS; field++) {
+            job.set(field, table.getDouble(field - 1, lineNumber));
+        }
+
+        lineNumber++;
+        return true;
+    }
+
+    /**
+     * Loads more bytes, keeping the ones from the current position on.
+     * @return true if more bytes were loaded, false if there is no more data
+     */
+    private boolean refill() throws IOException {
+        if (!source.refill(pos)) {
+            return false;
+        }
+
+        buffer = source.buffer();
+        pos = 0;
+        return true;
+    }
+
+    /**
+     * Parses the line starting at a given position.
+     * @param start the position of the line in the buffer
+     * @return the position after the end of the line or {@link #INCOMPLETE}
+     *         if the end of the buffer was reached before the end of the line
+     */
+    private int parseLine(final int start) {
+        final int limit = buffer.limit();
+        int i = skipBlanks(start);
+        jobLine = false;
+        if (i == limit) {
+            return endOfData ? limit : INCOMPLETE;
+        }
+
+        if (buffer.get(i) == ';') {
+            while (i < limit && buffer.get(i) != '\n') {
+                i++;
+            }
+
+            return i < limit ? i + 1 : endOfData ? limit : INCOMPLETE;
+        }
+
+        job.clear();
+        for (int field = 1; ; field++) {
+            i = skipBlanks(i);
+            if (i == limit) {
+                if (!endOfData) {
+                    return INCOMPLETE;
+                }
+
+                break;
+            }
+
+            if (buffer.get(i) == '\n') {
+                i++;
+                break;
+            }
+
+            i = parseNumber(i, field);
+            if (i == INCOMPLETE) {
+                return INCOMPLETE;
+            }
+        }
+
+        jobLine = true;
+        return i;
+    }
+
+    /**
+     * Parses a number (with an optional sign and fractional part) and stores it into a job field.
+     * @return the position after the number or {@link #INCOMPLETE}
+     */
+    private int parseNumber(int i, final int field) {
+        final int limit = buffer.limit();
+        final boolean negative = buffer.get(i) == '-';
+        if (negative || buffer.get(i) == '+') {
+            i++;
+        }
+
+        long integerPart = 0;
+        int digits = 0;
+        byte b;
+        while (i < limit && (b = buffer.get(i)) >= '0' && b <= '9') {
+            integerPart = integerPart * 10 + (b - '0');
+            i++;
+            digits++;
+        }
+
+        long fractionalPart = 0;
+        int fractionalDigits = 0;
+        if (i < limit && buffer.get(i) == '.') {
+            i++;
+            while (i < limit && (b = buffer.get(i)) >= '0' && b <= '9') {
+                //Digits beyond double precision are ignored
+                if (fractionalDigits < POWERS_OF_TEN.length - 1) {
+                    fractionalPart = fractionalPart * 10 + (b - '0');
+                    fractionalDigits++;
+                }
+
+                i++;
+                digits++;
+            }
+        }
+
+        if (i == limit && !endOfData) {
+            return INCOMPLETE;
+        }
+
+        if (digits == 0 || (i < limit && !isSeparator(buffer.get(i)))) {
+            throw new IllegalStateException(
+                "Invalid value for field %d at line %d of %s".formatted(field, lineNumber + 1, fileName));
+        }
+
+        if (field <= SwfJob.FIELDS) {
+            final double value = integerPart + fractionalPart / POWERS_OF_TEN[fractionalDigits];
+            job.set(field, negative ? -value : value);
+        }
+
+        return i;
+    }
+
+    private int skipBlanks(int i) {
+        final int limit = buffer.limit();
+        while (i < limit && isBlank(buffer.get(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static boolean isBlank(final byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isSeparator(final byte b) {
+        return isBlank(b) || b == '\n';
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (table == null) {
+            source.close();
+        } else {
+            table.close();
+        }
+    }
+
+    /**
+     * Provides the bytes of a file in chunks.
+     */
+    private abstract static class ChunkSource implements Closeable {
+        /**
+         * {@return the buffer with the current chunk} Its position is always 0.
+         */
+        abstract ByteBuffer buffer();
+
+        /**
+         * Loads the next chunk, which starts with the bytes of the current chunk
+         * from a given position on (which belong to a line not entirely read yet).
+         * @param keepFrom the position of the first byte in the current chunk to keep
+         * @return true if new bytes were loaded, false if there is no more data
+         */
+        abstract boolean refill(int keepFrom) throws IOException;
+    }
+
+    /**
+     * Memory-maps a file in segments.
+     */
+    private static final class MappedChunkSource extends ChunkSource {
+        private final FileChannel channel;
+        private final long size;
+        private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+        /** Position in the file of the first byte in the buffer. */
+        private long bufferStart;
+
+        private MappedChunkSource(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        @Override
+        boolean refill(final int keepFrom) throws IOException {
+            if (bufferStart + buffer.limit() >= size) {
+                return false;
+            }
+
+            bufferStart += keepFrom;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, bufferStart, Math.min(MAPPED_SEGMENT_SIZE, size - bufferStart));
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads a stream into a reusable buffer.
+     */
+    private static final class StreamChunkSource extends ChunkSource {
+        private final InputStream stream;
+        private byte[] bytes = new byte[STREAM_BUFFER_SIZE];
+        private ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, 0);
+        private boolean endOfStream;
+
+        private StreamChunkSource(final InputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        @Override
+        boolean refill(final int keepFrom) throws IOException {
+            if (endOfStream) {
+                return false;
+            }
+
+            final int kept = buffer.limit() - keepFrom;
+            if (kept == bytes.length) {
+                //A line doesn't fit in the buffer
+                final var newBytes = new byte[bytes.length * 2];
+                System.arraycopy(bytes, keepFrom, newBytes, 0, kept);
+                bytes = newBytes;
+            } else {
+                System.arraycopy(bytes, keepFrom, bytes, 0, kept);
+            }
+
+            int filled = kept;
+            while (filled < bytes.length) {
+                final int read = stream.read(bytes, filled, bytes.length - filled);
+                if (read < 0) {
+                    endOfStream = true;
+                    break;
+                }
+
+                filled += read;
+            }
+
+            buffer = ByteBuffer.wrap(bytes, 0, filled);
+            return filled > kept;
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+}
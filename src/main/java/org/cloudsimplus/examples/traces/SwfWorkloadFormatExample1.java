@@ -27,7 +27,6 @@ import org.cloudsimplus.allocationpolicies.VmAllocationPolicyFirstFit;
 import org.cloudsimplus.brokers.DatacenterBroker;
 import org.cloudsimplus.brokers.DatacenterBrokerSimple;
 import org.cloudsimplus.builders.tables.CloudletsTableBuilder;
-import org.cloudsimplus.cloudlets.Cloudlet;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
@@ -45,6 +44,7 @@ import org.cloudsimplus.util.TimeUtil;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
 
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -64,6 +64,9 @@ import java.util.List;
  * the example allow to limit the maximum number of cloudlets to be submitted
  * to the DatacenterBroker.
  * See the {@link #maxCloudletsToCreateFromWorkloadFile} attribute for more details.
+ * Since that just reads the beginning of the file, the example also enables
+ * down-sampling the entire workload by a {@link #SAMPLING_FACTOR} using a {@link WorkloadSampler},
+ * which reports how far the sampled workload drifts from the original one.
  * </p>
  *
  * <p>
@@ -74,7 +77,11 @@ import java.util.List;
  * page</a>.
  * </p>
  *
- * <p>Check important details at {@link SwfWorkloadFileReader}
+ * <p>The file is read by a {@link SwfWorkloadMappedReader}, which parses jobs directly
+ * from the file bytes, instead of the {@link SwfWorkloadFileReader}.
+ * Cloudlets are not created before the simulation starts, but submitted by a {@link StreamingWorkloadSource}
+ * as the simulation clock reaches the submit time of each job.
+ * Check important details at {@link SwfWorkloadFileReader}
  * and {@link TraceReaderAbstract}.</p>
  *
  * @author Manoel Campos da Silva Filho
@@ -86,13 +93,27 @@ public class SwfWorkloadFormatExample1 {
      */
     private static final String WORKLOAD_FILENAME = "workload/swf/NASA-iPSC-1993-3.1-cln.swf.gz";
 
+    /**
+     * The directory where the workload file is stored after being converted to a {@link ColumnarTraceFile},
+     * so that it's parsed only in the first run.
+     */
+    private static final Path CACHE_DIR = Path.of(System.getProperty("java.io.tmpdir"), "cloudsimplus-traces");
+
+    /**
+     * Selects about 1 of every N jobs from the workload file, keeping the distribution of
+     * arrival time, runtime and width of jobs.
+     * Set 1 to use all jobs.
+     */
+    private static final int SAMPLING_FACTOR = 10;
+    private static final long SAMPLING_SEED = 42;
+
     private final CloudSimPlus simulation;
 
     /**
-     * Defines the maximum number of cloudlets to be created
-     * from the given workload file.
+     * Defines the maximum number of jobs to be read from the beginning of the given workload file,
+     * which are then sampled to create cloudlets.
      * {@link Integer#MAX_VALUE} indicates that every job inside the workload file
-     * will be created as one cloudlet.
+     * will be read.
      */
     private int maxCloudletsToCreateFromWorkloadFile = Integer.MAX_VALUE;
 
@@ -104,7 +125,13 @@ public class SwfWorkloadFormatExample1 {
     private static final int  VM_RAM = 1000;
     private static final long VM_BW = 50000;
 
-    private List<Cloudlet> cloudletList;
+    private SwfWorkloadMappedReader reader;
+    private WorkloadSampler<SwfJob> sampler;
+
+    /**
+     * Selects the sampled jobs while the file is streamed during the simulation.
+     */
+    private WorkloadSampler<SwfJob>.Selector selector;
     private List<Vm> vmlist;
     private Datacenter datacenter0;
     private DatacenterBroker broker;
@@ -136,19 +163,22 @@ public class SwfWorkloadFormatExample1 {
             /*Vms and cloudlets are created before the Datacenter and host
             because the example is creating: (i) hosts based on VM requirements;
             (ii) VMs based on cloudlet requirements.*/
-            createCloudletsFromWorkloadFile();
+            createWorkloadReader();
             createVms();
 
             datacenter0 = createDatacenter();
 
             broker.submitVmList(vmlist);
-            broker.submitCloudletList(cloudletList);
+            selector = sampler.newSelector();
+            reader.setPredicate(selector);
+            new StreamingWorkloadSource(broker, reader.stream()).start();
             broker.addOnVmsCreatedListener(this::onVmsCreated);
 
             simulation.start();
 
             final var cloudletFinishedList = broker.getCloudletFinishedList();
             new CloudletsTableBuilder(cloudletFinishedList).build();
+            System.out.println(selector.getReport());
 
             System.out.printf("Simulation finished at %s. Execution time: %.2f seconds%n", LocalTime.now(), TimeUtil.elapsedSeconds(startSecs));
         } catch (Exception e) {
@@ -179,7 +209,7 @@ public class SwfWorkloadFormatExample1 {
      * in order to try accommodating all Cloudlets into those VMs.
      */
     private void createVms() {
-        final double totalCloudletPes = cloudletList.stream().mapToDouble(Cloudlet::getPesNumber).sum();
+        final double totalCloudletPes = sampler.getExpectedSampleWidth();
         /* The number to multiply the VM_PES was chosen at random.
         * It's used to reduce the number of VMs to create. */
         final int totalVms = (int)Math.ceil(totalCloudletPes / (VM_PES*6));
@@ -195,12 +225,14 @@ public class SwfWorkloadFormatExample1 {
         System.out.printf("# Created %12d VMs for the %s%n", vmlist.size(), broker);
     }
 
-    private void createCloudletsFromWorkloadFile() {
-        final var reader = SwfWorkloadFileReader.getInstance(WORKLOAD_FILENAME, VM_MIPS);
-        reader.setMaxLinesToRead(maxCloudletsToCreateFromWorkloadFile);
-        this.cloudletList = reader.generateWorkload();
+    private void createWorkloadReader() {
+        reader = new SwfWorkloadMappedReader(WORKLOAD_FILENAME, VM_MIPS).setCacheDir(CACHE_DIR);
+        reader.setMaxJobs(maxCloudletsToCreateFromWorkloadFile);
 
-        System.out.printf("# Created %12d Cloudlets for %s%n", this.cloudletList.size(), broker);
+        sampler = new WorkloadSampler<>(
+            SAMPLING_FACTOR, SAMPLING_SEED, SwfJob::getSubmitTime, SwfJob::getRunTime, SwfJob::getProcessors);
+        sampler.prepare(reader::forEachJob);
+        System.out.printf("# Selected %11d jobs to be submitted as Cloudlets to %s%n", sampler.getSampleSize(), broker);
     }
 
     /**
@@ -0,0 +1,281 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.cloudlets.CloudletSimple;
+import org.cloudsimplus.traces.SwfWorkloadFileReader;
+import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads jobs from a workload file in the
+ * <a href="https://www.cs.huji.ac.il/labs/parallel/workload/swf.html">Standard Workload Format (SWF)</a>,
+ * such as the ones from the Parallel Workloads Archive, creating a {@link Cloudlet} for each job.
+ * It's an alternative to the {@link SwfWorkloadFileReader} for traces with millions of jobs.
+ *
+ * <p>Instead of reading each line into a String and splitting it,
+ * jobs are parsed directly from the file bytes by a {@link SwfJobCursor}.
+ * Uncompressed files are memory-mapped, while compressed files
+ * (detected by their content, as described in {@link CompressedTraceInput})
+ * and files available only in the classpath are read as a stream.
+ * Since {@link #forEachJob(Consumer)} reuses the same {@link SwfJob} for every line,
+ * jobs can be processed (e.g. filtered or aggregated) without allocating any object per job.</p>
+ *
+ * <p>If a {@link #setCacheDir(Path) cache directory} is set, the file is converted into a
+ * {@link ColumnarTraceFile} in that directory the first time it's read
+ * (or when it changes), and the converted file is read from then on.</p>
+ *
+ * <p>Cloudlets are created as by the {@link SwfWorkloadFileReader}:
+ * the Cloudlet ID is the job number, its length is the job run time multiplied by the given MIPS,
+ * its number of PEs is the number of processors used by the job
+ * and its submission delay is the job submit time.
+ * Jobs that didn't run (with no run time or processors) are ignored.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see SwfWorkloadFormatExample1
+ */
+public class SwfWorkloadMappedReader {
+    private final String filePath;
+    private final int mips;
+    private int maxJobs = Integer.MAX_VALUE;
+    private Predicate<SwfJob> predicate = job -> true;
+    private Path cacheDir;
+
+    /**
+     * Creates a reader.
+     * @param filePath the path of the SWF file, either in the file system or in the classpath
+     * @param mips the MIPS capacity of the PEs where each Cloudlet is supposed to run,
+     *             used to compute the Cloudlet length from the job run time
+     */
+    public SwfWorkloadMappedReader(final String filePath, final int mips) {
+        if (mips <= 0) {
+            throw new IllegalArgumentException("MIPS must be greater than 0");
+        }
+
+        this.filePath = requireNonNull(filePath);
+        this.mips = mips;
+    }
+
+    /**
+     * Sets the maximum number of jobs to read from the beginning of the file (among the ones that run).
+     * Jobs not selected by the {@link #setPredicate(Predicate) predicate} are counted too,
+     * so that the same part of the file is read whatever the predicate
+     * (such as a {@link WorkloadSampler.Selector} reading the same jobs the sampler was prepared on).
+     * @param maxJobs the maximum number of jobs to read ({@link Integer#MAX_VALUE} to read all)
+     * @return this reader
+     */
+    public SwfWorkloadMappedReader setMaxJobs(final int maxJobs) {
+        if (maxJobs < 0) {
+            throw new IllegalArgumentException("Maximum number of jobs cannot be negative");
+        }
+
+        this.maxJobs = maxJobs;
+        return this;
+    }
+
+    /**
+     * Sets a predicate to select which jobs are read (besides the ones that didn't run).
+     * @param predicate the predicate to set
+     * @return this reader
+     */
+    public SwfWorkloadMappedReader setPredicate(final Predicate<SwfJob> predicate) {
+        this.predicate = requireNonNull(predicate);
+        return this;
+    }
+
+    /**
+     * Sets a directory to store the file converted into a {@link ColumnarTraceFile},
+     * so that it isn't parsed again in later runs.
+     * @param cacheDir the cache directory (or null to always parse the file)
+     * @return this reader
+     */
+    public SwfWorkloadMappedReader setCacheDir(final Path cacheDir) {
+        this.cacheDir = cacheDir;
+        return this;
+    }
+
+    public Path getCacheDir() {
+        return cacheDir;
+    }
+
+    public int getMips() {
+        return mips;
+    }
+
+    /**
+     * Opens a cursor to read the file jobs, without applying the {@link #setPredicate(Predicate) predicate}
+     * or the {@link #setMaxJobs(int) maximum number of jobs}.
+     * @return the new cursor, which must be closed after use
+     * @throws UncheckedIOException when the file cannot be opened
+     */
+    public SwfJobCursor open() {
+        try {
+            final var path = Path.of(filePath);
+            if (cacheDir != null) {
+                final var cachePath = TraceCacheConverter.cachePath(cacheDir, filePath);
+                if (!ColumnarTraceFile.isFresh(cachePath, TracePaths.resolve(filePath))) {
+                    TraceCacheConverter.convertSwf(filePath, cachePath);
+                }
+
+                return SwfJobCursor.columnar(ColumnarTraceFile.open(cachePath));
+            }
+
+            if (Files.isRegularFile(path)) {
+                return CompressedTraceInput.detect(path) == CompressedTraceInput.Format.PLAIN ?
+                    SwfJobCursor.mapped(path) :
+                    SwfJobCursor.stream(CompressedTraceInput.open(path), filePath);
+            }
+
+            final InputStream resource = getClass().getClassLoader().getResourceAsStream(filePath);
+            if (resource == null) {
+                throw new FileNotFoundException("SWF file not found: " + filePath);
+            }
+
+            return SwfJobCursor.stream(CompressedTraceInput.open(resource), filePath);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the file, calling a consumer for each job that run and is selected by the
+     * {@link #setPredicate(Predicate) predicate}, up to the {@link #setMaxJobs(int) maximum number of jobs}.
+     * @param consumer the consumer to call for each job, which receives the same {@link SwfJob}
+     *                 object updated for every line
+     * @return the number of jobs selected
+     */
+    public int forEachJob(final Consumer<SwfJob> consumer) {
+        int read = 0;
+        int count = 0;
+        try (var cursor = open()) {
+            while (read < maxJobs && cursor.next()) {
+                final var job = cursor.job();
+                if (!isValid(job)) {
+                    continue;
+                }
+
+                read++;
+                if (predicate.test(job)) {
+                    consumer.accept(job);
+                    count++;
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return count;
+    }
+
+    /**
+     * Reads the file, creating a Cloudlet for each job.
+     * @return the list of created Cloudlets
+     */
+    public List<Cloudlet> generateWorkload() {
+        final var cloudletList = new ArrayList<Cloudlet>();
+        forEachJob(job -> cloudletList.add(createCloudlet(job)));
+        return cloudletList;
+    }
+
+    /**
+     * Creates a lazy stream of Cloudlets, which reads the file only as Cloudlets are consumed.
+     * That enables processing traces larger than the available memory,
+     * such as by a {@link StreamingWorkloadSource}.
+     * @return a sequential and ordered stream of Cloudlets, which must be closed after use
+     *         to close the file
+     */
+    public Stream<Cloudlet> stream() {
+        final var cursor = open();
+        final var spliterator = new Spliterators.AbstractSpliterator<Cloudlet>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int read;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super Cloudlet> action) {
+                while (read < maxJobs && cursor.next()) {
+                    final var job = cursor.job();
+                    if (!isValid(job)) {
+                        continue;
+                    }
+
+                    read++;
+                    if (predicate.test(job)) {
+                        action.accept(createCloudlet(job));
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(cursor));
+    }
+
+    private static void close(final SwfJobCursor cursor) {
+        try {
+            cursor.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks if a job has run, so that a Cloudlet can be created from it.
+     * @param job the job to check
+     * @return true if the job has run time and processors, false otherwise
+     */
+    public static boolean isValid(final SwfJob job) {
+        return job.getRunTime() > 0 && job.getProcessors() > 0 && job.getSubmitTime() >= 0;
+    }
+
+    /**
+     * Creates a Cloudlet from a job.
+     * @param job the job to create a Cloudlet from
+     * @return the new Cloudlet
+     */
+    public Cloudlet createCloudlet(final SwfJob job) {
+        final long length = Math.max(1, (long) (job.getRunTime() * mips));
+        final var cloudlet = new CloudletSimple(job.getJobNumber(), length, job.getProcessors());
+        cloudlet.setUtilizationModel(new UtilizationModelFull());
+        cloudlet.setSubmissionDelay(job.getSubmitTime());
+        return cloudlet;
+    }
+}
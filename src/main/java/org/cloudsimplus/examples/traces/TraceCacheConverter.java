@@ -0,0 +1,332 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.Column;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.SourceFingerprint;
+import org.cloudsimplus.examples.traces.google.GoogleTraceTable;
+import org.cloudsimplus.examples.traces.google.ShardedGoogleTraceReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Converts SWF, Google Cluster Data and PlanetLab traces into {@link ColumnarTraceFile}s,
+ * so that later simulation runs can memory-map the converted file instead of parsing the text trace again.
+ * Conversion is performed once, usually before running a parameter sweep over the same trace.
+ *
+ * <p>It can be run from the command line with arguments in the format {@code name=value}:</p>
+ * <ul>
+ *     <li>{@code format}: one of {@code swf}, {@code planetlab} or {@code google-task-usage};</li>
+ *     <li>{@code source}: the trace file (a directory for PlanetLab traces,
+ *         or a directory or glob pattern of part files for Google traces);</li>
+ *     <li>{@code output}: the columnar file to create (defaults to the source path
+ *         with the {@link ColumnarTraceFile#EXTENSION}).</li>
+ * </ul>
+ *
+ * <p>For instance: {@code format=planetlab source=src/main/resources/workload/planetlab/20110303}</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public final class TraceCacheConverter {
+    /**
+     * The format of columnar files converted from SWF files.
+     * Each SWF field is stored as a {@link ColumnarTraceFile.ColumnType#DOUBLE} column, in the SWF order.
+     */
+    public static final String SWF = "swf";
+
+    /**
+     * The format of columnar files converted from a directory of PlanetLab traces.
+     * Each row is a sample, with the {@link #PLANETLAB_SERIES} column storing the name of the file
+     * the sample comes from and the {@link #PLANETLAB_UTILIZATION} column storing the CPU utilization
+     * (in scale from 0 to 1). Samples of the same file are stored in sequence, in the file order.
+     */
+    public static final String PLANETLAB = "planetlab";
+
+    public static final String PLANETLAB_SERIES = "series";
+    public static final String PLANETLAB_UTILIZATION = "utilization";
+
+    private static final List<Column> SWF_COLUMNS = List.of(
+        Column.ofDouble("job_number"), Column.ofDouble("submit_time"), Column.ofDouble("wait_time"),
+        Column.ofDouble("run_time"), Column.ofDouble("allocated_processors"), Column.ofDouble("average_cpu_time"),
+        Column.ofDouble("used_memory"), Column.ofDouble("requested_processors"), Column.ofDouble("requested_time"),
+        Column.ofDouble("requested_memory"), Column.ofDouble("status"), Column.ofDouble("user_id"),
+        Column.ofDouble("group_id"), Column.ofDouble("executable_number"), Column.ofDouble("queue_number"),
+        Column.ofDouble("partition_number"), Column.ofDouble("preceding_job_number"), Column.ofDouble("think_time"));
+
+    private static final List<Column> PLANETLAB_COLUMNS =
+        List.of(Column.ofString(PLANETLAB_SERIES), Column.ofDouble(PLANETLAB_UTILIZATION));
+
+    /**
+     * A private constructor to avoid class instantiation.
+     */
+    private TraceCacheConverter() {/**/}
+
+    public static void main(final String[] args) throws IOException {
+        String format = null;
+        String source = null;
+        String output = null;
+        for (final String arg : args) {
+            final String[] pair = arg.split("=", 2);
+            final String value = pair.length == 2 ? pair[1] : "";
+            switch (pair[0]) {
+                case "format" -> format = value;
+                case "source" -> source = value;
+                case "output" -> output = value;
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        if (format == null || source == null) {
+            throw new IllegalArgumentException("Usage: format=<swf|planetlab|google-task-usage> source=<path> [output=<path>]");
+        }
+
+        final var outputPath = output == null ? Path.of(source + ColumnarTraceFile.EXTENSION) : Path.of(output);
+        convert(format, source, outputPath);
+        try (var file = ColumnarTraceFile.open(outputPath)) {
+            System.out.printf("Converted %d rows from %s into %s%n", file.getRows(), source, outputPath);
+        }
+    }
+
+    /**
+     * Converts a trace into a columnar file.
+     * @param format the trace format (see the class documentation)
+     * @param source the trace file (a directory for PlanetLab traces,
+     *               or a directory or glob pattern of part files for Google traces)
+     * @param output the columnar file to create
+     * @throws IOException when the trace cannot be read or the columnar file cannot be written
+     */
+    public static void convert(final String format, final String source, final Path output) throws IOException {
+        switch (format) {
+            case SWF -> convertSwf(source, output);
+            case PLANETLAB -> convertPlanetLab(TracePaths.resolve(source), output);
+            default -> convertGoogle(googleTable(format), source, output);
+        }
+    }
+
+    private static GoogleTraceTable googleTable(final String format) {
+        for (final var table : GoogleTraceTable.values()) {
+            if (table.getFormat().equals(format)) {
+                return table;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown trace format: " + format);
+    }
+
+    /**
+     * Gets the path of the columnar file for a trace inside a cache directory.
+     * The file name includes a hash of the source location,
+     * so that different traces with the same file name don't share the same columnar file.
+     * @param cacheDir the directory to store columnar files
+     * @param source the path of the trace file (or a glob pattern of part files) in the file system
+     *               or the name of a classpath resource
+     * @return the path of the columnar file
+     */
+    public static Path cachePath(final Path cacheDir, final String source) {
+        final int separator = Math.max(source.lastIndexOf('/'), source.lastIndexOf('\\'));
+        final String name = source.substring(separator + 1).replaceAll("[^\\w.-]", "_");
+        return cacheDir.resolve("%s-%08x%s".formatted(name, sourceLocation(source).hashCode(), ColumnarTraceFile.EXTENSION));
+    }
+
+    /**
+     * {@return the normalized absolute path of a source in the file system,
+     * or the source itself for classpath resources and glob patterns}
+     */
+    private static String sourceLocation(final String source) {
+        try {
+            final var path = Path.of(source);
+            if (Files.exists(path)) {
+                return path.toAbsolutePath().normalize().toString();
+            }
+        } catch (final InvalidPathException e) {
+            //A glob pattern with characters not allowed in paths
+        }
+
+        return source.replace('\\', '/');
+    }
+
+    /**
+     * Opens the columnar file for a Google Cluster Data table inside a cache directory,
+     * converting the table first if there is no such file or the table parts changed since then.
+     * @param table the table to open
+     * @param pathOrGlob a part file, a directory containing the part files or a glob pattern for the part file names
+     *                   (as accepted by the {@link ShardedGoogleTraceReader})
+     * @param cacheDir the directory to store columnar files
+     * @return the opened columnar file, which must be closed after use
+     * @throws IOException when the table cannot be read or the columnar file cannot be written
+     */
+    public static ColumnarTraceFile openGoogle(
+        final GoogleTraceTable table, final String pathOrGlob, final Path cacheDir) throws IOException
+    {
+        final var reader = new ShardedGoogleTraceReader(pathOrGlob);
+        final var cachePath = cachePath(cacheDir, pathOrGlob);
+        if (!ColumnarTraceFile.isFresh(cachePath, SourceFingerprint.of(reader.getParts()))) {
+            convertGoogle(table, reader, cachePath);
+        }
+
+        return ColumnarTraceFile.open(cachePath);
+    }
+
+    /**
+     * Converts a SWF file (which may be compressed or a classpath resource) into a columnar file.
+     * All jobs are stored, including the ones that didn't run.
+     * @param source the SWF file path
+     * @param output the columnar file to create
+     * @throws IOException when the trace cannot be read or the columnar file cannot be written
+     */
+    public static void convertSwf(final String source, final Path output) throws IOException {
+        final var reader = new SwfWorkloadMappedReader(source, 1);
+        long rows = 0;
+        try (var cursor = reader.open()) {
+            while (cursor.next()) {
+                rows++;
+            }
+        }
+
+        try (var cursor = reader.open();
+             var writer = new ColumnarTraceWriter(output, SWF, SWF_COLUMNS, rows, SourceFingerprint.of(TracePaths.resolve(source))))
+        {
+            final var job = cursor.job();
+            while (cursor.next()) {
+                for (int field = 1; field <= SwfJob.FIELDS; field++) {
+                    writer.setDouble(field - 1, job.get(field));
+                }
+
+                writer.endRow();
+            }
+        }
+    }
+
+    /**
+     * Converts a Google Cluster Data table (split into CSV part files which may be compressed) into a columnar file.
+     * Lines from all parts are parsed in parallel and stored in timestamp order,
+     * as merged by the {@link ShardedGoogleTraceReader#openRecords(GoogleTraceTable)}.
+     * Empty fields are stored as {@link ColumnarTraceFile#MISSING} (or {@link Double#NaN} for decimal fields).
+     * Lines starting with # are ignored.
+     * @param table the table the CSV files belong to
+     * @param pathOrGlob a part file, a directory containing the part files or a glob pattern for the part file names
+     * @param output the columnar file to create
+     * @throws IOException when the trace cannot be read or the columnar file cannot be written
+     */
+    public static void convertGoogle(final GoogleTraceTable table, final String pathOrGlob, final Path output) throws IOException {
+        convertGoogle(table, new ShardedGoogleTraceReader(pathOrGlob), output);
+    }
+
+    private static void convertGoogle(
+        final GoogleTraceTable table, final ShardedGoogleTraceReader reader, final Path output) throws IOException
+    {
+        final long rows = reader.countRecords();
+        final var columns = table.getColumns();
+        final var fingerprint = SourceFingerprint.of(reader.getParts());
+        try (var writer = new ColumnarTraceWriter(output, table.getFormat(), columns, rows, fingerprint);
+             var cursor = reader.openRecords(table))
+        {
+            while (cursor.next()) {
+                for (int i = 0; i < columns.size(); i++) {
+                    setValue(writer, cursor, columns.get(i), i);
+                }
+
+                writer.endRow();
+            }
+        }
+    }
+
+    private static void setValue(
+        final ColumnarTraceWriter writer, final ShardedGoogleTraceReader.RecordCursor cursor,
+        final Column column, final int index) throws IOException
+    {
+        switch (column.type()) {
+            case LONG -> writer.setLong(index, cursor.getLong(index));
+            case INT -> writer.setInt(index, cursor.getInt(index));
+            case DOUBLE -> writer.setDouble(index, cursor.getDouble(index));
+            case STRING -> writer.setString(index, cursor.getString(index));
+        }
+    }
+
+    /**
+     * Converts a directory of PlanetLab trace files into a single columnar file.
+     * Files are stored in the order of their names.
+     * @param dir the directory containing the PlanetLab trace files
+     * @param output the columnar file to create
+     * @throws IOException when the traces cannot be read or the columnar file cannot be written
+     */
+    public static void convertPlanetLab(final Path dir, final Path output) throws IOException {
+        final List<Path> files;
+        try (var paths = Files.list(dir)) {
+            files = paths.filter(Files::isRegularFile)
+                         .filter(path -> !path.getFileName().toString().startsWith("."))
+                         .sorted()
+                         .toList();
+        }
+
+        //PlanetLab files are small, so they are all parsed (in parallel) before being written
+        final var series = new ArrayList<double[]>(files.size());
+        IntStream.range(0, files.size()).parallel()
+                 .mapToObj(i -> readPlanetLabFile(files.get(i)))
+                 .forEachOrdered(series::add);
+
+        final long rows = series.stream().mapToLong(samples -> samples.length).sum();
+        try (var writer = new ColumnarTraceWriter(output, PLANETLAB, PLANETLAB_COLUMNS, rows, SourceFingerprint.of(dir))) {
+            for (int i = 0; i < files.size(); i++) {
+                final String name = files.get(i).getFileName().toString();
+                for (final double utilization : series.get(i)) {
+                    writer.setString(0, name).setDouble(1, utilization).endRow();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a PlanetLab trace file (which may be compressed), where each line is a CPU utilization percentage.
+     * @return the CPU utilization samples (in scale from 0 to 1)
+     */
+    static double[] readPlanetLabFile(final Path file) {
+        try (var reader = newReader(file)) {
+            return reader.lines()
+                         .map(String::trim)
+                         .filter(line -> !line.isEmpty())
+                         .mapToDouble(line -> Double.parseDouble(line) / 100.0)
+                         .toArray();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a text trace file which may be compressed.
+     */
+    private static BufferedReader newReader(final Path file) throws IOException {
+        return new BufferedReader(new InputStreamReader(CompressedTraceInput.open(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Resolves the path of trace files and directories which may be either in the file system
+ * or in the classpath, including when the classpath resources are packaged into a jar
+ * (such as when examples are run from the jar with dependencies).
+ * Resources inside a jar are resolved into a {@link Path} from the jar {@link FileSystem},
+ * so that they can be listed and read as regular files.
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public final class TracePaths {
+    /**
+     * A private constructor to avoid class instantiation.
+     */
+    private TracePaths() {/**/}
+
+    /**
+     * Resolves the path of a trace file or directory.
+     * @param pathOrResource a path in the file system or the name of a classpath resource
+     * @return the path in the file system or inside the jar containing the resource
+     * @throws FileNotFoundException when the path is neither in the file system nor in the classpath
+     */
+    public static Path resolve(final String pathOrResource) throws FileNotFoundException {
+        final var path = Path.of(pathOrResource);
+        if (Files.exists(path)) {
+            return path;
+        }
+
+        final var url = TracePaths.class.getClassLoader().getResource(pathOrResource.replace('\\', '/'));
+        if (url == null) {
+            throw new FileNotFoundException("Trace path not found: " + pathOrResource);
+        }
+
+        try {
+            final URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                openJarFileSystem(uri);
+            }
+
+            return Path.of(uri);
+        } catch (final URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Opens the file system of the jar containing a resource, if it's not open yet.
+     * The file system is kept open, so that other resources in the same jar can be resolved later.
+     */
+    private static void openJarFileSystem(final URI uri) {
+        try {
+            FileSystems.newFileSystem(uri, Map.of());
+        } catch (final FileSystemAlreadyExistsException e) {
+            //The jar file system was already opened
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@return true if a path is in the default file system, false if it's inside a jar}
+     * Files inside a jar cannot be memory-mapped or read at random positions efficiently.
+     * @param path the path to check
+     */
+    public static boolean isDefaultFileSystem(final Path path) {
+        return path.getFileSystem() == FileSystems.getDefault();
+    }
+}
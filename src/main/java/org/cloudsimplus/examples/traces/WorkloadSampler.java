@@ -0,0 +1,373 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Down-samples a workload trace by a given factor, selecting about 1 of every N jobs,
+ * so that simulations run faster while keeping the workload characteristics.
+ * Instead of just reading the first jobs of a trace (which represent only its beginning),
+ * it performs stratified sampling: jobs are grouped into strata by their arrival time
+ * (in bins of a given {@link #setArrivalBinSize(double) size}), runtime and width (number of PEs),
+ * the last two in power-of-2 buckets. Each stratum is sampled by the same factor.
+ *
+ * <p>Sampling requires two passes over the trace:
+ * <ol>
+ *   <li>{@link #prepare(Consumer)} counts the jobs in each stratum and
+ *   defines how many jobs to select from it;</li>
+ *   <li>a {@link #newSelector() selector} then selects jobs as they are read,
+ *   using selection sampling (the sequential counterpart of reservoir sampling, when stratum sizes are known).
+ *   It selects a uniform random sample of each stratum keeping the order of the trace,
+ *   without storing jobs.</li>
+ * </ol>
+ * Every selector created by the same sampler selects exactly the same jobs,
+ * so a new one must be used for each pass over the trace.
+ * Each selector gives a {@link SamplingReport} of how far the sample distributions
+ * drift from the original ones.</p>
+ *
+ * @param <T> the type of jobs in the trace
+ * @since CloudSim Plus 8.5.1
+ * @see SwfWorkloadFormatExample1
+ */
+public class WorkloadSampler<T> {
+    /**
+     * The default size (in seconds) of the arrival time bins.
+     */
+    public static final double DEFAULT_ARRIVAL_BIN_SIZE = 3600;
+
+    /**
+     * Number of histogram bins per power of 2 for runtime and width.
+     */
+    private static final int BINS_PER_OCTAVE = 4;
+    private static final int LOG_BINS = 64 * BINS_PER_OCTAVE;
+
+    /**
+     * Number of histogram bins per arrival time bin.
+     */
+    private static final int BINS_PER_ARRIVAL_BIN = 4;
+
+    private static final int RUNTIME_BUCKET_BITS = 6;
+    private static final int WIDTH_BUCKET_BITS = 5;
+
+    private final int factor;
+    private final long seed;
+    private final ToDoubleFunction<T> arrivalTime;
+    private final ToDoubleFunction<T> runtime;
+    private final ToDoubleFunction<T> width;
+    private double arrivalBinSize = DEFAULT_ARRIVAL_BIN_SIZE;
+
+    /**
+     * Maps each stratum key to its sequential id.
+     */
+    private final Map<Long, Integer> strata = new HashMap<>();
+    private long[] stratumSizes = new long[0];
+    private long[] stratumTargets = new long[0];
+
+    /**
+     * The sum of the width of the jobs in each stratum.
+     */
+    private double[] stratumWidths = new double[0];
+    private Distributions original;
+
+    /**
+     * Creates a sampler.
+     * @param factor the sampling factor N, to select about 1 of every N jobs
+     * @param seed the seed for the random selection, so that the same jobs are selected for the same seed
+     * @param arrivalTime a function to get the arrival time of a job (in seconds)
+     * @param runtime a function to get the runtime of a job (in seconds)
+     * @param width a function to get the width (number of PEs) of a job
+     */
+    public WorkloadSampler(
+        final int factor, final long seed,
+        final ToDoubleFunction<T> arrivalTime,
+        final ToDoubleFunction<T> runtime,
+        final ToDoubleFunction<T> width)
+    {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Sampling factor must be at least 1");
+        }
+
+        this.factor = factor;
+        this.seed = seed;
+        this.arrivalTime = requireNonNull(arrivalTime);
+        this.runtime = requireNonNull(runtime);
+        this.width = requireNonNull(width);
+    }
+
+    /**
+     * Reads the entire trace to count the jobs in each stratum,
+     * defining how many jobs will be selected from it.
+     * @param source a function that reads the trace, calling a given consumer for each job
+     *               (such as {@link SwfWorkloadMappedReader#forEachJob(Consumer)})
+     * @return this sampler
+     */
+    public WorkloadSampler<T> prepare(final Consumer<Consumer<T>> source) {
+        strata.clear();
+        final var sizes = new long[][]{new long[1024]};
+        final var widths = new double[][]{new double[1024]};
+        original = new Distributions();
+        source.accept(job -> {
+            final int stratum = strata.computeIfAbsent(stratumKey(job), key -> strata.size());
+            if (stratum == sizes[0].length) {
+                sizes[0] = Arrays.copyOf(sizes[0], stratum * 2);
+                widths[0] = Arrays.copyOf(widths[0], stratum * 2);
+            }
+
+            sizes[0][stratum]++;
+            widths[0][stratum] += width.applyAsDouble(job);
+            original.add(job);
+        });
+
+        stratumSizes = Arrays.copyOf(sizes[0], strata.size());
+        stratumWidths = Arrays.copyOf(widths[0], strata.size());
+        stratumTargets = new long[stratumSizes.length];
+        for (int i = 0; i < stratumSizes.length; i++) {
+            /* The expected sample size of a stratum usually isn't an integer.
+             * It's randomly rounded up or down, so that the total sample size is unbiased,
+             * even when there are many small strata. */
+            final double expected = stratumSizes[i] / (double) factor;
+            final long floor = (long) expected;
+            stratumTargets[i] = floor + (uniform(i, -1) < expected - floor ? 1 : 0);
+        }
+
+        return this;
+    }
+
+    /**
+     * Creates a predicate that selects the jobs of the sample, as the trace is read again in the same order.
+     * It can be used, for instance, as the {@link SwfWorkloadMappedReader#setPredicate(Predicate) reader predicate}.
+     * @return a new selector, which must be used for a single pass over the trace
+     */
+    public Selector newSelector() {
+        if (original == null) {
+            throw new IllegalStateException("The sampler must be prepared first");
+        }
+
+        return new Selector();
+    }
+
+    private long stratumKey(final T job) {
+        final long arrivalBin = (long) Math.max(0, arrivalTime.applyAsDouble(job) / arrivalBinSize);
+        final long runtimeBucket = octave(runtime.applyAsDouble(job), (1 << RUNTIME_BUCKET_BITS) - 1);
+        final long widthBucket = octave(width.applyAsDouble(job), (1 << WIDTH_BUCKET_BITS) - 1);
+        return (arrivalBin << RUNTIME_BUCKET_BITS | runtimeBucket) << WIDTH_BUCKET_BITS | widthBucket;
+    }
+
+    /**
+     * {@return the power-of-2 bucket of a value} (0 for values smaller than 1)
+     */
+    private static int octave(final double value, final int maxBucket) {
+        return value < 1 ? 0 : Math.min(maxBucket, 1 + Math.getExponent(value));
+    }
+
+    /**
+     * {@return a deterministic random number in [0, 1)} for the i-th job of a stratum,
+     * using the SplitMix64 finalizer.
+     * @param stratum the stratum id
+     * @param i the job position inside the stratum (or -1 for the stratum itself)
+     */
+    private double uniform(final int stratum, final long i) {
+        long z = seed + 0x9e3779b97f4a7c15L * (((long) stratum << 32) ^ (i + 1));
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return ((z ^ (z >>> 31)) >>> 11) * 0x1.0p-53;
+    }
+
+    public int getFactor() {
+        return factor;
+    }
+
+    public double getArrivalBinSize() {
+        return arrivalBinSize;
+    }
+
+    /**
+     * Sets the size of the arrival time bins used to define strata.
+     * It must be set before the sampler is {@link #prepare(Consumer) prepared}.
+     * @param arrivalBinSize the bin size (in seconds)
+     * @return this sampler
+     */
+    public WorkloadSampler<T> setArrivalBinSize(final double arrivalBinSize) {
+        if (arrivalBinSize <= 0) {
+            throw new IllegalArgumentException("Arrival bin size must be greater than 0");
+        }
+
+        this.arrivalBinSize = arrivalBinSize;
+        return this;
+    }
+
+    /**
+     * {@return the number of strata found in the trace}
+     */
+    public int getStrata() {
+        return stratumSizes.length;
+    }
+
+    /**
+     * {@return the number of jobs a selector selects} when it reads the same jobs the sampler was prepared on.
+     * It's known once the sampler is {@link #prepare(Consumer) prepared}, without reading the trace again.
+     */
+    public long getSampleSize() {
+        return Arrays.stream(stratumTargets).sum();
+    }
+
+    /**
+     * {@return the expected sum of the width (number of PEs) of the jobs a selector selects}
+     * It's estimated from the mean width of each stratum, once the sampler is {@link #prepare(Consumer) prepared},
+     * so that resources can be sized for the sample without reading the trace again.
+     */
+    public double getExpectedSampleWidth() {
+        double sum = 0;
+        for (int i = 0; i < stratumSizes.length; i++) {
+            sum += stratumTargets[i] * stratumWidths[i] / stratumSizes[i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Selects the jobs of a sample as the trace is read,
+     * collecting the sample distributions to report how far they drift from the original ones.
+     */
+    public final class Selector implements Predicate<T> {
+        private final long[] seen = new long[stratumSizes.length];
+        private final long[] selected = new long[stratumSizes.length];
+        private final Distributions sample = new Distributions();
+
+        private Selector() {/**/}
+
+        @Override
+        public boolean test(final T job) {
+            final Integer stratum = strata.get(stratumKey(job));
+            if (stratum == null) {
+                return false;
+            }
+
+            /* Selection sampling (Knuth's Algorithm S): the job is selected with probability
+             * (jobs still to select) / (jobs still to see) in its stratum. */
+            final long remaining = stratumSizes[stratum] - seen[stratum];
+            final long needed = stratumTargets[stratum] - selected[stratum];
+            final boolean select = remaining > 0 && uniform(stratum, seen[stratum]) * remaining < needed;
+            seen[stratum]++;
+            if (select) {
+                selected[stratum]++;
+                sample.add(job);
+            }
+
+            return select;
+        }
+
+        /**
+         * {@return how far the distributions of the jobs selected so far drift from the original ones}
+         * It's meaningful only after the entire trace is read.
+         */
+        public SamplingReport getReport() {
+            return new SamplingReport(
+                original.jobs, sample.jobs, factor,
+                relativeError(sample.jobs * (double) factor, original.jobs),
+                Distributions.distance(original.arrivals, sample.arrivals),
+                Distributions.distance(original.runtimes, sample.runtimes),
+                Distributions.distance(original.widths, sample.widths),
+                relativeError(sample.mean(sample.runtimeSum), original.mean(original.runtimeSum)),
+                relativeError(sample.mean(sample.widthSum), original.mean(original.widthSum)));
+        }
+
+        private static double relativeError(final double value, final double expected) {
+            return expected == 0 ? Math.abs(value) : Math.abs(value - expected) / expected;
+        }
+    }
+
+    /**
+     * Histograms of the arrival time, runtime and width of a set of jobs.
+     * Runtime and width use log-scale bins, with {@link #BINS_PER_OCTAVE} bins per power of 2.
+     */
+    private final class Distributions {
+        private long jobs;
+        private long[] arrivals = new long[64];
+        private final long[] runtimes = new long[LOG_BINS];
+        private final long[] widths = new long[LOG_BINS];
+        private double runtimeSum;
+        private double widthSum;
+
+        void add(final T job) {
+            final double jobRuntime = runtime.applyAsDouble(job);
+            final double jobWidth = width.applyAsDouble(job);
+            final int arrivalBin = (int) Math.min(
+                Integer.MAX_VALUE - 8, Math.max(0, arrivalTime.applyAsDouble(job) * BINS_PER_ARRIVAL_BIN / arrivalBinSize));
+            if (arrivalBin >= arrivals.length) {
+                arrivals = Arrays.copyOf(arrivals, Math.max(arrivalBin + 1, arrivals.length * 2));
+            }
+
+            arrivals[arrivalBin]++;
+            runtimes[logBin(jobRuntime)]++;
+            widths[logBin(jobWidth)]++;
+            runtimeSum += jobRuntime;
+            widthSum += jobWidth;
+            jobs++;
+        }
+
+        private static int logBin(final double value) {
+            if (value < 1) {
+                return 0;
+            }
+
+            final int bin = 1 + (int) (Math.log(value) / Math.log(2) * BINS_PER_OCTAVE);
+            return Math.min(LOG_BINS - 1, bin);
+        }
+
+        double mean(final double sum) {
+            return jobs == 0 ? 0 : sum / jobs;
+        }
+
+        /**
+         * {@return the Kolmogorov-Smirnov distance between two histograms}
+         */
+        static double distance(final long[] histogram1, final long[] histogram2) {
+            final double total1 = Arrays.stream(histogram1).sum();
+            final double total2 = Arrays.stream(histogram2).sum();
+            if (total1 == 0 || total2 == 0) {
+                return total1 == total2 ? 0 : 1;
+            }
+
+            double cumulative1 = 0;
+            double cumulative2 = 0;
+            double max = 0;
+            for (int i = 0; i < Math.max(histogram1.length, histogram2.length); i++) {
+                cumulative1 += i < histogram1.length ? histogram1[i] : 0;
+                cumulative2 += i < histogram2.length ? histogram2[i] : 0;
+                max = Math.max(max, Math.abs(cumulative1 / total1 - cumulative2 / total2));
+            }
+
+            return max;
+        }
+    }
+}
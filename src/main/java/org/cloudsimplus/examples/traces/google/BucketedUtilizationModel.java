@@ -0,0 +1,142 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudsimplus.utilizationmodels.UtilizationModelAbstract;
+
+import java.util.Arrays;
+
+/**
+ * A utilization model defined by samples in fixed-size time buckets
+ * (such as the 5-minute measurement windows of the Google Cluster Data "task usage" table),
+ * stored into a primitive array.
+ * The utilization at a given time is the sample of the bucket containing that time.
+ * Before the first bucket, the first sample is used; after the last one, the last sample is used.
+ *
+ * <p>Samples must be added in time order. Buckets between two samples which have no measurement
+ * keep the utilization of the previous sample.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see GoogleTaskUsageJoiner
+ */
+public class BucketedUtilizationModel extends UtilizationModelAbstract {
+    /**
+     * The default bucket size (in seconds), which is the measurement window of the Google Cluster Data.
+     */
+    public static final double DEFAULT_BUCKET_SIZE = 300;
+
+    private final double bucketSize;
+
+    /**
+     * The index of the first bucket, counting from time zero.
+     */
+    private long firstBucket;
+    private float[] samples = new float[4];
+    private int buckets;
+
+    /**
+     * Creates a model with the {@link #DEFAULT_BUCKET_SIZE}.
+     */
+    public BucketedUtilizationModel() {
+        this(DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Creates a model with a given bucket size.
+     * @param bucketSize the time span of each bucket (in seconds)
+     */
+    public BucketedUtilizationModel(final double bucketSize) {
+        super(Unit.PERCENTAGE);
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("Bucket size must be greater than 0");
+        }
+
+        this.bucketSize = bucketSize;
+    }
+
+    /**
+     * Adds a sample measured during a time interval.
+     * @param startTime the interval start (in seconds)
+     * @param endTime the interval end (in seconds)
+     * @param utilization the utilization during the interval (in scale from 0 to 1)
+     * @return this model
+     */
+    public BucketedUtilizationModel add(final double startTime, final double endTime, final double utilization) {
+        final long start = (long) Math.floor(startTime / bucketSize);
+        final long end = Math.max(start + 1, (long) Math.ceil(endTime / bucketSize));
+        if (buckets == 0) {
+            firstBucket = start;
+        } else if (start < firstBucket) {
+            throw new IllegalArgumentException("Samples must be added in time order");
+        }
+
+        final int lastBucket = Math.toIntExact(end - firstBucket);
+        ensureCapacity(lastBucket);
+        final float value = (float) Math.max(0, Math.min(1, utilization));
+        final float previous = buckets == 0 ? value : samples[buckets - 1];
+        Arrays.fill(samples, buckets, (int) Math.max(buckets, start - firstBucket), previous);
+        Arrays.fill(samples, (int) (start - firstBucket), lastBucket, value);
+        buckets = Math.max(buckets, lastBucket);
+        return this;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(capacity, samples.length * 2));
+        }
+    }
+
+    /**
+     * Releases the unused capacity of the samples array, after all samples are added.
+     * @return this model
+     */
+    public BucketedUtilizationModel trimToSize() {
+        if (samples.length > buckets) {
+            samples = Arrays.copyOf(samples, buckets);
+        }
+
+        return this;
+    }
+
+    @Override
+    protected double getUtilizationInternal(final double time) {
+        if (buckets == 0) {
+            return 0;
+        }
+
+        final long bucket = (long) Math.floor(time / bucketSize) - firstBucket;
+        return samples[(int) Math.max(0, Math.min(buckets - 1, bucket))];
+    }
+
+    /**
+     * {@return the number of buckets}, from the first to the last sample
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public double getBucketSize() {
+        return bucketSize;
+    }
+}
@@ -33,6 +33,8 @@ import org.cloudsimplus.cloudlets.CloudletSimple;
 import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.traces.CompressedTraceInput;
+import org.cloudsimplus.examples.traces.google.LazyMachineEventSource.HostFactory;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.listeners.HostEventInfo;
@@ -41,21 +43,25 @@ import org.cloudsimplus.resources.PeSimple;
 import org.cloudsimplus.schedulers.cloudlet.CloudletSchedulerSpaceShared;
 import org.cloudsimplus.traces.TraceReaderAbstract;
 import org.cloudsimplus.traces.google.GoogleMachineEventsTraceReader;
-import org.cloudsimplus.traces.google.MachineEvent;
-import org.cloudsimplus.traces.google.MachineEventType;
 import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
 
 /**
  * An example showing how to create Hosts from a Google Machine Events Trace
- * using a {@link GoogleMachineEventsTraceReader}. The trace is located in
+ * using a {@link LazyMachineEventSource}. The trace is located in
  * resources/workload/google-traces/machine-events-sample-1.csv It has some
  * records that defines the addition and removal of Hosts to the Datacenters.
+ * Instead of creating all Hosts before the simulation starts
+ * (as the {@link GoogleMachineEventsTraceReader} does),
+ * Hosts are created only when the simulation reaches the time they are added.
  *
  * <p>
  * The removal is used to simulate maintenance or failure but the trace doesn't
@@ -64,6 +70,7 @@ import java.util.function.Function;
  * for the Host at the specified timestamp. The same Host can fail and recover
  * as specified in the trace. CloudSim Plus accordingly process such events. You
  * can confirm in the logs that Host 3 is added and removed multiple times.
+ * Update events (if any) change the capacity of live Hosts.
  * </p>
  *
  * <p>
@@ -74,8 +81,6 @@ import java.util.function.Function;
  *
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.0.0
- *
- * TODO {@link MachineEventType#UPDATE} events are not being processed yet.
  */
 public class GoogleMachineEventsExample1 {
     private static final String TRACE_FILENAME = "workload/google-traces/machine-events-sample-1.csv";
@@ -89,6 +94,7 @@ public class GoogleMachineEventsExample1 {
     private final CloudSimPlus simulation;
     private final DatacenterBroker broker0;
     private List<Datacenter> datacenters;
+    private LazyMachineEventSource machineEventSource;
 
     public static void main(String[] args) {
         new GoogleMachineEventsExample1();
@@ -115,6 +121,10 @@ public class GoogleMachineEventsExample1 {
 
         simulation.start();
 
+        System.out.printf(
+            "%n# %d Hosts were created, %d were updated and %d were removed along the simulation, according to the trace timestamp%n",
+            machineEventSource.getCreatedHosts(), machineEventSource.getUpdatedHosts(), machineEventSource.getRemovedHosts());
+
         final var cloudletFinishedList = broker0.getCloudletFinishedList();
         new CloudletsTableBuilder(cloudletFinishedList)
                 .addColumn(new TextTableColumn("Host Startup", "Time"), this::getHostStartupTime, 5)
@@ -142,38 +152,50 @@ public class GoogleMachineEventsExample1 {
      * "machine events" Google Cluster Data trace file
      *
      * <p>
-     * A {@link GoogleMachineEventsTraceReader} instance is used to read the file.
-     * It requires a {@link Function}
+     * A {@link LazyMachineEventSource} instance is used to read the file.
+     * It requires a {@link HostFactory}
      * that will be called internally to actually create the Hosts.
-     * This function is the {@link #createHost(MachineEvent)}.
+     * This function is the {@link #createHost(long, int, long)}.
      * </p>
      */
     private void createDatacenters() {
         datacenters = new ArrayList<>(DATACENTERS_NUMBER);
 
-        final GoogleMachineEventsTraceReader reader = GoogleMachineEventsTraceReader.getInstance(TRACE_FILENAME, this::createHost);
-        reader.setMaxRamCapacity(32);
-        reader.setMaxCpuCores(10);
-
         //Creates Datacenters with no hosts.
         for(int i = 0; i < DATACENTERS_NUMBER; i++){
             datacenters.add(new DatacenterSimple(simulation, new VmAllocationPolicySimple()));
         }
 
-        /*Process the trace file and creates the Hosts that the timestamp is defined as zero inside the file.
-        * Then, returns the list of immediately created Hosts (for timestamp 0).
-        * The second Datacenter that is given as parameter will be used to add the Hosts with timestamp greater than 0.
-        * */
-        reader.setDatacenterForLaterHosts(datacenters.get(1));
-        final var hostList = new ArrayList<Host>(reader.process());
+        /*The Hosts that the timestamp is defined as zero inside the file are added to the first Datacenter.
+        * The second Datacenter will be used to add the Hosts with timestamp greater than 0,
+        * which are created just when the simulation reaches their timestamp. */
+        machineEventSource =
+            new LazyMachineEventSource(datacenters.get(0), openTraceFile(), this::createHost)
+                .setDatacenterForLaterHosts(datacenters.get(1))
+                .setMaxRamCapacity(32)
+                .setMaxCpuCores(10);
+        final var hostList = machineEventSource.start();
 
         System.out.println();
-        System.out.printf("# Created %d Hosts that were immediately available from the Google trace file%n", hostList.size());
-        System.out.printf("# %d Hosts will be available later on (according to the trace timestamp)%n", reader.getNumberOfLaterAvailableHosts());
-        System.out.printf("# %d Hosts will be removed later on (according to the trace timestamp)%n%n", reader.getNumberOfHostsForRemoval());
+        System.out.printf("# Created %d Hosts that were immediately available from the Google trace file%n%n", hostList.size());
+    }
 
-        //Finally, the immediately created Hosts are added to the first Datacenter
-        datacenters.get(0).addHostList(hostList);
+    /**
+     * Opens the trace file from the classpath as a stream,
+     * so that events are read as the simulation advances, without loading the entire file.
+     * @return the stream to read the (possibly compressed) trace file
+     */
+    private InputStream openTraceFile() {
+        final InputStream resource = getClass().getClassLoader().getResourceAsStream(TRACE_FILENAME);
+        try {
+            if (resource == null) {
+                throw new FileNotFoundException("Google trace file not found: " + TRACE_FILENAME);
+            }
+
+            return CompressedTraceInput.open(resource);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -181,12 +203,14 @@ public class GoogleMachineEventsExample1 {
      * The researcher can write his/her own code inside this method to define
      * how he/she wants to create the Hosts based on the trace data.
      *
-     * @param event an object containing the trace line read, used to create the Host.
-     * @return
+     * @param machineId the machine ID in the trace file, used as the Host ID
+     * @param cpuCores the number of CPU cores of the machine
+     * @param ram the RAM capacity of the machine
+     * @return the new Host
      */
-    private Host createHost(final MachineEvent event) {
-        final Host host = new HostSimple(event.getRam(), HOST_BW, HOST_STORAGE, createPesList(event.getCpuCores()));
-        host.setId(event.getMachineId());
+    private Host createHost(final long machineId, final int cpuCores, final long ram) {
+        final Host host = new HostSimple(ram, HOST_BW, HOST_STORAGE, createPesList(cpuCores));
+        host.setId(machineId);
         return host;
     }
 
@@ -33,6 +33,8 @@ import org.cloudsimplus.core.CloudSimPlus;
 import org.cloudsimplus.core.CloudSimTag;
 import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile;
+import org.cloudsimplus.examples.traces.TraceCacheConverter;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
 import org.cloudsimplus.resources.Pe;
@@ -52,6 +54,9 @@ import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -67,7 +72,7 @@ import static org.cloudsimplus.util.MathUtil.positive;
  * An example showing how to use <a href="https://github.com/google/cluster-data">Google Cluster Data</a> trace files.
  * The example creates Cloudlets (tasks) from a Google Task Events
  * Trace using a {@link GoogleTaskEventsTraceReader}. Then it uses a
- * {@link GoogleTaskUsageTraceReader} to read "task usage" trace files that
+ * {@link GoogleTaskUsageJoiner} to read "task usage" trace files that
  * define how created Cloudlets will use resources along the time.
  *
  * <p>
@@ -91,8 +96,17 @@ import static org.cloudsimplus.util.MathUtil.positive;
  * TODO It has to be checked how to make the Cloudlet to be executed in the Host specified in the trace file.
  */
 public class GoogleTaskEventsExample1 {
-    private static final String TASK_EVENTS_FILE = "workload/google-traces/task-events-sample-1.csv";
-    private static final String TASK_USAGE_FILE = "workload/google-traces/task-usage-sample-1.csv";
+    /**
+     * Glob patterns for the part files of each table, which may also be a single file or a directory.
+     * @see ShardedGoogleTraceReader
+     */
+    private static final String TASK_EVENTS_FILE = "workload/google-traces/task-events-sample-*.csv";
+    private static final String TASK_USAGE_FILE = "workload/google-traces/task-usage-sample-*.csv";
+
+    /**
+     * The directory where the "task usage" table is stored after converted into a {@link ColumnarTraceFile}.
+     */
+    private static final Path CACHE_DIR = Path.of(System.getProperty("java.io.tmpdir"), "cloudsimplus-traces");
 
     private static final int HOSTS = 10;
     private static final int VMS = 8;
@@ -128,6 +142,11 @@ public class GoogleTaskEventsExample1 {
     private Collection<Cloudlet> cloudlets;
     private GoogleTaskEventsTraceReader taskEventsReader;
 
+    /**
+     * Matches the rows of the "task usage" trace to the Cloudlets created from the "task events" trace.
+     */
+    private final GoogleTaskUsageJoiner usageJoiner = new GoogleTaskUsageJoiner();
+
     public static void main(String[] args) {
         new GoogleTaskEventsExample1();
     }
@@ -183,9 +202,12 @@ public class GoogleTaskEventsExample1 {
      * @see GoogleTaskEventsTraceReader#getBrokerManager()
      */
     private void createCloudletsAndBrokersFromTraceFile() {
+        /* The task events table is usually split into multiple part files.
+         * A ShardedGoogleTraceReader reads all the parts given by a directory or glob pattern in parallel,
+         * merging their lines in timestamp order. */
         taskEventsReader =
-            GoogleTaskEventsTraceReader
-                .getInstance(simulation, TASK_EVENTS_FILE, this::createCloudlet)
+            new ShardedGoogleTraceReader(TASK_EVENTS_FILE)
+                .newTaskEventsReader(simulation, usageJoiner.register(this::createCloudlet))
                 .setMaxCloudletsToCreate(MAX_CLOUDLETS);
 
         // By default, created Cloudlets are automatically submitted to their respective brokers.
@@ -234,15 +256,23 @@ public class GoogleTaskEventsExample1 {
      * The reader is just considering data about RAM and CPU utilization.
      *
      * <p>
-     * You are encouraged to check {@link GoogleTaskUsageTraceReader#process()}
-     * documentation to understand the details.
+     * Instead of a {@link GoogleTaskUsageTraceReader} (which you are encouraged to check
+     * for details of how usage is processed), it uses a {@link GoogleTaskUsageJoiner},
+     * which stores the usage of each task into primitive arrays, scaling better for large traces.
+     * The table is converted into a {@link ColumnarTraceFile} the first time it's read (or when its parts change),
+     * so that later runs read the memory-mapped file instead of parsing the CSV parts again.
      * </p>
      */
     private void readTaskUsageTraceFile() {
-        final var reader = GoogleTaskUsageTraceReader.getInstance(taskEventsReader, TASK_USAGE_FILE);
-        final var cloudletsCollection = reader.process();
-        System.out.printf("%d Cloudlets processed from the %s trace file.%n", cloudletsCollection.size(), TASK_USAGE_FILE);
-        System.out.println();
+        try (var usageTable = TraceCacheConverter.openGoogle(GoogleTraceTable.TASK_USAGE, TASK_USAGE_FILE, CACHE_DIR)) {
+            final long rows = usageJoiner.join(usageTable);
+            final int updatedCloudlets = usageJoiner.apply();
+            System.out.printf(
+                "%d rows joined to %d Cloudlets from the %s trace file.%n", rows, updatedCloudlets, TASK_USAGE_FILE);
+            System.out.println();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private Datacenter createDatacenter() {
@@ -0,0 +1,190 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash index that maps the (job ID, task index) pair identifying a task
+ * in the <a href="https://github.com/google/cluster-data">Google Cluster Data</a>
+ * to a sequential position, assigned in the order tasks are added.
+ * Positions can then be used to store task data into plain arrays.
+ *
+ * <p>Both IDs are packed into a single {@code long} key, stored into a primitive array
+ * with linear probing. That avoids creating boxed keys and map entries for each task
+ * and each lookup, as it happens with a {@code Map<Long, ...>}.
+ * The index isn't thread-safe.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see GoogleTaskUsageJoiner
+ */
+public final class GoogleTaskIndex {
+    /**
+     * Indicates a task isn't in the index.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Number of bits of the key used to store the task index.
+     * The remaining bits store the job ID.
+     */
+    private static final int TASK_INDEX_BITS = 24;
+    private static final long MAX_TASK_INDEX = (1L << TASK_INDEX_BITS) - 1;
+    private static final long MAX_JOB_ID = (1L << (Long.SIZE - 1 - TASK_INDEX_BITS)) - 1;
+
+    /**
+     * Marks an empty slot. Since valid keys are not negative, it cannot clash with any of them.
+     */
+    private static final long EMPTY = -1;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private long[] keys;
+    private int[] positions;
+    private int size;
+
+    /**
+     * Creates an index with the default initial capacity.
+     */
+    public GoogleTaskIndex() {
+        this(1024);
+    }
+
+    /**
+     * Creates an index with a given initial capacity.
+     * @param expectedTasks the expected number of tasks, so that the index doesn't need to grow
+     */
+    public GoogleTaskIndex(final int expectedTasks) {
+        allocate(tableSize(expectedTasks));
+    }
+
+    private static int tableSize(final int tasks) {
+        final long minSize = Math.max(2, (long) Math.ceil(tasks / MAX_LOAD_FACTOR));
+        if (minSize > 1 << 30) {
+            throw new IllegalArgumentException("Too many tasks: " + tasks);
+        }
+
+        return Integer.highestOneBit((int) minSize - 1) << 1;
+    }
+
+    private void allocate(final int tableSize) {
+        keys = new long[tableSize];
+        positions = new int[tableSize];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Packs the IDs of a task into a single key.
+     * @param jobId the job ID
+     * @param taskIndex the task index inside the job
+     * @return the key
+     * @throws IllegalArgumentException when an ID is negative or too large to be packed
+     */
+    public static long key(final long jobId, final long taskIndex) {
+        if (jobId < 0 || jobId > MAX_JOB_ID || taskIndex < 0 || taskIndex > MAX_TASK_INDEX) {
+            throw new IllegalArgumentException("Invalid task ID: job %d, task index %d".formatted(jobId, taskIndex));
+        }
+
+        return jobId << TASK_INDEX_BITS | taskIndex;
+    }
+
+    /**
+     * Adds a task to the index, if it's not there yet.
+     * @param jobId the job ID
+     * @param taskIndex the task index inside the job
+     * @return the task position (the number of tasks added before it)
+     */
+    public int add(final long jobId, final long taskIndex) {
+        final long key = key(jobId, taskIndex);
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            return positions[slot];
+        }
+
+        if (size + 1 > keys.length * MAX_LOAD_FACTOR) {
+            rehash();
+            slot = slot(key);
+        }
+
+        keys[slot] = key;
+        positions[slot] = size;
+        return size++;
+    }
+
+    /**
+     * Gets the position of a task.
+     * @param jobId the job ID
+     * @param taskIndex the task index inside the job
+     * @return the task position or {@link #NOT_FOUND}
+     */
+    public int get(final long jobId, final long taskIndex) {
+        if (jobId < 0 || jobId > MAX_JOB_ID || taskIndex < 0 || taskIndex > MAX_TASK_INDEX) {
+            return NOT_FOUND;
+        }
+
+        final int slot = slot(key(jobId, taskIndex));
+        return keys[slot] == EMPTY ? NOT_FOUND : positions[slot];
+    }
+
+    /**
+     * Finds the slot containing a key or the empty slot where it must be inserted, using linear probing.
+     */
+    private int slot(final long key) {
+        final int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    /**
+     * Spreads key bits (using the SplitMix64 finalizer), since job IDs are usually sequential.
+     */
+    private static int hash(final long key) {
+        long h = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return (int) (h ^ (h >>> 31));
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final int[] oldPositions = positions;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                final int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                positions[slot] = oldPositions[i];
+            }
+        }
+    }
+
+    /**
+     * {@return the number of tasks in the index}
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile;
+import org.cloudsimplus.examples.traces.TraceCacheConverter;
+import org.cloudsimplus.traces.google.GoogleTaskEventsTraceReader;
+import org.cloudsimplus.traces.google.GoogleTaskUsageTraceReader;
+import org.cloudsimplus.traces.google.TaskEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Joins the rows of a "task usage" table from the <a href="https://github.com/google/cluster-data">Google Cluster Data</a>
+ * to the Cloudlets created from the "task events" table, by the (job ID, task index) pair.
+ * The CPU and RAM usage of each task are stored as {@link BucketedUtilizationModel}s,
+ * which are set as the utilization models of the respective Cloudlet.
+ *
+ * <p>That is an alternative to the {@link GoogleTaskUsageTraceReader} for large traces:
+ * tasks are found by a {@link GoogleTaskIndex}, which doesn't create boxed keys,
+ * and usage rows are parsed directly from bytes, without creating objects for each row.
+ * The usage of each task is stored into primitive arrays, instead of creating
+ * a new utilization model and simulation event for each row.
+ * The table can also be read from a {@link ColumnarTraceFile} converted by the {@link TraceCacheConverter},
+ * so that later runs read the memory-mapped columns instead of parsing the CSV files again.</p>
+ *
+ * <p>Cloudlets must be registered before usage rows are joined, usually by giving the
+ * Cloudlet creation function returned by {@link #register(Function)} to a {@link GoogleTaskEventsTraceReader}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see GoogleTaskEventsExample1
+ */
+public final class GoogleTaskUsageJoiner {
+    private static final int START_TIME = 0;
+    private static final int END_TIME = 1;
+    private static final int JOB_ID = 2;
+    private static final int TASK_INDEX = 3;
+    private static final int MEAN_CPU_USAGE = 5;
+    private static final int CANONICAL_MEMORY_USAGE = 6;
+    private static final int FIELDS = CANONICAL_MEMORY_USAGE + 1;
+
+    /**
+     * Number of trace time units (microseconds) in a second.
+     */
+    private static final double MICROS = 1_000_000;
+
+    private final GoogleTaskIndex index;
+    private final double bucketSize;
+    private Cloudlet[] cloudlets;
+    private BucketedUtilizationModel[] cpuModels;
+    private BucketedUtilizationModel[] ramModels;
+    private long joinedRows;
+    private long unmatchedRows;
+
+    /**
+     * Creates a joiner using the {@link BucketedUtilizationModel#DEFAULT_BUCKET_SIZE}.
+     */
+    public GoogleTaskUsageJoiner() {
+        this(1024, BucketedUtilizationModel.DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Creates a joiner.
+     * @param expectedTasks the expected number of tasks, so that internal arrays don't need to grow
+     * @param bucketSize the time span of usage samples (in seconds)
+     */
+    public GoogleTaskUsageJoiner(final int expectedTasks, final double bucketSize) {
+        this.index = new GoogleTaskIndex(expectedTasks);
+        this.bucketSize = bucketSize;
+        this.cloudlets = new Cloudlet[Math.max(1, expectedTasks)];
+        this.cpuModels = new BucketedUtilizationModel[cloudlets.length];
+        this.ramModels = new BucketedUtilizationModel[cloudlets.length];
+    }
+
+    /**
+     * Wraps a Cloudlet creation function so that every Cloudlet created is registered in this joiner.
+     * @param cloudletCreationFunction the function to create a Cloudlet from a task event
+     * @return the function that creates and registers the Cloudlet
+     */
+    public Function<TaskEvent, Cloudlet> register(final Function<TaskEvent, Cloudlet> cloudletCreationFunction) {
+        return event -> {
+            final Cloudlet cloudlet = cloudletCreationFunction.apply(event);
+            register(event.getJobId(), event.getTaskIndex(), cloudlet);
+            return cloudlet;
+        };
+    }
+
+    /**
+     * Registers the Cloudlet created for a task.
+     * @param jobId the job ID
+     * @param taskIndex the task index inside the job
+     * @param cloudlet the Cloudlet created for the task
+     */
+    public void register(final long jobId, final long taskIndex, final Cloudlet cloudlet) {
+        final int pos = index.add(jobId, taskIndex);
+        if (pos == cloudlets.length) {
+            final int newLength = cloudlets.length * 2;
+            cloudlets = Arrays.copyOf(cloudlets, newLength);
+            cpuModels = Arrays.copyOf(cpuModels, newLength);
+            ramModels = Arrays.copyOf(ramModels, newLength);
+        }
+
+        cloudlets[pos] = cloudlet;
+    }
+
+    /**
+     * Reads a "task usage" table (which must be ordered by start time),
+     * adding the usage of each row to the Cloudlet created for the task.
+     * Rows of unregistered tasks are ignored.
+     * @param usageTable the stream to read the table from, which is closed at the end
+     * @return the number of rows joined to a Cloudlet
+     * @throws IOException when the stream cannot be read
+     * @throws IllegalStateException when a row has an invalid value
+     * @see #join(ShardedGoogleTraceReader)
+     */
+    public long join(final InputStream usageTable) throws IOException {
+        final long previousJoinedRows = joinedRows;
+        try (usageTable) {
+            new RowParser(usageTable).forEachRow(this::joinRow);
+        }
+
+        return joinedRows - previousJoinedRows;
+    }
+
+    /**
+     * Reads a "task usage" table previously converted into a columnar file (whose rows are ordered by start time),
+     * adding the usage of each row to the Cloudlet created for the task.
+     * Rows of unregistered tasks are ignored.
+     * @param usageTable the columnar file converted from the {@link GoogleTraceTable#TASK_USAGE} table
+     * @return the number of rows joined to a Cloudlet
+     * @throws IllegalArgumentException when the file wasn't converted from a "task usage" table
+     * @throws IllegalStateException when a row has no start/end time, job ID or task index
+     * @see TraceCacheConverter#openGoogle(GoogleTraceTable, String, java.nio.file.Path)
+     */
+    public long join(final ColumnarTraceFile usageTable) {
+        if (!GoogleTraceTable.TASK_USAGE.getFormat().equals(usageTable.getFormat())) {
+            throw new IllegalArgumentException(usageTable.getPath() + " was not converted from a task usage table");
+        }
+
+        final long previousJoinedRows = joinedRows;
+        final int startTime = usageTable.columnIndex("start_time");
+        final int endTime = usageTable.columnIndex("end_time");
+        final int jobId = usageTable.columnIndex("job_id");
+        final int taskIndex = usageTable.columnIndex("task_index");
+        final int meanCpuUsage = usageTable.columnIndex("mean_cpu_usage");
+        final int canonicalMemoryUsage = usageTable.columnIndex("canonical_memory_usage");
+        final var fields = new double[FIELDS];
+        Arrays.fill(fields, Double.NaN);
+        for (long row = 0; row < usageTable.getRows(); row++) {
+            fields[START_TIME] = requiredField(usageTable, startTime, row);
+            fields[END_TIME] = requiredField(usageTable, endTime, row);
+            fields[JOB_ID] = requiredField(usageTable, jobId, row);
+            fields[TASK_INDEX] = requiredField(usageTable, taskIndex, row);
+            fields[MEAN_CPU_USAGE] = usageTable.getDouble(meanCpuUsage, row);
+            fields[CANONICAL_MEMORY_USAGE] = usageTable.getDouble(canonicalMemoryUsage, row);
+            joinRow(fields);
+        }
+
+        return joinedRows - previousJoinedRows;
+    }
+
+    /**
+     * Reads the parts of a "task usage" table (each one ordered by start time),
+     * adding the usage of each row to the Cloudlet created for the task.
+     * Parts are parsed in parallel by the reader, while rows are joined in start time order.
+     * Rows of unregistered tasks are ignored.
+     * @param usageTable the reader of the table parts
+     * @return the number of rows joined to a Cloudlet
+     * @throws IOException when a part cannot be read
+     * @throws IllegalStateException when a row has an invalid value or no start/end time, job ID or task index
+     */
+    public long join(final ShardedGoogleTraceReader usageTable) throws IOException {
+        final long previousJoinedRows = joinedRows;
+        final var fields = new double[FIELDS];
+        Arrays.fill(fields, Double.NaN);
+        try (var cursor = usageTable.openRecords(GoogleTraceTable.TASK_USAGE)) {
+            while (cursor.next()) {
+                fields[START_TIME] = requiredField(cursor, START_TIME);
+                fields[END_TIME] = requiredField(cursor, END_TIME);
+                fields[JOB_ID] = requiredField(cursor, JOB_ID);
+                fields[TASK_INDEX] = requiredField(cursor, TASK_INDEX);
+                fields[MEAN_CPU_USAGE] = cursor.getDouble(MEAN_CPU_USAGE);
+                fields[CANONICAL_MEMORY_USAGE] = cursor.getDouble(CANONICAL_MEMORY_USAGE);
+                joinRow(fields);
+            }
+        }
+
+        return joinedRows - previousJoinedRows;
+    }
+
+    private static double requiredField(final ShardedGoogleTraceReader.RecordCursor cursor, final int column) {
+        final long value = cursor.getLong(column);
+        if (value == ColumnarTraceFile.MISSING) {
+            throw new IllegalStateException("Missing task usage field %s at timestamp %d".formatted(
+                cursor.getTable().getColumns().get(column).name(), cursor.getTimestamp()));
+        }
+
+        return value;
+    }
+
+    private static double requiredField(final ColumnarTraceFile usageTable, final int column, final long row) {
+        final long value = usageTable.getLong(column, row);
+        if (value == ColumnarTraceFile.MISSING) {
+            throw new IllegalStateException("Missing task usage field %s at row %d of %s".formatted(
+                usageTable.getColumns().get(column).name(), row, usageTable.getPath()));
+        }
+
+        return value;
+    }
+
+    private void joinRow(final double[] fields) {
+        final int pos = index.get((long) fields[JOB_ID], (long) fields[TASK_INDEX]);
+        if (pos == GoogleTaskIndex.NOT_FOUND) {
+            unmatchedRows++;
+            return;
+        }
+
+        final double startTime = fields[START_TIME] / MICROS;
+        final double endTime = fields[END_TIME] / MICROS;
+        if (!Double.isNaN(fields[MEAN_CPU_USAGE])) {
+            cpuModels[pos] = add(cpuModels[pos], startTime, endTime, fields[MEAN_CPU_USAGE]);
+        }
+
+        if (!Double.isNaN(fields[CANONICAL_MEMORY_USAGE])) {
+            ramModels[pos] = add(ramModels[pos], startTime, endTime, fields[CANONICAL_MEMORY_USAGE]);
+        }
+
+        joinedRows++;
+    }
+
+    private BucketedUtilizationModel add(
+        final BucketedUtilizationModel model, final double startTime,
+        final double endTime, final double usage)
+    {
+        return (model == null ? new BucketedUtilizationModel(bucketSize) : model).add(startTime, endTime, usage);
+    }
+
+    /**
+     * Sets the usage models as the CPU and RAM utilization models of the Cloudlets
+     * which had some usage row joined. Other utilization models are kept unchanged.
+     * @return the number of Cloudlets which had some utilization model set
+     */
+    public int apply() {
+        int count = 0;
+        for (int i = 0; i < index.size(); i++) {
+            if (cpuModels[i] != null) {
+                cloudlets[i].setUtilizationModelCpu(cpuModels[i].trimToSize());
+            }
+
+            if (ramModels[i] != null) {
+                cloudlets[i].setUtilizationModelRam(ramModels[i].trimToSize());
+            }
+
+            if (cpuModels[i] != null || ramModels[i] != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * {@return the number of registered Cloudlets}
+     */
+    public int size() {
+        return index.size();
+    }
+
+    public long getJoinedRows() {
+        return joinedRows;
+    }
+
+    /**
+     * {@return the number of usage rows whose task has no registered Cloudlet}
+     */
+    public long getUnmatchedRows() {
+        return unmatchedRows;
+    }
+
+    /**
+     * Parses the numeric fields used from each CSV row directly from the bytes read,
+     * reusing the same array of field values for every row.
+     */
+    private static final class RowParser {
+        private final InputStream stream;
+        private final byte[] buffer = new byte[1 << 16];
+        private final double[] fields = new double[FIELDS];
+        private final byte[] field = new byte[64];
+        private int fieldLength;
+        private int fieldIndex;
+        private long line = 1;
+        private boolean comment;
+        private boolean blank = true;
+
+        RowParser(final InputStream stream) {
+            this.stream = stream;
+        }
+
+        void forEachRow(final Consumer<double[]> consumer) throws IOException {
+            Arrays.fill(fields, Double.NaN);
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    final byte b = buffer[i];
+                    if (b == '\n') {
+                        endRow(consumer);
+                    } else if (!comment) {
+                        parseByte(b);
+                    }
+                }
+            }
+
+            endRow(consumer);
+        }
+
+        private void parseByte(final byte b) {
+            if (blank && b == '#') {
+                comment = true;
+            } else if (b == ',') {
+                endField();
+            } else if (b != '\r' && b != ' ' && b != '\t') {
+                blank = false;
+                if (fieldIndex < FIELDS) {
+                    if (fieldLength == field.length) {
+                        throw invalidField();
+                    }
+
+                    field[fieldLength++] = b;
+                }
+            }
+        }
+
+        private void endField() {
+            if (fieldIndex < FIELDS) {
+                fields[fieldIndex] = fieldLength == 0 ? Double.NaN : parseField();
+            }
+
+            fieldIndex++;
+            fieldLength = 0;
+        }
+
+        private void endRow(final Consumer<double[]> consumer) {
+            if (!comment && !blank) {
+                endField();
+                if (Double.isNaN(fields[START_TIME]) || Double.isNaN(fields[END_TIME]) ||
+                    Double.isNaN(fields[JOB_ID]) || Double.isNaN(fields[TASK_INDEX]))
+                {
+                    throw new IllegalStateException("Missing task usage field at line " + line);
+                }
+
+                consumer.accept(fields);
+            }
+
+            Arrays.fill(fields, Double.NaN);
+            fieldIndex = 0;
+            fieldLength = 0;
+            comment = false;
+            blank = true;
+            line++;
+        }
+
+        /**
+         * Parses a field as a plain decimal number,
+         * falling back to {@link Double#parseDouble(String)} for other formats (such as scientific notation).
+         * Integer fields (such as IDs and timestamps) are parsed exactly, up to 2^53.
+         */
+        private double parseField() {
+            long mantissa = 0;
+            int decimals = -1;
+            for (int i = 0; i < fieldLength; i++) {
+                final byte b = field[i];
+                if (b >= '0' && b <= '9' && mantissa < (1L << 53) / 10) {
+                    mantissa = mantissa * 10 + b - '0';
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else if (b == '.' && decimals < 0) {
+                    decimals = 0;
+                } else {
+                    return parseDouble();
+                }
+            }
+
+            return decimals <= 0 ? mantissa : mantissa / Math.pow(10, decimals);
+        }
+
+        private double parseDouble() {
+            try {
+                return Double.parseDouble(new String(field, 0, fieldLength, StandardCharsets.US_ASCII));
+            } catch (final NumberFormatException e) {
+                throw invalidField();
+            }
+        }
+
+        private IllegalStateException invalidField() {
+            return new IllegalStateException("Invalid task usage field %d at line %d: %s".formatted(
+                fieldIndex + 1, line, new String(field, 0, fieldLength, StandardCharsets.US_ASCII)));
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudsimplus.examples.traces.ColumnarTraceFile;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.Column;
+import org.cloudsimplus.examples.traces.CompressedTraceInput;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A block of consecutive lines read from a part file of a Google Cluster Data table,
+ * stored as raw bytes into a single array (without creating a String for each line),
+ * along with the timestamp of each line (the first field in every table).
+ * A part is read block by block by a {@link Reader}, so that only a few blocks of each part
+ * are in memory while parts are merged by the {@link ShardedGoogleTraceReader}.
+ * Comment (starting with #) and blank lines are discarded.
+ *
+ * <p>When the columns of the table are given to the {@link Reader}, each block is also parsed into
+ * one array of values for each column (by the thread reading the block),
+ * so that lines don't need to be parsed again after they are merged.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+final class GoogleTraceShard {
+    /**
+     * The number of bytes to read for each block (which is increased only for lines larger than that).
+     */
+    static final int BLOCK_SIZE = 1 << 16;
+
+    private byte[] data;
+
+    /**
+     * The start of each line inside {@link #data}, followed by the end of the last line.
+     */
+    private int[] offsets = new int[1024];
+    private long[] timestamps = new long[1024];
+    private int lines;
+
+    /**
+     * The values of {@link ColumnarTraceFile.ColumnType#LONG LONG} and {@link ColumnarTraceFile.ColumnType#INT INT}
+     * columns for each line (indexed by column and then by line),
+     * or null for other columns or when the block was not parsed.
+     * Missing values are stored as {@link ColumnarTraceFile#MISSING}.
+     */
+    private long[][] longs;
+
+    /**
+     * The values of {@link ColumnarTraceFile.ColumnType#DOUBLE DOUBLE} columns for each line,
+     * where missing values are stored as {@link Double#NaN}.
+     * @see #longs
+     */
+    private double[][] doubles;
+
+    /**
+     * The values of {@link ColumnarTraceFile.ColumnType#STRING STRING} columns for each line,
+     * where missing values are stored as null.
+     * @see #longs
+     */
+    private String[][] strings;
+
+    private GoogleTraceShard() {/**/}
+
+    /**
+     * Adds a line, whose bytes are already in the data array, if it's not blank or a comment.
+     * Lines are kept in place, but blank and comment lines are overwritten by the next lines.
+     * @param reader the reader of the part containing the line
+     * @param start the line start inside the data array
+     * @param end the line end (exclusive) inside the data array, including the line break
+     */
+    private void addLine(final Reader reader, final int start, final int end) {
+        reader.lineNumber++;
+        final int firstChar = skipSpaces(start, end);
+        if (firstChar == end || data[firstChar] == '#' || data[firstChar] == '\n' || data[firstChar] == '\r') {
+            return;
+        }
+
+        if (lines + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            timestamps = Arrays.copyOf(timestamps, timestamps.length * 2);
+        }
+
+        /* A line whose previous lines were discarded is moved back,
+         * so that all kept lines are contiguous and only offsets are needed to delimit them. */
+        final int lineStart = lines == 0 ? 0 : offsets[lines];
+        if (lineStart != start) {
+            System.arraycopy(data, start, data, lineStart, end - start);
+        }
+
+        final int lineEnd = lineStart + end - start;
+        final long timestamp = parseTimestamp(reader, lineStart, lineEnd);
+        if (timestamp < reader.lastTimestamp) {
+            throw new IllegalStateException(
+                "Lines of %s are not ordered by timestamp at line %d".formatted(reader.path, reader.lineNumber));
+        }
+
+        reader.lastTimestamp = timestamp;
+        timestamps[lines] = timestamp;
+        offsets[lines++] = lineStart;
+        offsets[lines] = lineEnd;
+    }
+
+    private int skipSpaces(int pos, final int end) {
+        while (pos < end && (data[pos] == ' ' || data[pos] == '\t')) {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    private long parseTimestamp(final Reader reader, final int start, final int end) {
+        long value = 0;
+        int pos = skipSpaces(start, end);
+        final int digitsStart = pos;
+        for (; pos < end && data[pos] >= '0' && data[pos] <= '9'; pos++) {
+            value = value * 10 + data[pos] - '0';
+        }
+
+        pos = skipSpaces(pos, end);
+        if (pos == digitsStart || (pos < end && data[pos] != ',' && data[pos] != '\r' && data[pos] != '\n')) {
+            throw new IllegalStateException(
+                "Invalid timestamp at line %d of %s: %s".formatted(
+                    reader.lineNumber, reader.path, new String(data, start, end - start).strip()));
+        }
+
+        return value;
+    }
+
+    /**
+     * Parses every line into the values of the given columns.
+     * Fields not present in a line are considered missing, while extra fields are ignored.
+     * @param path the part file the block was read from (to report errors)
+     * @param columns the columns of the table, in the order they appear in the lines
+     * @throws IllegalStateException when a field has an invalid value
+     */
+    private void parse(final Path path, final List<Column> columns) {
+        longs = new long[columns.size()][];
+        doubles = new double[columns.size()][];
+        strings = new String[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).type()) {
+                case LONG, INT -> longs[i] = new long[lines];
+                case DOUBLE -> doubles[i] = new double[lines];
+                case STRING -> strings[i] = new String[lines];
+            }
+        }
+
+        for (int line = 0; line < lines; line++) {
+            int end = offsets[line + 1];
+            while (end > offsets[line] && (data[end - 1] == '\n' || data[end - 1] == '\r')) {
+                end--;
+            }
+
+            int start = offsets[line];
+            for (int i = 0; i < columns.size(); i++) {
+                final int fieldStart = Math.min(start, end);
+                int fieldEnd = fieldStart;
+                while (fieldEnd < end && data[fieldEnd] != ',') {
+                    fieldEnd++;
+                }
+
+                final int valueStart = skipSpaces(fieldStart, fieldEnd);
+                int valueEnd = fieldEnd;
+                while (valueEnd > valueStart && (data[valueEnd - 1] == ' ' || data[valueEnd - 1] == '\t')) {
+                    valueEnd--;
+                }
+
+                try {
+                    setValue(columns.get(i), i, line, valueStart, valueEnd);
+                } catch (final NumberFormatException e) {
+                    throw new IllegalStateException("Invalid %s value in %s: %s".formatted(
+                        columns.get(i).name(), path, new String(data, offsets[line], end - offsets[line]).strip()), e);
+                }
+
+                start = fieldEnd + 1;
+            }
+        }
+    }
+
+    private void setValue(final Column column, final int index, final int line, final int start, final int end) {
+        final boolean missing = start >= end;
+        switch (column.type()) {
+            case LONG -> longs[index][line] = missing ? ColumnarTraceFile.MISSING : parseLong(start, end);
+            case INT -> longs[index][line] = missing ? ColumnarTraceFile.MISSING : Math.toIntExact(parseLong(start, end));
+            case DOUBLE -> doubles[index][line] = missing ? Double.NaN : parseDouble(start, end);
+            case STRING -> strings[index][line] = missing ? null : new String(data, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    private long parseLong(final int start, final int end) {
+        if (end - start > 18) {
+            return Long.parseLong(new String(data, start, end - start, StandardCharsets.US_ASCII));
+        }
+
+        final boolean negative = data[start] == '-';
+        if (negative && end - start == 1) {
+            throw new NumberFormatException("-");
+        }
+
+        long value = 0;
+        for (int pos = negative ? start + 1 : start; pos < end; pos++) {
+            if (data[pos] < '0' || data[pos] > '9') {
+                throw new NumberFormatException(new String(data, start, end - start, StandardCharsets.US_ASCII));
+            }
+
+            value = value * 10 + data[pos] - '0';
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a plain decimal number directly from the bytes,
+     * falling back to {@link Double#parseDouble(String)} for other formats (such as scientific notation).
+     */
+    private double parseDouble(final int start, final int end) {
+        long mantissa = 0;
+        int decimals = -1;
+        for (int pos = start; pos < end; pos++) {
+            final byte b = data[pos];
+            if (b >= '0' && b <= '9' && mantissa < (1L << 53) / 10) {
+                mantissa = mantissa * 10 + b - '0';
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                return Double.parseDouble(new String(data, start, end - start, StandardCharsets.US_ASCII));
+            }
+        }
+
+        return decimals <= 0 ? mantissa : mantissa / Math.pow(10, decimals);
+    }
+
+    /**
+     * {@return the number of lines}, excluding blank and comment lines
+     */
+    int size() {
+        return lines;
+    }
+
+    /**
+     * {@return the timestamp of the i-th line}
+     * @param i the line index
+     */
+    long getTimestamp(final int i) {
+        return timestamps[i];
+    }
+
+    /**
+     * {@return the start of the i-th line inside the {@link #getData() data array}}
+     * @param i the line index
+     */
+    int getLineStart(final int i) {
+        return offsets[i];
+    }
+
+    /**
+     * {@return the end (exclusive) of the i-th line inside the {@link #getData() data array}}
+     * @param i the line index
+     */
+    int getLineEnd(final int i) {
+        return offsets[i + 1];
+    }
+
+    /**
+     * {@return the array containing the bytes of all lines}
+     */
+    byte[] getData() {
+        return data;
+    }
+
+    /**
+     * {@return the value of a LONG or INT column in a parsed line} or {@link ColumnarTraceFile#MISSING}
+     * @param line the line index
+     * @param column the column index
+     */
+    long getLong(final int line, final int column) {
+        return longs[column][line];
+    }
+
+    /**
+     * {@return the value of a DOUBLE column in a parsed line} or {@link Double#NaN} if missing
+     * @param line the line index
+     * @param column the column index
+     */
+    double getDouble(final int line, final int column) {
+        return doubles[column][line];
+    }
+
+    /**
+     * {@return the value of a STRING column in a parsed line} or null if missing
+     * @param line the line index
+     * @param column the column index
+     */
+    String getString(final int line, final int column) {
+        return strings[column][line];
+    }
+
+    /**
+     * Reads a part file block by block. The file may be compressed (as detected by the {@link CompressedTraceInput}).
+     * Lines must be ordered by timestamp inside the file, as in the Google Cluster Data,
+     * so that blocks can be merged without reading the entire file.
+     * A reader is not thread-safe, but it can be used by different threads one at a time.
+     */
+    static final class Reader implements Closeable {
+        private final Path path;
+
+        /**
+         * The columns to parse each block into, or null to keep just the lines.
+         */
+        private final List<Column> columns;
+        private InputStream stream;
+        private boolean eof;
+
+        /**
+         * The bytes at the end of the last block which don't form an entire line yet.
+         */
+        private byte[] pending = new byte[0];
+        private long lineNumber;
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        Reader(final Path path) {
+            this(path, null);
+        }
+
+        /**
+         * Creates a reader which parses every block into the values of given columns.
+         * @param path the part file
+         * @param columns the columns of the table or null to keep just the lines
+         */
+        Reader(final Path path, final List<Column> columns) {
+            this.path = path;
+            this.columns = columns;
+        }
+
+        /**
+         * Reads the next block of lines (parsing them if columns were given), opening the file on the first call
+         * and closing it when the end of the file is reached.
+         * @return the next block or null when the entire file was read
+         * @throws IOException when the file cannot be read
+         * @throws IllegalStateException when a line has an invalid timestamp or value,
+         *                               or lines are not ordered by timestamp
+         */
+        GoogleTraceShard next() throws IOException {
+            if (stream == null && !eof) {
+                stream = CompressedTraceInput.open(path);
+            }
+
+            while (!eof) {
+                final var shard = readBlock();
+                if (shard.size() > 0) {
+                    if (columns != null) {
+                        shard.parse(path, columns);
+                    }
+
+                    return shard;
+                }
+            }
+
+            return null;
+        }
+
+        private GoogleTraceShard readBlock() throws IOException {
+            final var shard = new GoogleTraceShard();
+            shard.data = Arrays.copyOf(pending, Math.max(BLOCK_SIZE, pending.length * 2));
+
+            /* The pending bytes have no line break, so the search starts after them. */
+            int size = pending.length;
+            int scanned = size;
+            int lineStart = 0;
+            while (true) {
+                final int requested = shard.data.length - size;
+                final int read = stream.readNBytes(shard.data, size, requested);
+                eof = read < requested;
+                size += read;
+                for (; scanned < size; scanned++) {
+                    if (shard.data[scanned] == '\n') {
+                        shard.addLine(this, lineStart, scanned + 1);
+                        lineStart = scanned + 1;
+                    }
+                }
+
+                if (eof || lineStart > 0) {
+                    break;
+                }
+
+                // A single line is larger than the block
+                shard.data = Arrays.copyOf(shard.data, shard.data.length * 2);
+            }
+
+            if (eof) {
+                if (lineStart < size) {
+                    shard.addLine(this, lineStart, size);
+                }
+
+                pending = new byte[0];
+                close();
+            } else {
+                pending = Arrays.copyOfRange(shard.data, lineStart, size);
+            }
+
+            return shard;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        @Override
+        public void close() throws IOException {
+            eof = true;
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudsimplus.examples.traces.ColumnarTraceFile;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.Column;
+import org.cloudsimplus.examples.traces.TraceCacheConverter;
+
+import java.util.List;
+
+import static org.cloudsimplus.examples.traces.ColumnarTraceFile.Column.ofDouble;
+import static org.cloudsimplus.examples.traces.ColumnarTraceFile.Column.ofInt;
+import static org.cloudsimplus.examples.traces.ColumnarTraceFile.Column.ofLong;
+
+/**
+ * The tables of the <a href="https://github.com/google/cluster-data/blob/master/ClusterData2011_2.md">Google Cluster Data (2011)</a>
+ * supported by the {@link TraceCacheConverter}, defining the columns of each CSV file,
+ * in the order they appear, as they are stored in a {@link ColumnarTraceFile}.
+ * Only tables whose columnar files have a reader are supported. The "machine events" and "task events"
+ * tables are small compared to the "task usage" one and are read as they are needed
+ * (by a {@link LazyMachineEventSource} and a {@link ShardedGoogleTraceReader}, respectively).
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public enum GoogleTraceTable {
+    /**
+     * The "task usage" table, whose columnar file is read by {@link GoogleTaskUsageJoiner#join(ColumnarTraceFile)}.
+     */
+    TASK_USAGE(
+        ofLong("start_time"), ofLong("end_time"), ofLong("job_id"), ofLong("task_index"),
+        ofLong("machine_id"), ofDouble("mean_cpu_usage"), ofDouble("canonical_memory_usage"),
+        ofDouble("assigned_memory_usage"), ofDouble("unmapped_page_cache"), ofDouble("total_page_cache"),
+        ofDouble("maximum_memory_usage"), ofDouble("mean_disk_io_time"), ofDouble("mean_local_disk_space"),
+        ofDouble("maximum_cpu_usage"), ofDouble("maximum_disk_io_time"), ofDouble("cpi"), ofDouble("mai"),
+        ofDouble("sample_portion"), ofInt("aggregation_type"), ofDouble("sampled_cpu_usage"));
+
+    private final List<Column> columns;
+
+    GoogleTraceTable(final Column... columns) {
+        this.columns = List.of(columns);
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * {@return the format name stored in the {@link ColumnarTraceFile} converted from this table}
+     */
+    public String getFormat() {
+        return "google-" + name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudsimplus.core.CloudSimTag;
+import org.cloudsimplus.core.Simulation;
+import org.cloudsimplus.core.events.SimEvent;
+import org.cloudsimplus.datacenters.Datacenter;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.resources.Pe;
+import org.cloudsimplus.resources.ResourceManageable;
+import org.cloudsimplus.traces.google.GoogleMachineEventsTraceReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates Hosts from a "machine events" table of the <a href="https://github.com/google/cluster-data">Google Cluster Data</a>
+ * as the simulation clock advances, instead of creating all Hosts before the simulation starts
+ * (as the {@link GoogleMachineEventsTraceReader} does).
+ * Hosts added at time zero are created when the source {@link #start() starts}.
+ * Events for later timestamps are read one batch (all events with the same timestamp) at a time:
+ * only when the simulation reaches the time of a batch, the next one is read.
+ * Hosts of the next batch are created and requested to be added to the Datacenter at their timestamp,
+ * while Hosts removed at that time are requested to be removed (which is simulated as a Host failure).
+ * A wake-up event is also sent to the Datacenter at the time of every batch,
+ * so that the simulation doesn't finish while there are events to read
+ * (even if a batch has no Host to add or remove).
+ * {@link #MACHINE_UPDATE Update} events change the capacity of live Hosts when that wake-up event is processed.
+ * Since the number of PEs of a Host cannot change after it's created, a CPU capacity update
+ * scales the MIPS capacity of every PE instead. A capacity is reduced only when it doesn't go
+ * below the amount currently allocated to VMs.
+ *
+ * <p>This way, the simulation starts without reading the entire trace
+ * and only the Hosts which are live (or are about to be added) are kept in memory.
+ * Events must be ordered by timestamp, such as the ones given by a {@link ShardedGoogleTraceReader}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see GoogleMachineEventsExample1
+ */
+public class LazyMachineEventSource {
+    public static final int MACHINE_ADD = 0;
+    public static final int MACHINE_REMOVE = 1;
+    public static final int MACHINE_UPDATE = 2;
+
+    private static final int TIMESTAMP = 0;
+    private static final int MACHINE_ID = 1;
+    private static final int EVENT_TYPE = 2;
+    private static final int CPU_CAPACITY = 4;
+    private static final int RAM_CAPACITY = 5;
+    private static final int FIELDS = RAM_CAPACITY + 1;
+
+    /**
+     * Number of trace time units (microseconds) in a second.
+     */
+    private static final double MICROS = 1_000_000;
+
+    /**
+     * A function to create a Host from the data of a machine event.
+     */
+    @FunctionalInterface
+    public interface HostFactory {
+        /**
+         * Creates a Host.
+         * @param machineId the machine ID in the trace, which is expected to be set as the Host ID
+         * @param cpuCores the number of CPU cores, computed from the normalized capacity in the trace
+         * @param ram the RAM capacity, computed from the normalized capacity in the trace
+         * @return the new Host
+         */
+        Host create(long machineId, int cpuCores, long ram);
+    }
+
+    private final Datacenter datacenter;
+    private final BufferedReader reader;
+    private final HostFactory hostFactory;
+    private final String[] fields = new String[FIELDS];
+    private Datacenter datacenterForLaterHosts;
+    private int maxCpuCores;
+    private long maxRamCapacity;
+
+    /**
+     * Each live Host, by machine ID, used to send removal requests and apply updates.
+     */
+    private final Map<Long, LiveHost> liveHosts = new HashMap<>();
+
+    /**
+     * Updates read from the last batch, which are applied when the simulation reaches its time.
+     */
+    private final List<MachineUpdate> pendingUpdates = new ArrayList<>();
+
+    /**
+     * The timestamp (in seconds) of the last batch read,
+     * or {@link Double#MAX_VALUE} if all events were read.
+     * The next batch is read only when the wake-up event sent for this time is processed.
+     */
+    private double batchTime;
+
+    /**
+     * The last line read from the trace, which wasn't processed yet,
+     * since it belongs to a batch not read yet.
+     */
+    private String pendingLine;
+
+    private long lineNumber;
+    private boolean endOfFile;
+    private long createdHosts;
+    private long removedHosts;
+    private long updatedHosts;
+    private boolean started;
+
+    /**
+     * Creates a source.
+     * @param datacenter the Datacenter to add Hosts to
+     * @param machineEvents the stream to read the machine events table from, which is closed when all events are read
+     * @param hostFactory the function to create each Host
+     */
+    public LazyMachineEventSource(final Datacenter datacenter, final InputStream machineEvents, final HostFactory hostFactory) {
+        this.datacenter = requireNonNull(datacenter);
+        this.datacenterForLaterHosts = datacenter;
+        this.reader = new BufferedReader(new InputStreamReader(machineEvents, StandardCharsets.UTF_8), 1 << 16);
+        this.hostFactory = requireNonNull(hostFactory);
+        this.maxCpuCores = 1;
+        this.maxRamCapacity = 1;
+    }
+
+    /**
+     * Creates the Hosts added at time zero and starts reading later events as the simulation advances.
+     * It must be called before the simulation starts.
+     * @return the Hosts added to the Datacenter at time zero
+     */
+    public List<Host> start() {
+        if (started) {
+            throw new IllegalStateException("The source was already started");
+        }
+
+        started = true;
+        final var initialHosts = new ArrayList<Host>();
+        if (peekTimestamp() == 0) {
+            // Machines removed at time zero are not added to the Datacenter at all
+            final var removedMachines = readBatch(initialHosts, new ArrayList<>(), datacenter);
+            removedMachines.forEach(liveHosts::remove);
+            initialHosts.removeIf(host -> removedMachines.contains(host.getId()));
+            applyUpdates();
+        }
+
+        datacenter.addHostList(initialHosts);
+        datacenter.getSimulation().addOnEventProcessingListener(this::onEventProcessing);
+        requestNextBatch(0);
+        return initialHosts;
+    }
+
+    /**
+     * Applies the updates of the last batch and reads the next one when the wake-up event for the last batch is processed.
+     * @param evt the event being processed
+     * @see #requestNextBatch(double)
+     */
+    private void onEventProcessing(final SimEvent evt) {
+        if (evt.getData() == this) {
+            requestNextBatch(evt.getTime());
+        }
+    }
+
+    /**
+     * Reads the next batch of events, requesting the Datacenters to add and remove Hosts at the batch time.
+     * A wake-up event (whose data is this source) is sent to the Datacenter at that time,
+     * after the Host addition and removal requests, so that the batch updates are applied
+     * and the following batch is read when such an event is processed.
+     * @param time the current simulation time
+     */
+    private void requestNextBatch(final double time) {
+        applyUpdates();
+        final var hosts = new ArrayList<Host>();
+        final var removedMachines = readBatch(hosts, new ArrayList<>(), datacenterForLaterHosts);
+        if (batchTime == Double.MAX_VALUE) {
+            return;
+        }
+
+        final double delay = Math.max(0, batchTime - time);
+        final Simulation simulation = datacenterForLaterHosts.getSimulation();
+        for (final Host host : hosts) {
+            simulation.send(datacenterForLaterHosts, datacenterForLaterHosts, delay, CloudSimTag.HOST_ADD, host);
+        }
+
+        for (final long machineId : removedMachines) {
+            final LiveHost live = liveHosts.remove(machineId);
+            if (live != null) {
+                simulation.send(live.datacenter, live.datacenter, delay, CloudSimTag.HOST_REMOVE, machineId);
+                removedHosts++;
+            }
+        }
+
+        //The Datacenter just updates Cloudlets processing when receiving the wake-up event
+        simulation.send(
+            datacenterForLaterHosts, datacenterForLaterHosts, delay, CloudSimTag.VM_UPDATE_CLOUDLET_PROCESSING, this);
+    }
+
+    /**
+     * Applies the capacity updates of the last batch read, whose time was reached.
+     */
+    private void applyUpdates() {
+        for (final MachineUpdate update : pendingUpdates) {
+            final LiveHost live = liveHosts.get(update.machineId());
+            if (live != null && live.update(update.cpu(), update.ram())) {
+                updatedHosts++;
+            }
+        }
+
+        pendingUpdates.clear();
+    }
+
+    /**
+     * Reads all events of the next batch, storing its time into {@link #batchTime}.
+     * Updates are stored into {@link #pendingUpdates}.
+     * @param hosts the list to add the created Hosts to
+     * @param removedMachines the list to add the IDs of removed machines to
+     * @param target the Datacenter where created Hosts will be added
+     * @return the list of removed machines
+     */
+    private List<Long> readBatch(final List<Host> hosts, final List<Long> removedMachines, final Datacenter target) {
+        batchTime = peekTimestamp();
+        while (pendingLine != null && timestamp() == batchTime) {
+            try {
+                final long machineId = Long.parseLong(fields[MACHINE_ID]);
+                switch (Integer.parseInt(fields[EVENT_TYPE])) {
+                    case MACHINE_ADD -> {
+                        final double cpu = parseCapacity(fields[CPU_CAPACITY]);
+                        final Host host = createHost(machineId, cpu, parseCapacity(fields[RAM_CAPACITY]));
+                        hosts.add(host);
+                        liveHosts.put(machineId, new LiveHost(host, target, cpu));
+                        createdHosts++;
+                    }
+                    case MACHINE_REMOVE -> removedMachines.add(machineId);
+                    case MACHINE_UPDATE -> {
+                        final double cpu = parseUpdatedCapacity(fields[CPU_CAPACITY]);
+                        final long ram = toRam(parseUpdatedCapacity(fields[RAM_CAPACITY]));
+                        pendingUpdates.add(new MachineUpdate(machineId, cpu, ram));
+                    }
+                    default -> { /* Unknown events are ignored */ }
+                }
+            } catch (final NumberFormatException e) {
+                throw new IllegalStateException("Invalid machine event at line %d: %s".formatted(lineNumber, pendingLine), e);
+            }
+
+            pendingLine = null;
+            peekTimestamp();
+        }
+
+        return removedMachines;
+    }
+
+    private Host createHost(final long machineId, final double cpu, final double ram) {
+        final int cpuCores = (int) Math.max(1, Math.round(cpu * maxCpuCores));
+        return hostFactory.create(machineId, cpuCores, toRam(ram));
+    }
+
+    private long toRam(final double ram) {
+        return Double.isNaN(ram) ? 0 : Math.max(1, Math.round(ram * maxRamCapacity));
+    }
+
+    private double parseCapacity(final String value) {
+        return value == null || value.isEmpty() ? 1 : Double.parseDouble(value);
+    }
+
+    /**
+     * {@return a normalized capacity from an update event} or NaN if it's not present
+     * (so that such a capacity isn't changed)
+     */
+    private double parseUpdatedCapacity(final String value) {
+        return value == null || value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+    }
+
+    /**
+     * Reads the next event line (if it wasn't read yet), skipping comments and blank lines.
+     * @return the timestamp of the next event (in seconds) or {@link Double#MAX_VALUE} if there are no more events
+     */
+    private double peekTimestamp() {
+        try {
+            while (pendingLine == null) {
+                final String line = endOfFile ? null : reader.readLine();
+                if (line == null) {
+                    if (!endOfFile) {
+                        endOfFile = true;
+                        reader.close();
+                    }
+
+                    return Double.MAX_VALUE;
+                }
+
+                lineNumber++;
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    pendingLine = line;
+                    split(line);
+                }
+            }
+
+            return timestamp();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (final NumberFormatException e) {
+            throw new IllegalStateException("Invalid machine event at line %d: %s".formatted(lineNumber, pendingLine), e);
+        }
+    }
+
+    private double timestamp() {
+        return Long.parseLong(fields[TIMESTAMP]) / MICROS;
+    }
+
+    /**
+     * Splits a CSV line into the fields array.
+     * Fields not present in the line are set to null.
+     */
+    private void split(final String line) {
+        int start = 0;
+        for (int i = 0; i < FIELDS; i++) {
+            if (start > line.length()) {
+                fields[i] = null;
+                continue;
+            }
+
+            final int end = line.indexOf(',', start);
+            fields[i] = line.substring(start, end < 0 ? line.length() : end).trim();
+            start = end < 0 ? line.length() + 1 : end + 1;
+        }
+    }
+
+    /**
+     * Sets the Datacenter to add Hosts created after time zero to.
+     * By default, it's the same Datacenter where Hosts are added at time zero.
+     * @param datacenterForLaterHosts the Datacenter for later Hosts
+     * @return this source
+     */
+    public LazyMachineEventSource setDatacenterForLaterHosts(final Datacenter datacenterForLaterHosts) {
+        this.datacenterForLaterHosts = requireNonNull(datacenterForLaterHosts);
+        return this;
+    }
+
+    public int getMaxCpuCores() {
+        return maxCpuCores;
+    }
+
+    /**
+     * Sets the number of CPU cores of the largest machine,
+     * since capacities in the trace are normalized by the largest machine capacity.
+     * @param maxCpuCores the number of CPU cores
+     * @return this source
+     */
+    public LazyMachineEventSource setMaxCpuCores(final int maxCpuCores) {
+        if (maxCpuCores <= 0) {
+            throw new IllegalArgumentException("Max CPU cores must be greater than 0");
+        }
+
+        this.maxCpuCores = maxCpuCores;
+        return this;
+    }
+
+    public long getMaxRamCapacity() {
+        return maxRamCapacity;
+    }
+
+    /**
+     * Sets the RAM capacity of the largest machine,
+     * since capacities in the trace are normalized by the largest machine capacity.
+     * @param maxRamCapacity the RAM capacity
+     * @return this source
+     */
+    public LazyMachineEventSource setMaxRamCapacity(final long maxRamCapacity) {
+        if (maxRamCapacity <= 0) {
+            throw new IllegalArgumentException("Max RAM capacity must be greater than 0");
+        }
+
+        this.maxRamCapacity = maxRamCapacity;
+        return this;
+    }
+
+    /**
+     * {@return the number of Hosts created so far}, including those not added to the Datacenter yet
+     */
+    public long getCreatedHosts() {
+        return createdHosts;
+    }
+
+    /**
+     * {@return the number of Hosts removed (or requested to be removed) so far}
+     */
+    public long getRemovedHosts() {
+        return removedHosts;
+    }
+
+    /**
+     * {@return the number of Hosts whose capacity was updated so far}
+     */
+    public long getUpdatedHosts() {
+        return updatedHosts;
+    }
+
+    /**
+     * {@return the number of live Hosts}, including those not added to the Datacenter yet
+     */
+    public int getLiveHosts() {
+        return liveHosts.size();
+    }
+
+    /**
+     * {@return true if all events in the trace were read}
+     */
+    public boolean isFinished() {
+        return batchTime == Double.MAX_VALUE;
+    }
+
+    /**
+     * A capacity update read from the trace.
+     * @param machineId the ID of the updated machine
+     * @param cpu the new normalized CPU capacity or NaN if it's not changed
+     * @param ram the new RAM capacity or 0 if it's not changed
+     */
+    private record MachineUpdate(long machineId, double cpu, long ram) {
+    }
+
+    /**
+     * A Host which was added (or is about to be added) and not removed yet.
+     */
+    private static final class LiveHost {
+        private final Host host;
+        private final Datacenter datacenter;
+
+        /**
+         * The current normalized CPU capacity, as given in the trace.
+         */
+        private double cpu;
+
+        LiveHost(final Host host, final Datacenter datacenter, final double cpu) {
+            this.host = host;
+            this.datacenter = datacenter;
+            this.cpu = cpu;
+        }
+
+        /**
+         * Updates the Host capacity.
+         * @param newCpu the new normalized CPU capacity or NaN to keep the current one
+         * @param newRam the new RAM capacity or 0 to keep the current one
+         * @return true if any capacity was changed, false otherwise
+         */
+        boolean update(final double newCpu, final long newRam) {
+            final boolean cpuUpdated = updateCpu(newCpu);
+            final boolean ramUpdated =
+                newRam > 0 && host.getRam() instanceof ResourceManageable ram &&
+                ram.getCapacity() != newRam && ram.setCapacity(newRam);
+            return cpuUpdated || ramUpdated;
+        }
+
+        /**
+         * Scales the MIPS capacity of all PEs according to the new CPU capacity,
+         * if no PE gets less capacity than is allocated.
+         */
+        private boolean updateCpu(final double newCpu) {
+            if (Double.isNaN(newCpu) || newCpu <= 0 || newCpu == cpu) {
+                return false;
+            }
+
+            final double factor = newCpu / cpu;
+            for (final Pe pe : host.getPeList()) {
+                if (newPeCapacity(pe, factor) < pe.getAllocatedResource()) {
+                    return false;
+                }
+            }
+
+            host.getPeList().forEach(pe -> pe.setCapacity(newPeCapacity(pe, factor)));
+            cpu = newCpu;
+            return true;
+        }
+
+        private static long newPeCapacity(final Pe pe, final double factor) {
+            return Math.max(1, Math.round(pe.getCapacity() * factor));
+        }
+    }
+}
@@ -0,0 +1,569 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.google;
+
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.core.CloudSimPlus;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile;
+import org.cloudsimplus.examples.traces.ColumnarTraceFile.Column;
+import org.cloudsimplus.examples.traces.CompressedTraceInput;
+import org.cloudsimplus.examples.traces.TraceCacheConverter;
+import org.cloudsimplus.examples.traces.TracePaths;
+import org.cloudsimplus.traces.google.GoogleTaskEventsTraceReader;
+import org.cloudsimplus.traces.google.GoogleTaskUsageTraceReader;
+import org.cloudsimplus.traces.google.TaskEvent;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reads a table of the <a href="https://github.com/google/cluster-data">Google Cluster Data</a>
+ * split into multiple part files (such as part-00000-of-00500.csv.gz),
+ * merging the records of all parts in timestamp order (a k-way merge),
+ * so that events are processed in the correct order.
+ *
+ * <p>Parts are given by a directory (to read all its files) or by a glob pattern in the file name
+ * (such as {@code task_events/part-000*-of-00500.csv.gz}), located in the file system or in the classpath
+ * (including inside a jar). Compressed parts are decompressed on the fly
+ * by the {@link CompressedTraceInput}.
+ * Lines inside each part must be ordered by timestamp, as in the Google Cluster Data.</p>
+ *
+ * <p>Parts are read lazily, as blocks of lines ({@link GoogleTraceShard}s),
+ * by a pool bounded by the {@link #setParallelism(int) parallelism}.
+ * While the block being merged from a part is consumed, the next block of that part is read ahead by the pool.
+ * This way, only about two blocks of each part are in memory at a time,
+ * no matter the size of the parts.
+ * Records can be merged in two ways:</p>
+ * <ul>
+ *     <li>{@link #openRecords(GoogleTraceTable)}: the pool also parses each block into column values,
+ *     so that the merge just compares timestamps and gives the parsed values.
+ *     That way, parsing scales with the number of CPU cores.
+ *     It's used by the {@link TraceCacheConverter} and the {@link GoogleTaskUsageJoiner}.</li>
+ *     <li>{@link #open()}: merged lines are given as a single {@link InputStream},
+ *     for readers that process a single file
+ *     (such as the ones created by {@link #newTaskEventsReader(CloudSimPlus, Function)}).
+ *     Only reading and decompressing parts happen in parallel,
+ *     since lines are parsed by the thread reading the stream.</li>
+ * </ul>
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see GoogleTaskEventsExample1
+ */
+public final class ShardedGoogleTraceReader {
+    private final String pathOrGlob;
+    private final List<Path> parts;
+    private int parallelism;
+
+    /**
+     * Creates a reader for a directory or glob pattern.
+     * @param pathOrGlob a directory containing the part files or a glob pattern for the part file names
+     * @throws UncheckedIOException when the directory cannot be found or no part matches the glob
+     */
+    public ShardedGoogleTraceReader(final String pathOrGlob) {
+        this.pathOrGlob = pathOrGlob;
+        this.parts = findParts(pathOrGlob);
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    private static List<Path> findParts(final String pathOrGlob) {
+        final int separator = Math.max(pathOrGlob.lastIndexOf('/'), pathOrGlob.lastIndexOf('\\'));
+        final String fileName = pathOrGlob.substring(separator + 1);
+        final boolean glob = fileName.matches(".*[*?\\[{].*");
+        try {
+            final Path dir = TracePaths.resolve(glob ? (separator < 0 ? "." : pathOrGlob.substring(0, separator)) : pathOrGlob);
+            if (Files.isRegularFile(dir)) {
+                return List.of(dir);
+            }
+
+            return listParts(dir, glob ? fileName : "*", pathOrGlob);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Path> listParts(final Path dir, final String glob, final String pathOrGlob) throws IOException {
+        final var matcher = dir.getFileSystem().getPathMatcher("glob:" + glob);
+        try (var files = Files.list(dir)) {
+            final var list = files.filter(Files::isRegularFile)
+                                  .filter(file -> matcher.matches(file.getFileName()))
+                                  .filter(file -> !file.getFileName().toString().startsWith("."))
+                                  .sorted()
+                                  .toList();
+            if (list.isEmpty()) {
+                throw new FileNotFoundException("No Google trace part found for " + pathOrGlob);
+            }
+
+            return list;
+        }
+    }
+
+    /**
+     * Opens a stream that merges the lines of all parts in timestamp order,
+     * while parts are read (and decompressed) in parallel.
+     * Lines are not parsed: that is up to the thread reading the stream.
+     * Lines with the same timestamp are given in the order of the parts (sorted by name)
+     * and then in the order they appear inside the part.
+     * The stream must be closed to stop reading parts when not all lines are consumed.
+     * @return a stream to read the merged lines
+     * @throws IllegalStateException when lines inside a part are not ordered by timestamp
+     *         (thrown when such lines are read)
+     * @see #openRecords(GoogleTraceTable)
+     */
+    public InputStream open() {
+        return new MergedInputStream(new ShardMerger(parts, null, threads()));
+    }
+
+    /**
+     * Opens a cursor that merges the records of all parts in timestamp order,
+     * while parts are read and parsed in parallel.
+     * Records with the same timestamp are given in the same order as by {@link #open()}.
+     * The cursor must be closed to stop reading parts when not all records are consumed.
+     * @param table the table the parts belong to, defining the columns of each line
+     * @return a cursor to read the merged records
+     * @throws IllegalStateException when lines inside a part are not ordered by timestamp
+     *         or have invalid values (thrown when such lines are read)
+     */
+    public RecordCursor openRecords(final GoogleTraceTable table) {
+        return new RecordCursor(new ShardMerger(parts, table.getColumns(), threads()), table);
+    }
+
+    /**
+     * Counts the records (non-blank and non-comment lines) of all parts, reading parts in parallel.
+     * @return the number of records
+     * @throws IOException when a part cannot be read
+     * @throws IllegalStateException when lines inside a part are not ordered by timestamp
+     */
+    public long countRecords() throws IOException {
+        final ExecutorService executor = newExecutor(threads());
+        try {
+            final var counts = new ArrayList<Future<Long>>(parts.size());
+            for (final Path part : parts) {
+                counts.add(executor.submit(() -> countRecords(part)));
+            }
+
+            long records = 0;
+            for (int i = 0; i < counts.size(); i++) {
+                records += await(counts.get(i), parts.get(i));
+            }
+
+            return records;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long countRecords(final Path part) throws IOException {
+        try (var reader = new GoogleTraceShard.Reader(part)) {
+            long records = 0;
+            GoogleTraceShard shard;
+            while ((shard = reader.next()) != null) {
+                records += shard.size();
+            }
+
+            return records;
+        }
+    }
+
+    private int threads() {
+        return Math.min(parallelism, parts.size());
+    }
+
+    private static ExecutorService newExecutor(final int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final var thread = new Thread(runnable, "google-trace-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Waits for the result of a task reading a part, rethrowing the exception it may have thrown.
+     */
+    private static <T> T await(final Future<T> future, final Path part) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + part);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Creates a reader for the "task events" table, whose lines are merged from all parts.
+     * The returned reader parses the merged lines by itself, in the thread calling its {@code process()} method.
+     * @param simulation the simulation instance
+     * @param cloudletCreationFunction a function to create each Cloudlet from a task event
+     * @return the new reader
+     * @see GoogleTaskEventsTraceReader#getInstance(CloudSimPlus, String, Function)
+     */
+    public GoogleTaskEventsTraceReader newTaskEventsReader(
+        final CloudSimPlus simulation,
+        final Function<TaskEvent, Cloudlet> cloudletCreationFunction)
+    {
+        return new GoogleTaskEventsTraceReader(simulation, pathOrGlob, open(), cloudletCreationFunction);
+    }
+
+    /**
+     * Creates a reader for the "task usage" table, whose lines are merged from all parts.
+     * The returned reader parses the merged lines by itself, in the thread calling its {@code process()} method.
+     * For large tables, consider {@link GoogleTaskUsageJoiner#join(ShardedGoogleTraceReader)} instead,
+     * which gets lines parsed in parallel.
+     * @param taskEventsReader the reader of the "task events" table which created the Cloudlets
+     * @return the new reader
+     * @see GoogleTaskUsageTraceReader#getInstance(GoogleTaskEventsTraceReader, String)
+     */
+    public GoogleTaskUsageTraceReader newTaskUsageReader(final GoogleTaskEventsTraceReader taskEventsReader) {
+        return new GoogleTaskUsageTraceReader(taskEventsReader, pathOrGlob, open());
+    }
+
+    /**
+     * {@return the part files} sorted by name
+     */
+    public List<Path> getParts() {
+        return parts;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of parts to parse in parallel.
+     * @param parallelism the number of parsing threads (defaults to the number of CPU cores)
+     * @return this reader
+     */
+    public ShardedGoogleTraceReader setParallelism(final int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be greater than 0");
+        }
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * A cursor over the records of all parts merged in timestamp order, whose values were parsed
+     * by the pool reading the parts. Values of the current record are got by the column index
+     * (as defined by the {@link GoogleTraceTable#getColumns() table columns}).
+     */
+    public static final class RecordCursor implements Closeable {
+        private final ShardMerger merger;
+        private final GoogleTraceTable table;
+        private ShardCursor current;
+
+        private RecordCursor(final ShardMerger merger, final GoogleTraceTable table) {
+            this.merger = merger;
+            this.table = table;
+        }
+
+        /**
+         * Moves to the next record.
+         * @return true if there is a next record, false if all records were read
+         * @throws IOException when a part cannot be read
+         * @throws IllegalStateException when lines inside a part are not ordered by timestamp or have invalid values
+         */
+        public boolean next() throws IOException {
+            current = merger.next();
+            return current != null;
+        }
+
+        /**
+         * {@return the timestamp of the current record} (the first column)
+         */
+        public long getTimestamp() {
+            return current.timestamp;
+        }
+
+        /**
+         * {@return the value of a LONG column in the current record} or {@link ColumnarTraceFile#MISSING}
+         * @param column the column index
+         */
+        public long getLong(final int column) {
+            return current.shard.getLong(current.line, column);
+        }
+
+        /**
+         * {@return the value of an INT column in the current record} or {@link ColumnarTraceFile#MISSING}
+         * @param column the column index
+         */
+        public int getInt(final int column) {
+            return (int) current.shard.getLong(current.line, column);
+        }
+
+        /**
+         * {@return the value of a DOUBLE column in the current record} or {@link Double#NaN} if missing
+         * @param column the column index
+         */
+        public double getDouble(final int column) {
+            return current.shard.getDouble(current.line, column);
+        }
+
+        /**
+         * {@return the value of a STRING column in the current record} or null if missing
+         * @param column the column index
+         */
+        public String getString(final int column) {
+            return current.shard.getString(current.line, column);
+        }
+
+        public GoogleTraceTable getTable() {
+            return table;
+        }
+
+        /**
+         * Stops reading parts and closes them.
+         */
+        @Override
+        public void close() throws IOException {
+            merger.close();
+        }
+    }
+
+    /**
+     * An InputStream that gives the lines of multiple parts in the order they are merged.
+     */
+    private static final class MergedInputStream extends InputStream {
+        private final ShardMerger merger;
+
+        /**
+         * The cursor whose current line is being read or null to get the next line from the merger.
+         */
+        private ShardCursor current;
+        private int pos;
+        private int end;
+
+        /**
+         * Indicates a line break must be added after the current line,
+         * since it's the last one in a part and has no line break.
+         */
+        private boolean lineBreakPending;
+
+        MergedInputStream(final ShardMerger merger) {
+            this.merger = merger;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final var single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+
+            int count = 0;
+            while (count < length && nextLineIfRequired()) {
+                if (pos == end) {
+                    buffer[offset + count++] = '\n';
+                    lineBreakPending = false;
+                    continue;
+                }
+
+                final byte[] data = current.shard.getData();
+                final int bytes = Math.min(length - count, end - pos);
+                System.arraycopy(data, pos, buffer, offset + count, bytes);
+                pos += bytes;
+                count += bytes;
+                lineBreakPending = pos == end && data[end - 1] != '\n';
+            }
+
+            return count == 0 ? -1 : count;
+        }
+
+        /**
+         * Moves to the next line in timestamp order when the current one was entirely read.
+         * @return true if there is a line to read, false if all lines were read
+         */
+        private boolean nextLineIfRequired() throws IOException {
+            if (current != null && (pos < end || lineBreakPending)) {
+                return true;
+            }
+
+            current = merger.next();
+            if (current == null) {
+                return false;
+            }
+
+            pos = current.shard.getLineStart(current.line);
+            end = current.shard.getLineEnd(current.line);
+            return true;
+        }
+
+        /**
+         * Stops reading parts and closes them.
+         */
+        @Override
+        public void close() throws IOException {
+            merger.close();
+        }
+    }
+
+    /**
+     * Lazily merges the lines of multiple parts in timestamp order, using a heap with the next line of each part.
+     * Blocks of lines are read (and parsed, if columns are given) from parts by a bounded pool,
+     * one block ahead of the merge for each part.
+     */
+    private static final class ShardMerger implements Closeable {
+        private final ExecutorService executor;
+        private final List<ShardCursor> cursors;
+        private final PriorityQueue<ShardCursor> heap;
+        private boolean started;
+
+        /**
+         * The cursor of the last merged line, which is added back to the heap when the next line is requested.
+         */
+        private ShardCursor current;
+
+        ShardMerger(final List<Path> parts, final List<Column> columns, final int threads) {
+            this.executor = newExecutor(threads);
+            this.cursors = new ArrayList<>(parts.size());
+            for (int i = 0; i < parts.size(); i++) {
+                cursors.add(new ShardCursor(new GoogleTraceShard.Reader(parts.get(i), columns), i, executor));
+            }
+
+            this.heap = new PriorityQueue<>(Math.max(1, parts.size()));
+        }
+
+        /**
+         * Moves to the next line in timestamp order.
+         * @return the cursor positioned at the next line or null if all lines were merged
+         */
+        ShardCursor next() throws IOException {
+            if (!started) {
+                started = true;
+                for (final var cursor : cursors) {
+                    addIfNotFinished(cursor);
+                }
+            } else if (current != null) {
+                addIfNotFinished(current);
+            }
+
+            current = heap.poll();
+            if (current == null) {
+                executor.shutdown();
+            }
+
+            return current;
+        }
+
+        private void addIfNotFinished(final ShardCursor cursor) throws IOException {
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            for (final var cursor : cursors) {
+                cursor.reader.close();
+            }
+        }
+    }
+
+    /**
+     * The position of the next line to merge from a part.
+     */
+    private static final class ShardCursor implements Comparable<ShardCursor> {
+        private final GoogleTraceShard.Reader reader;
+        private final int partIndex;
+        private final ExecutorService executor;
+
+        /**
+         * The block being read ahead from the part, which will be merged after the current one.
+         */
+        private Future<GoogleTraceShard> nextShard;
+        private GoogleTraceShard shard;
+        private int line;
+        private long timestamp;
+
+        ShardCursor(final GoogleTraceShard.Reader reader, final int partIndex, final ExecutorService executor) {
+            this.reader = reader;
+            this.partIndex = partIndex;
+            this.executor = executor;
+            this.nextShard = executor.submit(reader::next);
+        }
+
+        /**
+         * Moves to the next line, waiting for the next block of the part when the current one was entirely merged.
+         * @return true if there is a next line, false if the part was entirely merged
+         */
+        boolean advance() throws IOException {
+            if (shard != null && ++line < shard.size()) {
+                timestamp = shard.getTimestamp(line);
+                return true;
+            }
+
+            shard = await(nextShard, reader.getPath());
+            if (shard == null) {
+                return false;
+            }
+
+            nextShard = executor.submit(reader::next);
+            line = 0;
+            timestamp = shard.getTimestamp(0);
+            return true;
+        }
+
+        @Override
+        public int compareTo(final ShardCursor other) {
+            final int result = Long.compare(timestamp, other.timestamp);
+            return result == 0 ? Integer.compare(partIndex, other.partIndex) : result;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.synthetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * A stochastic process defining the arrival time of jobs, one after the other.
+ * Processes can be combined by {@link #superpose(ArrivalProcess...) superposition}.
+ * Some processes keep an internal state (such as the current phase of a
+ * {@link MmppArrivalProcess}), so each instance must be used by a single {@link SyntheticWorkload}.
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public interface ArrivalProcess {
+    /**
+     * Gets the time of the next arrival.
+     * @param time the time of the previous arrival (or the start time for the first one)
+     * @param random the random number generator to use
+     * @return the time of the next arrival (in seconds), which is at least the given time,
+     *         or {@link Double#POSITIVE_INFINITY} if there are no more arrivals
+     */
+    double next(double time, SplittableRandom random);
+
+    /**
+     * Resets the internal state of the process (if any), so that it can generate arrivals from the beginning.
+     */
+    default void reset() {/**/}
+
+    /**
+     * Creates a homogeneous Poisson process, where the time between arrivals is exponentially distributed.
+     * @param rate the mean number of arrivals per second
+     * @return the new process
+     */
+    static ArrivalProcess poisson(final double rate) {
+        return new DiurnalArrivalProcess(rate, 0, 1, 0);
+    }
+
+    /**
+     * Creates a process that merges the arrivals of multiple processes.
+     * The rate of the resulting process is the sum of their rates.
+     * @param processes the processes to merge
+     * @return the new process
+     */
+    static ArrivalProcess superpose(final ArrivalProcess... processes) {
+        return new SuperposedArrivalProcess(processes);
+    }
+}
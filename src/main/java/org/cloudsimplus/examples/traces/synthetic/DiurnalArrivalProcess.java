@@ -0,0 +1,104 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.synthetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * A non-homogeneous Poisson process whose rate follows a sinusoid,
+ * representing the daily cycle of load in a datacenter:
+ * {@code rate(t) = meanRate * (1 + amplitude * sin(2 * PI * t / period + phase))}.
+ * With zero amplitude, it's a homogeneous Poisson process.
+ *
+ * <p>Arrivals are generated by thinning: candidates are generated at the maximum rate
+ * and each one is accepted with probability {@code rate(t) / maxRate}.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class DiurnalArrivalProcess implements ArrivalProcess {
+    /**
+     * The number of seconds in a day, which is the usual period of the rate.
+     */
+    public static final double DAY = 86_400;
+
+    private final double meanRate;
+    private final double amplitude;
+    private final double period;
+    private final double phase;
+    private final double maxRate;
+
+    /**
+     * Creates a process with a period of one {@link #DAY}, whose rate peaks at noon.
+     * @param meanRate the mean number of arrivals per second
+     * @param amplitude the relative amplitude of the rate variation, from 0 (constant rate) to 1
+     */
+    public DiurnalArrivalProcess(final double meanRate, final double amplitude) {
+        this(meanRate, amplitude, DAY, -Math.PI / 2);
+    }
+
+    /**
+     * Creates a process.
+     * @param meanRate the mean number of arrivals per second
+     * @param amplitude the relative amplitude of the rate variation, from 0 (constant rate) to 1
+     * @param period the period of the rate variation (in seconds)
+     * @param phase the phase of the sinusoid at time zero (in radians)
+     */
+    public DiurnalArrivalProcess(final double meanRate, final double amplitude, final double period, final double phase) {
+        if (meanRate < 0 || amplitude < 0 || amplitude > 1 || period <= 0) {
+            throw new IllegalArgumentException("Invalid diurnal process parameters");
+        }
+
+        this.meanRate = meanRate;
+        this.amplitude = amplitude;
+        this.period = period;
+        this.phase = phase;
+        this.maxRate = meanRate * (1 + amplitude);
+    }
+
+    @Override
+    public double next(final double time, final SplittableRandom random) {
+        if (maxRate == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double candidate = time;
+        do {
+            candidate += random.nextExponential() / maxRate;
+        } while (amplitude > 0 && random.nextDouble() * maxRate > getRate(candidate));
+
+        return candidate;
+    }
+
+    /**
+     * {@return the arrival rate at a given time}
+     * @param time the time to get the rate (in seconds)
+     */
+    public double getRate(final double time) {
+        return meanRate * (1 + amplitude * Math.sin(2 * Math.PI * time / period + phase));
+    }
+
+    public double getMeanRate() {
+        return meanRate;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.synthetic;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A Markov-modulated Poisson process (MMPP), which represents bursty arrivals.
+ * The process switches among states (such as a normal and a burst state),
+ * each one having its own arrival rate. The time spent in a state is exponentially distributed
+ * and, when it ends, the process moves to another state chosen uniformly at random.
+ * The process starts at the first state.
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class MmppArrivalProcess implements ArrivalProcess {
+    private final double[] rates;
+    private final double[] meanDurations;
+
+    /**
+     * Indicates if no state has a positive rate, so that there are no arrivals at all.
+     */
+    private final boolean noArrivals;
+    private int state;
+
+    /**
+     * The time when the current state ends, or NaN if the process didn't start yet.
+     */
+    private double stateEndTime = Double.NaN;
+
+    /**
+     * Creates a two-state process, alternating between a normal and a burst state.
+     * @param normalRate the arrival rate (per second) in the normal state
+     * @param normalDuration the mean time (in seconds) in the normal state
+     * @param burstRate the arrival rate (per second) in the burst state
+     * @param burstDuration the mean time (in seconds) in the burst state
+     * @return the new process
+     */
+    public static MmppArrivalProcess ofBursts(
+        final double normalRate, final double normalDuration,
+        final double burstRate, final double burstDuration)
+    {
+        return new MmppArrivalProcess(new double[]{normalRate, burstRate}, new double[]{normalDuration, burstDuration});
+    }
+
+    /**
+     * Creates a process.
+     * @param rates the arrival rate (per second) in each state
+     * @param meanDurations the mean time (in seconds) in each state
+     */
+    public MmppArrivalProcess(final double[] rates, final double[] meanDurations) {
+        if (rates.length == 0 || rates.length != meanDurations.length) {
+            throw new IllegalArgumentException("Rates and durations must be given for at least one state");
+        }
+
+        if (Arrays.stream(rates).anyMatch(rate -> rate < 0) || Arrays.stream(meanDurations).anyMatch(duration -> duration <= 0)) {
+            throw new IllegalArgumentException("Rates cannot be negative and durations must be greater than 0");
+        }
+
+        this.rates = rates.clone();
+        this.meanDurations = meanDurations.clone();
+        this.noArrivals = Arrays.stream(rates).allMatch(rate -> rate == 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Since the time spent in each state and the time between arrivals are memoryless,
+     * when a state ends before the next arrival, the arrival is discarded and a new one
+     * is generated from the start of the next state.
+     */
+    @Override
+    public double next(final double time, final SplittableRandom random) {
+        //Otherwise, states would be switched forever looking for an arrival
+        if (noArrivals) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        if (Double.isNaN(stateEndTime)) {
+            stateEndTime = time + random.nextExponential() * meanDurations[state];
+        }
+
+        double current = time;
+        while (true) {
+            final double candidate = rates[state] == 0 ? Double.POSITIVE_INFINITY : current + random.nextExponential() / rates[state];
+            if (candidate < stateEndTime) {
+                return candidate;
+            }
+
+            current = stateEndTime;
+            if (rates.length > 1) {
+                state = (state + 1 + random.nextInt(rates.length - 1)) % rates.length;
+            }
+
+            stateEndTime = current + random.nextExponential() * meanDurations[state];
+        }
+    }
+
+    @Override
+    public void reset() {
+        state = 0;
+        stateEndTime = Double.NaN;
+    }
+
+    /**
+     * {@return the long-run mean arrival rate}, weighting the rate of each state by its mean duration
+     */
+    public double getMeanRate() {
+        double weightedRates = 0;
+        double totalDuration = 0;
+        for (int i = 0; i < rates.length; i++) {
+            weightedRates += rates[i] * meanDurations[i];
+            totalDuration += meanDurations[i];
+        }
+
+        return weightedRates / totalDuration;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.synthetic;
+
+import java.util.SplittableRandom;
+
+/**
+ * A probability distribution for the size of jobs (such as their length or number of PEs).
+ * Heavy-tailed distributions (such as {@link #boundedPareto(double, double, double) Pareto}
+ * and {@link #logNormal(double, double) log-normal}) are usually found in real workloads,
+ * where most jobs are small, but a few very large ones account for a large share of the load.
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+@FunctionalInterface
+public interface SizeDistribution {
+    /**
+     * Samples a size.
+     * @param random the random number generator to use
+     * @return the sampled size
+     */
+    double sample(SplittableRandom random);
+
+    /**
+     * {@return a distribution that always gives the same size}
+     * @param size the size
+     */
+    static SizeDistribution constant(final double size) {
+        return random -> size;
+    }
+
+    /**
+     * {@return a uniform distribution}
+     * @param min the minimum size (inclusive)
+     * @param max the maximum size (exclusive)
+     */
+    static SizeDistribution uniform(final double min, final double max) {
+        if (max <= min) {
+            throw new IllegalArgumentException("Max size must be greater than min size");
+        }
+
+        return random -> random.nextDouble(min, max);
+    }
+
+    /**
+     * {@return an exponential distribution}
+     * @param mean the mean size
+     */
+    static SizeDistribution exponential(final double mean) {
+        return random -> random.nextExponential() * mean;
+    }
+
+    /**
+     * {@return a log-normal distribution}, where the logarithm of the size is normally distributed
+     * @param mu the mean of the size logarithm
+     * @param sigma the standard deviation of the size logarithm
+     */
+    static SizeDistribution logNormal(final double mu, final double sigma) {
+        return random -> Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    /**
+     * {@return a Pareto distribution bounded to an interval}, sampled by the inverse of its cumulative distribution.
+     * @param alpha the shape (tail index), where smaller values give heavier tails
+     * @param min the minimum size
+     * @param max the maximum size
+     */
+    static SizeDistribution boundedPareto(final double alpha, final double min, final double max) {
+        if (alpha <= 0 || min <= 0 || max <= min) {
+            throw new IllegalArgumentException("Invalid bounded Pareto parameters");
+        }
+
+        final double ratio = Math.pow(min / max, alpha);
+        return random -> min / Math.pow(1 - random.nextDouble() * (1 - ratio), 1 / alpha);
+    }
+}
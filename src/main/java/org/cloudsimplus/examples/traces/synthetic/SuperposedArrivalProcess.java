@@ -0,0 +1,84 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.synthetic;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * An arrival process merging the arrivals of multiple processes,
+ * such as a diurnal background load and occasional bursts.
+ * It keeps the next arrival of each process, returning the earliest one.
+ *
+ * @since CloudSim Plus 8.5.1
+ * @see ArrivalProcess#superpose(ArrivalProcess...)
+ */
+public class SuperposedArrivalProcess implements ArrivalProcess {
+    private final ArrivalProcess[] processes;
+
+    /**
+     * The next arrival of each process, or NaN if it wasn't generated yet.
+     */
+    private final double[] nextArrivals;
+
+    /**
+     * Creates a process merging the arrivals of others.
+     * @param processes the processes to merge
+     */
+    public SuperposedArrivalProcess(final ArrivalProcess... processes) {
+        if (processes.length == 0) {
+            throw new IllegalArgumentException("At least one process must be given");
+        }
+
+        this.processes = processes.clone();
+        this.nextArrivals = new double[processes.length];
+        Arrays.fill(nextArrivals, Double.NaN);
+    }
+
+    @Override
+    public double next(final double time, final SplittableRandom random) {
+        int earliest = 0;
+        for (int i = 0; i < processes.length; i++) {
+            if (Double.isNaN(nextArrivals[i])) {
+                nextArrivals[i] = processes[i].next(time, random);
+            }
+
+            if (nextArrivals[i] < nextArrivals[earliest]) {
+                earliest = i;
+            }
+        }
+
+        final double arrival = nextArrivals[earliest];
+        nextArrivals[earliest] = Double.NaN;
+        return arrival;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(nextArrivals, Double.NaN);
+        for (final ArrivalProcess process : processes) {
+            process.reset();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2021 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.examples.traces.synthetic;
+
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.cloudlets.CloudletSimple;
+import org.cloudsimplus.examples.traces.StreamingWorkloadSource;
+import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generates a synthetic workload, creating Cloudlets which arrive according to an {@link ArrivalProcess}
+ * and have length and number of PEs given by {@link SizeDistribution}s.
+ * Cloudlets are created lazily by a {@link #stream() stream}, only when they are consumed,
+ * usually by a {@link StreamingWorkloadSource} that submits them as the simulation clock advances.
+ * That way, workloads of any size can be simulated without creating all Cloudlets in advance.
+ *
+ * <p>The workload is reproducible for a given seed. Arrivals and sizes are generated
+ * by independent random streams (split from the seed), so changing a size distribution
+ * doesn't change arrival times.</p>
+ *
+ * @since CloudSim Plus 8.5.1
+ */
+public class SyntheticWorkload {
+    /**
+     * A function to create a Cloudlet for each arrival.
+     */
+    @FunctionalInterface
+    public interface CloudletFactory {
+        /**
+         * Creates a Cloudlet.
+         * @param id the Cloudlet ID, which is the arrival number
+         * @param length the Cloudlet length (in MI)
+         * @param pes the number of Cloudlet PEs
+         * @return the new Cloudlet
+         */
+        Cloudlet create(long id, long length, int pes);
+    }
+
+    private final ArrivalProcess arrivalProcess;
+    private final long seed;
+    private SizeDistribution length = SizeDistribution.constant(10_000);
+    private SizeDistribution pes = SizeDistribution.constant(1);
+    private CloudletFactory cloudletFactory =
+        (id, cloudletLength, cloudletPes) ->
+            new CloudletSimple(id, cloudletLength, cloudletPes).setUtilizationModel(new UtilizationModelFull());
+    private long maxArrivals = Long.MAX_VALUE;
+    private double endTime = Double.POSITIVE_INFINITY;
+
+    /**
+     * Creates a workload generator.
+     * @param arrivalProcess the process defining the arrival times
+     * @param seed the seed for the random number generators
+     */
+    public SyntheticWorkload(final ArrivalProcess arrivalProcess, final long seed) {
+        this.arrivalProcess = requireNonNull(arrivalProcess);
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a lazy stream of Cloudlets, in arrival order, whose submission delay is the arrival time.
+     * Every stream created gives the same Cloudlets (but new instances).
+     * @return a sequential and ordered stream, which is infinite if neither the
+     *         {@link #setMaxArrivals(long) maximum arrivals} nor the {@link #setEndTime(double) end time} are set
+     *         (unless the arrival process has no more arrivals)
+     */
+    public Stream<Cloudlet> stream() {
+        arrivalProcess.reset();
+        final var root = new SplittableRandom(seed);
+        final var arrivalRandom = root.split();
+        final var sizeRandom = root.split();
+        final var spliterator = new Spliterators.AbstractSpliterator<Cloudlet>(maxArrivals, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long arrivals;
+            private double time;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super Cloudlet> action) {
+                if (arrivals == maxArrivals) {
+                    return false;
+                }
+
+                time = arrivalProcess.next(time, arrivalRandom);
+                if (time == Double.POSITIVE_INFINITY || time > endTime) {
+                    return false;
+                }
+
+                final long cloudletLength = Math.max(1, Math.round(length.sample(sizeRandom)));
+                final int cloudletPes = (int) Math.max(1, Math.round(pes.sample(sizeRandom)));
+                final Cloudlet cloudlet = cloudletFactory.create(arrivals++, cloudletLength, cloudletPes);
+                cloudlet.setSubmissionDelay(time);
+                action.accept(cloudlet);
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Sets the distribution of Cloudlet length.
+     * @param length the length distribution (in MI)
+     * @return this generator
+     */
+    public SyntheticWorkload setLength(final SizeDistribution length) {
+        this.length = requireNonNull(length);
+        return this;
+    }
+
+    /**
+     * Sets the distribution of the number of Cloudlet PEs.
+     * @param pes the PEs distribution
+     * @return this generator
+     */
+    public SyntheticWorkload setPes(final SizeDistribution pes) {
+        this.pes = requireNonNull(pes);
+        return this;
+    }
+
+    /**
+     * Sets the function to create Cloudlets.
+     * By default, it creates a {@link CloudletSimple} with a {@link UtilizationModelFull}.
+     * @param cloudletFactory the function to create each Cloudlet
+     * @return this generator
+     */
+    public SyntheticWorkload setCloudletFactory(final CloudletFactory cloudletFactory) {
+        this.cloudletFactory = requireNonNull(cloudletFactory);
+        return this;
+    }
+
+    public long getMaxArrivals() {
+        return maxArrivals;
+    }
+
+    /**
+     * Sets the maximum number of Cloudlets to generate.
+     * @param maxArrivals the maximum number of arrivals
+     * @return this generator
+     */
+    public SyntheticWorkload setMaxArrivals(final long maxArrivals) {
+        if (maxArrivals < 0) {
+            throw new IllegalArgumentException("Max arrivals cannot be negative");
+        }
+
+        this.maxArrivals = maxArrivals;
+        return this;
+    }
+
+    public double getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Sets the time after which no more Cloudlets arrive.
+     * @param endTime the end time (in seconds)
+     * @return this generator
+     */
+    public SyntheticWorkload setEndTime(final double endTime) {
+        this.endTime = endTime;
+        return this;
+    }
+}
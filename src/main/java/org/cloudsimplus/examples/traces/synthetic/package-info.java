@@ -0,0 +1,7 @@
+/**
+ * Classes to generate synthetic workloads, whose Cloudlets arrive according to
+ * composable stochastic {@link org.cloudsimplus.examples.traces.synthetic.ArrivalProcess arrival processes}
+ * and have sizes following possibly heavy-tailed {@link org.cloudsimplus.examples.traces.synthetic.SizeDistribution distributions}.
+ * Such workloads are generated lazily, so they can replace trace files of any size.
+ */
+package org.cloudsimplus.examples.traces.synthetic;